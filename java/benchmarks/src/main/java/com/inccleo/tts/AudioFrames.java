@@ -0,0 +1,32 @@
+package com.inccleo.tts;
+
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * 构造基准测试用的服务端音频消息
+ */
+final class AudioFrames {
+    /** pcm_16000：16kHz、16 位、单声道，每毫秒 32 字节 */
+    static final int PCM_16000_BYTES_PER_MILLI = 32;
+
+    private AudioFrames() {
+    }
+
+    /**
+     * 生成指定时长的随机 PCM 数据的 Base64 编码
+     */
+    static String pcmBase64(int millis) {
+        byte[] audio = new byte[millis * PCM_16000_BYTES_PER_MILLI];
+        new Random(millis).nextBytes(audio);
+        return Base64.getEncoder().encodeToString(audio);
+    }
+
+    /**
+     * 生成一条与服务端格式一致的音频消息
+     */
+    static String message(String contextId, String audioBase64, boolean isFinal) {
+        return "{\"audio\":\"" + audioBase64 + "\",\"context_id\":\"" + contextId +
+               "\",\"is_final\":" + isFinal + "}";
+    }
+}
@@ -0,0 +1,63 @@
+package com.inccleo.tts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 音频 Base64 解码：原始消息区间直接解码、JDK 解码器基线，以及 TTSContext.handleAudio 整体开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64DecodeBenchmark {
+
+    @Param({"20", "100", "500"})
+    public int frameMillis;
+
+    private String message;
+    private int audioStart;
+    private int audioEnd;
+    private TTSContext context;
+
+    @Setup
+    public void setUp() {
+        message = AudioFrames.message("bench", AudioFrames.pcmBase64(frameMillis), false);
+        audioStart = message.indexOf("\"audio\":\"") + 9;
+        audioEnd = message.indexOf('"', audioStart);
+
+        TTSClient client = new TTSClient("ws://localhost", "key", "voice");
+        client.setDefaultAudioRetention(AudioRetention.none());
+        context = new TTSContext("bench", client);
+    }
+
+    @Benchmark
+    public byte[] sliceDecode() {
+        return Base64Slice.decode(message, audioStart, audioEnd);
+    }
+
+    @Benchmark
+    public byte[] jdkDecode() {
+        return Base64.getDecoder().decode(message.substring(audioStart, audioEnd));
+    }
+
+    @Benchmark
+    public long handleAudio() {
+        context.handleAudio(null, message, audioStart, audioEnd, false);
+        return context.getRetainedAudioBytes();
+    }
+}
@@ -0,0 +1,60 @@
+package com.inccleo.tts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端音频消息处理：解析、解码并分发到上下文回调
+ * 帧大小覆盖 20ms 到 500ms 的 pcm_16000 音频
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandleMessageBenchmark {
+
+    @Param({"20", "100", "500"})
+    public int frameMillis;
+
+    private LoopbackServer server;
+    private TTSClient client;
+    private String message;
+    private long receivedBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new LoopbackServer(frameMillis, 1);
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        client.setDefaultAudioRetention(AudioRetention.none());
+        client.connect(null);
+        client.createContext("bench").onAudioData((audio, isFinal) -> receivedBytes += audio.remaining());
+        message = AudioFrames.message("bench", AudioFrames.pcmBase64(frameMillis), false);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.stop(1000);
+    }
+
+    @Benchmark
+    public long handleMessage() {
+        // 连接空闲，读线程不会并发调用 handleMessage
+        client.handleMessage(message);
+        return receivedBytes;
+    }
+}
@@ -0,0 +1,57 @@
+package com.inccleo.tts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端回环：synthesize() 经进程内 WebSocket 服务端完成一次完整合成
+ * （建上下文、发送文本和 EOS、接收音频、关闭上下文）。
+ * 使用 {@code -prof gc} 运行可得到每次操作的分配字节数（gc.alloc.rate.norm）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoopbackBenchmark {
+
+    @Param({"1", "10"})
+    public int chunks;
+
+    @Param({"100"})
+    public int frameMillis;
+
+    private LoopbackServer server;
+    private TTSClient client;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new LoopbackServer(frameMillis, chunks);
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        client.connect(null);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.stop(1000);
+    }
+
+    @Benchmark
+    public SynthesisResult synthesize() {
+        return client.synthesize("今天天气很好，我们去公园散步吧。").join();
+    }
+}
@@ -0,0 +1,66 @@
+package com.inccleo.tts;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.json.JSONObject;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内回环服务端：收到 eos 后立即回复固定数量的音频帧，最后一帧带 is_final
+ */
+final class LoopbackServer extends WebSocketServer {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final String audioBase64;
+    private final int chunks;
+
+    LoopbackServer(int frameMillis, int chunks) {
+        super(new InetSocketAddress("127.0.0.1", 0));
+        setReuseAddr(true);
+        this.audioBase64 = AudioFrames.pcmBase64(frameMillis);
+        this.chunks = chunks;
+    }
+
+    /**
+     * 启动并等待端口就绪
+     */
+    String startAndGetUrl() throws InterruptedException {
+        start();
+        if (!started.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Loopback server did not start");
+        }
+        return "ws://127.0.0.1:" + getPort();
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        JSONObject data = new JSONObject(message);
+        if (!"eos".equals(data.getString("type"))) {
+            return;
+        }
+        String contextId = data.getString("context_id");
+        for (int i = 1; i <= chunks; i++) {
+            conn.send(AudioFrames.message(contextId, audioBase64, i == chunks));
+        }
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+    }
+
+    @Override
+    public void onStart() {
+        started.countDown();
+    }
+}
@@ -0,0 +1,103 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.audio.AudioPipeline;
+import com.inccleo.tts.audio.GainStage;
+import com.inccleo.tts.audio.G711;
+import com.inccleo.tts.audio.ResampleStage;
+import com.inccleo.tts.audio.SampleBuffer;
+import com.inccleo.tts.audio.StreamFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PCM 转码流水线吞吐：单独的重采样、G.711 编码、增益，以及 pcm_16000 到 ulaw_8000 的完整流水线。
+ * 用 -prof gc 运行可以确认稳定状态下每帧不分配内存。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PcmPipelineBenchmark {
+
+    @Param({"20", "100"})
+    public int frameMillis;
+
+    private ByteBuffer frame;
+    private short[] pcm;
+    private byte[] encoded;
+    private SampleBuffer samples;
+    private ResampleStage resampler;
+    private GainStage gain;
+    private AudioPipeline pipeline;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        int count = 16 * frameMillis;
+        pcm = new short[count];
+        byte[] bytes = new byte[count * 2];
+        for (int i = 0; i < count; i++) {
+            pcm[i] = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / 16000.0));
+            bytes[2 * i] = (byte) pcm[i];
+            bytes[2 * i + 1] = (byte) (pcm[i] >> 8);
+        }
+        frame = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        encoded = new byte[count];
+        samples = new SampleBuffer(16000, 1, count);
+        resampler = new ResampleStage(8000);
+        gain = new GainStage(-3);
+        pipeline = AudioPipeline.convert(StreamFormat.parse("pcm_16000"), StreamFormat.parse("ulaw_8000"),
+            (audio, isFinal) -> this.blackhole.consume(audio.get(0)), new GainStage(-3));
+    }
+
+    private void load() {
+        System.arraycopy(pcm, 0, samples.getSamples(), 0, pcm.length);
+        samples.setLength(pcm.length);
+        samples.setSampleRate(16000);
+    }
+
+    @Benchmark
+    public int resample16kTo8k() {
+        load();
+        resampler.process(samples, false);
+        return samples.getLength();
+    }
+
+    @Benchmark
+    public byte[] ulawEncode() {
+        for (int i = 0; i < pcm.length; i++) {
+            encoded[i] = G711.ulaw(pcm[i]);
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public int gain() {
+        load();
+        gain.process(samples, false);
+        return samples.getLength();
+    }
+
+    @Benchmark
+    public long pipeline() {
+        frame.rewind();
+        pipeline.onAudio(frame, false);
+        return pipeline.getOutputBytes();
+    }
+}
@@ -0,0 +1,82 @@
+package com.inccleo.tts;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发送路径：sendText 编码消息（不含网络写出），并以 JSONObject 序列化作为对照
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendTextBenchmark {
+
+    /**
+     * 只做编码，记录输出长度防止被优化掉
+     */
+    static final class SerializingClient extends TTSClient {
+        long serializedBytes;
+
+        SerializingClient() {
+            super("ws://localhost", "key", "voice");
+        }
+
+        @Override
+        void sendFrame(String contextId, ByteBuffer payload) {
+            serializedBytes += payload.remaining();
+        }
+    }
+
+    @Param({"16", "200"})
+    public int textChars;
+
+    private SerializingClient client;
+    private TTSContext context;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        client = new SerializingClient();
+        context = new TTSContext("bench", client);
+
+        StringBuilder sb = new StringBuilder(textChars);
+        String sample = "今天天气很好，我们去公园散步吧。\"Hello\", she said.\n";
+        while (sb.length() < textChars) {
+            sb.append(sample.charAt(sb.length() % sample.length()));
+        }
+        text = sb.toString();
+    }
+
+    @Benchmark
+    public long sendText() {
+        context.sendText(text, true);
+        return client.serializedBytes;
+    }
+
+    @Benchmark
+    public byte[] jsonObject() {
+        JSONObject message = new JSONObject();
+        message.put("type", "text");
+        message.put("context_id", "bench");
+        message.put("text", text);
+        message.put("flush", true);
+        return message.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.Transports;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 传输层对比：大量连接同时在线时，16 个线程轮流在各连接上发起 synthesize()，
+ * 统计端到端耗时分布。建立连接后打印客户端新增的线程数，
+ * java-websocket 每条连接三个线程（读、写、断线检测定时器），jdk-websocket 与连接数无关。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class TransportBenchmark {
+
+    @Param({"java-websocket", "jdk-websocket"})
+    public String transport;
+
+    @Param({"50", "200"})
+    public int connections;
+
+    private LoopbackServer server;
+    private final List<TTSClient> clients = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new LoopbackServer(20, 5);
+        // 避免服务端 Nagle 与延迟 ACK 叠加出的 40ms 停顿掩盖传输层本身的差异
+        server.setTcpNoDelay(true);
+        String url = server.startAndGetUrl();
+        Transport selected = "jdk-websocket".equals(transport)
+            ? Transports.jdkWebSocket(4)
+            : Transports.javaWebSocket();
+
+        int before = Thread.activeCount();
+        List<CompletableFuture<Void>> connects = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            TTSClient client = new TTSClient(url, "key", "voice");
+            client.setTransport(selected);
+            client.setDefaultAudioRetention(AudioRetention.none());
+            clients.add(client);
+            connects.add(client.connectAsync(null));
+        }
+        CompletableFuture.allOf(connects.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+        System.out.println();
+        System.out.println("# " + selected.getName() + ": " + connections + " connections, "
+                           + (Thread.activeCount() - before) + " new threads");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (TTSClient client : clients) {
+            client.disconnect();
+        }
+        server.stop(1000);
+    }
+
+    @Benchmark
+    public SynthesisResult synthesize() {
+        TTSClient client = clients.get(Math.floorMod(next.getAndIncrement(), clients.size()));
+        return client.synthesize("今天天气很好。").join();
+    }
+}
@@ -54,12 +54,11 @@ public class MultiContextExample {
 
                 // 设置回调
                 final String ctxId = contextId;
-                context.onAudio((audio, isFinal) -> {
-                    byte[] audioData = Base64.getDecoder().decode(audio);
+                context.onAudioData((audio, isFinal) -> {
                     int count = audioCountMap.get(ctxId).incrementAndGet();
-                    totalBytesMap.get(ctxId).addAndGet(audioData.length);
+                    totalBytesMap.get(ctxId).addAndGet(audio.remaining());
                     System.out.println("🎵 [" + ctxId + "] 收到音频块 #" + count + 
-                                     ": " + audioData.length + " 字节");
+                                     ": " + audio.remaining() + " 字节");
                 })
                 .onError((code, message) -> {
                     System.err.println("❌ [" + ctxId + "] 错误: " + code + " - " + message);
@@ -41,9 +41,8 @@ public class SimpleExample {
             CountDownLatch completeLatch = new CountDownLatch(1);
 
             // 4. 设置回调
-            context.onAudio((audio, isFinal) -> {
-                byte[] audioData = java.util.Base64.getDecoder().decode(audio);
-                System.out.println("🎵 收到音频: " + audioData.length + " 字节" + 
+            context.onAudioData((audio, isFinal) -> {
+                System.out.println("🎵 收到音频: " + audio.remaining() + " 字节" + 
                                  (isFinal ? " (最终帧)" : ""));
             })
             .onError((code, message) -> {
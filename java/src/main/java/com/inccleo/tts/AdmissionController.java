@@ -0,0 +1,305 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.HistogramSnapshot;
+import com.inccleo.tts.metrics.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上下文准入队列
+ * 槽位已满时，等待者按优先级排队：同一优先级内先到先得，交互式请求先于批量任务获得槽位；
+ * 为避免批量任务饿死，连续放行若干个交互式请求后，如有批量任务在等待，会放行一个批量任务。
+ * 槽位释放后立即交给下一个等待者，等待超时的请求以 ADMISSION_TIMEOUT 失败。
+ * 每个 {@link TTSClient} 持有一个实例，通过 {@link TTSClient#getAdmissionController()} 获取统计。
+ */
+public final class AdmissionController {
+    private static ScheduledThreadPoolExecutor timer;
+
+    private final ArrayDeque<Waiter> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> batch = new ArrayDeque<>();
+    private final LatencyHistogram interactiveWaits = new LatencyHistogram();
+    private final LatencyHistogram batchWaits = new LatencyHistogram();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile Options options = Options.defaults();
+
+    // 以下状态由 this 保护
+    private int interactiveStreak;
+    private int peakQueueLength;
+
+    AdmissionController() {
+    }
+
+    /**
+     * 排队中的等待者（内部使用）
+     */
+    abstract static class Waiter {
+        final Priority priority;
+        private long enqueuedNanos;
+        private ScheduledFuture<?> timeout;
+
+        Waiter(Priority priority) {
+            this.priority = priority == null ? Priority.INTERACTIVE : priority;
+        }
+
+        /**
+         * 等待超时，已从队列中移除
+         */
+        abstract void expire(long waitedMillis);
+
+        /**
+         * 调用方已放弃（例如取消了 Future），不再需要槽位
+         */
+        boolean isAbandoned() {
+            return false;
+        }
+    }
+
+    /**
+     * 设置排队参数
+     */
+    public void setOptions(Options options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Options must not be null");
+        }
+        this.options = options;
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    /**
+     * 无需等待直接获得槽位（内部使用），计入零等待时间
+     */
+    void admitImmediately(Priority priority) {
+        admitted.incrementAndGet();
+        histogram(priority).record(0);
+    }
+
+    /**
+     * 加入等待队列（内部使用）
+     *
+     * @param timeoutMillis 最长等待时间，Long.MAX_VALUE 表示不限时
+     * @return 队列已满时返回 false
+     */
+    boolean offer(Waiter waiter, long timeoutMillis) {
+        synchronized (this) {
+            if (interactive.size() + batch.size() >= options.maxQueueLength) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            waiter.enqueuedNanos = System.nanoTime();
+            queue(waiter.priority).addLast(waiter);
+            peakQueueLength = Math.max(peakQueueLength, interactive.size() + batch.size());
+            queued.incrementAndGet();
+            if (timeoutMillis != Long.MAX_VALUE) {
+                waiter.timeout = timer().schedule(() -> {
+                    if (remove(waiter)) {
+                        timedOut.incrementAndGet();
+                        waiter.expire(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waiter.enqueuedNanos));
+                    }
+                }, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取出下一个应获得槽位的等待者（内部使用），没有则返回 null
+     * 已放弃的等待者直接丢弃，不计入放行数和等待时间，也不影响批量任务的放行比例
+     */
+    synchronized Waiter poll() {
+        while (true) {
+            Waiter next;
+            boolean fromBatch;
+            int share = options.batchShare;
+            if (!batch.isEmpty() && (interactive.isEmpty() || (share > 0 && interactiveStreak >= share))) {
+                next = batch.pollFirst();
+                fromBatch = true;
+            } else {
+                next = interactive.pollFirst();
+                if (next == null) {
+                    return null;
+                }
+                fromBatch = false;
+            }
+
+            if (next.timeout != null) {
+                next.timeout.cancel(false);
+            }
+            if (next.isAbandoned()) {
+                continue;
+            }
+            interactiveStreak = fromBatch || batch.isEmpty() ? 0 : interactiveStreak + 1;
+            admitted.incrementAndGet();
+            histogram(next.priority).record(System.nanoTime() - next.enqueuedNanos);
+            return next;
+        }
+    }
+
+    /**
+     * 从队列中移除（内部使用，用于取消）
+     *
+     * @return 仍在队列中并已移除时返回 true
+     */
+    synchronized boolean remove(Waiter waiter) {
+        if (!queue(waiter.priority).remove(waiter)) {
+            return false;
+        }
+        if (waiter.timeout != null) {
+            waiter.timeout.cancel(false);
+        }
+        return true;
+    }
+
+    /**
+     * 清空队列（内部使用，连接断开时结束所有等待者）
+     */
+    synchronized List<Waiter> drain() {
+        List<Waiter> all = new ArrayList<>(interactive);
+        all.addAll(batch);
+        interactive.clear();
+        batch.clear();
+        for (Waiter waiter : all) {
+            if (waiter.timeout != null) {
+                waiter.timeout.cancel(false);
+            }
+        }
+        return all;
+    }
+
+    private ArrayDeque<Waiter> queue(Priority priority) {
+        return priority == Priority.BATCH ? batch : interactive;
+    }
+
+    private LatencyHistogram histogram(Priority priority) {
+        return priority == Priority.BATCH ? batchWaits : interactiveWaits;
+    }
+
+    private static synchronized ScheduledThreadPoolExecutor timer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "tts-admission-timeout");
+                t.setDaemon(true);
+                return t;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+        }
+        return timer;
+    }
+
+    /**
+     * 当前排队的请求数
+     */
+    public synchronized int getQueueLength() {
+        return interactive.size() + batch.size();
+    }
+
+    /**
+     * 指定优先级当前排队的请求数
+     */
+    public synchronized int getQueueLength(Priority priority) {
+        return queue(priority).size();
+    }
+
+    /**
+     * 历史最大排队长度
+     */
+    public synchronized int getPeakQueueLength() {
+        return peakQueueLength;
+    }
+
+    /**
+     * 获得槽位的请求总数（含无需等待的）
+     */
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    /**
+     * 曾经排队等待的请求总数
+     */
+    public long getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * 等待超时的请求数
+     */
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    /**
+     * 因队列已满被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * 指定优先级获得槽位前的等待时间分布（纳秒，无需等待的计为 0）
+     */
+    public HistogramSnapshot getWaitTimes(Priority priority) {
+        return histogram(priority).snapshot();
+    }
+
+    /**
+     * 排队参数（不可变，withXxx 返回新实例）
+     */
+    public static final class Options {
+        private static final Options DEFAULTS = new Options(Integer.MAX_VALUE, 4);
+
+        private final int maxQueueLength;
+        private final int batchShare;
+
+        private Options(int maxQueueLength, int batchShare) {
+            this.maxQueueLength = maxQueueLength;
+            this.batchShare = batchShare;
+        }
+
+        /**
+         * 默认参数：队列长度不限，每连续放行 4 个交互式请求至少放行 1 个批量任务
+         */
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * 最大排队长度，超出时新请求以 QUEUE_FULL 失败
+         */
+        public Options withMaxQueueLength(int maxQueueLength) {
+            if (maxQueueLength < 0) {
+                throw new IllegalArgumentException("Max queue length must be >= 0: " + maxQueueLength);
+            }
+            return new Options(maxQueueLength, batchShare);
+        }
+
+        /**
+         * 连续放行多少个交互式请求后让一个等待中的批量任务先行，0 表示严格按优先级
+         */
+        public Options withBatchShare(int batchShare) {
+            if (batchShare < 0) {
+                throw new IllegalArgumentException("Batch share must be >= 0: " + batchShare);
+            }
+            return new Options(maxQueueLength, batchShare);
+        }
+
+        public int getMaxQueueLength() {
+            return maxQueueLength;
+        }
+
+        public int getBatchShare() {
+            return batchShare;
+        }
+    }
+}
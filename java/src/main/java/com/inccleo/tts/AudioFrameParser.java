@@ -0,0 +1,239 @@
+package com.inccleo.tts;
+
+import java.util.Map;
+
+/**
+ * 音频帧单遍解析器（内部使用）
+ * 针对服务端下发的音频消息做一次线性扫描，直接取出 contextId、isFinal
+ * 以及 audio 字段在原始消息中的位置，不构建 JSONObject，也不复制音频字符串。
+ * 遇到无法识别的消息（错误消息、带转义的字段等）返回 false，由调用方走通用解析路径。
+ * 设置了 {@link Frame#targets} 时，读到 contextId 后立即查找目标上下文，找不到（已关闭或已打断）
+ * 则停止解析并标记为丢弃；服务端先写 context_id 时，音频字段不会被扫描。
+ */
+final class AudioFrameParser {
+
+    /**
+     * 解析结果，由读线程复用
+     */
+    static final class Frame {
+        /** 按线路上的 contextId 查找上下文，为 null 时不过滤 */
+        Map<String, TTSContext> targets;
+        String contextId;
+        TTSContext target;
+        boolean dropped;
+        int audioStart;
+        int audioEnd;
+        boolean isFinal;
+
+        void reset() {
+            contextId = null;
+            target = null;
+            dropped = false;
+            audioStart = -1;
+            audioEnd = -1;
+            isFinal = false;
+        }
+
+        boolean hasAudio() {
+            return audioStart >= 0;
+        }
+    }
+
+    private AudioFrameParser() {
+    }
+
+    /**
+     * 解析一条音频消息
+     *
+     * @param msg 原始 JSON 文本
+     * @param out 解析结果
+     * @return true 表示是可识别的音频帧或已丢弃（{@link Frame#dropped}）；false 表示需要回退到通用解析
+     */
+    static boolean parse(String msg, Frame out) {
+        out.reset();
+        int len = msg.length();
+        int i = skipWhitespace(msg, 0, len);
+        if (i >= len || msg.charAt(i) != '{') {
+            return false;
+        }
+        i = skipWhitespace(msg, i + 1, len);
+        if (i < len && msg.charAt(i) == '}') {
+            return false;
+        }
+
+        boolean snakeFinalSeen = false;
+        while (i < len) {
+            // 键
+            if (msg.charAt(i) != '"') {
+                return false;
+            }
+            int keyStart = i + 1;
+            int keyEnd = scanPlainString(msg, keyStart, len);
+            if (keyEnd < 0) {
+                return false;
+            }
+            i = skipWhitespace(msg, keyEnd + 1, len);
+            if (i >= len || msg.charAt(i) != ':') {
+                return false;
+            }
+            i = skipWhitespace(msg, i + 1, len);
+            if (i >= len) {
+                return false;
+            }
+
+            int keyLen = keyEnd - keyStart;
+            char c = msg.charAt(i);
+            if (isKey(msg, keyStart, keyLen, "audio")) {
+                if (c != '"') {
+                    return false;
+                }
+                int end = scanPlainString(msg, i + 1, len);
+                if (end < 0) {
+                    return false;
+                }
+                out.audioStart = i + 1;
+                out.audioEnd = end;
+                i = end + 1;
+            } else if (isKey(msg, keyStart, keyLen, "context_id") || isKey(msg, keyStart, keyLen, "contextId")) {
+                if (c != '"') {
+                    return false;
+                }
+                int end = scanPlainString(msg, i + 1, len);
+                if (end < 0) {
+                    return false;
+                }
+                // snake_case 优先，与通用路径保持一致
+                if (out.contextId == null || msg.charAt(keyStart + 7) == '_') {
+                    out.contextId = msg.substring(i + 1, end);
+                    if (out.targets != null) {
+                        out.target = out.targets.get(out.contextId);
+                        if (out.target == null) {
+                            out.dropped = true;
+                            return true;
+                        }
+                    }
+                }
+                i = end + 1;
+            } else if (isKey(msg, keyStart, keyLen, "is_final") || isKey(msg, keyStart, keyLen, "isFinal")) {
+                boolean snake = msg.charAt(keyStart + 2) == '_';
+                Boolean value;
+                if (msg.startsWith("true", i)) {
+                    value = Boolean.TRUE;
+                    i += 4;
+                } else if (msg.startsWith("false", i)) {
+                    value = Boolean.FALSE;
+                    i += 5;
+                } else if (msg.startsWith("null", i)) {
+                    value = null;
+                    i += 4;
+                } else {
+                    return false;
+                }
+                // is_final 优先于 isFinal，与通用路径保持一致
+                if (value != null && (snake || !snakeFinalSeen)) {
+                    out.isFinal = value;
+                    snakeFinalSeen |= snake;
+                }
+            } else if (isKey(msg, keyStart, keyLen, "error")) {
+                return false;
+            } else {
+                i = skipValue(msg, i, len);
+                if (i < 0) {
+                    return false;
+                }
+            }
+
+            i = skipWhitespace(msg, i, len);
+            if (i >= len) {
+                return false;
+            }
+            c = msg.charAt(i);
+            if (c == '}') {
+                return out.hasAudio() && skipWhitespace(msg, i + 1, len) == len;
+            }
+            if (c != ',') {
+                return false;
+            }
+            i = skipWhitespace(msg, i + 1, len);
+        }
+        return false;
+    }
+
+    private static boolean isKey(String msg, int keyStart, int keyLen, String key) {
+        return keyLen == key.length() && msg.startsWith(key, keyStart);
+    }
+
+    private static int skipWhitespace(String msg, int i, int len) {
+        while (i < len) {
+            char c = msg.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 扫描不含转义的字符串，返回结束引号位置；遇到转义或未闭合返回 -1
+     * 只扫描到结束引号为止，每个字符只读一次
+     */
+    private static int scanPlainString(String msg, int i, int len) {
+        for (; i < len; i++) {
+            char c = msg.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (c == '\\') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 跳过任意 JSON 值，返回值之后的位置；格式错误返回 -1
+     */
+    private static int skipValue(String msg, int i, int len) {
+        int depth = 0;
+        while (i < len) {
+            char c = msg.charAt(i);
+            if (c == '"') {
+                i++;
+                while (i < len) {
+                    char s = msg.charAt(i);
+                    if (s == '\\') {
+                        i += 2;
+                    } else if (s == '"') {
+                        break;
+                    } else {
+                        i++;
+                    }
+                }
+                if (i >= len) {
+                    return -1;
+                }
+                i++;
+                if (depth == 0) {
+                    return i;
+                }
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            } else if (depth == 0 && (c == ',' || c == ' ' || c == '\t' || c == '\n' || c == '\r')) {
+                return i;
+            }
+            i++;
+        }
+        return depth == 0 ? i : -1;
+    }
+}
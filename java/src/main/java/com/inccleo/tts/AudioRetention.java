@@ -0,0 +1,139 @@
+package com.inccleo.tts;
+
+/**
+ * 音频保留策略
+ * 决定上下文在内存中保留多少已接收的音频，以及超过高水位时的处理方式
+ *
+ * <pre>
+ * context.retainAudio(AudioRetention.ring(64 * 1024));
+ * context.retainAudio(AudioRetention.fullOffHeap()
+ *         .withHighWaterMark(32 * 1024 * 1024, AudioRetention.OverflowAction.BACKPRESSURE));
+ * </pre>
+ */
+public final class AudioRetention {
+
+    /**
+     * 保留模式
+     */
+    public enum Mode {
+        /** 不保留，音频只通过回调交付 */
+        NONE,
+        /** 只保留最近 N 字节 */
+        RING,
+        /** 保留全部音频 */
+        FULL
+    }
+
+    /**
+     * 超过高水位时的处理方式
+     */
+    public enum OverflowAction {
+        /** 触发 AUDIO_BUFFER_OVERFLOW 错误回调，并停止保留后续音频 */
+        ERROR,
+        /** 触发背压回调，音频继续保留，直到调用方取走或清空 */
+        BACKPRESSURE
+    }
+
+    private static final AudioRetention NONE = new AudioRetention(Mode.NONE, 0, false, 0, OverflowAction.ERROR);
+    private static final AudioRetention FULL = new AudioRetention(Mode.FULL, 0, false, 0, OverflowAction.ERROR);
+
+    private final Mode mode;
+    private final int ringBytes;
+    private final boolean offHeap;
+    private final long highWaterMark;
+    private final OverflowAction overflowAction;
+
+    private AudioRetention(Mode mode, int ringBytes, boolean offHeap,
+                           long highWaterMark, OverflowAction overflowAction) {
+        this.mode = mode;
+        this.ringBytes = ringBytes;
+        this.offHeap = offHeap;
+        this.highWaterMark = highWaterMark;
+        this.overflowAction = overflowAction;
+    }
+
+    /**
+     * 不保留音频
+     */
+    public static AudioRetention none() {
+        return NONE;
+    }
+
+    /**
+     * 只保留最近 maxBytes 字节的音频
+     */
+    public static AudioRetention ring(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Ring size must be positive: " + maxBytes);
+        }
+        return new AudioRetention(Mode.RING, maxBytes, false, 0, OverflowAction.ERROR);
+    }
+
+    /**
+     * 在堆内保留全部音频（默认）
+     */
+    public static AudioRetention full() {
+        return FULL;
+    }
+
+    /**
+     * 在堆外直接内存中保留全部音频
+     */
+    public static AudioRetention fullOffHeap() {
+        return new AudioRetention(Mode.FULL, 0, true, 0, OverflowAction.ERROR);
+    }
+
+    /**
+     * 设置高水位
+     *
+     * @param bytes 保留字节数上限
+     * @param action 超过上限时的处理方式
+     * @return 新的保留策略
+     */
+    public AudioRetention withHighWaterMark(long bytes, OverflowAction action) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("High-water mark must be positive: " + bytes);
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("Overflow action must not be null");
+        }
+        return new AudioRetention(mode, ringBytes, offHeap, bytes, action);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getRingBytes() {
+        return ringBytes;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * 高水位字节数，0 表示不限制
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public OverflowAction getOverflowAction() {
+        return overflowAction;
+    }
+
+    /**
+     * 按策略创建音频存储（内部使用）
+     */
+    AudioStore newStore() {
+        switch (mode) {
+            case NONE:
+                return new AudioStore.None();
+            case RING:
+                return new AudioStore.Ring(ringBytes);
+            default:
+                return offHeap ? new AudioStore.Direct() : new AudioStore.Heap();
+        }
+    }
+}
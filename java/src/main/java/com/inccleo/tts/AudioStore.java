@@ -0,0 +1,282 @@
+package com.inccleo.tts;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 上下文音频存储（内部使用）
+ * 各实现均为线程安全：读线程写入，调用方线程读取
+ */
+abstract class AudioStore {
+
+    /**
+     * 追加一块音频
+     */
+    abstract void add(byte[] chunk);
+
+    /**
+     * 复制出当前保留的全部音频块
+     */
+    abstract List<byte[]> chunks();
+
+    /**
+     * 取出当前保留的全部音频块并清空
+     */
+    abstract List<byte[]> drain();
+
+    /**
+     * 当前保留的字节数
+     */
+    abstract long size();
+
+    /**
+     * 清空已保留的音频
+     */
+    abstract void clear();
+
+    /**
+     * 当前保留的音频块数量，用于记录安全点；不支持回滚的实现返回 0
+     */
+    int chunkCount() {
+        return 0;
+    }
+
+    /**
+     * 回滚到只保留前 count 块，不支持回滚的实现忽略该调用
+     */
+    void truncate(int count) {
+    }
+
+    /**
+     * 不保留任何音频
+     */
+    static final class None extends AudioStore {
+        @Override
+        void add(byte[] chunk) {
+        }
+
+        @Override
+        List<byte[]> chunks() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        List<byte[]> drain() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        long size() {
+            return 0;
+        }
+
+        @Override
+        void clear() {
+        }
+    }
+
+    /**
+     * 堆内保留全部音频
+     */
+    static final class Heap extends AudioStore {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private long size;
+
+        @Override
+        synchronized void add(byte[] chunk) {
+            chunks.add(chunk);
+            size += chunk.length;
+        }
+
+        @Override
+        synchronized List<byte[]> chunks() {
+            return new ArrayList<>(chunks);
+        }
+
+        @Override
+        synchronized List<byte[]> drain() {
+            List<byte[]> result = new ArrayList<>(chunks);
+            clear();
+            return result;
+        }
+
+        @Override
+        synchronized long size() {
+            return size;
+        }
+
+        @Override
+        synchronized void clear() {
+            chunks.clear();
+            size = 0;
+        }
+
+        @Override
+        synchronized int chunkCount() {
+            return chunks.size();
+        }
+
+        @Override
+        synchronized void truncate(int count) {
+            while (chunks.size() > count) {
+                size -= chunks.remove(chunks.size() - 1).length;
+            }
+        }
+    }
+
+    /**
+     * 只保留最近 maxBytes 字节
+     */
+    static final class Ring extends AudioStore {
+        private final int maxBytes;
+        private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+        private long size;
+
+        Ring(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        synchronized void add(byte[] chunk) {
+            if (chunk.length >= maxBytes) {
+                chunks.clear();
+                byte[] tail = new byte[maxBytes];
+                System.arraycopy(chunk, chunk.length - maxBytes, tail, 0, maxBytes);
+                chunks.addLast(tail);
+                size = maxBytes;
+                return;
+            }
+
+            chunks.addLast(chunk);
+            size += chunk.length;
+            while (size - chunks.peekFirst().length >= maxBytes) {
+                size -= chunks.pollFirst().length;
+            }
+            if (size > maxBytes) {
+                // 截掉最旧块的头部，使保留量恰好为 maxBytes
+                byte[] head = chunks.pollFirst();
+                int drop = (int) (size - maxBytes);
+                byte[] trimmed = new byte[head.length - drop];
+                System.arraycopy(head, drop, trimmed, 0, trimmed.length);
+                chunks.addFirst(trimmed);
+                size = maxBytes;
+            }
+        }
+
+        @Override
+        synchronized List<byte[]> chunks() {
+            return new ArrayList<>(chunks);
+        }
+
+        @Override
+        synchronized List<byte[]> drain() {
+            List<byte[]> result = new ArrayList<>(chunks);
+            clear();
+            return result;
+        }
+
+        @Override
+        synchronized long size() {
+            return size;
+        }
+
+        @Override
+        synchronized void clear() {
+            chunks.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * 在堆外直接内存中保留全部音频
+     * 音频按块追加到固定大小的直接内存页中，只有读取时才复制回堆内
+     */
+    static final class Direct extends AudioStore {
+        private static final int PAGE_SIZE = 256 * 1024;
+
+        private final List<ByteBuffer> pages = new ArrayList<>();
+        private final List<long[]> index = new ArrayList<>();
+        private long size;
+
+        @Override
+        synchronized void add(byte[] chunk) {
+            long start = size;
+            int off = 0;
+            while (off < chunk.length) {
+                ByteBuffer page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+                if (page == null || !page.hasRemaining()) {
+                    page = ByteBuffer.allocateDirect(PAGE_SIZE);
+                    pages.add(page);
+                }
+                int n = Math.min(page.remaining(), chunk.length - off);
+                page.put(chunk, off, n);
+                off += n;
+            }
+            size += chunk.length;
+            index.add(new long[] {start, chunk.length});
+        }
+
+        @Override
+        synchronized List<byte[]> chunks() {
+            List<byte[]> result = new ArrayList<>(index.size());
+            for (long[] entry : index) {
+                byte[] chunk = new byte[(int) entry[1]];
+                long pos = entry[0];
+                int off = 0;
+                while (off < chunk.length) {
+                    ByteBuffer page = pages.get((int) (pos / PAGE_SIZE)).duplicate();
+                    page.position((int) (pos % PAGE_SIZE));
+                    int n = Math.min(page.remaining(), chunk.length - off);
+                    page.get(chunk, off, n);
+                    off += n;
+                    pos += n;
+                }
+                result.add(chunk);
+            }
+            return result;
+        }
+
+        @Override
+        synchronized List<byte[]> drain() {
+            List<byte[]> result = chunks();
+            clear();
+            return result;
+        }
+
+        @Override
+        synchronized long size() {
+            return size;
+        }
+
+        @Override
+        synchronized void clear() {
+            // 直接内存由 GC 在页对象不可达后回收
+            pages.clear();
+            index.clear();
+            size = 0;
+        }
+
+        @Override
+        synchronized int chunkCount() {
+            return index.size();
+        }
+
+        @Override
+        synchronized void truncate(int count) {
+            if (index.size() <= count) {
+                return;
+            }
+            size = index.get(count)[0];
+            index.subList(count, index.size()).clear();
+
+            int pageCount = (int) ((size + PAGE_SIZE - 1) / PAGE_SIZE);
+            pages.subList(pageCount, pages.size()).clear();
+            if (pageCount > 0) {
+                int used = (int) (size - (long) (pageCount - 1) * PAGE_SIZE);
+                pages.get(pageCount - 1).position(used);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inccleo.tts;
+
+/**
+ * Base64 片段解码器（内部使用）
+ * 直接对原始消息中的一段字符区间解码，避免先 substring 再解码带来的字符串复制。
+ * 行为与 {@link java.util.Base64#getDecoder()} 一致：标准字母表，填充可选，但带填充时必须是完整的 4 字符单元；
+ * 不合法的输入抛出 IllegalArgumentException。
+ */
+final class Base64Slice {
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE_TABLE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private Base64Slice() {
+    }
+
+    /**
+     * 计算解码后的字节数
+     *
+     * @throws IllegalArgumentException 长度或填充不合法时抛出
+     */
+    static int decodedLength(CharSequence src, int start, int end) {
+        int len = end - start;
+        if (len > 0 && src.charAt(end - 1) == '=') {
+            // 带填充时必须是完整的 4 字符单元（如 "QQ=" 不合法）
+            if ((len & 3) != 0) {
+                throw new IllegalArgumentException("Invalid base64 padding: " + len + " chars");
+            }
+            len--;
+            if (len > 0 && src.charAt(end - 2) == '=') {
+                len--;
+            }
+        }
+        int rem = len & 3;
+        if (rem == 1) {
+            throw new IllegalArgumentException("Invalid base64 length: " + (end - start));
+        }
+        return (len >> 2) * 3 + (rem == 0 ? 0 : rem - 1);
+    }
+
+    /**
+     * 解码 [start, end) 区间
+     */
+    static byte[] decode(CharSequence src, int start, int end) {
+        byte[] dst = new byte[decodedLength(src, start, end)];
+        decode(src, start, end, dst, 0);
+        return dst;
+    }
+
+    /**
+     * 解码 [start, end) 区间到目标数组
+     *
+     * @return 写入的字节数
+     * @throws IllegalArgumentException 含非法字符时抛出
+     */
+    static int decode(CharSequence src, int start, int end, byte[] dst, int off) {
+        int outLen = decodedLength(src, start, end);
+        int pos = off;
+        int i = start;
+        int fullEnd = start + (outLen / 3) * 4;
+
+        while (i < fullEnd) {
+            int bits = sextet(src, i) << 18 | sextet(src, i + 1) << 12
+                     | sextet(src, i + 2) << 6 | sextet(src, i + 3);
+            dst[pos++] = (byte) (bits >> 16);
+            dst[pos++] = (byte) (bits >> 8);
+            dst[pos++] = (byte) bits;
+            i += 4;
+        }
+
+        int tail = outLen % 3;
+        if (tail == 1) {
+            int bits = sextet(src, i) << 18 | sextet(src, i + 1) << 12;
+            dst[pos++] = (byte) (bits >> 16);
+        } else if (tail == 2) {
+            int bits = sextet(src, i) << 18 | sextet(src, i + 1) << 12 | sextet(src, i + 2) << 6;
+            dst[pos++] = (byte) (bits >> 16);
+            dst[pos++] = (byte) (bits >> 8);
+        }
+        return pos - off;
+    }
+
+    private static int sextet(CharSequence src, int i) {
+        char c = src.charAt(i);
+        int v = c < 128 ? DECODE_TABLE[c] : -1;
+        if (v < 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + Integer.toHexString(c));
+        }
+        return v;
+    }
+}
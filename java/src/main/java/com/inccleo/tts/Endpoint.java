@@ -0,0 +1,157 @@
+package com.inccleo.tts;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池中的一个服务端节点及其健康状态
+ * 首帧耗时和错误率由该节点上的上下文上报，按 {@link RoutingPolicy} 的系数做指数加权移动平均
+ *
+ * @see TTSConnectionPool#getEndpoints()
+ */
+public final class Endpoint {
+
+    /**
+     * 节点状态
+     */
+    public enum State {
+        /** 正常接收流量 */
+        HEALTHY,
+        /** 已摘除，到期前不分配新上下文 */
+        EJECTED,
+        /** 摘除到期，权重逐步恢复中 */
+        RECOVERING
+    }
+
+    private final String url;
+
+    // 以下状态均由 this 保护
+    private State state = State.HEALTHY;
+    private double latencyEwmaNanos = -1;
+    private int latencySamples;
+    private double errorRate;
+    private int outcomes;
+    private long ejectedUntilNanos;
+    private long recoveringSinceNanos;
+    private int consecutiveEjections;
+    private long ejectionCount;
+
+    Endpoint(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 节点的 WebSocket 基础 URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 首帧耗时的 EWMA（毫秒），尚无样本时返回 -1
+     */
+    public synchronized double getLatencyMillis() {
+        return latencyEwmaNanos < 0 ? -1 : latencyEwmaNanos / 1_000_000.0;
+    }
+
+    /**
+     * 错误率的 EWMA（0 到 1）
+     */
+    public synchronized double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * 被摘除的累计次数
+     */
+    public synchronized long getEjectionCount() {
+        return ejectionCount;
+    }
+
+    synchronized void recordLatency(long nanos, RoutingPolicy policy) {
+        if (latencyEwmaNanos < 0) {
+            latencyEwmaNanos = nanos;
+        } else {
+            latencyEwmaNanos += policy.getEwmaAlpha() * (nanos - latencyEwmaNanos);
+        }
+        latencySamples++;
+    }
+
+    synchronized void recordOutcome(boolean error, RoutingPolicy policy) {
+        errorRate += policy.getEwmaAlpha() * ((error ? 1 : 0) - errorRate);
+        outcomes++;
+    }
+
+    /**
+     * 按时间推进状态：摘除到期进入恢复期，恢复期结束回到正常
+     */
+    synchronized void refresh(long now, RoutingPolicy policy) {
+        if (state == State.EJECTED && now - ejectedUntilNanos >= 0) {
+            state = State.RECOVERING;
+            recoveringSinceNanos = now;
+            // 旧样本已不能代表节点现状，重新积累
+            latencyEwmaNanos = -1;
+            latencySamples = 0;
+            errorRate = 0;
+            outcomes = 0;
+        }
+        if (state == State.RECOVERING
+                && now - recoveringSinceNanos >= TimeUnit.MILLISECONDS.toNanos(policy.getRampMillis())) {
+            state = State.HEALTHY;
+            consecutiveEjections = 0;
+        }
+    }
+
+    synchronized boolean isAvailable() {
+        return state != State.EJECTED;
+    }
+
+    /**
+     * 错误率是否达到摘除阈值
+     */
+    synchronized boolean isFailing(RoutingPolicy policy) {
+        return outcomes >= policy.getMinSamples() && errorRate >= policy.getErrorRateThreshold();
+    }
+
+    /**
+     * 可用于比较的首帧耗时 EWMA（纳秒），样本不足时返回 -1
+     */
+    synchronized double settledLatency(RoutingPolicy policy) {
+        return latencySamples >= policy.getMinSamples() ? latencyEwmaNanos : -1;
+    }
+
+    synchronized double latencyNanos() {
+        return latencyEwmaNanos;
+    }
+
+    /**
+     * 路由权重：正常为 1，恢复期内从 0.1 线性增长到 1，摘除时为 0
+     */
+    synchronized double weight(long now, RoutingPolicy policy) {
+        switch (state) {
+            case EJECTED:
+                return 0;
+            case RECOVERING:
+                long ramp = TimeUnit.MILLISECONDS.toNanos(policy.getRampMillis());
+                return Math.max(0.1, Math.min(1.0, (double) (now - recoveringSinceNanos) / ramp));
+            default:
+                return 1;
+        }
+    }
+
+    synchronized void eject(long now, RoutingPolicy policy) {
+        consecutiveEjections++;
+        ejectionCount++;
+        state = State.EJECTED;
+        ejectedUntilNanos = now + TimeUnit.MILLISECONDS.toNanos(policy.ejectionMillis(consecutiveEjections));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Endpoint[%s, %s, latency=%.1fms, errors=%.2f]",
+                             url, state, getLatencyMillis(), errorRate);
+    }
+}
@@ -0,0 +1,89 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.MetricsRecorder;
+
+/**
+ * 把上下文的首帧耗时和成败记入所属节点，其余事件原样转发给连接池的指标采集器（内部使用）
+ */
+final class EndpointRecorder implements MetricsRecorder {
+    private final Endpoint endpoint;
+    private final EndpointRouter router;
+    private final MetricsRecorder delegate;
+
+    EndpointRecorder(Endpoint endpoint, EndpointRouter router, MetricsRecorder delegate) {
+        this.endpoint = endpoint;
+        this.router = router;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onConnect(long nanos) {
+        delegate.onConnect(nanos);
+    }
+
+    @Override
+    public void onReconnect(int attempts, long nanos) {
+        delegate.onReconnect(attempts, nanos);
+    }
+
+    @Override
+    public void onTimeToFirstAudio(String contextId, long nanos) {
+        endpoint.recordLatency(nanos, router.getPolicy());
+        delegate.onTimeToFirstAudio(contextId, nanos);
+    }
+
+    @Override
+    public void onChunkGap(String contextId, long nanos) {
+        delegate.onChunkGap(contextId, nanos);
+    }
+
+    @Override
+    public void onSynthesisComplete(String contextId, long nanos, long bytes, int chunks) {
+        endpoint.recordOutcome(false, router.getPolicy());
+        delegate.onSynthesisComplete(contextId, nanos, bytes, chunks);
+    }
+
+    @Override
+    public void onContextError(String contextId, String errorCode) {
+        // 保留音频超限是客户端取数过慢，与节点无关
+        if (!"AUDIO_BUFFER_OVERFLOW".equals(errorCode)) {
+            endpoint.recordOutcome(true, router.getPolicy());
+        }
+        delegate.onContextError(contextId, errorCode);
+    }
+
+    @Override
+    public void onCancel(String contextId, long nanos) {
+        delegate.onCancel(contextId, nanos);
+    }
+
+    @Override
+    public void onPingRtt(long nanos) {
+        delegate.onPingRtt(nanos);
+    }
+
+    @Override
+    public void onParse(long nanos) {
+        delegate.onParse(nanos);
+    }
+
+    @Override
+    public void onDecode(String contextId, long nanos) {
+        delegate.onDecode(contextId, nanos);
+    }
+
+    @Override
+    public void onSendQueueDepth(int depth) {
+        delegate.onSendQueueDepth(depth);
+    }
+
+    @Override
+    public void onCallbackQueueDepth(String contextId, int depth) {
+        delegate.onCallbackQueueDepth(contextId, depth);
+    }
+
+    @Override
+    public void onContextClosed(String contextId) {
+        delegate.onContextClosed(contextId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.inccleo.tts;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * 在多个服务端节点间选择（内部使用）
+ * 每次选择前按时间推进节点状态并执行摘除，再在可用节点中做 power of two choices
+ */
+final class EndpointRouter {
+    private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+
+    private final List<Endpoint> endpoints;
+    private volatile RoutingPolicy policy = RoutingPolicy.defaults();
+
+    EndpointRouter(List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        List<Endpoint> list = new ArrayList<>();
+        for (String url : urls) {
+            list.add(new Endpoint(url));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+    }
+
+    List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    RoutingPolicy getPolicy() {
+        return policy;
+    }
+
+    void setPolicy(RoutingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * 选择一个节点
+     *
+     * @param load 节点当前负载（活跃上下文 + 排队请求）
+     * @param exclude 本次不考虑的节点（例如刚连接失败）
+     * @return 选中的节点，全部被排除时返回 null
+     */
+    synchronized Endpoint choose(ToIntFunction<Endpoint> load, Collection<Endpoint> exclude) {
+        if (endpoints.size() == 1) {
+            return exclude.isEmpty() ? endpoints.get(0) : null;
+        }
+        long now = System.nanoTime();
+        RoutingPolicy p = policy;
+        for (Endpoint endpoint : endpoints) {
+            endpoint.refresh(now, p);
+        }
+        ejectOutliers(now, p);
+
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        double latencySum = 0;
+        int latencyCount = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable() && !exclude.contains(endpoint)) {
+                candidates.add(endpoint);
+                double latency = endpoint.latencyNanos();
+                if (latency >= 0) {
+                    latencySum += latency;
+                    latencyCount++;
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            // 可用节点都已排除时，退回被摘除的节点，总比没有好
+            for (Endpoint endpoint : endpoints) {
+                if (!exclude.contains(endpoint)) {
+                    return endpoint;
+                }
+            }
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        // 尚无样本的节点按平均耗时估计，保证新节点和恢复中的节点能获得试探流量
+        double unknown = latencyCount == 0 ? 1 : latencySum / latencyCount;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(candidates.size());
+        int j = random.nextInt(candidates.size() - 1);
+        if (j >= i) {
+            j++;
+        }
+        Endpoint a = candidates.get(i);
+        Endpoint b = candidates.get(j);
+        return cost(a, load, unknown, now, p) <= cost(b, load, unknown, now, p) ? a : b;
+    }
+
+    private static double cost(Endpoint endpoint, ToIntFunction<Endpoint> load, double unknown,
+                               long now, RoutingPolicy p) {
+        double latency = endpoint.latencyNanos();
+        if (latency < 0) {
+            latency = unknown;
+        }
+        return latency * (load.applyAsInt(endpoint) + 1) / endpoint.weight(now, p);
+    }
+
+    /**
+     * 摘除错误率过高或首帧耗时远超最快节点的节点，始终至少保留一个可用节点
+     */
+    private void ejectOutliers(long now, RoutingPolicy p) {
+        int available = 0;
+        double fastest = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable()) {
+                available++;
+                double latency = endpoint.settledLatency(p);
+                if (latency >= 0 && latency < fastest) {
+                    fastest = latency;
+                }
+            }
+        }
+        for (Endpoint endpoint : endpoints) {
+            if (available <= 1) {
+                return;
+            }
+            if (!endpoint.isAvailable()) {
+                continue;
+            }
+            double latency = endpoint.settledLatency(p);
+            boolean slow = p.getLatencyOutlierFactor() > 0 && latency >= 0
+                           && latency > fastest * p.getLatencyOutlierFactor();
+            if (endpoint.isFailing(p) || slow) {
+                endpoint.eject(now, p);
+                available--;
+                if (DEBUG) {
+                    System.out.println("[DEBUG] Endpoint ejected: " + endpoint);
+                }
+            }
+        }
+    }
+}
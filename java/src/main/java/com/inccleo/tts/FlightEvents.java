@@ -0,0 +1,85 @@
+package com.inccleo.tts;
+
+/**
+ * Java Flight Recorder 事件入口（内部使用）
+ * 事件类依赖 jdk.jfr，只通过反射加载 {@code JfrEvents}；运行环境没有 JFR 时退化为空实现。
+ * 未在录制或事件未启用时 {@link #begin(int)} 返回 null，调用方据此跳过提交，不分配事件对象。
+ *
+ * <pre>
+ * Object event = FlightEvents.INSTANCE.begin(FlightEvents.DECODE);
+ * ...
+ * if (event != null) {
+ *     FlightEvents.INSTANCE.commit(event, contextId, bytes);
+ * }
+ * </pre>
+ */
+abstract class FlightEvents {
+    private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+
+    /** WebSocket 连接：从发起到握手完成 */
+    static final int CONNECT = 0;
+    /** 发送一条消息 */
+    static final int SEND = 1;
+    /** 处理一条服务端消息：解析、解码并投递到回调通道 */
+    static final int RECEIVE = 2;
+    /** 单遍解析一条服务端消息 */
+    static final int PARSE = 3;
+    /** 解码一帧 Base64 音频 */
+    static final int DECODE = 4;
+    /** 在回调通道上执行一帧音频的用户回调 */
+    static final int CALLBACK = 5;
+
+    static final FlightEvents INSTANCE = load();
+
+    /**
+     * 开始计时一个事件
+     *
+     * @return 事件对象，未录制该事件时返回 null
+     */
+    abstract Object begin(int type);
+
+    /**
+     * 结束计时并提交事件
+     *
+     * @param event {@link #begin(int)} 返回的非 null 事件
+     * @param contextId 相关上下文，连接事件为 null
+     * @param bytes 负载大小（字节或字符数，见事件说明）
+     */
+    abstract void commit(Object event, String contextId, long bytes);
+
+    /**
+     * 当前运行环境是否支持 JFR 事件
+     */
+    abstract boolean isSupported();
+
+    private static FlightEvents load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (FlightEvents) Class.forName("com.inccleo.tts.JfrEvents").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            if (DEBUG) {
+                System.out.println("[DEBUG] Flight recorder events unavailable: " + e);
+            }
+            return new Disabled();
+        }
+    }
+
+    /**
+     * 没有 JFR 的运行环境（如早期 Java 8）
+     */
+    private static final class Disabled extends FlightEvents {
+        @Override
+        Object begin(int type) {
+            return null;
+        }
+
+        @Override
+        void commit(Object event, String contextId, long bytes) {
+        }
+
+        @Override
+        boolean isSupported() {
+            return false;
+        }
+    }
+}
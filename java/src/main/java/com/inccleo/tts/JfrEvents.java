@@ -0,0 +1,123 @@
+package com.inccleo.tts;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * 基于 jdk.jfr 的事件实现（内部使用，仅由 {@link FlightEvents} 反射加载）
+ * 每种事件保留一个探测实例：{@code isEnabled()} 只读取事件类的静态状态，
+ * 未录制时不创建事件对象。逐帧事件默认只记录超过 1ms 的慢调用，需要完整时间线时在录制配置中去掉阈值。
+ */
+final class JfrEvents extends FlightEvents {
+
+    @Category("TTS SDK")
+    abstract static class TTSEvent extends Event {
+        @Label("Context Id")
+        String contextId;
+
+        @Label("Payload")
+        long bytes;
+    }
+
+    @Name("com.inccleo.tts.Connect")
+    @Label("TTS Connect")
+    @Description("WebSocket connection from initiation to completed handshake")
+    static final class ConnectEvent extends TTSEvent {
+    }
+
+    @Name("com.inccleo.tts.Send")
+    @Threshold("1 ms")
+    @Label("TTS Send")
+    @Description("Sending one message; payload is the UTF-8 size in bytes")
+    static final class SendEvent extends TTSEvent {
+    }
+
+    @Name("com.inccleo.tts.Receive")
+    @Threshold("1 ms")
+    @Label("TTS Receive")
+    @Description("Handling one server message on the read thread; payload is the message length in chars")
+    static final class ReceiveEvent extends TTSEvent {
+    }
+
+    @Name("com.inccleo.tts.Parse")
+    @Threshold("1 ms")
+    @Label("TTS Parse")
+    @Description("Single-pass parsing of one server message; payload is the message length in chars")
+    static final class ParseEvent extends TTSEvent {
+    }
+
+    @Name("com.inccleo.tts.Decode")
+    @Threshold("1 ms")
+    @Label("TTS Decode")
+    @Description("Base64 decoding of one audio frame; payload is the decoded size in bytes")
+    static final class DecodeEvent extends TTSEvent {
+    }
+
+    @Name("com.inccleo.tts.Callback")
+    @Threshold("1 ms")
+    @Label("TTS Callback")
+    @Description("User callbacks for one audio frame on the callback lane; payload is the audio size in bytes")
+    static final class CallbackEvent extends TTSEvent {
+    }
+
+    private final TTSEvent[] probes = {
+        new ConnectEvent(), new SendEvent(), new ReceiveEvent(),
+        new ParseEvent(), new DecodeEvent(), new CallbackEvent()
+    };
+
+    JfrEvents() {
+        for (TTSEvent probe : probes) {
+            FlightRecorder.register(probe.getClass());
+        }
+    }
+
+    @Override
+    Object begin(int type) {
+        if (!probes[type].isEnabled()) {
+            return null;
+        }
+        TTSEvent event = create(type);
+        event.begin();
+        return event;
+    }
+
+    private static TTSEvent create(int type) {
+        switch (type) {
+            case CONNECT:
+                return new ConnectEvent();
+            case SEND:
+                return new SendEvent();
+            case RECEIVE:
+                return new ReceiveEvent();
+            case PARSE:
+                return new ParseEvent();
+            case DECODE:
+                return new DecodeEvent();
+            case CALLBACK:
+                return new CallbackEvent();
+            default:
+                throw new IllegalArgumentException("Unknown event type: " + type);
+        }
+    }
+
+    @Override
+    void commit(Object event, String contextId, long bytes) {
+        TTSEvent e = (TTSEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.contextId = contextId;
+            e.bytes = bytes;
+            e.commit();
+        }
+    }
+
+    @Override
+    boolean isSupported() {
+        return true;
+    }
+}
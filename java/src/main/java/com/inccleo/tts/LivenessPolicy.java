@@ -0,0 +1,98 @@
+package com.inccleo.tts;
+
+/**
+ * 连接存活检测策略
+ * 半开的 TCP 连接（对端已消失但没有 FIN/RST）可能长时间不触发 onClose，上下文会一直等待不会到来的音频。
+ * 启用心跳后客户端按固定间隔发送 WebSocket ping 并测量往返时间，连续 maxMissedPongs 次未收到 pong
+ * 即判定连接已死并主动断开：启用自动重连时按重连策略恢复，否则所有上下文以 CONNECTION_DEAD 报错。
+ * 从连接失效到报错最多约 interval × (maxMissedPongs + 1)。
+ * 音频超时是按上下文的看门狗：上下文发送 flush 文本或 EOS 后，超过指定时间没有收到任何音频
+ * （或两帧之间的间隔超过该时间）时，该上下文以 AUDIO_TIMEOUT 报错。
+ *
+ * <pre>
+ * client.setLivenessPolicy(LivenessPolicy.ping(5000, 2).withAudioTimeout(3000));
+ * </pre>
+ */
+public final class LivenessPolicy {
+    private static final LivenessPolicy DISABLED = new LivenessPolicy(0, 0, 0);
+
+    private final long pingIntervalMillis;
+    private final int maxMissedPongs;
+    private final long audioTimeoutMillis;
+
+    private LivenessPolicy(long pingIntervalMillis, int maxMissedPongs, long audioTimeoutMillis) {
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.maxMissedPongs = maxMissedPongs;
+        this.audioTimeoutMillis = audioTimeoutMillis;
+    }
+
+    /**
+     * 不做存活检测（默认）
+     */
+    public static LivenessPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * 定期心跳
+     *
+     * @param intervalMillis 发送 ping 的间隔（毫秒）
+     * @param maxMissedPongs 连续多少次未收到 pong 判定连接已死
+     */
+    public static LivenessPolicy ping(long intervalMillis, int maxMissedPongs) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Ping interval must be > 0: " + intervalMillis);
+        }
+        if (maxMissedPongs < 1) {
+            throw new IllegalArgumentException("Max missed pongs must be >= 1: " + maxMissedPongs);
+        }
+        return new LivenessPolicy(intervalMillis, maxMissedPongs, 0);
+    }
+
+    /**
+     * 设置音频超时（毫秒），0 表示不检测
+     */
+    public LivenessPolicy withAudioTimeout(long audioTimeoutMillis) {
+        if (audioTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Audio timeout must be >= 0: " + audioTimeoutMillis);
+        }
+        return new LivenessPolicy(pingIntervalMillis, maxMissedPongs, audioTimeoutMillis);
+    }
+
+    public boolean isPingEnabled() {
+        return pingIntervalMillis > 0;
+    }
+
+    public long getPingIntervalMillis() {
+        return pingIntervalMillis;
+    }
+
+    public int getMaxMissedPongs() {
+        return maxMissedPongs;
+    }
+
+    public long getAudioTimeoutMillis() {
+        return audioTimeoutMillis;
+    }
+
+    /**
+     * 是否需要运行检测任务
+     */
+    boolean isEnabled() {
+        return pingIntervalMillis > 0 || audioTimeoutMillis > 0;
+    }
+
+    /**
+     * 检测任务的执行周期：心跳间隔与音频超时 1/4 中较小者，至少 10 毫秒
+     */
+    long tickMillis() {
+        long tick = Long.MAX_VALUE;
+        if (pingIntervalMillis > 0) {
+            tick = pingIntervalMillis;
+        }
+        if (audioTimeoutMillis > 0) {
+            tick = Math.min(tick, audioTimeoutMillis / 4);
+        }
+        return Math.max(10, tick);
+    }
+}
@@ -0,0 +1,186 @@
+package com.inccleo.tts;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 出站消息编码器（内部使用）
+ * 直接把 text / eos / close 三种固定格式的消息编码为 UTF-8 字节，写入每线程复用的缓冲区，
+ * 不构建 JSONObject 和中间字符串。
+ *
+ * 输出与 {@code JSONObject.toString()} 再按 UTF-8 编码的结果逐字节一致：
+ * 键顺序与 JSONObject 内部 HashMap 的迭代顺序相同，字符串转义规则与 {@code JSONObject.quote} 相同，
+ * 孤立的代理字符按 UTF-8 编码器的默认行为替换为 '?'。
+ */
+final class MessageWriter {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TEXT_PREFIX = ascii("{\"flush\":");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] CONTEXT_ID_KEY = ascii(",\"context_id\":");
+    private static final byte[] TEXT_KEY = ascii(",\"text\":");
+    private static final byte[] TEXT_SUFFIX = ascii(",\"type\":\"text\"}");
+    private static final byte[] CONTEXT_ID_PREFIX = ascii("{\"context_id\":");
+    private static final byte[] EOS_SUFFIX = ascii(",\"type\":\"eos\"}");
+    private static final byte[] CLOSE_SUFFIX = ascii(",\"type\":\"close\"}");
+
+    private static final ThreadLocal<MessageWriter> WRITERS = ThreadLocal.withInitial(MessageWriter::new);
+
+    private byte[] buf = new byte[256];
+    private ByteBuffer view = ByteBuffer.wrap(buf);
+    private int pos;
+
+    private MessageWriter() {
+    }
+
+    /**
+     * 编码 text 消息
+     * 返回的缓冲区属于当前线程，在同一线程下一次编码前有效
+     */
+    static ByteBuffer text(String contextId, String text, boolean flush) {
+        MessageWriter w = WRITERS.get();
+        w.pos = 0;
+        w.raw(TEXT_PREFIX);
+        w.raw(flush ? TRUE : FALSE);
+        w.raw(CONTEXT_ID_KEY);
+        w.quote(contextId);
+        if (text != null) {
+            // JSONObject.put 传入 null 时会移除该键
+            w.raw(TEXT_KEY);
+            w.quote(text);
+        }
+        w.raw(TEXT_SUFFIX);
+        return w.flip();
+    }
+
+    /**
+     * 编码 eos 消息
+     */
+    static ByteBuffer eos(String contextId) {
+        return contextMessage(contextId, EOS_SUFFIX);
+    }
+
+    /**
+     * 编码 close 消息
+     */
+    static ByteBuffer close(String contextId) {
+        return contextMessage(contextId, CLOSE_SUFFIX);
+    }
+
+    private static ByteBuffer contextMessage(String contextId, byte[] suffix) {
+        MessageWriter w = WRITERS.get();
+        w.pos = 0;
+        w.raw(CONTEXT_ID_PREFIX);
+        w.quote(contextId);
+        w.raw(suffix);
+        return w.flip();
+    }
+
+    private ByteBuffer flip() {
+        view.clear();
+        view.limit(pos);
+        return view;
+    }
+
+    private void raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    /**
+     * 按 JSONObject.quote 的规则写入带引号的字符串
+     */
+    private void quote(String s) {
+        // 最坏情况：每个字符转义为 \\uXXXX（6 字节）
+        ensure(s.length() * 6 + 2);
+        byte[] b = buf;
+        int p = pos;
+        b[p++] = '"';
+        char prev = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c >= ' ' && c < 0x80 && c != '"' && c != '\\' && c != '/') {
+                b[p++] = (byte) c;
+            } else {
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        b[p++] = '\\';
+                        b[p++] = (byte) c;
+                        break;
+                    case '/':
+                        if (prev == '<') {
+                            b[p++] = '\\';
+                        }
+                        b[p++] = '/';
+                        break;
+                    case '\b':
+                        b[p++] = '\\';
+                        b[p++] = 'b';
+                        break;
+                    case '\t':
+                        b[p++] = '\\';
+                        b[p++] = 't';
+                        break;
+                    case '\n':
+                        b[p++] = '\\';
+                        b[p++] = 'n';
+                        break;
+                    case '\f':
+                        b[p++] = '\\';
+                        b[p++] = 'f';
+                        break;
+                    case '\r':
+                        b[p++] = '\\';
+                        b[p++] = 'r';
+                        break;
+                    default:
+                        if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                            b[p++] = '\\';
+                            b[p++] = 'u';
+                            b[p++] = HEX[(c >> 12) & 0xF];
+                            b[p++] = HEX[(c >> 8) & 0xF];
+                            b[p++] = HEX[(c >> 4) & 0xF];
+                            b[p++] = HEX[c & 0xF];
+                        } else if (c < 0x800) {
+                            b[p++] = (byte) (0xC0 | (c >> 6));
+                            b[p++] = (byte) (0x80 | (c & 0x3F));
+                        } else if (Character.isHighSurrogate(c) && i + 1 < len
+                                   && Character.isLowSurrogate(s.charAt(i + 1))) {
+                            int cp = Character.toCodePoint(c, s.charAt(++i));
+                            b[p++] = (byte) (0xF0 | (cp >> 18));
+                            b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                            b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                            b[p++] = (byte) (0x80 | (cp & 0x3F));
+                            // 低代理不是 '<'，记录为前一个字符即可
+                            c = s.charAt(i);
+                        } else if (Character.isSurrogate(c)) {
+                            b[p++] = '?';
+                        } else {
+                            b[p++] = (byte) (0xE0 | (c >> 12));
+                            b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                            b[p++] = (byte) (0x80 | (c & 0x3F));
+                        }
+                }
+            }
+            prev = c;
+        }
+        b[p++] = '"';
+        pos = p;
+    }
+
+    private void ensure(int extra) {
+        if (pos + extra > buf.length) {
+            byte[] grown = new byte[Math.max(buf.length * 2, pos + extra)];
+            System.arraycopy(buf, 0, grown, 0, pos);
+            buf = grown;
+            view = ByteBuffer.wrap(buf);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
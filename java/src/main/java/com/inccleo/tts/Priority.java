@@ -0,0 +1,13 @@
+package com.inccleo.tts;
+
+/**
+ * 等待上下文槽位时的优先级
+ *
+ * @see AdmissionController
+ */
+public enum Priority {
+    /** 交互式请求（用户正在等待播放），优先获得槽位 */
+    INTERACTIVE,
+    /** 批量任务（离线生成、预热缓存等），在交互式请求之后获得槽位 */
+    BATCH
+}
@@ -0,0 +1,137 @@
+package com.inccleo.tts;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 自动重连策略
+ * 采用带抖动的指数退避：第 n 次重连前等待
+ * min(initialDelay * multiplier^(n-1), maxDelay)，再随机缩减最多 jitter 比例
+ *
+ * <pre>
+ * client.setReconnectPolicy(ReconnectPolicy.exponential(200, 10_000).withMaxAttempts(10));
+ * </pre>
+ *
+ * 启用重连时，每个上下文保留自上次 is_final 以来发送的文本用于重放，保留量受
+ * {@link #withMaxReplayChars(int)} 限制：只发 flush 不发 EOS 的长流不会让内存无限增长，
+ * 超出部分丢弃最旧的文本，重连后只重放其余部分。
+ */
+public final class ReconnectPolicy {
+    static final int DEFAULT_MAX_REPLAY_CHARS = 64 * 1024;
+    private static final ReconnectPolicy DISABLED =
+        new ReconnectPolicy(false, 0, 0, 2.0, 0.5, 0, DEFAULT_MAX_REPLAY_CHARS);
+
+    private final boolean enabled;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final int maxAttempts;
+    private final int maxReplayChars;
+
+    private ReconnectPolicy(boolean enabled, long initialDelayMillis, long maxDelayMillis,
+                            double multiplier, double jitter, int maxAttempts, int maxReplayChars) {
+        this.enabled = enabled;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.maxAttempts = maxAttempts;
+        this.maxReplayChars = maxReplayChars;
+    }
+
+    /**
+     * 不自动重连（默认）
+     */
+    public static ReconnectPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * 指数退避重连，默认倍数 2、抖动 0.5、不限次数
+     *
+     * @param initialDelayMillis 首次重连前的等待时间（毫秒）
+     * @param maxDelayMillis 最大等待时间（毫秒）
+     */
+    public static ReconnectPolicy exponential(long initialDelayMillis, long maxDelayMillis) {
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid delays: initial=" + initialDelayMillis +
+                                               ", max=" + maxDelayMillis);
+        }
+        return new ReconnectPolicy(true, initialDelayMillis, maxDelayMillis, 2.0, 0.5, 0, DEFAULT_MAX_REPLAY_CHARS);
+    }
+
+    /**
+     * 设置退避倍数
+     */
+    public ReconnectPolicy withMultiplier(double multiplier) {
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Multiplier must be >= 1: " + multiplier);
+        }
+        return new ReconnectPolicy(enabled, initialDelayMillis, maxDelayMillis, multiplier, jitter, maxAttempts,
+                                   maxReplayChars);
+    }
+
+    /**
+     * 设置抖动比例（0 表示不抖动，1 表示在 [0, delay] 内均匀随机）
+     */
+    public ReconnectPolicy withJitter(double jitter) {
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be within [0, 1]: " + jitter);
+        }
+        return new ReconnectPolicy(enabled, initialDelayMillis, maxDelayMillis, multiplier, jitter, maxAttempts,
+                                   maxReplayChars);
+    }
+
+    /**
+     * 设置最大重连次数，0 表示不限次数
+     */
+    public ReconnectPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 0) {
+            throw new IllegalArgumentException("Max attempts must be >= 0: " + maxAttempts);
+        }
+        return new ReconnectPolicy(enabled, initialDelayMillis, maxDelayMillis, multiplier, jitter, maxAttempts,
+                                   maxReplayChars);
+    }
+
+    /**
+     * 设置每个上下文最多保留多少字符的未完成文本用于重放（默认 64K），超出时丢弃最旧的文本段
+     */
+    public ReconnectPolicy withMaxReplayChars(int chars) {
+        if (chars < 1) {
+            throw new IllegalArgumentException("Max replay chars must be >= 1: " + chars);
+        }
+        return new ReconnectPolicy(enabled, initialDelayMillis, maxDelayMillis, multiplier, jitter, maxAttempts,
+                                   chars);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public int getMaxReplayChars() {
+        return maxReplayChars;
+    }
+
+    /**
+     * 计算第 attempt 次（从 1 开始）重连前的等待时间
+     */
+    long delayMillis(int attempt) {
+        double delay = initialDelayMillis * Math.pow(multiplier, Math.max(0, attempt - 1));
+        delay = Math.min(delay, maxDelayMillis);
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) delay;
+    }
+
+    /**
+     * 是否还允许第 attempt 次重连
+     */
+    boolean allowsAttempt(int attempt) {
+        return enabled && (maxAttempts == 0 || attempt <= maxAttempts);
+    }
+}
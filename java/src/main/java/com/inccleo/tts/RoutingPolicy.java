@@ -0,0 +1,149 @@
+package com.inccleo.tts;
+
+/**
+ * 多服务端节点的路由策略
+ * 连接池为每个节点维护首帧耗时和错误率的指数加权移动平均（EWMA），新上下文随机抽取两个可用节点，
+ * 选择 首帧耗时 × (负载 + 1) / 权重 较小者（power of two choices）。
+ * 错误率超过阈值，或首帧耗时超过最快节点的指定倍数时，节点被摘除一段时间（连续摘除时加倍），
+ * 到期后权重在 ramp 时间内从 10% 线性恢复到 100%。始终至少保留一个可用节点。
+ *
+ * <pre>
+ * pool.setRoutingPolicy(RoutingPolicy.defaults().withErrorRateThreshold(0.3).withEjection(5000, 60_000));
+ * </pre>
+ */
+public final class RoutingPolicy {
+    private static final RoutingPolicy DEFAULTS = new RoutingPolicy(0.3, 0.5, 3.0, 5, 10_000, 300_000, 30_000);
+
+    private final double ewmaAlpha;
+    private final double errorRateThreshold;
+    private final double latencyOutlierFactor;
+    private final int minSamples;
+    private final long ejectionMillis;
+    private final long maxEjectionMillis;
+    private final long rampMillis;
+
+    private RoutingPolicy(double ewmaAlpha, double errorRateThreshold, double latencyOutlierFactor,
+                          int minSamples, long ejectionMillis, long maxEjectionMillis, long rampMillis) {
+        this.ewmaAlpha = ewmaAlpha;
+        this.errorRateThreshold = errorRateThreshold;
+        this.latencyOutlierFactor = latencyOutlierFactor;
+        this.minSamples = minSamples;
+        this.ejectionMillis = ejectionMillis;
+        this.maxEjectionMillis = maxEjectionMillis;
+        this.rampMillis = rampMillis;
+    }
+
+    /**
+     * 默认策略：EWMA 系数 0.3，错误率阈值 50%，首帧耗时超过最快节点 3 倍摘除，
+     * 至少 5 个样本才做判断，摘除 10 秒（最长 5 分钟），恢复期 30 秒
+     */
+    public static RoutingPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 设置 EWMA 系数（0, 1]，越大越偏重最近的样本
+     */
+    public RoutingPolicy withEwmaAlpha(double ewmaAlpha) {
+        if (ewmaAlpha <= 0 || ewmaAlpha > 1) {
+            throw new IllegalArgumentException("EWMA alpha must be within (0, 1]: " + ewmaAlpha);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    /**
+     * 设置摘除节点的错误率阈值（0, 1]
+     */
+    public RoutingPolicy withErrorRateThreshold(double errorRateThreshold) {
+        if (errorRateThreshold <= 0 || errorRateThreshold > 1) {
+            throw new IllegalArgumentException("Error rate threshold must be within (0, 1]: " + errorRateThreshold);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    /**
+     * 设置按首帧耗时摘除的倍数（相对最快的可用节点），0 表示不按耗时摘除
+     */
+    public RoutingPolicy withLatencyOutlierFactor(double latencyOutlierFactor) {
+        if (latencyOutlierFactor != 0 && latencyOutlierFactor <= 1) {
+            throw new IllegalArgumentException("Latency outlier factor must be 0 or > 1: " + latencyOutlierFactor);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    /**
+     * 设置判断摘除前至少需要的样本数
+     */
+    public RoutingPolicy withMinSamples(int minSamples) {
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("Min samples must be >= 1: " + minSamples);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    /**
+     * 设置摘除时长（毫秒）：首次摘除 ejectionMillis，恢复期内再次摘除时加倍，最长 maxEjectionMillis
+     */
+    public RoutingPolicy withEjection(long ejectionMillis, long maxEjectionMillis) {
+        if (ejectionMillis <= 0 || maxEjectionMillis < ejectionMillis) {
+            throw new IllegalArgumentException("Invalid ejection: base=" + ejectionMillis +
+                                               ", max=" + maxEjectionMillis);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    /**
+     * 设置摘除到期后权重恢复到 100% 所需的时间（毫秒），0 表示立即完全恢复
+     */
+    public RoutingPolicy withRampMillis(long rampMillis) {
+        if (rampMillis < 0) {
+            throw new IllegalArgumentException("Ramp must be >= 0: " + rampMillis);
+        }
+        return new RoutingPolicy(ewmaAlpha, errorRateThreshold, latencyOutlierFactor,
+                                 minSamples, ejectionMillis, maxEjectionMillis, rampMillis);
+    }
+
+    public double getEwmaAlpha() {
+        return ewmaAlpha;
+    }
+
+    public double getErrorRateThreshold() {
+        return errorRateThreshold;
+    }
+
+    public double getLatencyOutlierFactor() {
+        return latencyOutlierFactor;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public long getEjectionMillis() {
+        return ejectionMillis;
+    }
+
+    public long getMaxEjectionMillis() {
+        return maxEjectionMillis;
+    }
+
+    public long getRampMillis() {
+        return rampMillis;
+    }
+
+    /**
+     * 第 n 次连续摘除的时长（毫秒）
+     */
+    long ejectionMillis(int consecutive) {
+        long delay = ejectionMillis;
+        for (int i = 1; i < consecutive && delay < maxEjectionMillis; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxEjectionMillis);
+    }
+}
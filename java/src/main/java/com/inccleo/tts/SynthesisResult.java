@@ -0,0 +1,75 @@
+package com.inccleo.tts;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一次合成的结果
+ */
+public class SynthesisResult {
+    private final String contextId;
+    private final List<byte[]> audioChunks;
+    private final long byteCount;
+    private final long queuedNanos;
+    private final long elapsedNanos;
+
+    SynthesisResult(String contextId, List<byte[]> audioChunks, long queuedNanos, long elapsedNanos) {
+        this.contextId = contextId;
+        this.audioChunks = Collections.unmodifiableList(audioChunks);
+        long total = 0;
+        for (byte[] chunk : audioChunks) {
+            total += chunk.length;
+        }
+        this.byteCount = total;
+        this.queuedNanos = queuedNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * 获取本次合成使用的上下文 ID
+     */
+    public String getContextId() {
+        return contextId;
+    }
+
+    /**
+     * 获取按接收顺序排列的音频块
+     */
+    public List<byte[]> getAudioChunks() {
+        return audioChunks;
+    }
+
+    /**
+     * 获取拼接后的完整音频
+     */
+    public byte[] getAudio() {
+        byte[] audio = new byte[(int) byteCount];
+        int pos = 0;
+        for (byte[] chunk : audioChunks) {
+            System.arraycopy(chunk, 0, audio, pos, chunk.length);
+            pos += chunk.length;
+        }
+        return audio;
+    }
+
+    /**
+     * 获取音频总字节数
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * 获取等待空闲上下文槽位的时间（毫秒）
+     */
+    public long getQueuedMillis() {
+        return queuedNanos / 1_000_000;
+    }
+
+    /**
+     * 获取从发送文本到收到最后一帧的时间（毫秒）
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+}
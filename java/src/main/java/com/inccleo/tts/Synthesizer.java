@@ -0,0 +1,56 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.callback.BinaryAudioCallback;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 文本合成接口
+ * 由 {@link TTSClient} 和 {@link TTSConnectionPool} 实现，供批量/长文本合成等上层组件使用
+ */
+@FunctionalInterface
+public interface Synthesizer {
+    /**
+     * 合成一段文本
+     *
+     * @param text 要转换的文本
+     * @return 合成结果，失败时以 {@link TTSException} 结束
+     */
+    CompletableFuture<SynthesisResult> synthesize(String text);
+
+    /**
+     * 以指定优先级合成一段文本
+     * 默认实现忽略优先级
+     *
+     * @param text 要转换的文本
+     * @param priority 等待上下文槽位时的优先级
+     * @return 合成结果，失败时以 {@link TTSException} 结束
+     */
+    default CompletableFuture<SynthesisResult> synthesize(String text, Priority priority) {
+        return synthesize(text);
+    }
+
+    /**
+     * 以指定优先级合成一段文本，音频边到达边交付
+     * 所有音频回调都在返回的 Future 完成之前执行；默认实现在合成完成后一次性交付全部音频
+     *
+     * @param text 要转换的文本
+     * @param priority 等待上下文槽位时的优先级
+     * @param onAudio 音频回调，为 null 时等同于 {@link #synthesize(String, Priority)}
+     * @return 合成结果，失败时以 {@link TTSException} 结束
+     */
+    default CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, BinaryAudioCallback onAudio) {
+        if (onAudio == null) {
+            return synthesize(text, priority);
+        }
+        return synthesize(text, priority).thenApply(result -> {
+            List<byte[]> chunks = result.getAudioChunks();
+            for (int i = 0; i < chunks.size(); i++) {
+                onAudio.onAudio(ByteBuffer.wrap(chunks.get(i)).asReadOnlyBuffer(), i == chunks.size() - 1);
+            }
+            return result;
+        });
+    }
+}
@@ -1,32 +1,104 @@
 package com.inccleo.tts;
 
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
+import com.inccleo.tts.cache.CachedAudio;
+import com.inccleo.tts.cache.SynthesisCache;
+import com.inccleo.tts.callback.BinaryAudioCallback;
+import com.inccleo.tts.callback.ReconnectCallback;
+import com.inccleo.tts.dispatch.CallbackDispatcher;
+import com.inccleo.tts.dispatch.Dispatchers;
+import com.inccleo.tts.metrics.MetricsRecorder;
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.TransportConnection;
+import com.inccleo.tts.transport.TransportListener;
+import com.inccleo.tts.transport.Transports;
 import org.json.JSONObject;
 
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * 多上下文 WebSocket TTS 客户端
  * 支持单连接管理多个独立的 TTS 流（最多 5 个）
  */
-public class TTSClient {
-    private static final int MAX_CONTEXTS = 5;
+public class TTSClient implements Synthesizer {
+    static final int MAX_CONTEXTS = 5;
     private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+    private static final long CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int RETIRED_WIRE_IDS = 1024;
+    private static ScheduledThreadPoolExecutor timer;
 
     private final String baseUrl;
     private final String apiKey;
     private final String voiceId;
-    private WebSocketClient wsClient;
+    private volatile Transport transport = Transports.javaWebSocket();
+    private volatile TransportConnection connection;
     private final Map<String, TTSContext> contexts;
+    // 线路上的 contextId -> 上下文；打断后同一上下文换用新的线路 ID
+    private final Map<String, TTSContext> wireContexts = new ConcurrentHashMap<>();
+    // 最近关闭或打断的线路 ID，服务端可能仍在发送其音频，新上下文不能复用
+    private final Map<String, Boolean> retiredWireIds = Collections.synchronizedMap(
+        new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RETIRED_WIRE_IDS;
+            }
+        });
+    private final AtomicLong wireIdCounter = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
     private volatile boolean connected;
-    private CountDownLatch connectLatch;
+    private volatile URI uri;
+    private volatile Map<String, String> params = Collections.emptyMap();
+    private volatile SynthesisCache cache;
+    private volatile boolean userClosed;
+    private volatile ReconnectPolicy reconnectPolicy = ReconnectPolicy.disabled();
+    private volatile ReconnectCallback reconnectCallback;
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private volatile long lostAtNanos;
+    private volatile long lastRecoveryMillis = -1;
+    private volatile long lastConnectNanos = -1;
+    private volatile CompletableFuture<Void> pendingConnect;
+    private volatile LivenessPolicy livenessPolicy = LivenessPolicy.disabled();
+    private ScheduledFuture<?> livenessTask;
+    private volatile long lastPingNanos;
+    private volatile boolean pingOutstanding;
+    private volatile int missedPongs;
+    private volatile long lastPingRttNanos = -1;
+    private final AtomicLong deadConnectionCount = new AtomicLong();
+    private final AtomicReference<TransportConnection> lostSocket = new AtomicReference<>();
+    private ScheduledExecutorService reconnectExecutor;
+    private volatile Consumer<String> removalListener;
+    private final AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+    private volatile AudioRetention defaultRetention = AudioRetention.full();
+    private volatile CallbackDispatcher dispatcher = Dispatchers.inline();
+    private volatile MetricsRecorder metrics = MetricsRecorder.NOOP;
+    private final AdmissionController admission = new AdmissionController();
+    private final Map<String, ContextRequest> waitingContexts = new ConcurrentHashMap<>();
+    private final Map<String, PendingSynthesis> synthesisInFlight = new ConcurrentHashMap<>();
+    private volatile AtomicLong synthesisCounter = new AtomicLong();
+    private volatile Predicate<String> reservedContextIds = contextId -> false;
 
     /**
      * 构造函数
@@ -41,6 +113,7 @@ public class TTSClient {
         this.voiceId = voiceId;
         this.contexts = new ConcurrentHashMap<>();
         this.connected = false;
+        this.frame.targets = wireContexts;
     }
 
     /**
@@ -50,9 +123,34 @@ public class TTSClient {
      * @throws Exception 连接失败时抛出异常
      */
     public void connect(Map<String, String> params) throws Exception {
+        try {
+            connectAsync(params).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步连接到服务器，不阻塞调用线程
+     * 握手完成后 Future 正常完成；超时（10 秒）、握手失败或 URL 不合法时异常完成。
+     * 可以同时发起多个客户端的连接，总耗时接近单次握手耗时
+     *
+     * @param params 连接参数（model_id, format, language_code 等）
+     * @return 握手完成时完成的 Future
+     * @throws IllegalStateException 已连接或正在连接时抛出
+     */
+    public synchronized CompletableFuture<Void> connectAsync(Map<String, String> params) {
         if (connected) {
             throw new IllegalStateException("Already connected");
         }
+        CompletableFuture<Void> pending = pendingConnect;
+        if (pending != null && !pending.isDone()) {
+            throw new IllegalStateException("Connection in progress");
+        }
 
         // 构建 WebSocket URL
         StringBuilder urlBuilder = new StringBuilder(baseUrl);
@@ -79,59 +177,471 @@ public class TTSClient {
             System.out.println("[DEBUG] Connecting to: " + wsUrl);
         }
 
-        URI uri = new URI(wsUrl);
-        connectLatch = new CountDownLatch(1);
+        try {
+            uri = new URI(wsUrl);
+        } catch (URISyntaxException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        this.params = params == null ? Collections.<String, String>emptyMap() : new HashMap<>(params);
+        userClosed = false;
+        pendingConnect = openSocketAsync();
+        return pendingConnect;
+    }
 
-        wsClient = new WebSocketClient(uri) {
-            @Override
-            public void onOpen(ServerHandshake handshake) {
-                if (DEBUG) {
-                    System.out.println("[DEBUG] WebSocket opened");
-                }
-                connected = true;
-                connectLatch.countDown();
+    /**
+     * 建立 WebSocket 连接并等待握手完成（重连使用）
+     */
+    private void openSocket() throws Exception {
+        try {
+            openSocketAsync().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
             }
+            throw e;
+        }
+    }
 
-            @Override
-            public void onMessage(String message) {
-                if (DEBUG) {
-                    System.out.println("[DEBUG] Received: " + 
-                        (message.length() > 200 ? message.substring(0, 200) + "..." : message));
-                }
-                handleMessage(message);
+    /**
+     * 发起 WebSocket 连接，握手完成时完成 Future（首次连接和重连共用）
+     */
+    private CompletableFuture<Void> openSocketAsync() {
+        CompletableFuture<Void> handshake = new CompletableFuture<>();
+        long connectStart = System.nanoTime();
+        Object connectEvent = FlightEvents.INSTANCE.begin(FlightEvents.CONNECT);
+
+        SocketListener listener = new SocketListener(handshake, connectStart, connectEvent);
+        TransportConnection socket = transport.newConnection(uri, Collections.singletonMap("api-key", apiKey), listener);
+        listener.socket = socket;
+        connection = socket;
+        socket.connect();
+
+        // 握手最多等待 10 秒
+        ScheduledFuture<?> timeout = timer().schedule(() -> {
+            if (handshake.completeExceptionally(new Exception("Connection timeout"))) {
+                socket.close();
+            }
+        }, CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        handshake.whenComplete((v, e) -> timeout.cancel(false));
+        return handshake;
+    }
+
+    /**
+     * 一条连接的事件处理；连接被替换（重连）后，旧连接迟到的事件全部忽略
+     */
+    private final class SocketListener implements TransportListener {
+        private final CompletableFuture<Void> handshake;
+        private final long connectStart;
+        private final Object connectEvent;
+        private volatile TransportConnection socket;
+        private volatile boolean opened;
+
+        SocketListener(CompletableFuture<Void> handshake, long connectStart, Object connectEvent) {
+            this.handshake = handshake;
+            this.connectStart = connectStart;
+            this.connectEvent = connectEvent;
+        }
+
+        @Override
+        public void onOpen() {
+            if (DEBUG) {
+                System.out.println("[DEBUG] WebSocket opened");
+            }
+            if (handshake.isDone()) {
+                // 已超时，close 由超时任务发起
+                return;
+            }
+            opened = true;
+            connected = true;
+            long nanos = System.nanoTime() - connectStart;
+            lastConnectNanos = nanos;
+            metrics.onConnect(nanos);
+            if (connectEvent != null) {
+                FlightEvents.INSTANCE.commit(connectEvent, null, 0);
             }
+            startLiveness();
+            handshake.complete(null);
+        }
 
-            @Override
-            public void onClose(int code, String reason, boolean remote) {
-                if (DEBUG) {
-                    System.out.println("[DEBUG] WebSocket closed: " + reason);
+        @Override
+        public void onPong(ByteBuffer payload) {
+            if (connection == socket) {
+                handlePong(payload);
+            }
+        }
+
+        @Override
+        public void onText(String message) {
+            if (connection != socket) {
+                return;
+            }
+            if (DEBUG) {
+                System.out.println("[DEBUG] Received: " + 
+                    (message.length() > 200 ? message.substring(0, 200) + "..." : message));
+            }
+            handleMessage(message);
+        }
+
+        @Override
+        public void onClose(String reason) {
+            if (DEBUG) {
+                System.out.println("[DEBUG] WebSocket closed: " + reason);
+            }
+            handshake.completeExceptionally(new Exception("Failed to connect"));
+            if (connection != socket) {
+                return;
+            }
+            connected = false;
+            stopLiveness();
+            if (opened) {
+                connectionLost(socket, "CONNECTION_CLOSED", "WebSocket closed: " + reason);
+            }
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            System.err.println("[ERROR] WebSocket error: " + ex.getMessage());
+            if (DEBUG) {
+                ex.printStackTrace();
+            }
+            handshake.completeExceptionally(new Exception("Failed to connect"));
+            if (connection != socket) {
+                return;
+            }
+            connected = false;
+            stopLiveness();
+            if (opened) {
+                connectionLost(socket, "CONNECTION_ERROR", "WebSocket error: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 所有客户端共用的定时线程：握手超时和存活检测，任务都很短，不能阻塞
+     */
+    private static synchronized ScheduledThreadPoolExecutor timer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "tts-timer");
+                t.setDaemon(true);
+                return t;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+        }
+        return timer;
+    }
+
+    /**
+     * 获取最近一次握手耗时（毫秒，首次连接或重连），从未连接成功时返回 -1
+     * 包含 TCP 建连、TLS 握手和 WebSocket 升级
+     */
+    public long getLastConnectMillis() {
+        long nanos = lastConnectNanos;
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 连接意外断开：启用重连时进入恢复流程，否则结束所有合成请求并通知各上下文
+     * 同一个连接只处理一次（心跳判定失效后主动关闭会再次触发 onClose）
+     */
+    private void connectionLost(TransportConnection socket, String errorCode, String message) {
+        if (userClosed || lostSocket.getAndSet(socket) == socket) {
+            return;
+        }
+        ReconnectPolicy policy = reconnectPolicy;
+        if (!policy.isEnabled()) {
+            failPendingSyntheses(errorCode, message);
+            for (TTSContext context : contexts.values()) {
+                if (!context.isClosed()) {
+                    context.handleError(errorCode, message);
                 }
-                connected = false;
             }
+            return;
+        }
+        if (!reconnecting.compareAndSet(false, true)) {
+            return;
+        }
 
-            @Override
-            public void onError(Exception ex) {
-                System.err.println("[ERROR] WebSocket error: " + ex.getMessage());
-                if (DEBUG) {
-                    ex.printStackTrace();
+        lostAtNanos = System.nanoTime();
+        for (TTSContext context : contexts.values()) {
+            context.markNeedsReplay();
+        }
+        if (DEBUG) {
+            System.out.println("[DEBUG] Connection lost, reconnecting: " + message);
+        }
+        scheduleReconnect(1);
+    }
+
+    private synchronized void scheduleReconnect(int attempt) {
+        if (userClosed) {
+            return;
+        }
+        if (reconnectExecutor == null) {
+            reconnectExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "tts-reconnect");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        reconnectExecutor.schedule(() -> attemptReconnect(attempt),
+                                   reconnectPolicy.delayMillis(attempt), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 执行一次重连；成功后重放各上下文未完成的文本
+     */
+    private void attemptReconnect(int attempt) {
+        if (userClosed) {
+            return;
+        }
+        if (DEBUG) {
+            System.out.println("[DEBUG] Reconnect attempt #" + attempt);
+        }
+
+        try {
+            openSocket();
+        } catch (Exception e) {
+            if (DEBUG) {
+                System.out.println("[DEBUG] Reconnect attempt #" + attempt + " failed: " + e.getMessage());
+            }
+            if (reconnectPolicy.allowsAttempt(attempt + 1)) {
+                scheduleReconnect(attempt + 1);
+            } else {
+                giveUpReconnect(attempt);
+            }
+            return;
+        }
+
+        // 先退出重连状态，之后 sendText 会自行补发尚未重放的上下文，保证顺序
+        reconnecting.set(false);
+        for (TTSContext context : contexts.values()) {
+            context.resume();
+        }
+
+        long recoveryNanos = System.nanoTime() - lostAtNanos;
+        long recoveryMillis = TimeUnit.NANOSECONDS.toMillis(recoveryNanos);
+        lastRecoveryMillis = recoveryMillis;
+        reconnectCount.incrementAndGet();
+        metrics.onReconnect(attempt, recoveryNanos);
+        if (DEBUG) {
+            System.out.println("[DEBUG] Reconnected after " + attempt + " attempt(s), " + recoveryMillis + " ms");
+        }
+
+        ReconnectCallback callback = reconnectCallback;
+        if (callback != null) {
+            try {
+                callback.onReconnected(attempt, recoveryMillis);
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] Reconnect callback failed: " + e);
+            }
+        }
+        admitWaiters();
+    }
+
+    /**
+     * 重连次数用尽：通知所有上下文并结束合成请求
+     */
+    private void giveUpReconnect(int attempts) {
+        String message = "Reconnect failed after " + attempts + " attempt(s)";
+        reconnecting.set(false);
+        for (TTSContext context : contexts.values()) {
+            context.abandonReplay();
+        }
+        failPendingSyntheses("RECONNECT_FAILED", message);
+        for (TTSContext context : contexts.values()) {
+            context.handleError("RECONNECT_FAILED", message);
+        }
+    }
+
+    /**
+     * 按当前策略启动存活检测（握手成功或修改策略时调用）
+     */
+    private synchronized void startLiveness() {
+        stopLiveness();
+        LivenessPolicy policy = livenessPolicy;
+        if (!policy.isEnabled() || !connected) {
+            return;
+        }
+        missedPongs = 0;
+        pingOutstanding = false;
+        lastPingNanos = System.nanoTime();
+        long tick = policy.tickMillis();
+        livenessTask = timer().scheduleAtFixedRate(this::checkLiveness, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopLiveness() {
+        if (livenessTask != null) {
+            livenessTask.cancel(false);
+            livenessTask = null;
+        }
+    }
+
+    /**
+     * 存活检测任务：到期发送心跳并统计未收到的 pong，检查各上下文的音频超时
+     */
+    private void checkLiveness() {
+        try {
+            TransportConnection socket = connection;
+            if (!connected || socket == null) {
+                return;
+            }
+            LivenessPolicy policy = livenessPolicy;
+            long now = System.nanoTime();
+            if (policy.isPingEnabled()) {
+                long interval = TimeUnit.MILLISECONDS.toNanos(policy.getPingIntervalMillis());
+                // 定时任务可能略早于间隔执行，留出半个周期的余量，避免整整推迟一轮
+                long slack = TimeUnit.MILLISECONDS.toNanos(policy.tickMillis()) / 2;
+                if (now - lastPingNanos >= interval - slack) {
+                    if (pingOutstanding && ++missedPongs >= policy.getMaxMissedPongs()) {
+                        connectionDead(socket, "No pong for " + missedPongs + " ping(s)");
+                        return;
+                    }
+                    sendPing(socket, now);
+                }
+            }
+            long audioTimeout = policy.getAudioTimeoutMillis();
+            if (audioTimeout > 0) {
+                long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(audioTimeout);
+                for (TTSContext context : contexts.values()) {
+                    context.checkAudioTimeout(now, timeoutNanos);
                 }
-                connected = false;
-                connectLatch.countDown();
             }
-        };
+        } catch (RuntimeException e) {
+            System.err.println("[ERROR] Liveness check failed: " + e);
+        }
+    }
+
+    /**
+     * 发送携带发送时刻的 ping，对端在 pong 中原样返回，用于计算往返时间
+     */
+    private void sendPing(TransportConnection socket, long now) {
+        ByteBuffer payload = ByteBuffer.allocate(8);
+        payload.putLong(now);
+        payload.flip();
+        lastPingNanos = now;
+        pingOutstanding = true;
+        try {
+            socket.sendPing(payload);
+        } catch (IllegalStateException e) {
+            // 连接正在关闭，由 onClose 处理
+        }
+    }
+
+    private void handlePong(ByteBuffer payload) {
+        // 只处理自己发出的心跳；库自身的连接检测使用空载荷
+        if (payload.remaining() != 8) {
+            return;
+        }
+        long rtt = System.nanoTime() - payload.getLong(payload.position());
+        if (rtt < 0) {
+            return;
+        }
+        lastPingRttNanos = rtt;
+        missedPongs = 0;
+        pingOutstanding = false;
+        metrics.onPingRtt(rtt);
+    }
 
-        // 添加认证头
-        wsClient.addHeader("api-key", apiKey);
-        wsClient.connect();
+    /**
+     * 心跳判定连接已死：立即按断线处理，再强制关闭底层连接（不等待关闭握手）
+     */
+    private void connectionDead(TransportConnection socket, String reason) {
+        System.err.println("[ERROR] Connection dead: " + reason);
+        deadConnectionCount.incrementAndGet();
+        stopLiveness();
+        connected = false;
+        connectionLost(socket, "CONNECTION_DEAD", reason);
+        socket.abort(reason);
+    }
 
-        // 等待连接完成（最多 10 秒）
-        if (!connectLatch.await(10, TimeUnit.SECONDS)) {
-            throw new Exception("Connection timeout");
+    /**
+     * 设置连接存活检测策略（默认不检测）
+     * 已连接时立即按新策略重新开始检测
+     *
+     * @see LivenessPolicy
+     */
+    public void setLivenessPolicy(LivenessPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Liveness policy must not be null");
         }
+        this.livenessPolicy = policy;
+        if (connected) {
+            startLiveness();
+        }
+    }
 
-        if (!connected) {
-            throw new Exception("Failed to connect");
+    /**
+     * 获取连接存活检测策略
+     */
+    public LivenessPolicy getLivenessPolicy() {
+        return livenessPolicy;
+    }
+
+    /**
+     * 获取最近一次心跳往返时间（毫秒），尚未收到 pong 时返回 -1
+     */
+    public double getLastPingRttMillis() {
+        long nanos = lastPingRttNanos;
+        return nanos < 0 ? -1 : nanos / 1_000_000.0;
+    }
+
+    /**
+     * 获取被心跳判定为已死的连接数
+     */
+    public long getDeadConnectionCount() {
+        return deadConnectionCount.get();
+    }
+
+    /**
+     * 设置自动重连策略（默认不重连）
+     * 启用后，连接意外断开时按策略重连，并为每个上下文重放自上次 is_final
+     * 以来尚未完成的文本；重连期间调用 sendText 不会抛出异常，文本会在恢复后发送。
+     * 被中断的语句会从头重新合成，已通过回调交付的音频可能重复出现；
+     * 完整保留模式下，重放前会丢弃该语句已保留的音频。
+     */
+    public void setReconnectPolicy(ReconnectPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Reconnect policy must not be null");
         }
+        this.reconnectPolicy = policy;
+    }
+
+    /**
+     * 获取自动重连策略
+     */
+    public ReconnectPolicy getReconnectPolicy() {
+        return reconnectPolicy;
+    }
+
+    /**
+     * 设置重连成功回调
+     */
+    public void onReconnect(ReconnectCallback callback) {
+        this.reconnectCallback = callback;
+    }
+
+    /**
+     * 是否正在重连
+     */
+    public boolean isReconnecting() {
+        return reconnecting.get();
+    }
+
+    /**
+     * 获取成功恢复连接的次数
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * 获取最近一次从断开到恢复完成的耗时（毫秒），从未重连时返回 -1
+     */
+    public long getLastRecoveryMillis() {
+        return lastRecoveryMillis;
     }
 
     /**
@@ -141,7 +651,7 @@ public class TTSClient {
      * @return TTSContext 对象
      * @throws IllegalStateException 如果未连接或超过最大上下文数
      */
-    public TTSContext createContext(String contextId) {
+    public synchronized TTSContext createContext(String contextId) {
         if (!connected) {
             throw new IllegalStateException("Not connected");
         }
@@ -150,12 +660,105 @@ public class TTSClient {
             throw new IllegalStateException("Maximum contexts (" + MAX_CONTEXTS + ") reached");
         }
 
-        if (contexts.containsKey(contextId)) {
+        if (contexts.containsKey(contextId) || waitingContexts.containsKey(contextId)) {
             throw new IllegalArgumentException("Context already exists: " + contextId);
         }
 
-        TTSContext context = new TTSContext(contextId, this);
+        return registerContext(contextId);
+    }
+
+    /**
+     * 创建新的上下文，没有空闲槽位时排队等待
+     * 等待者按优先级公平排队，槽位释放后立即交给下一个等待者（见 {@link AdmissionController}）。
+     * 等待超时以 ADMISSION_TIMEOUT 失败，队列已满以 QUEUE_FULL 失败，连接断开以对应错误失败；
+     * 取消返回的 Future 会退出队列。
+     *
+     * @param contextId 上下文 ID
+     * @param priority 优先级
+     * @param timeoutMillis 最长等待时间（毫秒），0 表示没有空闲槽位时立即失败
+     * @return 获得槽位后完成的上下文
+     * @throws IllegalArgumentException 如果上下文 ID 已存在或正在排队
+     */
+    public CompletableFuture<TTSContext> acquireContext(String contextId, Priority priority, long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout must be >= 0: " + timeoutMillis);
+        }
+        CompletableFuture<TTSContext> future = new CompletableFuture<>();
+        ContextRequest request;
+        synchronized (this) {
+            if (!connected) {
+                future.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+                return future;
+            }
+            if (contexts.containsKey(contextId) || waitingContexts.containsKey(contextId)) {
+                throw new IllegalArgumentException("Context already exists: " + contextId);
+            }
+            if (contexts.size() < MAX_CONTEXTS && admission.getQueueLength() == 0) {
+                admission.admitImmediately(priority);
+                future.complete(registerContext(contextId));
+                return future;
+            }
+
+            request = new ContextRequest(contextId, priority, future);
+            if (!admission.offer(request, timeoutMillis)) {
+                future.completeExceptionally(new TTSException("QUEUE_FULL", "Admission queue is full"));
+                return future;
+            }
+            waitingContexts.put(contextId, request);
+        }
+
+        future.whenComplete((context, error) -> {
+            if (future.isCancelled() && admission.remove(request)) {
+                waitingContexts.remove(contextId, request);
+            }
+        });
+        // 入队前后可能恰好有槽位释放
+        admitWaiters();
+        return future;
+    }
+
+    /**
+     * 创建新的上下文，没有空闲槽位时阻塞等待
+     *
+     * @param contextId 上下文 ID
+     * @param priority 优先级
+     * @param timeoutMillis 最长等待时间（毫秒）
+     * @return TTSContext 对象
+     * @throws TTSException 等待超时、队列已满或连接断开时抛出
+     * @throws InterruptedException 等待被中断时抛出，此时已退出队列
+     * @see #acquireContext(String, Priority, long)
+     */
+    public TTSContext createContext(String contextId, Priority priority, long timeoutMillis)
+            throws InterruptedException {
+        CompletableFuture<TTSContext> future = acquireContext(contextId, priority, timeoutMillis);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TTSException("ADMISSION_FAILED", String.valueOf(cause));
+        }
+    }
+
+    /**
+     * 获取上下文准入队列（排队长度、等待时间等统计，以及排队参数）
+     */
+    public AdmissionController getAdmissionController() {
+        return admission;
+    }
+
+    /**
+     * 登记新上下文（调用方持有 this 锁并已检查槽位）
+     */
+    private TTSContext registerContext(String contextId) {
+        TTSContext context = new TTSContext(contextId, allocateWireId(contextId), this);
         contexts.put(contextId, context);
+        wireContexts.put(context.getWireId(), context);
 
         if (DEBUG) {
             System.out.println("[DEBUG] Created context: " + contextId + 
@@ -165,6 +768,421 @@ public class TTSClient {
         return context;
     }
 
+    /**
+     * 合成一段文本
+     * 自动占用一个空闲上下文槽位（没有空闲槽位时排队等待），发送文本和 EOS，
+     * 收到最后一帧后立即释放槽位并完成 Future；收到错误时以 {@link TTSException} 失败。
+     * 注意：非 Async 的后续阶段会在回调线程上执行，耗时处理请使用 thenXxxAsync。
+     *
+     * @param text 要转换的文本
+     * @return 合成结果
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text) {
+        return synthesize(text, Priority.INTERACTIVE);
+    }
+
+    /**
+     * 以指定优先级合成一段文本，不限等待时间
+     *
+     * @see #synthesize(String, Priority, long)
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority) {
+        return synthesize(text, priority, Long.MAX_VALUE);
+    }
+
+    /**
+     * 以指定优先级合成一段文本
+     * 没有空闲槽位时在准入队列中等待，超过 timeoutMillis 仍未获得槽位时以 ADMISSION_TIMEOUT 失败；
+     * 超时只限制排队时间，不限制合成本身的耗时
+     *
+     * @param text 要转换的文本
+     * @param priority 优先级
+     * @param timeoutMillis 最长排队时间（毫秒），Long.MAX_VALUE 表示不限时
+     * @return 合成结果
+     */
+    public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, long timeoutMillis) {
+        return synthesize(text, priority, timeoutMillis, null);
+    }
+
+    /**
+     * 以指定优先级合成一段文本，音频边到达边交付给 onAudio，不限等待时间
+     * 音频回调在上下文的回调线程上执行，全部执行完后 Future 才完成
+     *
+     * @see #synthesize(String, Priority, long)
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, BinaryAudioCallback onAudio) {
+        return synthesize(text, priority, Long.MAX_VALUE, onAudio);
+    }
+
+    private CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, long timeoutMillis,
+                                                          BinaryAudioCallback onAudio) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout must be >= 0: " + timeoutMillis);
+        }
+        CompletableFuture<SynthesisResult> future = new CompletableFuture<>();
+        if (!connected) {
+            future.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+            return future;
+        }
+
+        SynthesisCache synthesisCache = cache;
+        if (synthesisCache != null) {
+            // 命中缓存时不占用上下文槽位，直接完成
+            CachedAudio cached = synthesisCache.get(cacheKey(text));
+            if (cached != null) {
+                List<byte[]> chunks = new ArrayList<>(cached.getChunks().size());
+                for (byte[] chunk : cached.getChunks()) {
+                    chunks.add(chunk.clone());
+                }
+                if (onAudio != null) {
+                    for (int i = 0; i < chunks.size(); i++) {
+                        onAudio.onAudio(ByteBuffer.wrap(chunks.get(i)).asReadOnlyBuffer(), i == chunks.size() - 1);
+                    }
+                }
+                future.complete(new SynthesisResult("synthesis_" + synthesisCounter.incrementAndGet(),
+                                                    chunks, 0, 0));
+                return future;
+            }
+        }
+
+        PendingSynthesis request = new PendingSynthesis(text, priority, onAudio, future);
+        TTSContext context = null;
+        synchronized (this) {
+            if (contexts.size() < MAX_CONTEXTS && admission.getQueueLength() == 0) {
+                admission.admitImmediately(priority);
+                context = registerContext(request.newContextId());
+            } else if (!admission.offer(request, timeoutMillis)) {
+                future.completeExceptionally(new TTSException("QUEUE_FULL", "Admission queue is full"));
+                return future;
+            }
+        }
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                admission.remove(request);
+                request.release();
+            }
+        });
+
+        if (context != null) {
+            request.admit(context);
+        } else {
+            admitWaiters();
+        }
+        return future;
+    }
+
+    /**
+     * 获取等待空闲槽位的请求数量（合成请求和 acquireContext）
+     */
+    public int getQueuedSynthesisCount() {
+        return admission.getQueueLength();
+    }
+
+    /**
+     * 有空闲槽位时按准入顺序把槽位交给等待者
+     */
+    private void admitWaiters() {
+        while (connected) {
+            SlotRequest request;
+            TTSContext context;
+            synchronized (this) {
+                if (contexts.size() >= MAX_CONTEXTS) {
+                    return;
+                }
+                request = (SlotRequest) admission.poll();
+                if (request == null) {
+                    return;
+                }
+                context = registerContext(request.newContextId());
+            }
+            request.admit(context);
+        }
+    }
+
+    /**
+     * 以指定错误结束所有排队中和进行中的请求
+     */
+    private void failPendingSyntheses(String errorCode, String message) {
+        for (AdmissionController.Waiter waiter : admission.drain()) {
+            ((SlotRequest) waiter).fail(errorCode, message);
+        }
+        for (PendingSynthesis inFlight : new ArrayList<>(synthesisInFlight.values())) {
+            inFlight.fail(errorCode, message);
+        }
+    }
+
+    /**
+     * 等待上下文槽位的请求
+     */
+    private abstract static class SlotRequest extends AdmissionController.Waiter {
+        SlotRequest(Priority priority) {
+            super(priority);
+        }
+
+        /**
+         * 获得槽位时使用的上下文 ID（持有客户端锁时调用）
+         */
+        abstract String newContextId();
+
+        /**
+         * 已获得槽位，上下文已登记
+         */
+        abstract void admit(TTSContext context);
+
+        abstract void fail(String errorCode, String message);
+
+        @Override
+        void expire(long waitedMillis) {
+            fail("ADMISSION_TIMEOUT", "No context slot available after " + waitedMillis + " ms");
+        }
+    }
+
+    /**
+     * 通过 acquireContext 排队的请求
+     */
+    private final class ContextRequest extends SlotRequest {
+        private final String contextId;
+        private final CompletableFuture<TTSContext> future;
+
+        ContextRequest(String contextId, Priority priority, CompletableFuture<TTSContext> future) {
+            super(priority);
+            this.contextId = contextId;
+            this.future = future;
+        }
+
+        @Override
+        String newContextId() {
+            waitingContexts.remove(contextId, this);
+            return contextId;
+        }
+
+        @Override
+        void admit(TTSContext context) {
+            if (!future.complete(context)) {
+                // 获得槽位的同时被取消：归还槽位
+                try {
+                    context.close();
+                } catch (IllegalStateException e) {
+                    removeContext(contextId);
+                }
+            }
+        }
+
+        @Override
+        void fail(String errorCode, String message) {
+            waitingContexts.remove(contextId, this);
+            future.completeExceptionally(new TTSException(errorCode, message));
+        }
+
+        @Override
+        boolean isAbandoned() {
+            if (future.isDone()) {
+                waitingContexts.remove(contextId, this);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 一次进行中或排队中的合成请求
+     */
+    private final class PendingSynthesis extends SlotRequest {
+        private final String text;
+        private final BinaryAudioCallback onAudio;
+        private final CompletableFuture<SynthesisResult> future;
+        private final long enqueuedNanos;
+        private volatile long startNanos;
+        private volatile TTSContext context;
+
+        PendingSynthesis(String text, Priority priority, BinaryAudioCallback onAudio,
+                         CompletableFuture<SynthesisResult> future) {
+            super(priority);
+            this.text = text;
+            this.onAudio = onAudio;
+            this.future = future;
+            this.enqueuedNanos = System.nanoTime();
+        }
+
+        @Override
+        String newContextId() {
+            String contextId;
+            do {
+                contextId = "synthesis_" + synthesisCounter.incrementAndGet();
+            } while (contexts.containsKey(contextId) || waitingContexts.containsKey(contextId)
+                     || reservedContextIds.test(contextId));
+            return contextId;
+        }
+
+        @Override
+        boolean isAbandoned() {
+            return future.isDone();
+        }
+
+        @Override
+        void admit(TTSContext context) {
+            this.context = context;
+            this.startNanos = System.nanoTime();
+            synthesisInFlight.put(context.getContextId(), this);
+
+            context.retainAudio(AudioRetention.full())
+                   .onAudioData(onAudio)
+                   .onComplete(this::complete)
+                   .onError(this::fail);
+
+            try {
+                context.speak(text);
+            } catch (RuntimeException e) {
+                fail("SEND_FAILED", String.valueOf(e.getMessage()));
+            }
+        }
+
+        void complete() {
+            TTSContext ctx = context;
+            List<byte[]> chunks = ctx.drainAudio();
+            long now = System.nanoTime();
+            release();
+            future.complete(new SynthesisResult(ctx.getContextId(), chunks,
+                                                startNanos - enqueuedNanos, now - startNanos));
+        }
+
+        @Override
+        void fail(String errorCode, String message) {
+            release();
+            future.completeExceptionally(new TTSException(errorCode, message));
+        }
+
+        /**
+         * 释放上下文槽位，触发下一个排队请求
+         */
+        void release() {
+            TTSContext ctx = context;
+            if (ctx == null || synthesisInFlight.remove(ctx.getContextId()) == null) {
+                return;
+            }
+            try {
+                ctx.close();
+            } catch (IllegalStateException e) {
+                // 连接已断开，close 消息无法发送，直接在本地回收槽位
+                removeContext(ctx.getContextId());
+            }
+        }
+    }
+
+    /**
+     * 设置合成结果缓存，传入 null 关闭缓存（默认关闭）
+     * 启用后 {@link TTSContext#speak(String)} 和 {@link #synthesize(String)} 会先查缓存，
+     * 未命中时在收到最后一帧后写入缓存
+     */
+    public void setCache(SynthesisCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * 获取合成结果缓存
+     */
+    public SynthesisCache getCache() {
+        return cache;
+    }
+
+    /**
+     * 计算文本在当前音色和连接参数下的缓存键（内部使用）
+     */
+    String cacheKey(String text) {
+        return SynthesisCache.key(voiceId, params, text);
+    }
+
+    /**
+     * 设置新建上下文默认使用的音频保留策略（默认保留全部音频）
+     */
+    public void setDefaultAudioRetention(AudioRetention retention) {
+        if (retention == null) {
+            throw new IllegalArgumentException("Retention policy must not be null");
+        }
+        this.defaultRetention = retention;
+    }
+
+    /**
+     * 获取新建上下文默认使用的音频保留策略
+     */
+    public AudioRetention getDefaultAudioRetention() {
+        return defaultRetention;
+    }
+
+    /**
+     * 设置 WebSocket 传输层，对之后建立的连接生效（包括重连），默认 {@link Transports#javaWebSocket()}
+     * 连接数较多时，多个客户端共用一个 {@link Transports#jdkWebSocket(int)} 可以把线程数限制在固定范围内
+     *
+     * @see Transport
+     */
+    public void setTransport(Transport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Transport must not be null");
+        }
+        this.transport = transport;
+    }
+
+    /**
+     * 获取 WebSocket 传输层
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * 设置回调分发器，对之后新建的上下文生效
+     * 默认在 WebSocket 读线程上直接执行回调；回调较慢时应使用
+     * {@link Dispatchers#serial} 或 {@link Dispatchers#virtualThreads}，
+     * 避免一个上下文的慢回调阻塞同一连接上其他上下文的音频接收
+     */
+    public void setCallbackDispatcher(CallbackDispatcher dispatcher) {
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher must not be null");
+        }
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 获取回调分发器
+     */
+    public CallbackDispatcher getCallbackDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * 设置指标采集器（默认不采集）
+     * 对已有和之后新建的上下文均生效
+     *
+     * @see com.inccleo.tts.metrics.MetricsRegistry
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        if (recorder == null) {
+            throw new IllegalArgumentException("Metrics recorder must not be null");
+        }
+        this.metrics = recorder;
+    }
+
+    /**
+     * 获取指标采集器
+     */
+    public MetricsRecorder getMetricsRecorder() {
+        return metrics;
+    }
+
+    /**
+     * 获取所有上下文尚未执行的回调总数
+     */
+    public int getPendingCallbackCount() {
+        int total = 0;
+        for (TTSContext context : contexts.values()) {
+            total += context.getPendingCallbackCount();
+        }
+        return total;
+    }
+
     /**
      * 获取指定的上下文
      */
@@ -172,38 +1190,177 @@ public class TTSClient {
         return contexts.get(contextId);
     }
 
+    /**
+     * 上下文 ID 是否已被占用，包括仍在排队等待槽位的上下文（内部使用）
+     */
+    boolean hasContextId(String contextId) {
+        return contexts.containsKey(contextId) || waitingContexts.containsKey(contextId);
+    }
+
+    /**
+     * 分配线路上使用的 contextId：通常与上下文 ID 相同；
+     * 该 ID 最近关闭或打断过（服务端可能仍在发送旧音频）时追加序号，保证旧音频不会串到新一轮
+     */
+    private String allocateWireId(String contextId) {
+        String wireId = contextId;
+        while (retiredWireIds.containsKey(wireId) || wireContexts.containsKey(wireId)) {
+            wireId = contextId + "#" + wireIdCounter.incrementAndGet();
+        }
+        return wireId;
+    }
+
+    /**
+     * 打断后换用新的线路 ID（内部使用）：旧 ID 立即失效，之后到达的旧音频在解析阶段即被丢弃
+     */
+    String rebindWireId(TTSContext context, String oldWireId) {
+        retireWireId(context, oldWireId);
+        String wireId = allocateWireId(context.getContextId());
+        wireContexts.put(wireId, context);
+        return wireId;
+    }
+
+    private void retireWireId(TTSContext context, String wireId) {
+        retiredWireIds.put(wireId, Boolean.TRUE);
+        wireContexts.remove(wireId, context);
+    }
+
+    /**
+     * 获取因上下文已关闭或已打断而丢弃的音频帧数
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
     /**
      * 移除上下文（内部使用）
      */
     void removeContext(String contextId) {
-        contexts.remove(contextId);
+        TTSContext removed = contexts.remove(contextId);
+        if (removed == null) {
+            return;
+        }
+        retireWireId(removed, removed.getWireId());
+        metrics.onContextClosed(contextId);
         if (DEBUG) {
             System.out.println("[DEBUG] Removed context: " + contextId + 
                              " (remaining: " + contexts.size() + ")");
         }
+
+        Consumer<String> listener = removalListener;
+        if (listener != null) {
+            listener.accept(contextId);
+        }
+
+        admitWaiters();
+    }
+
+    /**
+     * 设置上下文移除监听器（内部使用，供连接池回收槽位）
+     */
+    void setRemovalListener(Consumer<String> listener) {
+        this.removalListener = listener;
+    }
+
+    /**
+     * 与其他连接共用合成请求的上下文 ID 序列（内部使用，供连接池保证 ID 在整个池内唯一）
+     * 池内连接共用同一个指标采集器，按上下文 ID 记录的数据不能相互覆盖
+     *
+     * @param counter  共用的 ID 序号
+     * @param reserved 已被池内其他上下文占用的 ID
+     */
+    void shareSynthesisIds(AtomicLong counter, Predicate<String> reserved) {
+        this.synthesisCounter = counter;
+        this.reservedContextIds = reserved;
     }
 
     /**
      * 发送消息（内部使用）
      */
     void sendMessage(JSONObject message) {
-        if (!connected || wsClient == null) {
+        sendFrame(null, ByteBuffer.wrap(message.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 以文本帧发送已编码的 UTF-8 JSON 消息（内部使用）
+     * 负载在返回前已复制到帧缓冲中，调用方可以立即复用该缓冲区
+     *
+     * @param contextId 消息所属的上下文，仅用于诊断事件，可为 null
+     */
+    void sendFrame(String contextId, ByteBuffer payload) {
+        if (!connected || connection == null) {
+            if (reconnecting.get()) {
+                // 重连期间不发送，未完成的文本由上下文在恢复后重放
+                return;
+            }
             throw new IllegalStateException("Not connected");
         }
 
-        String messageStr = message.toString();
         if (DEBUG) {
-            System.out.println("[DEBUG] Sending: " + messageStr);
+            System.out.println("[DEBUG] Sending: " + StandardCharsets.UTF_8.decode(payload.duplicate()));
+        }
+
+        TransportConnection socket = connection;
+        FlightEvents events = FlightEvents.INSTANCE;
+        Object sendEvent = events.begin(FlightEvents.SEND);
+        int bytes = payload.remaining();
+        socket.sendText(payload);
+        if (sendEvent != null) {
+            events.commit(sendEvent, contextId, bytes);
+        }
+
+        MetricsRecorder recorder = metrics;
+        if (recorder != MetricsRecorder.NOOP) {
+            int depth = socket.getSendQueueDepth();
+            if (depth >= 0) {
+                recorder.onSendQueueDepth(depth);
+            }
         }
+    }
 
-        wsClient.send(messageStr);
+    /**
+     * 处理接收到的消息（内部使用，仅由 WebSocket 读线程调用）
+     */
+    void handleMessage(String message) {
+        FlightEvents events = FlightEvents.INSTANCE;
+        Object receiveEvent = events.begin(FlightEvents.RECEIVE);
+        String contextId = dispatchMessage(message, events);
+        if (receiveEvent != null) {
+            events.commit(receiveEvent, contextId, message.length());
+        }
     }
 
     /**
-     * 处理接收到的消息
+     * 解析消息并交给对应的上下文
+     *
+     * @return 消息中的 contextId（线路 ID），没有时返回 null
      */
-    private void handleMessage(String message) {
+    private String dispatchMessage(String message, FlightEvents events) {
         try {
+            // 快速路径：音频帧单遍解析，不构建 JSONObject
+            MetricsRecorder recorder = metrics;
+            Object parseEvent = events.begin(FlightEvents.PARSE);
+            boolean parsed;
+            if (recorder == MetricsRecorder.NOOP) {
+                parsed = AudioFrameParser.parse(message, frame);
+            } else {
+                long parseStart = System.nanoTime();
+                parsed = AudioFrameParser.parse(message, frame);
+                recorder.onParse(System.nanoTime() - parseStart);
+            }
+            if (parseEvent != null) {
+                events.commit(parseEvent, parsed ? frame.contextId : null, message.length());
+            }
+            if (parsed) {
+                if (frame.dropped) {
+                    droppedFrames.incrementAndGet();
+                } else if (frame.target != null) {
+                    frame.target.handleAudio(frame.contextId, message, frame.audioStart, frame.audioEnd,
+                                             frame.isFinal);
+                }
+                return frame.contextId;
+            }
+
+            // 通用路径：错误消息及其他未知格式
             JSONObject data = new JSONObject(message);
 
             // 提取 contextId（支持 snake_case 和 camelCase）
@@ -220,18 +1377,20 @@ public class TTSClient {
                 String errorMsg = data.optString("message", "Unknown error");
                 
                 if (contextId != null) {
-                    TTSContext context = contexts.get(contextId);
+                    TTSContext context = wireContexts.get(contextId);
                     if (context != null) {
                         context.handleError(errorCode, errorMsg);
                     }
                 }
-                return;
+                return contextId;
             }
 
             // 处理音频数据
             if (data.has("audio") && contextId != null) {
-                TTSContext context = contexts.get(contextId);
-                if (context != null) {
+                TTSContext context = wireContexts.get(contextId);
+                if (context == null) {
+                    droppedFrames.incrementAndGet();
+                } else {
                     String audioData = data.getString("audio");
                     
                     // 提取 isFinal（支持 snake_case 和 camelCase）
@@ -242,15 +1401,17 @@ public class TTSClient {
                         isFinal = data.getBoolean("isFinal");
                     }
                     
-                    context.handleAudio(audioData, isFinal);
+                    context.handleAudio(contextId, audioData, 0, audioData.length(), isFinal);
                 }
             }
+            return contextId;
 
         } catch (Exception e) {
             System.err.println("[ERROR] Failed to handle message: " + e.getMessage());
             if (DEBUG) {
                 e.printStackTrace();
             }
+            return null;
         }
     }
 
@@ -258,16 +1419,37 @@ public class TTSClient {
      * 断开连接
      */
     public void disconnect() {
-        if (wsClient != null) {
+        userClosed = true;
+        stopLiveness();
+        synchronized (this) {
+            if (reconnectExecutor != null) {
+                reconnectExecutor.shutdownNow();
+                reconnectExecutor = null;
+            }
+        }
+        if (reconnecting.getAndSet(false)) {
+            for (TTSContext context : contexts.values()) {
+                context.abandonReplay();
+            }
+        }
+
+        if (connection != null) {
+            failPendingSyntheses("DISCONNECTED", "Client disconnected");
+
             // 关闭所有上下文
             for (TTSContext context : contexts.values()) {
                 if (!context.isClosed()) {
-                    context.close();
+                    try {
+                        context.close();
+                    } catch (IllegalStateException e) {
+                        // 连接已断开，close 消息无法发送
+                    }
                 }
             }
             contexts.clear();
+            wireContexts.clear();
 
-            wsClient.close();
+            connection.close();
             connected = false;
 
             if (DEBUG) {
@@ -283,10 +1465,24 @@ public class TTSClient {
         return connected;
     }
 
+    /**
+     * 获取连接参数（model_id, format, language_code 等，只读）
+     */
+    public Map<String, String> getConnectParams() {
+        return Collections.unmodifiableMap(params);
+    }
+
     /**
      * 获取活跃的上下文数量
      */
     public int getActiveContextCount() {
         return contexts.size();
     }
+
+    /**
+     * 获取剩余可用的上下文槽位数量
+     */
+    public int getAvailableContextSlots() {
+        return Math.max(0, MAX_CONTEXTS - contexts.size());
+    }
 }
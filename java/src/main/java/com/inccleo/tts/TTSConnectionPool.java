@@ -0,0 +1,1222 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.cache.SynthesisCache;
+import com.inccleo.tts.callback.BinaryAudioCallback;
+import com.inccleo.tts.dispatch.CallbackDispatcher;
+import com.inccleo.tts.dispatch.Dispatchers;
+import com.inccleo.tts.metrics.HistogramSnapshot;
+import com.inccleo.tts.metrics.LatencyHistogram;
+import com.inccleo.tts.metrics.MetricsRecorder;
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.Transports;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多连接 TTS 连接池
+ * 持有多个 TTSClient 连接，将新上下文分配到负载最低的连接上，
+ * 并在 [minConnections, maxConnections] 范围内按需扩缩连接数。
+ * 配置多个服务端节点时，按各节点的首帧耗时和错误率选择节点，见 {@link RoutingPolicy}
+ */
+public class TTSConnectionPool implements Synthesizer {
+    private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+    private static final long STANDBY_CHECK_MILLIS = 5000;
+
+    private final EndpointRouter router;
+    private final Map<TTSClient, Endpoint> clientEndpoints = new ConcurrentHashMap<>();
+    private final String apiKey;
+    private final String voiceId;
+    private final int minConnections;
+    private final int maxConnections;
+    private final List<TTSClient> clients;
+    private final Map<String, TTSClient> contextOwners;
+    private final Set<String> placingContexts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong synthesisIds = new AtomicLong();
+    private final List<CompletableFuture<TTSClient>> openings = new ArrayList<>();
+    private Map<String, String> params;
+    private volatile AudioRetention defaultRetention = AudioRetention.full();
+    private volatile CallbackDispatcher dispatcher = Dispatchers.inline();
+    private volatile Transport transport = Transports.javaWebSocket();
+    private volatile ReconnectPolicy reconnectPolicy = ReconnectPolicy.disabled();
+    private volatile SynthesisCache cache;
+    private volatile MetricsRecorder metrics = MetricsRecorder.NOOP;
+    private volatile AdmissionController.Options admissionOptions = AdmissionController.Options.defaults();
+    private final AtomicInteger waitingContexts = new AtomicInteger();
+    private final ConcurrentLinkedDeque<TTSClient> standby = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger standbyOpening = new AtomicInteger();
+    private volatile int warmStandby;
+    private volatile ScheduledExecutorService executor;
+    private ScheduledFuture<?> standbyCheck;
+    private final AtomicBoolean scaleDownPending = new AtomicBoolean();
+    private final LatencyHistogram connectLatencies = new LatencyHistogram();
+    private final LatencyHistogram handoverLatencies = new LatencyHistogram();
+    private final AtomicLong standbyHits = new AtomicLong();
+    private final AtomicLong standbyMisses = new AtomicLong();
+    private volatile long startupNanos = -1;
+    private volatile boolean connected;
+
+    /**
+     * 构造函数
+     *
+     * @param baseUrl WebSocket 基础 URL (例如: ws://localhost:5001)
+     * @param apiKey API 密钥
+     * @param voiceId 音色 ID
+     * @param minConnections 最少保持的连接数
+     * @param maxConnections 最多允许的连接数
+     */
+    public TTSConnectionPool(String baseUrl, String apiKey, String voiceId,
+                             int minConnections, int maxConnections) {
+        this(Collections.singletonList(baseUrl), apiKey, voiceId, minConnections, maxConnections);
+    }
+
+    /**
+     * 构造连接多个服务端节点的连接池
+     * 启动时最少数量的连接轮流分布到各节点上，之后新上下文按节点健康状况路由；
+     * 连接数上限 maxConnections 对所有节点合计
+     *
+     * @param baseUrls 各节点的 WebSocket 基础 URL
+     * @param apiKey API 密钥
+     * @param voiceId 音色 ID
+     * @param minConnections 最少保持的连接数
+     * @param maxConnections 最多允许的连接数
+     */
+    public TTSConnectionPool(List<String> baseUrls, String apiKey, String voiceId,
+                             int minConnections, int maxConnections) {
+        if (minConnections < 0 || maxConnections < 1 || minConnections > maxConnections) {
+            throw new IllegalArgumentException("Invalid connection bounds: min=" + minConnections +
+                                               ", max=" + maxConnections);
+        }
+        this.router = new EndpointRouter(baseUrls);
+        this.apiKey = apiKey;
+        this.voiceId = voiceId;
+        this.minConnections = minConnections;
+        this.maxConnections = maxConnections;
+        this.clients = new CopyOnWriteArrayList<>();
+        this.contextOwners = new ConcurrentHashMap<>();
+        this.connected = false;
+    }
+
+    /**
+     * 建立最少数量的连接
+     *
+     * @param params 连接参数（model_id, format, language_code 等），所有连接共用
+     * @throws Exception 连接失败时抛出异常
+     */
+    public void connect(Map<String, String> params) throws Exception {
+        try {
+            connectAsync(params).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步建立最少数量的连接，各连接的握手并行进行
+     * 最少数量的连接全部就绪后 Future 完成，任一连接失败时断开连接池并异常完成；
+     * 启用热备时，热备连接在之后于后台建立
+     *
+     * @param params 连接参数（model_id, format, language_code 等），所有连接共用
+     * @return 连接池可用时完成的 Future
+     * @throws IllegalStateException 已连接时抛出
+     */
+    public synchronized CompletableFuture<Void> connectAsync(Map<String, String> params) {
+        if (connected) {
+            throw new IllegalStateException("Already connected");
+        }
+
+        this.params = params == null ? null : new HashMap<>(params);
+        connected = true;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tts-pool");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+
+        List<Endpoint> endpoints = router.getEndpoints();
+        List<CompletableFuture<TTSClient>> opening = new ArrayList<>();
+        for (int i = 0; i < minConnections; i++) {
+            opening.add(connectClient(endpoints.get(i % endpoints.size())).whenComplete((client, e) -> {
+                if (e == null) {
+                    connectLatencies.record(System.nanoTime() - start);
+                    adoptOrClose(client);
+                }
+            }));
+        }
+
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        CompletableFuture.allOf(opening.toArray(new CompletableFuture<?>[0])).whenComplete((v, e) -> {
+            if (e != null) {
+                disconnect();
+                ready.completeExceptionally(unwrap(e));
+                return;
+            }
+            startupNanos = System.nanoTime() - start;
+            if (DEBUG) {
+                System.out.println("[DEBUG] Pool ready in " + getStartupMillis() + " ms");
+            }
+            synchronized (this) {
+                refillStandby();
+            }
+            ready.complete(null);
+        });
+        return ready;
+    }
+
+    /**
+     * 设置热备连接数（默认 0）
+     * 连接池额外保持指定数量已完成握手和认证、但不承载上下文的连接；需要新连接时
+     * （扩容或替换断开的连接）直接接管一条热备连接，省去建连耗时，并在后台补充新的热备连接。
+     * 热备连接不计入 maxConnections。
+     */
+    public synchronized void setWarmStandby(int connections) {
+        if (connections < 0) {
+            throw new IllegalArgumentException("Warm standby must be >= 0: " + connections);
+        }
+        this.warmStandby = connections;
+        if (!connected) {
+            return;
+        }
+        while (standby.size() > connections) {
+            TTSClient extra = standby.pollLast();
+            if (extra != null) {
+                discard(extra);
+            }
+        }
+        refillStandby();
+    }
+
+    /**
+     * 创建新的上下文，分配到活跃上下文最少的连接上
+     * 所有连接已满且未达到 maxConnections 时会新建连接；配置多个节点时先选节点，
+     * 该节点的连接已满且不能再新建连接时，使用其他节点上的空闲槽位。
+     * 新建连接时在握手完成前阻塞调用线程，但不占用连接池锁，其他线程可以照常创建和关闭上下文
+     *
+     * @param contextId 上下文 ID（在整个连接池内唯一）
+     * @return TTSContext 对象
+     * @throws Exception 需要新建连接但连接失败时抛出异常
+     * @throws IllegalStateException 如果未连接或连接池已满
+     * @throws IllegalArgumentException 如果上下文 ID 已存在
+     */
+    public TTSContext createContext(String contextId) throws Exception {
+        CompletableFuture<TTSClient> opening;
+        synchronized (this) {
+            if (!connected) {
+                throw new IllegalStateException("Not connected");
+            }
+            checkNewContextId(contextId);
+
+            pruneDeadConnections();
+
+            Endpoint endpoint = chooseEndpoint();
+            TTSClient target = leastLoaded(endpoint);
+            if (target == null && !canOpenConnection()) {
+                target = leastLoaded(null);
+            }
+            opening = target == null ? openOrJoin(endpoint) : null;
+            if (opening == null) {
+                return placeContext(contextId, target);
+            }
+            placingContexts.add(contextId);
+        }
+
+        TTSClient opened;
+        try {
+            opened = opening.get();
+        } catch (Exception e) {
+            placingContexts.remove(contextId);
+            if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            placingContexts.remove(contextId);
+            if (!connected) {
+                throw new IllegalStateException("Not connected");
+            }
+            // 握手期间新连接的槽位可能已被其他请求占满，或者连接已因空闲被缩容
+            return placeContext(contextId, hasFreeSlot(opened) ? opened : null);
+        }
+    }
+
+    /**
+     * 创建新的上下文，所有连接已满且不能再新建连接时排队等待
+     * 请求在负载（活跃上下文 + 排队请求）最低的连接上排队，由该连接释放的槽位接收；
+     * 需要新建连接时，握手在后台进行，握手耗时计入等待时间
+     *
+     * @param contextId 上下文 ID（在整个连接池内唯一）
+     * @param priority 优先级
+     * @param timeoutMillis 最长等待时间（毫秒），0 表示没有空闲槽位时立即失败
+     * @return 获得槽位后完成的上下文
+     * @throws IllegalArgumentException 如果上下文 ID 已存在或正在排队
+     * @see TTSClient#acquireContext(String, Priority, long)
+     */
+    public CompletableFuture<TTSContext> acquireContext(String contextId, Priority priority, long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout must be >= 0: " + timeoutMillis);
+        }
+        long start = System.nanoTime();
+        TTSClient owner;
+        CompletableFuture<TTSClient> opening;
+        synchronized (this) {
+            if (!connected) {
+                return failed(new TTSException("NOT_CONNECTED", "Not connected"));
+            }
+            checkNewContextId(contextId);
+
+            pruneDeadConnections();
+
+            Endpoint endpoint = chooseEndpoint();
+            TTSClient target = leastLoaded(endpoint);
+            if (target == null && !canOpenConnection()) {
+                target = leastLoaded(null);
+            }
+            opening = target == null ? openOrJoin(endpoint) : null;
+            if (opening != null) {
+                placingContexts.add(contextId);
+                owner = null;
+            } else {
+                owner = reserveContext(contextId, target);
+                if (owner == null) {
+                    return failed(new TTSException("NOT_CONNECTED", "No live connection"));
+                }
+            }
+        }
+        if (opening == null) {
+            return queueContext(owner, contextId, priority, timeoutMillis);
+        }
+
+        CompletableFuture<TTSContext> result = new CompletableFuture<>();
+        opening.whenComplete((opened, error) -> {
+            TTSClient reserved;
+            synchronized (this) {
+                placingContexts.remove(contextId);
+                if (result.isDone()) {
+                    // 握手期间已被取消
+                    return;
+                }
+                if (error != null) {
+                    result.completeExceptionally(new TTSException("CONNECTION_ERROR",
+                                                                  String.valueOf(unwrap(error).getMessage())));
+                    return;
+                }
+                if (!connected) {
+                    result.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+                    return;
+                }
+                reserved = reserveContext(contextId, hasFreeSlot(opened) ? opened : null);
+                if (reserved == null) {
+                    result.completeExceptionally(new TTSException("NOT_CONNECTED", "No live connection"));
+                    return;
+                }
+            }
+            long remaining = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            CompletableFuture<TTSContext> queued = queueContext(reserved, contextId, priority, Math.max(0, remaining));
+            queued.whenComplete((context, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(unwrap(e));
+                } else if (!result.complete(context)) {
+                    // 排队期间已被取消
+                    context.close();
+                }
+            });
+            result.whenComplete((context, e) -> {
+                if (result.isCancelled()) {
+                    queued.cancel(false);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 创建新的上下文，没有空闲槽位时阻塞等待
+     *
+     * @throws TTSException 等待超时、队列已满或连接断开时抛出
+     * @throws InterruptedException 等待被中断时抛出，此时已退出队列
+     * @see #acquireContext(String, Priority, long)
+     */
+    public TTSContext createContext(String contextId, Priority priority, long timeoutMillis)
+            throws InterruptedException {
+        CompletableFuture<TTSContext> future = acquireContext(contextId, priority, timeoutMillis);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TTSException("ADMISSION_FAILED", String.valueOf(cause));
+        }
+    }
+
+    /**
+     * 合成一段文本，分配到负载（活跃上下文 + 排队请求）最低的连接上
+     * 所有连接已满且未达到 maxConnections 时会新建连接，否则在负载最低的连接上排队
+     *
+     * @param text 要转换的文本
+     * @return 合成结果
+     * @see TTSClient#synthesize(String)
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text) {
+        return synthesize(text, Priority.INTERACTIVE);
+    }
+
+    /**
+     * 以指定优先级合成一段文本
+     *
+     * @see TTSClient#synthesize(String, Priority)
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority) {
+        return synthesize(text, priority, null);
+    }
+
+    /**
+     * 以指定优先级合成一段文本，音频边到达边交付给 onAudio
+     *
+     * @see TTSClient#synthesize(String, Priority, BinaryAudioCallback)
+     */
+    @Override
+    public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, BinaryAudioCallback onAudio) {
+        TTSClient target;
+        CompletableFuture<TTSClient> opening;
+        synchronized (this) {
+            if (!connected) {
+                return failed(new TTSException("NOT_CONNECTED", "Not connected"));
+            }
+
+            pruneDeadConnections();
+
+            Endpoint endpoint = chooseEndpoint();
+            target = leastBusy(endpoint);
+            if (isFull(target) && !canOpenConnection()) {
+                // 所选节点已满：在所有节点中找负载最低的连接
+                TTSClient any = leastBusy(null);
+                if (any != null && (target == null || load(any) < load(target))) {
+                    target = any;
+                }
+            }
+            opening = isFull(target) ? openOrJoin(endpoint) : null;
+            if (opening == null && target == null) {
+                return failed(new TTSException("NOT_CONNECTED", "No live connection"));
+            }
+        }
+        if (opening == null) {
+            return target.synthesize(text, priority, onAudio);
+        }
+
+        CompletableFuture<SynthesisResult> result = new CompletableFuture<>();
+        opening.whenComplete((opened, error) -> {
+            TTSClient client = opened;
+            if (error != null || !opened.isConnected()) {
+                synchronized (this) {
+                    client = leastBusy(null);
+                }
+                if (client == null) {
+                    result.completeExceptionally(error == null
+                        ? new TTSException("NOT_CONNECTED", "No live connection")
+                        : new TTSException("CONNECTION_ERROR", String.valueOf(unwrap(error).getMessage())));
+                    return;
+                }
+            }
+            CompletableFuture<SynthesisResult> pending = client.synthesize(text, priority, onAudio);
+            pending.whenComplete((value, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(unwrap(e));
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, e) -> {
+                if (result.isCancelled()) {
+                    pending.cancel(false);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * 设置多节点路由策略（只有一个节点时不生效）
+     */
+    public void setRoutingPolicy(RoutingPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Routing policy must not be null");
+        }
+        router.setPolicy(policy);
+    }
+
+    /**
+     * 获取多节点路由策略
+     */
+    public RoutingPolicy getRoutingPolicy() {
+        return router.getPolicy();
+    }
+
+    /**
+     * 获取所有服务端节点及其健康状态（只读）
+     */
+    public List<Endpoint> getEndpoints() {
+        return router.getEndpoints();
+    }
+
+    /**
+     * 设置新建上下文默认使用的音频保留策略，对所有连接生效
+     */
+    public void setDefaultAudioRetention(AudioRetention retention) {
+        if (retention == null) {
+            throw new IllegalArgumentException("Retention policy must not be null");
+        }
+        this.defaultRetention = retention;
+        for (TTSClient client : clients) {
+            client.setDefaultAudioRetention(retention);
+        }
+    }
+
+    /**
+     * 设置 WebSocket 传输层，对之后建立的连接生效（包括重连和热备连接）
+     * 池中所有连接共用同一个传输层实例；使用 {@link Transports#jdkWebSocket(int)} 时，
+     * 整个连接池只占用一个选择器线程和固定数量的回调线程
+     */
+    public void setTransport(Transport transport) {
+        if (transport == null) {
+            throw new IllegalArgumentException("Transport must not be null");
+        }
+        this.transport = transport;
+        for (TTSClient client : clients) {
+            client.setTransport(transport);
+        }
+    }
+
+    /**
+     * 获取 WebSocket 传输层
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * 设置回调分发器，对所有连接生效
+     */
+    public void setCallbackDispatcher(CallbackDispatcher dispatcher) {
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("Dispatcher must not be null");
+        }
+        this.dispatcher = dispatcher;
+        for (TTSClient client : clients) {
+            client.setCallbackDispatcher(dispatcher);
+        }
+    }
+
+    /**
+     * 设置自动重连策略，对所有连接生效
+     * 重连中的连接保留在池中，不会分配新上下文
+     */
+    public void setReconnectPolicy(ReconnectPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Reconnect policy must not be null");
+        }
+        this.reconnectPolicy = policy;
+        for (TTSClient client : clients) {
+            client.setReconnectPolicy(policy);
+        }
+    }
+
+    /**
+     * 设置合成结果缓存，所有连接共用同一个缓存
+     */
+    public void setCache(SynthesisCache cache) {
+        this.cache = cache;
+        for (TTSClient client : clients) {
+            client.setCache(cache);
+        }
+    }
+
+    /**
+     * 设置指标采集器，所有连接共用，指标按整个连接池汇总
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        if (recorder == null) {
+            throw new IllegalArgumentException("Metrics recorder must not be null");
+        }
+        this.metrics = recorder;
+        for (TTSClient client : clients) {
+            client.setMetricsRecorder(recorderFor(client));
+        }
+    }
+
+    /**
+     * 设置上下文准入队列参数，对所有连接生效
+     */
+    public void setAdmissionOptions(AdmissionController.Options options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Options must not be null");
+        }
+        this.admissionOptions = options;
+        for (TTSClient client : clients) {
+            client.getAdmissionController().setOptions(options);
+        }
+    }
+
+    /**
+     * 获取所有连接上等待槽位的请求总数
+     */
+    public int getQueuedRequestCount() {
+        int total = 0;
+        for (TTSClient client : clients) {
+            total += client.getQueuedSynthesisCount();
+        }
+        return total;
+    }
+
+    /**
+     * 获取指定的上下文
+     */
+    public TTSContext getContext(String contextId) {
+        TTSClient owner = contextOwners.get(contextId);
+        return owner == null ? null : owner.getContext(contextId);
+    }
+
+    /**
+     * 断开所有连接
+     */
+    public synchronized void disconnect() {
+        connected = false;
+        for (TTSClient client : clients) {
+            client.setRemovalListener(null);
+            discard(client);
+        }
+        clients.clear();
+        contextOwners.clear();
+
+        if (executor != null) {
+            // 已提交的连接尝试仍会执行，发现连接池已断开后以 NOT_CONNECTED 结束
+            executor.shutdown();
+            executor = null;
+            standbyCheck = null;
+        }
+        TTSClient spare;
+        while ((spare = standby.poll()) != null) {
+            discard(spare);
+        }
+
+        if (DEBUG) {
+            System.out.println("[DEBUG] Pool disconnected");
+        }
+    }
+
+    /**
+     * 是否已连接
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * 获取当前连接数
+     */
+    public int getConnectionCount() {
+        return clients.size();
+    }
+
+    /**
+     * 获取所有连接上活跃的上下文总数
+     */
+    public int getActiveContextCount() {
+        return Math.max(0, contextOwners.size() - waitingContexts.get());
+    }
+
+    /**
+     * 获取当前就绪的热备连接数
+     */
+    public int getStandbyCount() {
+        return standby.size();
+    }
+
+    /**
+     * 获取需要新连接时直接接管热备连接的次数
+     */
+    public long getStandbyHits() {
+        return standbyHits.get();
+    }
+
+    /**
+     * 获取启用热备时没有可用热备、只能现场建连的次数
+     */
+    public long getStandbyMisses() {
+        return standbyMisses.get();
+    }
+
+    /**
+     * 获取现场建连（含启动时的连接）从发起到握手完成的耗时分布（纳秒）
+     */
+    public HistogramSnapshot getConnectLatencies() {
+        return connectLatencies.snapshot();
+    }
+
+    /**
+     * 获取接管热备连接的耗时分布（纳秒）
+     */
+    public HistogramSnapshot getHandoverLatencies() {
+        return handoverLatencies.snapshot();
+    }
+
+    /**
+     * 获取启动耗时（毫秒）：从 connect 到最少数量的连接全部就绪，尚未启动完成时返回 -1
+     */
+    public long getStartupMillis() {
+        long nanos = startupNanos;
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 获取连接池最大可承载的上下文数量
+     */
+    public int getCapacity() {
+        return maxConnections * TTSClient.MAX_CONTEXTS;
+    }
+
+    /**
+     * 是否还能新建连接（正在握手的连接也占用名额，调用方持有连接池锁）
+     */
+    private boolean canOpenConnection() {
+        return clients.size() + openings.size() < maxConnections;
+    }
+
+    /**
+     * 需要新连接时调用（调用方持有连接池锁）：未达到 maxConnections 时新建连接，
+     * 否则等待正在建立的连接；两者都不可能时返回 null
+     */
+    private CompletableFuture<TTSClient> openOrJoin(Endpoint endpoint) {
+        if (canOpenConnection()) {
+            return openConnection(endpoint);
+        }
+        return openings.isEmpty() ? null : openings.get(0);
+    }
+
+    /**
+     * 在指定节点上新建一条连接并加入连接池（调用方持有连接池锁）
+     * 有热备连接时直接接管；否则只占用一个连接名额，在连接池线程上发起握手，
+     * 该节点连接失败时依次尝试其他节点，整个过程不持有连接池锁
+     *
+     * @return 连接加入连接池后完成的 Future
+     */
+    private CompletableFuture<TTSClient> openConnection(Endpoint endpoint) {
+        long start = System.nanoTime();
+        TTSClient client = takeStandby(endpoint);
+        if (client != null) {
+            // 热备期间设置可能已变化，接管前重新应用
+            configure(client);
+            adopt(client);
+            handoverLatencies.record(System.nanoTime() - start);
+            standbyHits.incrementAndGet();
+            refillStandby();
+
+            if (DEBUG) {
+                System.out.println("[DEBUG] Pool took over standby connection (total: " + clients.size() + ")");
+            }
+            return CompletableFuture.completedFuture(client);
+        }
+        if (warmStandby > 0) {
+            standbyMisses.incrementAndGet();
+        }
+
+        CompletableFuture<TTSClient> opened = new CompletableFuture<>();
+        openings.add(opened);
+        connectClient(endpoint).whenComplete((c, e) -> {
+            boolean adopted = false;
+            synchronized (this) {
+                openings.remove(opened);
+                if (e == null && connected) {
+                    connectLatencies.record(System.nanoTime() - start);
+                    adopt(c);
+                    adopted = true;
+                }
+            }
+            if (adopted) {
+                if (DEBUG) {
+                    System.out.println("[DEBUG] Pool opened connection (total: " + clients.size() + ")");
+                }
+                opened.complete(c);
+            } else if (e != null) {
+                opened.completeExceptionally(unwrap(e));
+            } else {
+                discard(c);
+                opened.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+            }
+        });
+        return opened;
+    }
+
+    /**
+     * 连接指定节点，失败时记入该节点的错误率，并按路由策略改连其他节点，全部失败时异常完成
+     * 每次连接尝试（包括改连）都在连接池线程上发起，调用方可以持有连接池锁
+     */
+    private CompletableFuture<TTSClient> connectClient(Endpoint endpoint) {
+        CompletableFuture<TTSClient> result = new CompletableFuture<>();
+        List<Endpoint> tried = new ArrayList<>();
+        runOnPool(() -> connectClient(endpoint, tried, result), result);
+        return result;
+    }
+
+    private void connectClient(Endpoint endpoint, List<Endpoint> tried, CompletableFuture<TTSClient> result) {
+        if (!connected) {
+            result.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+            return;
+        }
+        TTSClient client = newClient(endpoint);
+        CompletableFuture<Void> connecting;
+        try {
+            connecting = client.connectAsync(params);
+        } catch (RuntimeException e) {
+            discard(client);
+            result.completeExceptionally(e);
+            return;
+        }
+        connecting.whenComplete((v, e) -> {
+            if (e == null) {
+                result.complete(client);
+                return;
+            }
+            discard(client);
+            endpoint.recordOutcome(true, router.getPolicy());
+            // 改连不占用 I/O 线程
+            runOnPool(() -> {
+                tried.add(endpoint);
+                Endpoint next = connected ? router.choose(this::endpointLoad, tried) : null;
+                if (next == null) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                if (DEBUG) {
+                    System.out.println("[DEBUG] Pool failed to connect " + endpoint.getUrl()
+                                       + ", trying " + next.getUrl());
+                }
+                connectClient(next, tried, result);
+            }, result);
+        });
+    }
+
+    /**
+     * 在连接池线程上执行，连接池已断开时以 NOT_CONNECTED 结束 result
+     */
+    private void runOnPool(Runnable task, CompletableFuture<?> result) {
+        ScheduledExecutorService pool = executor;
+        if (pool != null) {
+            try {
+                pool.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // 连接池已断开
+            }
+        }
+        result.completeExceptionally(new TTSException("NOT_CONNECTED", "Not connected"));
+    }
+
+    /**
+     * 创建一个按连接池设置配置好的客户端（尚未连接）
+     */
+    private TTSClient newClient(Endpoint endpoint) {
+        TTSClient client = new TTSClient(endpoint.getUrl(), apiKey, voiceId);
+        clientEndpoints.put(client, endpoint);
+        configure(client);
+        return client;
+    }
+
+    private void configure(TTSClient client) {
+        client.setDefaultAudioRetention(defaultRetention);
+        client.setCallbackDispatcher(dispatcher);
+        client.setTransport(transport);
+        client.setReconnectPolicy(reconnectPolicy);
+        client.setCache(cache);
+        client.setMetricsRecorder(recorderFor(client));
+        client.getAdmissionController().setOptions(admissionOptions);
+        client.shareSynthesisIds(synthesisIds, this::isPooledContextId);
+    }
+
+    /**
+     * 上下文 ID 是否已由连接池分配或正在分配
+     */
+    private boolean isPooledContextId(String contextId) {
+        return contextOwners.containsKey(contextId) || placingContexts.contains(contextId);
+    }
+
+    /**
+     * 多节点时包装指标采集器，把首帧耗时和成败记入客户端所属节点
+     */
+    private MetricsRecorder recorderFor(TTSClient client) {
+        Endpoint endpoint = clientEndpoints.get(client);
+        if (router.getEndpoints().size() == 1 || endpoint == null) {
+            return metrics;
+        }
+        return new EndpointRecorder(endpoint, router, metrics);
+    }
+
+    /**
+     * 断开并丢弃一个客户端
+     */
+    private void discard(TTSClient client) {
+        clientEndpoints.remove(client);
+        client.disconnect();
+    }
+
+    /**
+     * 把已连接的客户端加入连接池
+     */
+    private void adopt(TTSClient client) {
+        client.setRemovalListener(contextId -> onContextRemoved(client, contextId));
+        clients.add(client);
+    }
+
+    /**
+     * 异步连接完成后加入连接池，连接池已断开时关闭该连接
+     */
+    private synchronized void adoptOrClose(TTSClient client) {
+        if (connected) {
+            adopt(client);
+        } else {
+            discard(client);
+        }
+    }
+
+    /**
+     * 取出一条仍然存活的热备连接，优先取指定节点上的，没有则返回 null
+     */
+    private TTSClient takeStandby(Endpoint endpoint) {
+        TTSClient fallback = null;
+        for (TTSClient client : standby) {
+            if (!client.isConnected()) {
+                if (standby.remove(client)) {
+                    discard(client);
+                }
+                continue;
+            }
+            Endpoint owner = clientEndpoints.get(client);
+            if (owner == endpoint) {
+                if (standby.remove(client)) {
+                    return client;
+                }
+            } else if (fallback == null && owner != null && owner.isAvailable()) {
+                fallback = client;
+            }
+        }
+        if (fallback != null && standby.remove(fallback)) {
+            return fallback;
+        }
+        return null;
+    }
+
+    /**
+     * 在后台补足热备连接（调用方持有连接池锁）
+     */
+    private void refillStandby() {
+        if (warmStandby == 0 || !connected) {
+            return;
+        }
+        if (standbyCheck == null) {
+            // 定期剔除已断开的热备连接并补充
+            standbyCheck = executor.scheduleWithFixedDelay(this::checkStandby, STANDBY_CHECK_MILLIS,
+                                                           STANDBY_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        while (standby.size() + standbyOpening.get() < warmStandby) {
+            standbyOpening.incrementAndGet();
+            connectClient(chooseEndpoint()).whenComplete((client, e) -> {
+                standbyOpening.decrementAndGet();
+                if (e != null) {
+                    // 下次定期检查时重试
+                    if (DEBUG) {
+                        System.out.println("[DEBUG] Pool standby connection failed: " + e.getMessage());
+                    }
+                    return;
+                }
+                synchronized (this) {
+                    if (!connected || standby.size() >= warmStandby) {
+                        discard(client);
+                        return;
+                    }
+                    standby.add(client);
+                }
+            });
+        }
+    }
+
+    private synchronized void checkStandby() {
+        standby.removeIf(client -> {
+            if (client.isConnected()) {
+                return false;
+            }
+            discard(client);
+            return true;
+        });
+        refillStandby();
+    }
+
+    /**
+     * 按路由策略选择节点（只有一个节点时直接返回）
+     */
+    private Endpoint chooseEndpoint() {
+        return router.choose(this::endpointLoad, Collections.<Endpoint>emptyList());
+    }
+
+    /**
+     * 节点上所有连接的负载之和
+     */
+    private int endpointLoad(Endpoint endpoint) {
+        int total = 0;
+        for (TTSClient client : clients) {
+            if (clientEndpoints.get(client) == endpoint) {
+                total += load(client);
+            }
+        }
+        return total;
+    }
+
+    private static int load(TTSClient client) {
+        return client.getActiveContextCount() + client.getQueuedSynthesisCount();
+    }
+
+    /**
+     * 选出指定节点上（null 表示不限节点，已摘除节点上的连接排在最后）有空闲槽位且负载最低的连接，没有则返回 null
+     */
+    private TTSClient leastLoaded(Endpoint endpoint) {
+        TTSClient best = null;
+        for (TTSClient client : clients) {
+            if (!client.isConnected() || client.getAvailableContextSlots() == 0) {
+                continue;
+            }
+            if (endpoint != null && clientEndpoints.get(client) != endpoint) {
+                continue;
+            }
+            if (best == null || isBetter(client, client.getActiveContextCount(), best, best.getActiveContextCount())) {
+                best = client;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 选出指定节点上（null 表示不限节点，已摘除节点上的连接排在最后）活跃上下文与排队请求之和最低的已连接连接，
+     * 没有则返回 null
+     */
+    private TTSClient leastBusy(Endpoint endpoint) {
+        TTSClient best = null;
+        for (TTSClient client : clients) {
+            if (!client.isConnected() || (endpoint != null && clientEndpoints.get(client) != endpoint)) {
+                continue;
+            }
+            if (best == null || isBetter(client, load(client), best, load(best))) {
+                best = client;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 先比较所属节点是否可用，再比较负载
+     */
+    private boolean isBetter(TTSClient client, int load, TTSClient best, int bestLoad) {
+        boolean available = isOnAvailableEndpoint(client);
+        if (available != isOnAvailableEndpoint(best)) {
+            return available;
+        }
+        return load < bestLoad;
+    }
+
+    private boolean isOnAvailableEndpoint(TTSClient client) {
+        Endpoint endpoint = clientEndpoints.get(client);
+        return endpoint == null || endpoint.isAvailable();
+    }
+
+    /**
+     * 选出排队请求最少的已连接连接，没有则返回 null
+     */
+    private TTSClient leastQueued() {
+        TTSClient best = null;
+        for (TTSClient client : clients) {
+            if (!client.isConnected()) {
+                continue;
+            }
+            if (best == null || isBetter(client, client.getQueuedSynthesisCount(), best, best.getQueuedSynthesisCount())) {
+                best = client;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 移除已断开且不再重连的连接，并释放其上下文的归属记录
+     */
+    private void pruneDeadConnections() {
+        for (TTSClient client : clients) {
+            if (!client.isConnected() && !client.isReconnecting()) {
+                clients.remove(client);
+                client.setRemovalListener(null);
+                contextOwners.values().removeIf(owner -> owner == client);
+                discard(client);
+            }
+        }
+    }
+
+    /**
+     * 检查新上下文 ID 在连接池内是否唯一（包括正在等待新连接的上下文）
+     */
+    private void checkNewContextId(String contextId) {
+        if (isPooledContextId(contextId)) {
+            throw new IllegalArgumentException("Context already exists: " + contextId);
+        }
+        // 直接在连接上发起的合成请求同样占用池内唯一的上下文 ID
+        for (TTSClient client : clients) {
+            if (client.hasContextId(contextId)) {
+                throw new IllegalArgumentException("Context already exists: " + contextId);
+            }
+        }
+    }
+
+    /**
+     * 在指定连接上创建上下文（调用方持有连接池锁），target 为 null 时改用任意节点上有空闲槽位且负载最低的连接
+     */
+    private TTSContext placeContext(String contextId, TTSClient target) {
+        if (target == null) {
+            target = leastLoaded(null);
+        }
+        if (target == null) {
+            throw new IllegalStateException("Maximum contexts (" + getCapacity() + ") reached");
+        }
+
+        TTSContext context = target.createContext(contextId);
+        contextOwners.put(contextId, target);
+        return context;
+    }
+
+    /**
+     * 为排队的上下文选定连接并占住 ID（调用方持有连接池锁），target 为 null 时依次改用
+     * 任意节点上有空闲槽位的连接和排队最少的连接；没有存活连接时返回 null
+     */
+    private TTSClient reserveContext(String contextId, TTSClient target) {
+        if (target == null) {
+            target = leastLoaded(null);
+        }
+        if (target == null) {
+            target = leastQueued();
+        }
+        if (target == null) {
+            return null;
+        }
+        // 排队期间先占住 ID，避免重复创建
+        contextOwners.put(contextId, target);
+        waitingContexts.incrementAndGet();
+        return target;
+    }
+
+    /**
+     * 在 {@link #reserveContext} 选定的连接上排队（不持有连接池锁，槽位交接可能直接执行回调）
+     */
+    private CompletableFuture<TTSContext> queueContext(TTSClient owner, String contextId,
+                                                       Priority priority, long timeoutMillis) {
+        CompletableFuture<TTSContext> future = owner.acquireContext(contextId, priority, timeoutMillis);
+        future.whenComplete((context, error) -> {
+            waitingContexts.decrementAndGet();
+            if (error != null) {
+                contextOwners.remove(contextId, owner);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 上下文关闭后回收槽位（在连接的读线程或回调线程上调用，不能阻塞）
+     * 缩容检查提交到连接池线程执行，多次移除合并为一次检查
+     */
+    private void onContextRemoved(TTSClient client, String contextId) {
+        contextOwners.remove(contextId, client);
+        ScheduledExecutorService pool = executor;
+        if (!connected || pool == null || !scaleDownPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pool.execute(this::scaleDown);
+        } catch (RejectedExecutionException e) {
+            // 连接池已断开
+            scaleDownPending.set(false);
+        }
+    }
+
+    /**
+     * 空闲连接过多时缩容
+     */
+    private synchronized void scaleDown() {
+        scaleDownPending.set(false);
+        if (!connected) {
+            return;
+        }
+
+        // 保留一条空闲连接作为余量，避免在临界负载下反复建连/断连
+        List<TTSClient> idle = new ArrayList<>();
+        for (TTSClient c : clients) {
+            // 归属记录也要为空：连接上刚关闭的上下文可能还没回调到连接池，
+            // 或者已为排队请求选定该连接、请求尚未入队
+            if (c.getActiveContextCount() == 0 && c.getQueuedSynthesisCount() == 0
+                && !contextOwners.containsValue(c)) {
+                idle.add(c);
+            }
+        }
+        for (int i = 1; i < idle.size() && clients.size() > minConnections; i++) {
+            TTSClient c = idle.get(i);
+            clients.remove(c);
+            c.setRemovalListener(null);
+            discard(c);
+
+            if (DEBUG) {
+                System.out.println("[DEBUG] Pool closed idle connection (total: " + clients.size() + ")");
+            }
+        }
+    }
+
+    private static boolean isFull(TTSClient client) {
+        return client == null || load(client) >= TTSClient.MAX_CONTEXTS;
+    }
+
+    private static boolean hasFreeSlot(TTSClient client) {
+        return client.isConnected() && client.getAvailableContextSlots() > 0;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -1,14 +1,26 @@
 package com.inccleo.tts;
 
+import com.inccleo.tts.cache.CachedAudio;
+import com.inccleo.tts.cache.SynthesisCache;
 import com.inccleo.tts.callback.AudioCallback;
+import com.inccleo.tts.callback.AudioListener;
+import com.inccleo.tts.callback.BackpressureCallback;
+import com.inccleo.tts.callback.BinaryAudioCallback;
 import com.inccleo.tts.callback.CompleteCallback;
 import com.inccleo.tts.callback.ErrorCallback;
-import org.json.JSONObject;
+import com.inccleo.tts.dispatch.DispatchLane;
+import com.inccleo.tts.metrics.MetricsRecorder;
+import com.inccleo.tts.reactive.AudioPublisher;
+import com.inccleo.tts.text.TextCoalescer;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * TTS 上下文类
@@ -17,12 +29,50 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class TTSContext {
     private final String contextId;
     private final TTSClient client;
-    private AudioCallback audioCallback;
-    private ErrorCallback errorCallback;
-    private CompleteCallback completeCallback;
-    private final List<byte[]> audioChunks;
+    private final DispatchLane lane;
+    private volatile AudioCallback audioCallback;
+    private volatile BinaryAudioCallback binaryAudioCallback;
+    private volatile ErrorCallback errorCallback;
+    private volatile CompleteCallback completeCallback;
+    private volatile BackpressureCallback backpressureCallback;
+    private final List<AudioListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile AudioRetention retention;
+    private volatile AudioStore audioStore;
+    private volatile boolean overflowed;
     private final AtomicBoolean closed;
 
+    // 重连重放状态，均由 sendLock 保护
+    private final Object sendLock = new Object();
+    private final List<TextSegment> unfinalized = new ArrayList<>();
+    private int unfinalizedChars;
+    private boolean replayTruncated;
+    private int eosMark = -1;
+    private boolean needsReplay;
+    private int replayCount;
+    private volatile int safePointChunks;
+
+    // 缓存写入状态：speak 未命中时收集该语句的音频，收到 is_final 后写入缓存
+    private volatile boolean textPending;
+    private volatile String captureKey;
+    private List<byte[]> capture;
+
+    // 指标状态：语句开始时间由发送线程写入，其余仅由读线程访问
+    private volatile long utteranceStartNanos;
+    private long lastChunkNanos;
+    private long utteranceBytes;
+    private int utteranceChunks;
+
+    // 音频看门狗：发出 flush 文本或 EOS 时开始计时（0 表示未计时），仅在启用音频超时时读取时钟
+    private volatile long watchdogSince;
+    private volatile boolean eosPending;
+
+    // 打断状态：每次 cancel 递增代数并换用新的线路 ID，分发通道上旧代数的回调直接跳过
+    private volatile int generation;
+    private volatile String wireId;
+    private int readerGeneration;
+    private final AtomicLong cancelCount = new AtomicLong();
+    private volatile long lastCancelNanos = -1;
+
     /**
      * 构造函数（内部使用）
      * 
@@ -30,9 +80,23 @@ public class TTSContext {
      * @param client TTS 客户端
      */
     TTSContext(String contextId, TTSClient client) {
+        this(contextId, contextId, client);
+    }
+
+    /**
+     * 构造函数（内部使用）
+     *
+     * @param contextId 上下文 ID
+     * @param wireId 发给服务端的 contextId
+     * @param client TTS 客户端
+     */
+    TTSContext(String contextId, String wireId, TTSClient client) {
         this.contextId = contextId;
+        this.wireId = wireId;
         this.client = client;
-        this.audioChunks = new ArrayList<>();
+        this.lane = client.getCallbackDispatcher().newLane(contextId);
+        this.retention = client.getDefaultAudioRetention();
+        this.audioStore = retention.newStore();
         this.closed = new AtomicBoolean(false);
     }
 
@@ -43,6 +107,20 @@ public class TTSContext {
         return contextId;
     }
 
+    /**
+     * 获取当前发给服务端的 contextId（内部使用）
+     */
+    String getWireId() {
+        return wireId;
+    }
+
+    /**
+     * 获取承载该上下文的连接（内部使用）
+     */
+    TTSClient getClient() {
+        return client;
+    }
+
     /**
      * 设置音频回调
      */
@@ -51,6 +129,14 @@ public class TTSContext {
         return this;
     }
 
+    /**
+     * 设置二进制音频回调，直接接收解码后的音频数据
+     */
+    public TTSContext onAudioData(BinaryAudioCallback callback) {
+        this.binaryAudioCallback = callback;
+        return this;
+    }
+
     /**
      * 设置错误回调
      */
@@ -67,6 +153,76 @@ public class TTSContext {
         return this;
     }
 
+    /**
+     * 设置背压回调，保留的音频超过高水位时触发
+     */
+    public TTSContext onBackpressure(BackpressureCallback callback) {
+        this.backpressureCallback = callback;
+        return this;
+    }
+
+    /**
+     * 添加音频监听器
+     */
+    public TTSContext addAudioListener(AudioListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null");
+        }
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * 移除音频监听器
+     */
+    public TTSContext removeAudioListener(AudioListener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    /**
+     * 以 Reactive Streams 发布者的形式暴露音频流
+     * 订阅者需求为零时，音频在有界缓冲中等待，超过上限按溢出策略处理；
+     * 收到最后一帧后发布者结束。只允许一个订阅者。
+     * 音频由发布者的有界缓冲承载，上下文的保留策略随之切换为 {@link AudioRetention#none()}，
+     * 避免同一份音频在上下文中再无界保留一次；确实需要同时保留时，之后再调用 {@link #retainAudio}。
+     *
+     * @param maxBufferedBytes 缓冲上限（字节）
+     * @param strategy 溢出策略
+     */
+    public AudioPublisher asPublisher(long maxBufferedBytes, AudioPublisher.OverflowStrategy strategy) {
+        AudioPublisher publisher = new AudioPublisher(this, maxBufferedBytes, strategy);
+        retainAudio(AudioRetention.none());
+        return publisher;
+    }
+
+    /**
+     * 设置音频保留策略
+     * 已保留的音频会按新策略迁移
+     *
+     * @param policy 保留策略
+     */
+    public TTSContext retainAudio(AudioRetention policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Retention policy must not be null");
+        }
+        AudioStore store = policy.newStore();
+        for (byte[] chunk : audioStore.drain()) {
+            store.add(chunk);
+        }
+        this.retention = policy;
+        this.audioStore = store;
+        this.overflowed = false;
+        return this;
+    }
+
+    /**
+     * 获取当前音频保留策略
+     */
+    public AudioRetention getAudioRetention() {
+        return retention;
+    }
+
     /**
      * 发送文本
      * 
@@ -78,13 +234,24 @@ public class TTSContext {
             throw new IllegalStateException("Context is closed");
         }
 
-        JSONObject message = new JSONObject();
-        message.put("type", "text");
-        message.put("context_id", contextId);
-        message.put("text", text);
-        message.put("flush", flush);
-
-        client.sendMessage(message);
+        synchronized (sendLock) {
+            textPending = true;
+            armWatchdog(flush);
+            if (utteranceStartNanos == 0 && client.getMetricsRecorder() != MetricsRecorder.NOOP) {
+                utteranceStartNanos = System.nanoTime();
+            }
+            if (client.getReconnectPolicy().isEnabled()) {
+                trackUnfinalized(new TextSegment(text, flush));
+            }
+            if (needsReplay) {
+                // 重连后尚未重放：先补发未完成的文本（已包含本段），保证顺序
+                if (client.isConnected()) {
+                    replayLocked();
+                }
+                return;
+            }
+            client.sendFrame(contextId, textMessage(text, flush));
+        }
     }
 
     /**
@@ -95,11 +262,89 @@ public class TTSContext {
             return;
         }
 
-        JSONObject message = new JSONObject();
-        message.put("type", "eos");
-        message.put("context_id", contextId);
+        synchronized (sendLock) {
+            eosPending = true;
+            armWatchdog(true);
+            if (client.getReconnectPolicy().isEnabled()) {
+                eosMark = unfinalized.size();
+            }
+            if (needsReplay) {
+                if (client.isConnected()) {
+                    replayLocked();
+                }
+                return;
+            }
+            client.sendFrame(contextId, eosMessage());
+        }
+    }
+
+    /**
+     * 合成一句完整的文本（发送文本并结束输入）
+     * 客户端启用缓存时先查缓存：命中则直接通过音频和完成回调回放缓存的音频，不访问服务端；
+     * 未命中则正常合成，收到最后一帧后写入缓存。
+     * 在上一句尚未完成时调用既不查缓存也不写入缓存，直接交给服务端合成：
+     * 回放的音频会与上一句在途的音频交错（且提前触发完成回调），也无法区分两句的音频。
+     *
+     * @param text 要转换的文本
+     */
+    public void speak(String text) {
+        if (closed.get()) {
+            throw new IllegalStateException("Context is closed");
+        }
+
+        SynthesisCache cache = client.getCache();
+        if (cache != null) {
+            String key = client.cacheKey(text);
+            synchronized (sendLock) {
+                if (!textPending) {
+                    CachedAudio cached = cache.get(key);
+                    if (cached != null) {
+                        replayCached(cached);
+                        return;
+                    }
+                    captureKey = key;
+                    capture = new ArrayList<>();
+                }
+            }
+        }
+
+        sendText(text, true);
+        endInput();
+    }
+
+    /**
+     * 按收到服务端音频的同一路径回放缓存的音频
+     */
+    private void replayCached(CachedAudio cached) {
+        int gen = generation;
+        List<byte[]> chunks = cached.getChunks();
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] audioData = chunks.get(i).clone();
+            boolean isFinal = i == chunks.size() - 1;
+            retain(audioData);
+            if (isFinal) {
+                safePointChunks = audioStore.chunkCount();
+            }
+            lane.execute(() -> deliverAudio(gen, null, 0, 0, audioData, isFinal));
+        }
+    }
+
+    /**
+     * 创建文本合并器，用于逐 token 输入的场景（如 LLM 流式输出）
+     *
+     * @param options 合并参数
+     * @return 绑定到本上下文的合并器
+     */
+    public TextCoalescer coalesce(TextCoalescer.Options options) {
+        return new TextCoalescer(this, options);
+    }
+
+    private ByteBuffer textMessage(String text, boolean flush) {
+        return MessageWriter.text(wireId, text, flush);
+    }
 
-        client.sendMessage(message);
+    private ByteBuffer eosMessage() {
+        return MessageWriter.eos(wireId);
     }
 
     /**
@@ -110,39 +355,482 @@ public class TTSContext {
             return;
         }
 
-        JSONObject message = new JSONObject();
-        message.put("type", "close");
-        message.put("context_id", contextId);
-
-        client.sendMessage(message);
+        client.sendFrame(contextId, MessageWriter.close(wireId));
         client.removeContext(contextId);
     }
 
+    /**
+     * 打断当前合成（barge-in），上下文保持打开，可以立即发送下一轮文本
+     * <ul>
+     *   <li>服务端此后到达的本轮音频在解析阶段即被丢弃，不会解码、保留或交付</li>
+     *   <li>分发通道上尚未执行的音频和完成回调直接跳过，已保留的音频被清空</li>
+     *   <li>未完成的文本不再重放；服务端的旧上下文会收到 close</li>
+     *   <li>跳过完成后依次调用各监听器的 {@link AudioListener#onCancel()}（例如清空播放缓冲）</li>
+     * </ul>
+     * 从调用到已取消的音频不再交付的耗时通过 {@link #getLastCancelMillis()} 和
+     * {@link MetricsRecorder#onCancel(String, long)} 获取。已关闭时调用无效果。
+     */
+    public void cancel() {
+        if (closed.get()) {
+            return;
+        }
+        long start = System.nanoTime();
+        String oldWireId;
+        synchronized (sendLock) {
+            oldWireId = wireId;
+            // 先换线路 ID 再递增代数：读线程先读代数再核对线路 ID，两者之一必然拦下旧音频
+            wireId = client.rebindWireId(this, oldWireId);
+            generation++;
+            clearUnfinalized(unfinalized.size());
+            eosMark = -1;
+            textPending = false;
+            captureKey = null;
+            capture = null;
+            watchdogSince = 0;
+            eosPending = false;
+            utteranceStartNanos = 0;
+        }
+        clearAudio();
+        cancelCount.incrementAndGet();
+
+        try {
+            client.sendFrame(contextId, MessageWriter.close(oldWireId));
+        } catch (IllegalStateException e) {
+            // 连接已断开，旧上下文随连接失效
+        }
+
+        lane.execute(() -> {
+            for (AudioListener listener : listeners) {
+                listener.onCancel();
+            }
+            long nanos = System.nanoTime() - start;
+            lastCancelNanos = nanos;
+            client.getMetricsRecorder().onCancel(contextId, nanos);
+        });
+    }
+
+    /**
+     * 获取 cancel 的调用次数
+     */
+    public long getCancelCount() {
+        return cancelCount.get();
+    }
+
+    /**
+     * 获取最近一次打断的耗时（毫秒）：从调用 cancel 到分发通道跳过所有已取消的回调、监听器完成清理，
+     * 尚未打断过时返回 -1
+     */
+    public double getLastCancelMillis() {
+        long nanos = lastCancelNanos;
+        return nanos < 0 ? -1 : nanos / 1_000_000.0;
+    }
+
     /**
      * 获取所有音频数据
      */
     public List<byte[]> getAudioChunks() {
-        return new ArrayList<>(audioChunks);
+        return audioStore.chunks();
+    }
+
+    /**
+     * 取出已保留的音频数据并清空，同时解除背压
+     */
+    public List<byte[]> drainAudio() {
+        List<byte[]> chunks = audioStore.drain();
+        safePointChunks = 0;
+        overflowed = false;
+        return chunks;
+    }
+
+    /**
+     * 清空已保留的音频数据，同时解除背压
+     */
+    public void clearAudio() {
+        audioStore.clear();
+        safePointChunks = 0;
+        overflowed = false;
+    }
+
+    /**
+     * 获取因连接恢复而重放文本的次数
+     */
+    public int getReplayCount() {
+        synchronized (sendLock) {
+            return replayCount;
+        }
+    }
+
+    /**
+     * 获取已保留的音频字节数
+     */
+    public long getRetainedAudioBytes() {
+        return audioStore.size();
+    }
+
+    /**
+     * 是否处于背压状态（保留的音频超过高水位且尚未被取走）
+     */
+    public boolean isBackpressured() {
+        return overflowed && retention.getOverflowAction() == AudioRetention.OverflowAction.BACKPRESSURE;
     }
 
     /**
      * 处理音频数据（内部使用）
      */
     void handleAudio(String audioBase64, boolean isFinal) {
+        handleAudio(null, audioBase64, 0, audioBase64.length(), isFinal);
+    }
+
+    /**
+     * 处理原始消息中 [start, end) 区间的 Base64 音频数据（内部使用）
+     * 仅在设置了字符串回调时才截取 Base64 字符串
+     *
+     * @param wire 消息中的 contextId，与当前线路 ID 不符（查找之后被打断）时丢弃，null 表示不检查
+     */
+    void handleAudio(String wire, String frame, int start, int end, boolean isFinal) {
+        int gen = generation;
+        if (wire != null && !wire.equals(wireId)) {
+            return;
+        }
+        if (gen != readerGeneration) {
+            // 打断后的第一帧：丢弃上一轮未完成的统计
+            readerGeneration = gen;
+            utteranceBytes = 0;
+            utteranceChunks = 0;
+        }
+        MetricsRecorder recorder = client.getMetricsRecorder();
+        long decodeStart = recorder == MetricsRecorder.NOOP ? 0 : System.nanoTime();
+        FlightEvents events = FlightEvents.INSTANCE;
+        Object decodeEvent = events.begin(FlightEvents.DECODE);
+        byte[] audioData;
         try {
-            byte[] audioData = Base64.getDecoder().decode(audioBase64);
-            audioChunks.add(audioData);
+            audioData = Base64Slice.decode(frame, start, end);
+        } catch (IllegalArgumentException e) {
+            handleError("DECODE_ERROR", "Failed to decode audio: " + e.getMessage());
+            return;
+        }
+        if (decodeEvent != null) {
+            events.commit(decodeEvent, contextId, audioData.length);
+        }
+        if (recorder != MetricsRecorder.NOOP) {
+            recordChunk(recorder, decodeStart, audioData.length, isFinal);
+        }
+
+        feedWatchdog(isFinal);
+        if (captureKey != null) {
+            captureAudio(audioData, isFinal);
+        }
+        retain(audioData);
+        if (isFinal) {
+            markSafePoint();
+        }
+        lane.execute(() -> deliverAudio(gen, frame, start, end, audioData, isFinal));
+    }
+
+    /**
+     * 上报解码耗时、首帧耗时、帧间隔和整句统计
+     */
+    private void recordChunk(MetricsRecorder recorder, long decodeStart, int bytes, boolean isFinal) {
+        long now = System.nanoTime();
+        recorder.onDecode(contextId, now - decodeStart);
+        recorder.onCallbackQueueDepth(contextId, lane.getQueueDepth());
+
+        long start = utteranceStartNanos;
+        if (utteranceChunks == 0) {
+            if (start != 0) {
+                recorder.onTimeToFirstAudio(contextId, now - start);
+            }
+        } else {
+            recorder.onChunkGap(contextId, now - lastChunkNanos);
+        }
+        lastChunkNanos = now;
+        utteranceBytes += bytes;
+        utteranceChunks++;
+
+        if (isFinal) {
+            if (start != 0) {
+                recorder.onSynthesisComplete(contextId, now - start, utteranceBytes, utteranceChunks);
+            }
+            utteranceStartNanos = 0;
+            utteranceBytes = 0;
+            utteranceChunks = 0;
+        }
+    }
+
+    /**
+     * 收集 speak 未命中的音频，收到最后一帧时写入缓存
+     */
+    private void captureAudio(byte[] audioData, boolean isFinal) {
+        String key;
+        List<byte[]> chunks;
+        synchronized (sendLock) {
+            key = captureKey;
+            chunks = capture;
+            if (key == null) {
+                return;
+            }
+            chunks.add(audioData);
+            if (!isFinal) {
+                return;
+            }
+            captureKey = null;
+            capture = null;
+        }
+        SynthesisCache cache = client.getCache();
+        if (cache != null) {
+            cache.put(key, chunks);
+        }
+    }
+
+    /**
+     * 收到 is_final：此前发送的文本均已完成，不再需要重放
+     */
+    private void markSafePoint() {
+        synchronized (sendLock) {
+            textPending = false;
+            if (eosMark >= 0) {
+                clearUnfinalized(eosMark);
+                eosMark = -1;
+            } else {
+                clearUnfinalized(unfinalized.size());
+            }
+        }
+        safePointChunks = audioStore.chunkCount();
+    }
+
+    /**
+     * 记录一段未完成的文本（调用方持有 sendLock）
+     * 超过 {@link ReconnectPolicy#getMaxReplayChars()} 时丢弃最旧的文本段，至少保留最新的一段
+     */
+    private void trackUnfinalized(TextSegment segment) {
+        unfinalized.add(segment);
+        unfinalizedChars += segment.text.length();
+        int max = client.getReconnectPolicy().getMaxReplayChars();
+        int dropped = 0;
+        while (unfinalizedChars > max && unfinalized.size() > 1) {
+            unfinalizedChars -= unfinalized.remove(0).text.length();
+            dropped++;
+        }
+        if (dropped > 0) {
+            replayTruncated = true;
+            if (eosMark >= 0) {
+                eosMark = Math.max(0, eosMark - dropped);
+            }
+        }
+    }
+
+    /**
+     * 丢弃前 count 段未完成的文本（调用方持有 sendLock）
+     */
+    private void clearUnfinalized(int count) {
+        List<TextSegment> done = unfinalized.subList(0, count);
+        for (TextSegment segment : done) {
+            unfinalizedChars -= segment.text.length();
+        }
+        done.clear();
+        if (unfinalized.isEmpty()) {
+            replayTruncated = false;
+        }
+    }
+
+    /**
+     * 获取为重放保留的未完成文本字符数（内部使用）
+     */
+    int getReplayBufferChars() {
+        synchronized (sendLock) {
+            return unfinalizedChars;
+        }
+    }
 
-            if (audioCallback != null) {
-                audioCallback.onAudio(audioBase64, isFinal);
+    /**
+     * 连接断开，标记需要在恢复后重放（内部使用）
+     */
+    void markNeedsReplay() {
+        synchronized (sendLock) {
+            if (!closed.get()) {
+                needsReplay = true;
             }
+        }
+    }
 
-            if (isFinal && completeCallback != null) {
-                completeCallback.onComplete();
+    /**
+     * 连接恢复后重放未完成的文本（内部使用）
+     */
+    void resume() {
+        synchronized (sendLock) {
+            if (!needsReplay) {
+                return;
+            }
+            try {
+                replayLocked();
+            } catch (IllegalStateException e) {
+                // 重放过程中连接再次断开，等待下一次恢复
+                needsReplay = true;
             }
-        } catch (Exception e) {
-            if (errorCallback != null) {
-                errorCallback.onError("DECODE_ERROR", "Failed to decode audio: " + e.getMessage());
+            // 断线期间不计入音频超时
+            if (watchdogSince != 0) {
+                watchdogSince = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 开始或刷新音频超时计时：force 为 false 时只刷新已在计时的看门狗
+     */
+    private void armWatchdog(boolean force) {
+        if ((force || watchdogSince != 0) && client.getLivenessPolicy().getAudioTimeoutMillis() > 0) {
+            watchdogSince = System.nanoTime();
+        }
+    }
+
+    /**
+     * 收到音频：已发 EOS 时每帧重新计时直到 is_final，否则解除计时（无法得知 flush 的音频何时结束）
+     */
+    private void feedWatchdog(boolean isFinal) {
+        if (isFinal) {
+            eosPending = false;
+            watchdogSince = 0;
+        } else if (watchdogSince != 0) {
+            watchdogSince = eosPending ? System.nanoTime() : 0;
+        }
+    }
+
+    /**
+     * 检查音频超时，超时后报告 AUDIO_TIMEOUT 并解除计时（内部使用，由存活检测任务调用）
+     */
+    void checkAudioTimeout(long now, long timeoutNanos) {
+        long since = watchdogSince;
+        if (since == 0 || now - since < timeoutNanos || closed.get()) {
+            return;
+        }
+        watchdogSince = 0;
+        eosPending = false;
+        handleError("AUDIO_TIMEOUT", "No audio for " + TimeUnit.NANOSECONDS.toMillis(now - since) + " ms");
+    }
+
+    /**
+     * 放弃重放（重连失败或客户端断开，内部使用）
+     */
+    void abandonReplay() {
+        synchronized (sendLock) {
+            needsReplay = false;
+        }
+    }
+
+    /**
+     * 重放自上次 is_final 以来的文本，并回滚该语句已保留的音频
+     */
+    private void replayLocked() {
+        needsReplay = false;
+        replayCount++;
+        if (replayTruncated) {
+            System.err.println("[ERROR] Context " + contextId + ": unfinished text exceeded "
+                               + client.getReconnectPolicy().getMaxReplayChars()
+                               + " chars, oldest text is not replayed");
+            replayTruncated = false;
+        }
+        audioStore.truncate(safePointChunks);
+        if (capture != null) {
+            capture.clear();
+        }
+
+        int eos = eosMark;
+        for (int i = 0; i < unfinalized.size(); i++) {
+            if (i == eos) {
+                client.sendFrame(contextId, eosMessage());
+            }
+            TextSegment segment = unfinalized.get(i);
+            client.sendFrame(contextId, textMessage(segment.text, segment.flush));
+        }
+        if (eos == unfinalized.size()) {
+            client.sendFrame(contextId, eosMessage());
+        }
+    }
+
+    /**
+     * 已发送但尚未完成的文本段
+     */
+    private static final class TextSegment {
+        final String text;
+        final boolean flush;
+
+        TextSegment(String text, boolean flush) {
+            this.text = text;
+            this.flush = flush;
+        }
+    }
+
+    /**
+     * 在分发通道上依次执行音频与完成回调
+     */
+    private void deliverAudio(int gen, String frame, int start, int end, byte[] audioData, boolean isFinal) {
+        if (gen != generation) {
+            return;
+        }
+        FlightEvents events = FlightEvents.INSTANCE;
+        Object callbackEvent = events.begin(FlightEvents.CALLBACK);
+        BinaryAudioCallback binaryCallback = binaryAudioCallback;
+        if (binaryCallback != null) {
+            binaryCallback.onAudio(ByteBuffer.wrap(audioData).asReadOnlyBuffer(), isFinal);
+        }
+
+        for (AudioListener listener : listeners) {
+            listener.onAudio(ByteBuffer.wrap(audioData).asReadOnlyBuffer(), isFinal);
+        }
+
+        AudioCallback callback = audioCallback;
+        if (callback != null) {
+            String audioBase64;
+            if (frame == null) {
+                audioBase64 = Base64.getEncoder().encodeToString(audioData);
+            } else {
+                audioBase64 = (start == 0 && end == frame.length()) ? frame : frame.substring(start, end);
+            }
+            callback.onAudio(audioBase64, isFinal);
+        }
+
+        CompleteCallback onComplete = completeCallback;
+        if (isFinal && onComplete != null) {
+            onComplete.onComplete();
+        }
+        if (callbackEvent != null) {
+            events.commit(callbackEvent, contextId, audioData.length);
+        }
+    }
+
+    /**
+     * 按保留策略保存音频，并检查高水位
+     */
+    private void retain(byte[] audioData) {
+        AudioRetention policy = retention;
+        AudioStore store = audioStore;
+        long highWaterMark = policy.getHighWaterMark();
+        if (highWaterMark <= 0) {
+            store.add(audioData);
+            return;
+        }
+
+        if (policy.getOverflowAction() == AudioRetention.OverflowAction.ERROR) {
+            if (overflowed) {
+                return;
+            }
+            if (store.size() + audioData.length > highWaterMark) {
+                overflowed = true;
+                handleError("AUDIO_BUFFER_OVERFLOW",
+                            "Retained audio exceeds high-water mark (" + highWaterMark + " bytes)");
+                return;
+            }
+            store.add(audioData);
+            return;
+        }
+
+        store.add(audioData);
+        if (!overflowed && store.size() > highWaterMark) {
+            overflowed = true;
+            BackpressureCallback callback = backpressureCallback;
+            if (callback != null) {
+                long retained = store.size();
+                lane.execute(() -> callback.onBackpressure(retained));
             }
         }
     }
@@ -151,9 +839,33 @@ public class TTSContext {
      * 处理错误（内部使用）
      */
     void handleError(String errorCode, String message) {
-        if (errorCallback != null) {
-            errorCallback.onError(errorCode, message);
+        client.getMetricsRecorder().onContextError(contextId, errorCode);
+        if (captureKey != null) {
+            synchronized (sendLock) {
+                captureKey = null;
+                capture = null;
+            }
         }
+        ErrorCallback callback = errorCallback;
+        if (callback == null && listeners.isEmpty()) {
+            return;
+        }
+        lane.execute(() -> {
+            for (AudioListener listener : listeners) {
+                listener.onError(errorCode, message);
+            }
+            if (callback != null) {
+                callback.onError(errorCode, message);
+            }
+        });
+    }
+
+    /**
+     * 获取尚未执行的回调数量
+     * 使用异步分发器时，该值持续增长说明回调处理过慢
+     */
+    public int getPendingCallbackCount() {
+        return lane.getQueueDepth();
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.inccleo.tts;
+
+/**
+ * TTS 异常
+ * 携带服务端或 SDK 的错误码，用于异步 API 中表示失败原因
+ */
+public class TTSException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String errorCode;
+
+    /**
+     * 构造函数
+     *
+     * @param errorCode 错误码
+     * @param message 错误消息
+     */
+    public TTSException(String errorCode, String message) {
+        super(errorCode + ": " + message);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * 获取错误码
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,253 @@
+package com.inccleo.tts.audio;
+
+import com.inccleo.tts.callback.AudioListener;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 音频转码流水线
+ * 作为 {@link AudioListener} 挂到上下文上：把收到的音频解码为 16 位采样，依次经过各处理阶段
+ * （增益、声道转换、重采样等），再编码为目标编码交给下游监听器。
+ * 所有缓冲在流水线内复用，稳定运行后每帧不产生新对象。
+ *
+ * <pre>
+ * // pcm_16000 转 8kHz μ-law
+ * AudioPipeline pipeline = AudioPipeline.convert(StreamFormat.parse("pcm_16000"),
+ *     StreamFormat.parse("ulaw_8000"), rtpListener, new GainStage(-3));
+ * context.addAudioListener(pipeline);
+ * </pre>
+ */
+public class AudioPipeline implements AudioListener {
+    private final StreamFormat input;
+    private final StreamFormat.Encoding outputEncoding;
+    private final AudioStage[] stages;
+    private final AudioListener downstream;
+    private final SampleBuffer samples;
+
+    // 以下状态由 this 保护
+    private byte[] out = new byte[0];
+    private ByteBuffer outView = ByteBuffer.wrap(out).asReadOnlyBuffer();
+    private final byte[] carry;
+    private int carryBytes;
+    private long inputBytes;
+    private long outputBytes;
+
+    /**
+     * @param input 输入格式（与连接参数 format 一致）
+     * @param outputEncoding 输出编码
+     * @param downstream 接收转码后音频的监听器
+     * @param stages 依次执行的处理阶段
+     */
+    public AudioPipeline(StreamFormat input, StreamFormat.Encoding outputEncoding,
+                         AudioListener downstream, AudioStage... stages) {
+        if (input == null || outputEncoding == null) {
+            throw new IllegalArgumentException("Formats must not be null");
+        }
+        if (downstream == null) {
+            throw new IllegalArgumentException("Downstream listener must not be null");
+        }
+        this.input = input;
+        this.outputEncoding = outputEncoding;
+        this.downstream = downstream;
+        this.stages = stages.clone();
+        this.samples = new SampleBuffer(input.getSampleRate(), input.getChannels(), 4096);
+        this.carry = new byte[input.getFrameSize()];
+    }
+
+    /**
+     * 按输入、输出格式自动组装声道转换和重采样阶段
+     *
+     * @param input 输入格式
+     * @param output 输出格式
+     * @param downstream 接收转码后音频的监听器
+     * @param extra 在格式转换之前执行的附加阶段（例如增益）
+     */
+    public static AudioPipeline convert(StreamFormat input, StreamFormat output,
+                                        AudioListener downstream, AudioStage... extra) {
+        List<AudioStage> stages = new ArrayList<>();
+        java.util.Collections.addAll(stages, extra);
+        // 先下混再重采样，减少重采样的计算量；上混放在最后
+        if (output.getChannels() < input.getChannels()) {
+            stages.add(new ChannelStage(output.getChannels()));
+        }
+        if (output.getSampleRate() != input.getSampleRate()) {
+            stages.add(new ResampleStage(output.getSampleRate()));
+        }
+        if (output.getChannels() > input.getChannels()) {
+            stages.add(new ChannelStage(output.getChannels()));
+        }
+        return new AudioPipeline(input, output.getEncoding(), downstream, stages.toArray(new AudioStage[0]));
+    }
+
+    @Override
+    public synchronized void onAudio(ByteBuffer audio, boolean isFinal) {
+        inputBytes += audio.remaining();
+        decode(audio);
+
+        for (AudioStage stage : stages) {
+            stage.process(samples, isFinal);
+        }
+
+        int n = encode();
+        if (n > 0 || isFinal) {
+            outputBytes += n;
+            outView.clear();
+            outView.limit(n);
+            downstream.onAudio(outView, isFinal);
+        }
+
+        samples.setLength(0);
+        samples.setSampleRate(input.getSampleRate());
+        samples.setChannels(input.getChannels());
+        if (isFinal) {
+            // 丢弃不足一个采样帧的残余字节
+            carryBytes = 0;
+        }
+    }
+
+    @Override
+    public void onError(String errorCode, String message) {
+        reset();
+        downstream.onError(errorCode, message);
+    }
+
+    @Override
+    public void onCancel() {
+        reset();
+        downstream.onCancel();
+    }
+
+    /**
+     * 丢弃暂存的半帧和各阶段的状态
+     */
+    private synchronized void reset() {
+        carryBytes = 0;
+        samples.setLength(0);
+        for (AudioStage stage : stages) {
+            stage.reset();
+        }
+    }
+
+    /**
+     * 输入字节解码为采样，跨帧切开的采样帧先暂存，下一帧到达后拼接
+     */
+    private void decode(ByteBuffer audio) {
+        int frameSize = carry.length;
+        int pos = audio.position();
+        int total = carryBytes + audio.remaining();
+        int usable = total - total % frameSize;
+        int bps = input.getEncoding().getBytesPerSample();
+        short[] s = samples.ensureCapacity(usable / bps);
+
+        int count = 0;
+        int end = pos + audio.remaining();
+        if (carryBytes > 0) {
+            int need = Math.min(frameSize - carryBytes, audio.remaining());
+            audio.get(carry, carryBytes, need);
+            carryBytes += need;
+            pos += need;
+            if (carryBytes < frameSize) {
+                return;
+            }
+            for (int i = 0; i < frameSize; i += bps) {
+                s[count++] = sample(carry, i);
+            }
+            carryBytes = 0;
+        }
+
+        int whole = pos + (end - pos) / frameSize * frameSize;
+        switch (input.getEncoding()) {
+            case PCM_16:
+                for (int i = pos; i < whole; i += 2) {
+                    s[count++] = (short) ((audio.get(i) & 0xFF) | audio.get(i + 1) << 8);
+                }
+                break;
+            case MULAW:
+                for (int i = pos; i < whole; i++) {
+                    s[count++] = G711.ulawToPcm(audio.get(i));
+                }
+                break;
+            default:
+                for (int i = pos; i < whole; i++) {
+                    s[count++] = G711.alawToPcm(audio.get(i));
+                }
+                break;
+        }
+        for (int i = whole; i < end; i++) {
+            carry[carryBytes++] = audio.get(i);
+        }
+        audio.position(end);
+        samples.setLength(count);
+    }
+
+    private short sample(byte[] b, int i) {
+        switch (input.getEncoding()) {
+            case PCM_16:
+                return (short) ((b[i] & 0xFF) | b[i + 1] << 8);
+            case MULAW:
+                return G711.ulawToPcm(b[i]);
+            default:
+                return G711.alawToPcm(b[i]);
+        }
+    }
+
+    /**
+     * 采样编码到输出缓冲
+     *
+     * @return 输出字节数
+     */
+    private int encode() {
+        short[] s = samples.getSamples();
+        int n = samples.getLength();
+        int size = n * outputEncoding.getBytesPerSample();
+        if (out.length < size) {
+            out = new byte[Math.max(size, out.length * 2)];
+            outView = ByteBuffer.wrap(out).asReadOnlyBuffer();
+        }
+
+        byte[] o = out;
+        switch (outputEncoding) {
+            case PCM_16:
+                for (int i = 0, j = 0; i < n; i++, j += 2) {
+                    o[j] = (byte) s[i];
+                    o[j + 1] = (byte) (s[i] >> 8);
+                }
+                break;
+            case MULAW:
+                for (int i = 0; i < n; i++) {
+                    o[i] = G711.ulaw(s[i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    o[i] = G711.alaw(s[i]);
+                }
+                break;
+        }
+        return size;
+    }
+
+    public StreamFormat getInputFormat() {
+        return input;
+    }
+
+    public StreamFormat.Encoding getOutputEncoding() {
+        return outputEncoding;
+    }
+
+    /**
+     * 累计输入字节数
+     */
+    public synchronized long getInputBytes() {
+        return inputBytes;
+    }
+
+    /**
+     * 累计输出字节数
+     */
+    public synchronized long getOutputBytes() {
+        return outputBytes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 音频处理阶段
+ * 在 {@link SampleBuffer} 上原地处理 16 位采样，可以改变长度、采样率和声道数。
+ * 同一个阶段实例只属于一条流水线，可以在调用之间保留状态（例如重采样的滤波历史）。
+ */
+public interface AudioStage {
+    /**
+     * 处理一段采样
+     *
+     * @param buffer 采样缓冲（原地修改）
+     * @param isFinal 是否为一句话的最后一段，有内部延迟的阶段应在此时输出剩余数据
+     */
+    void process(SampleBuffer buffer, boolean isFinal);
+
+    /**
+     * 清除内部状态
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,56 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 声道转换
+ * 多声道转单声道时取各声道平均值，单声道转多声道时复制到每个声道
+ */
+public class ChannelStage implements AudioStage {
+    private final int channels;
+
+    /**
+     * @param channels 目标声道数
+     */
+    public ChannelStage(int channels) {
+        if (channels < 1) {
+            throw new IllegalArgumentException("Channels must be >= 1: " + channels);
+        }
+        this.channels = channels;
+    }
+
+    @Override
+    public void process(SampleBuffer buffer, boolean isFinal) {
+        int from = buffer.getChannels();
+        if (from == channels) {
+            return;
+        }
+        int frames = buffer.getFrames();
+
+        if (channels == 1) {
+            // 原地下混：写位置始终不超过读位置
+            short[] s = buffer.getSamples();
+            for (int f = 0; f < frames; f++) {
+                int base = f * from;
+                int sum = 0;
+                for (int c = 0; c < from; c++) {
+                    sum += s[base + c];
+                }
+                s[f] = (short) (sum / from);
+            }
+        } else if (from == 1) {
+            // 原地上混：从尾部向前写，避免覆盖未读数据
+            short[] s = buffer.ensureCapacity(frames * channels);
+            for (int f = frames - 1; f >= 0; f--) {
+                short v = s[f];
+                int base = f * channels;
+                for (int c = 0; c < channels; c++) {
+                    s[base + c] = v;
+                }
+            }
+        } else {
+            throw new IllegalStateException("Unsupported channel conversion: " + from + " -> " + channels);
+        }
+
+        buffer.setChannels(channels);
+        buffer.setLength(frames * channels);
+    }
+}
@@ -0,0 +1,128 @@
+package com.inccleo.tts.audio;
+
+/**
+ * G.711 μ-law / A-law 编解码
+ * 编码查 14 位（μ-law）/ 13 位（A-law）索引表，解码查 256 项表，结果与 ITU-T G.711 参考实现一致
+ */
+public final class G711 {
+    private static final int ULAW_BIAS = 0x84;
+    private static final int ULAW_CLIP = 8159;
+    private static final int[] ULAW_SEG_END = {0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF, 0x1FFF};
+    private static final int[] ALAW_SEG_END = {0x1F, 0x3F, 0x7F, 0xFF, 0x1FF, 0x3FF, 0x7FF, 0xFFF};
+
+    private static final byte[] ULAW_ENCODE = new byte[1 << 14];
+    private static final byte[] ALAW_ENCODE = new byte[1 << 13];
+    private static final short[] ULAW_DECODE = new short[256];
+    private static final short[] ALAW_DECODE = new short[256];
+
+    static {
+        for (int i = 0; i < ULAW_ENCODE.length; i++) {
+            ULAW_ENCODE[i] = ulawFromLinear14((short) (i << 2) >> 2);
+        }
+        for (int i = 0; i < ALAW_ENCODE.length; i++) {
+            ALAW_ENCODE[i] = alawFromLinear13((short) (i << 3) >> 3);
+        }
+        for (int i = 0; i < 256; i++) {
+            ULAW_DECODE[i] = ulawToLinear(i);
+            ALAW_DECODE[i] = alawToLinear(i);
+        }
+    }
+
+    private G711() {
+    }
+
+    /**
+     * 16 位线性 PCM 编码为 μ-law
+     */
+    public static byte ulaw(short sample) {
+        return ULAW_ENCODE[(sample >> 2) & 0x3FFF];
+    }
+
+    /**
+     * 16 位线性 PCM 编码为 A-law
+     */
+    public static byte alaw(short sample) {
+        return ALAW_ENCODE[(sample >> 3) & 0x1FFF];
+    }
+
+    /**
+     * μ-law 解码为 16 位线性 PCM
+     */
+    public static short ulawToPcm(byte value) {
+        return ULAW_DECODE[value & 0xFF];
+    }
+
+    /**
+     * A-law 解码为 16 位线性 PCM
+     */
+    public static short alawToPcm(byte value) {
+        return ALAW_DECODE[value & 0xFF];
+    }
+
+    private static byte ulawFromLinear14(int pcm) {
+        int mask;
+        if (pcm < 0) {
+            pcm = -pcm;
+            mask = 0x7F;
+        } else {
+            mask = 0xFF;
+        }
+        if (pcm > ULAW_CLIP) {
+            pcm = ULAW_CLIP;
+        }
+        pcm += ULAW_BIAS >> 2;
+        int seg = segment(pcm, ULAW_SEG_END);
+        if (seg >= 8) {
+            return (byte) (0x7F ^ mask);
+        }
+        return (byte) (((seg << 4) | ((pcm >> (seg + 1)) & 0xF)) ^ mask);
+    }
+
+    private static byte alawFromLinear13(int pcm) {
+        int mask;
+        if (pcm >= 0) {
+            mask = 0xD5;
+        } else {
+            mask = 0x55;
+            pcm = -pcm - 1;
+        }
+        int seg = segment(pcm, ALAW_SEG_END);
+        if (seg >= 8) {
+            return (byte) (0x7F ^ mask);
+        }
+        int aval = seg << 4;
+        aval |= seg < 2 ? (pcm >> 1) & 0xF : (pcm >> seg) & 0xF;
+        return (byte) (aval ^ mask);
+    }
+
+    private static int segment(int value, int[] ends) {
+        for (int i = 0; i < ends.length; i++) {
+            if (value <= ends[i]) {
+                return i;
+            }
+        }
+        return ends.length;
+    }
+
+    private static short ulawToLinear(int u) {
+        u = ~u;
+        int t = ((u & 0x0F) << 3) + ULAW_BIAS;
+        t <<= (u & 0x70) >> 4;
+        return (short) ((u & 0x80) != 0 ? ULAW_BIAS - t : t - ULAW_BIAS);
+    }
+
+    private static short alawToLinear(int a) {
+        a ^= 0x55;
+        int t = (a & 0x0F) << 4;
+        int seg = (a & 0x70) >> 4;
+        if (seg == 0) {
+            t += 8;
+        } else if (seg == 1) {
+            t += 0x108;
+        } else {
+            t += 0x108;
+            t <<= seg - 1;
+        }
+        return (short) ((a & 0x80) != 0 ? t : -t);
+    }
+}
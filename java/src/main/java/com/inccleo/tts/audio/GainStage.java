@@ -0,0 +1,34 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 增益
+ * 定点乘法（Q16），超出 16 位范围时饱和截断
+ */
+public class GainStage implements AudioStage {
+    private final int gainQ16;
+
+    /**
+     * @param decibels 增益（dB），负数为衰减
+     */
+    public GainStage(double decibels) {
+        double factor = Math.pow(10, decibels / 20);
+        if (factor * 65536 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Gain too large: " + decibels + "dB");
+        }
+        this.gainQ16 = (int) Math.round(factor * 65536);
+    }
+
+    @Override
+    public void process(SampleBuffer buffer, boolean isFinal) {
+        if (gainQ16 == 65536) {
+            return;
+        }
+        short[] s = buffer.getSamples();
+        int n = buffer.getLength();
+        long gain = gainQ16;
+        for (int i = 0; i < n; i++) {
+            long v = (s[i] * gain + 32768) >> 16;
+            s[i] = (short) (v > Short.MAX_VALUE ? Short.MAX_VALUE : v < Short.MIN_VALUE ? Short.MIN_VALUE : v);
+        }
+    }
+}
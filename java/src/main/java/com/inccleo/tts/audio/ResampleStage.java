@@ -0,0 +1,181 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 16 位 PCM 重采样
+ * 有理数比例的多相 FIR 滤波器（Blackman 窗 sinc，每相 32 阶，Q14 定点系数），
+ * 降采样时截止频率随目标采样率下调以抑制混叠。滤波历史在分块之间保留，
+ * 任意切分输入得到的输出相同；输出已补偿滤波器群延迟，
+ * 一句话结束时输出剩余采样并使总长度等于 输入帧数 × 目标采样率 / 输入采样率（向上取整）。
+ */
+public class ResampleStage implements AudioStage {
+    private static final int TAPS = 32;
+    private static final int COEF_SHIFT = 14;
+    private static final double ROLLOFF = 0.92;
+    private static final int MAX_PHASES = 4096;
+
+    private final int targetRate;
+
+    // 以下状态在输入采样率确定后初始化
+    private int sourceRate;
+    private int channels;
+    private int up;
+    private int down;
+    private int[] coefs;
+    private short[] work = new short[0];
+    private int nextFrame;
+    private int nextPhase;
+    private long inputFrames;
+    private long outputFrames;
+
+    /**
+     * @param targetRate 目标采样率（Hz）
+     */
+    public ResampleStage(int targetRate) {
+        if (targetRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be > 0: " + targetRate);
+        }
+        this.targetRate = targetRate;
+    }
+
+    @Override
+    public void process(SampleBuffer buffer, boolean isFinal) {
+        if (buffer.getSampleRate() == targetRate) {
+            return;
+        }
+        if (buffer.getSampleRate() != sourceRate || buffer.getChannels() != channels) {
+            configure(buffer.getSampleRate(), buffer.getChannels());
+        }
+
+        int ch = channels;
+        int frames = buffer.getFrames();
+        int history = TAPS - 1;
+        int pad = isFinal ? TAPS : 0;
+
+        // work = [上一块留下的 TAPS-1 帧历史 | 本块输入 | 结束时补的静音]
+        int workFrames = history + frames + pad;
+        if (work.length < workFrames * ch) {
+            work = java.util.Arrays.copyOf(work, workFrames * ch * 2);
+        }
+        System.arraycopy(buffer.getSamples(), 0, work, history * ch, frames * ch);
+        java.util.Arrays.fill(work, (history + frames) * ch, workFrames * ch, (short) 0);
+        inputFrames += frames;
+
+        long limit = Long.MAX_VALUE;
+        if (isFinal) {
+            // 按实际输入长度截断，不输出补零部分对应的采样
+            limit = (inputFrames * up + down - 1) / down - outputFrames;
+        }
+        int available = frames + pad;
+        long maxOut = ((long) available * up + down - 1) / down + 1;
+        short[] out = buffer.ensureCapacity((int) Math.min(maxOut, Math.max(limit, 0)) * ch + ch);
+
+        int produced = 0;
+        int frame = nextFrame;
+        int phase = nextPhase;
+        int[] h = coefs;
+        short[] w = work;
+        while (frame < available && produced < limit) {
+            int hBase = phase * TAPS;
+            int xBase = (frame + history) * ch;
+            for (int c = 0; c < ch; c++) {
+                long acc = 0;
+                int x = xBase + c;
+                for (int j = 0; j < TAPS; j++) {
+                    acc += (long) h[hBase + j] * w[x];
+                    x -= ch;
+                }
+                long v = (acc + (1 << (COEF_SHIFT - 1))) >> COEF_SHIFT;
+                out[produced * ch + c] = (short) (v > Short.MAX_VALUE ? Short.MAX_VALUE
+                                                  : v < Short.MIN_VALUE ? Short.MIN_VALUE : v);
+            }
+            produced++;
+            phase += down;
+            frame += phase / up;
+            phase %= up;
+        }
+
+        outputFrames += produced;
+        buffer.setSampleRate(targetRate);
+        buffer.setLength(produced * ch);
+
+        if (isFinal) {
+            reset();
+        } else {
+            nextFrame = frame - frames;
+            nextPhase = phase;
+            // 保留最后 TAPS-1 帧作为下一块的历史
+            System.arraycopy(w, frames * ch, w, 0, history * ch);
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (coefs == null) {
+            return;
+        }
+        java.util.Arrays.fill(work, (short) 0);
+        // 从滤波器中心开始输出，补偿群延迟
+        int center = up * TAPS / 2;
+        nextFrame = center / up;
+        nextPhase = center % up;
+        inputFrames = 0;
+        outputFrames = 0;
+    }
+
+    private void configure(int rate, int ch) {
+        int g = gcd(rate, targetRate);
+        int l = targetRate / g;
+        int m = rate / g;
+        if (l > MAX_PHASES) {
+            throw new IllegalStateException("Unsupported resampling ratio: " + rate + " -> " + targetRate);
+        }
+        this.sourceRate = rate;
+        this.channels = ch;
+        this.up = l;
+        this.down = m;
+        this.coefs = design(l, m);
+        this.work = new short[TAPS * ch * 64];
+        reset();
+    }
+
+    /**
+     * 设计多相系数：原型滤波器工作在上采样后的速率，第 p 相第 j 阶取原型的第 p + j*L 个系数，
+     * 每相分别归一化为单位直流增益
+     */
+    private static int[] design(int l, int m) {
+        int length = l * TAPS;
+        double center = (length - 1) / 2.0;
+        // 截止频率（相对输入采样率的周期/采样），降采样时按目标采样率收窄
+        double cutoff = 0.5 * Math.min(1.0, (double) l / m) * ROLLOFF;
+        double[] proto = new double[length];
+        for (int i = 0; i < length; i++) {
+            double t = (i - center) / l;
+            double x = 2 * Math.PI * cutoff * t;
+            double sinc = x == 0 ? 1 : Math.sin(x) / x;
+            double a = 2 * Math.PI * i / (length - 1);
+            double window = 0.42 - 0.5 * Math.cos(a) + 0.08 * Math.cos(2 * a);
+            proto[i] = sinc * window;
+        }
+
+        int[] result = new int[length];
+        for (int p = 0; p < l; p++) {
+            double sum = 0;
+            for (int j = 0; j < TAPS; j++) {
+                sum += proto[p + j * l];
+            }
+            for (int j = 0; j < TAPS; j++) {
+                result[p * TAPS + j] = (int) Math.round(proto[p + j * l] / sum * (1 << COEF_SHIFT));
+            }
+        }
+        return result;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,81 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 可复用的 16 位采样缓冲（多声道交错存放）
+ * 在 {@link AudioPipeline} 的各处理阶段之间传递，阶段原地修改采样并更新长度、采样率和声道数。
+ * 容量只在需要时增长，稳定后不再分配内存。
+ */
+public final class SampleBuffer {
+    private short[] samples;
+    private int length;
+    private int sampleRate;
+    private int channels;
+
+    /**
+     * @param sampleRate 采样率（Hz）
+     * @param channels 声道数
+     * @param capacity 初始容量（采样数）
+     */
+    public SampleBuffer(int sampleRate, int channels, int capacity) {
+        this.samples = new short[Math.max(capacity, 16)];
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+    }
+
+    /**
+     * 采样数组，有效数据为 [0, getLength())
+     * 调用 ensureCapacity 后可能被替换，不要跨调用缓存
+     */
+    public short[] getSamples() {
+        return samples;
+    }
+
+    /**
+     * 确保容量不小于指定采样数，保留现有数据
+     *
+     * @return 当前采样数组
+     */
+    public short[] ensureCapacity(int capacity) {
+        if (capacity > samples.length) {
+            samples = java.util.Arrays.copyOf(samples, Math.max(capacity, samples.length * 2));
+        }
+        return samples;
+    }
+
+    /**
+     * 有效采样数（所有声道合计）
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        if (length < 0 || length > samples.length) {
+            throw new IllegalArgumentException("Invalid length " + length + " for capacity " + samples.length);
+        }
+        this.length = length;
+    }
+
+    /**
+     * 有效采样帧数（每帧包含所有声道）
+     */
+    public int getFrames() {
+        return length / channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public void setChannels(int channels) {
+        this.channels = channels;
+    }
+}
@@ -0,0 +1,138 @@
+package com.inccleo.tts.audio;
+
+/**
+ * 音频流格式（编码、采样率、声道数）
+ * 对应连接参数 format 中的 pcm_16000、ulaw_8000、alaw_8000 等取值，PCM 为 16 位小端
+ */
+public final class StreamFormat {
+
+    /**
+     * 采样编码
+     */
+    public enum Encoding {
+        /** 16 位有符号小端 PCM */
+        PCM_16("pcm", 2),
+        /** G.711 μ-law，8 位 */
+        MULAW("ulaw", 1),
+        /** G.711 A-law，8 位 */
+        ALAW("alaw", 1);
+
+        private final String prefix;
+        private final int bytesPerSample;
+
+        Encoding(String prefix, int bytesPerSample) {
+            this.prefix = prefix;
+            this.bytesPerSample = bytesPerSample;
+        }
+
+        public int getBytesPerSample() {
+            return bytesPerSample;
+        }
+    }
+
+    private final Encoding encoding;
+    private final int sampleRate;
+    private final int channels;
+
+    private StreamFormat(Encoding encoding, int sampleRate, int channels) {
+        this.encoding = encoding;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+    }
+
+    /**
+     * 构造格式
+     *
+     * @param encoding 采样编码
+     * @param sampleRate 采样率（Hz）
+     * @param channels 声道数
+     */
+    public static StreamFormat of(Encoding encoding, int sampleRate, int channels) {
+        if (encoding == null) {
+            throw new IllegalArgumentException("Encoding must not be null");
+        }
+        if (sampleRate <= 0 || channels <= 0) {
+            throw new IllegalArgumentException("Invalid format: rate=" + sampleRate + ", channels=" + channels);
+        }
+        return new StreamFormat(encoding, sampleRate, channels);
+    }
+
+    /**
+     * 解析连接参数中的 format（单声道）
+     *
+     * @throws IllegalArgumentException 不是 PCM / μ-law / A-law 格式时抛出（例如 mp3）
+     */
+    public static StreamFormat parse(String format) {
+        if (format != null) {
+            int sep = format.indexOf('_');
+            if (sep > 0) {
+                String prefix = format.substring(0, sep);
+                for (Encoding encoding : Encoding.values()) {
+                    if (encoding.prefix.equals(prefix)) {
+                        try {
+                            int rate = Integer.parseInt(format.substring(sep + 1));
+                            if (rate > 0) {
+                                return new StreamFormat(encoding, rate, 1);
+                            }
+                        } catch (NumberFormatException e) {
+                            // 落到下面的异常
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported audio format: " + format);
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * 一个采样帧（所有声道）的字节数
+     */
+    public int getFrameSize() {
+        return encoding.bytesPerSample * channels;
+    }
+
+    /**
+     * 指定时长对应的字节数（按采样帧对齐）
+     */
+    public int bytesForMillis(long millis) {
+        return (int) (sampleRate * millis / 1000) * getFrameSize();
+    }
+
+    /**
+     * 指定字节数对应的时长（毫秒）
+     */
+    public long millisForBytes(long bytes) {
+        return bytes / getFrameSize() * 1000 / sampleRate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof StreamFormat)) {
+            return false;
+        }
+        StreamFormat other = (StreamFormat) o;
+        return encoding == other.encoding && sampleRate == other.sampleRate && channels == other.channels;
+    }
+
+    @Override
+    public int hashCode() {
+        return (encoding.hashCode() * 31 + sampleRate) * 31 + channels;
+    }
+
+    @Override
+    public String toString() {
+        return encoding.prefix + "_" + sampleRate + (channels == 1 ? "" : "_" + channels + "ch");
+    }
+}
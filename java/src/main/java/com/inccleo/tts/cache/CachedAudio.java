@@ -0,0 +1,36 @@
+package com.inccleo.tts.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 缓存中的一条合成音频，保留原始分块
+ */
+public final class CachedAudio {
+    private final List<byte[]> chunks;
+    private final long byteCount;
+
+    public CachedAudio(List<byte[]> chunks) {
+        this.chunks = Collections.unmodifiableList(new ArrayList<>(chunks));
+        long total = 0;
+        for (byte[] chunk : chunks) {
+            total += chunk.length;
+        }
+        this.byteCount = total;
+    }
+
+    /**
+     * 获取按接收顺序排列的音频块（调用方不应修改其内容）
+     */
+    public List<byte[]> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * 获取音频总字节数
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+}
@@ -0,0 +1,260 @@
+package com.inccleo.tts.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 磁盘层：追加写入固定大小的内存映射段文件，重启后扫描段文件重建索引（内部使用）
+ *
+ * 记录格式：[magic:int][keyLen:int][key:UTF-8][chunkCount:int][chunkLen:int * n][data]
+ * 段文件创建时即扩展到固定大小，未写入部分为 0，扫描到非 magic 处即为段尾。
+ * 超过容量时整段淘汰最旧的段文件。
+ */
+final class DiskTier {
+    private static final int MAGIC = 0x54545343;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".dat";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int segmentBytes;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private long nextSegmentId;
+    private long evictions;
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final MappedByteBuffer buffer;
+
+        Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        final int dataOffset;
+        final int[] chunkLengths;
+
+        Location(Segment segment, int dataOffset, int[] chunkLengths) {
+            this.segment = segment;
+            this.dataOffset = dataOffset;
+            this.chunkLengths = chunkLengths;
+        }
+    }
+
+    DiskTier(Path directory, long maxBytes, int segmentBytes) throws IOException {
+        if (segmentBytes <= 0 || maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("Invalid disk tier size: max=" + maxBytes +
+                                               ", segment=" + segmentBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * 扫描已有段文件，重建索引
+     */
+    private void load() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort(null);
+
+        for (Path path : paths) {
+            long id = parseId(path);
+            if (id < 0) {
+                continue;
+            }
+            Segment segment = new Segment(id, path, map(path, Files.size(path)));
+            segments.add(segment);
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+            scan(segment);
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * 边界计算全部使用 long，损坏的长度字段（过大或为负）只会让扫描在该处停止，不会越界或溢出
+     */
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        long capacity = buffer.capacity();
+        int pos = 0;
+        while (pos + 12L <= capacity && buffer.getInt(pos) == MAGIC) {
+            int keyLen = buffer.getInt(pos + 4);
+            long countPos = pos + 8L + keyLen;
+            if (keyLen < 0 || countPos + 4 > capacity) {
+                break;
+            }
+            int count = buffer.getInt((int) countPos);
+            long dataOffset = countPos + 4 + count * 4L;
+            if (count < 0 || dataOffset > capacity) {
+                break;
+            }
+            int[] lengths = new int[count];
+            long end = dataOffset;
+            for (int i = 0; i < count; i++) {
+                lengths[i] = buffer.getInt((int) (countPos + 4 + i * 4L));
+                if (lengths[i] < 0) {
+                    end = -1;
+                    break;
+                }
+                end += lengths[i];
+            }
+            if (end < 0 || end > capacity) {
+                break;
+            }
+            byte[] keyBytes = new byte[keyLen];
+            ByteBuffer keyBuffer = buffer.duplicate();
+            keyBuffer.position(pos + 8);
+            keyBuffer.get(keyBytes);
+            index.put(new String(keyBytes, StandardCharsets.UTF_8),
+                      new Location(segment, (int) dataOffset, lengths));
+            pos = (int) end;
+        }
+        segment.buffer.position(pos);
+    }
+
+    synchronized CachedAudio get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        buffer.position(location.dataOffset);
+        List<byte[]> chunks = new ArrayList<>(location.chunkLengths.length);
+        for (int length : location.chunkLengths) {
+            byte[] chunk = new byte[length];
+            buffer.get(chunk);
+            chunks.add(chunk);
+        }
+        return new CachedAudio(chunks);
+    }
+
+    synchronized void put(String key, CachedAudio audio) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> chunks = audio.getChunks();
+        long recordBytes = 12L + keyBytes.length + 4L * chunks.size() + audio.getByteCount();
+        if (recordBytes > segmentBytes) {
+            return;
+        }
+
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.buffer.remaining() < recordBytes) {
+            segment = newSegment();
+        }
+
+        MappedByteBuffer buffer = segment.buffer;
+        int start = buffer.position();
+        // 先写记录体，最后写 magic，保证进程中途退出时不会留下半条记录
+        buffer.position(start + 4);
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putInt(chunks.size());
+        for (byte[] chunk : chunks) {
+            buffer.putInt(chunk.length);
+        }
+        int dataOffset = buffer.position();
+        for (byte[] chunk : chunks) {
+            buffer.put(chunk);
+        }
+        buffer.putInt(start, MAGIC);
+
+        int[] lengths = new int[chunks.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = chunks.get(i).length;
+        }
+        index.put(key, new Location(segment, dataOffset, lengths));
+    }
+
+    synchronized long bytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.buffer.position();
+        }
+        return total;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * 将已写入的数据刷到磁盘
+     */
+    synchronized void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        long id = nextSegmentId++;
+        Path path = directory.resolve(String.format("%s%012d%s", PREFIX, id, SUFFIX));
+        Segment segment = new Segment(id, path, map(path, segmentBytes));
+        segments.add(segment);
+        evictIfNeeded();
+        return segment;
+    }
+
+    /**
+     * 超过容量时淘汰最旧的段
+     */
+    private void evictIfNeeded() throws IOException {
+        while ((long) segments.size() * segmentBytes > maxBytes && segments.size() > 1) {
+            Segment oldest = segments.remove(0);
+            Iterator<Location> it = index.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().segment == oldest) {
+                    it.remove();
+                    evictions++;
+                }
+            }
+            // 映射在缓冲区被回收后才会解除，文件删除为尽力而为
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static long parseId(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.inccleo.tts.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 内存 LRU 层，按字节数限制容量（内部使用）
+ */
+final class MemoryTier {
+    private final long maxBytes;
+    private final LinkedHashMap<String, CachedAudio> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    MemoryTier(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized CachedAudio get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, CachedAudio audio) {
+        if (audio.getByteCount() > maxBytes) {
+            return;
+        }
+        CachedAudio previous = entries.put(key, audio);
+        if (previous != null) {
+            bytes -= previous.getByteCount();
+        }
+        bytes += audio.getByteCount();
+
+        Iterator<Map.Entry<String, CachedAudio>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, CachedAudio> eldest = it.next();
+            bytes -= eldest.getValue().getByteCount();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+}
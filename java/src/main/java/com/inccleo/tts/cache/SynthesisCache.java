@@ -0,0 +1,229 @@
+package com.inccleo.tts.cache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 合成结果缓存
+ * 以 voiceId、连接参数（model_id, format, language_code）和规范化后的文本为键，
+ * 命中时直接回放已缓存的音频，跳过服务端合成。
+ *
+ * 由内存 LRU 层（按字节数限制）和可选的磁盘层组成。磁盘层将音频追加写入内存映射的段文件，
+ * 进程重启后仍然可用；磁盘命中的条目会提升到内存层。
+ */
+public class SynthesisCache {
+    private static final String[] KEY_PARAMS = {"model_id", "format", "language_code"};
+
+    private final MemoryTier memory;
+    private final DiskTier disk;
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private SynthesisCache(MemoryTier memory, DiskTier disk) {
+        this.memory = memory;
+        this.disk = disk;
+    }
+
+    /**
+     * 仅使用内存层的缓存
+     *
+     * @param maxMemoryBytes 内存层最多保留的音频字节数
+     */
+    public static SynthesisCache inMemory(long maxMemoryBytes) {
+        if (maxMemoryBytes <= 0) {
+            throw new IllegalArgumentException("Memory size must be positive");
+        }
+        return new SynthesisCache(new MemoryTier(maxMemoryBytes), null);
+    }
+
+    /**
+     * 内存层 + 磁盘层的缓存，段文件大小默认为 16MB
+     *
+     * @param maxMemoryBytes 内存层最多保留的音频字节数
+     * @param directory 段文件所在目录，不存在时自动创建
+     * @param maxDiskBytes 磁盘层最多占用的字节数，超出时淘汰最旧的段文件
+     * @throws IOException 目录不可用或已有段文件无法映射时抛出
+     */
+    public static SynthesisCache tiered(long maxMemoryBytes, Path directory, long maxDiskBytes) throws IOException {
+        return tiered(maxMemoryBytes, directory, maxDiskBytes, (int) Math.min(16L * 1024 * 1024, maxDiskBytes));
+    }
+
+    /**
+     * 内存层 + 磁盘层的缓存
+     *
+     * @param segmentBytes 单个段文件的大小，超过该大小的条目不会写入磁盘
+     */
+    public static SynthesisCache tiered(long maxMemoryBytes, Path directory, long maxDiskBytes,
+                                        int segmentBytes) throws IOException {
+        if (maxMemoryBytes <= 0) {
+            throw new IllegalArgumentException("Memory size must be positive");
+        }
+        return new SynthesisCache(new MemoryTier(maxMemoryBytes), new DiskTier(directory, maxDiskBytes, segmentBytes));
+    }
+
+    /**
+     * 构造缓存键
+     * 文本做 NFC 规范化、去除首尾空白并将连续空白折叠为单个空格
+     *
+     * @param voiceId 音色 ID
+     * @param params 连接参数，仅 model_id、format、language_code 参与计算
+     * @param text 要合成的文本
+     */
+    public static String key(String voiceId, Map<String, String> params, String text) {
+        StringBuilder sb = new StringBuilder(voiceId == null ? "" : voiceId);
+        for (String name : KEY_PARAMS) {
+            String value = params == null ? null : params.get(name);
+            sb.append('\u0000').append(value == null ? "" : value);
+        }
+        sb.append('\u0000').append(normalize(text));
+        return sb.toString();
+    }
+
+    /**
+     * 规范化文本：NFC、去除首尾空白、折叠连续空白
+     */
+    public static String normalize(String text) {
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        boolean space = false;
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 查找缓存
+     *
+     * @return 命中时返回缓存的音频，否则返回 null
+     */
+    public CachedAudio get(String key) {
+        CachedAudio audio = memory.get(key);
+        if (audio != null) {
+            memoryHits.incrementAndGet();
+            return audio;
+        }
+        if (disk != null) {
+            audio = disk.get(key);
+            if (audio != null) {
+                diskHits.incrementAndGet();
+                memory.put(key, audio);
+                return audio;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 写入缓存（同时写入内存层和磁盘层）
+     * 磁盘写入失败只影响持久化，不影响内存层
+     */
+    public void put(String key, List<byte[]> chunks) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        CachedAudio audio = new CachedAudio(chunks);
+        memory.put(key, audio);
+        if (disk != null) {
+            try {
+                disk.put(key, audio);
+            } catch (IOException e) {
+                System.err.println("[ERROR] Failed to write cache segment: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清空内存层（磁盘层保留）
+     */
+    public void clearMemory() {
+        memory.clear();
+    }
+
+    /**
+     * 将磁盘层已写入的数据刷到磁盘
+     */
+    public void flush() {
+        if (disk != null) {
+            disk.force();
+        }
+    }
+
+    /**
+     * 获取命中次数（内存层 + 磁盘层）
+     */
+    public long getHits() {
+        return memoryHits.get() + diskHits.get();
+    }
+
+    /**
+     * 获取内存层命中次数
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * 获取磁盘层命中次数
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * 获取未命中次数
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 获取淘汰的条目数（内存层 + 磁盘层）
+     */
+    public long getEvictions() {
+        return memory.evictions() + (disk == null ? 0 : disk.evictions());
+    }
+
+    /**
+     * 获取内存层当前占用的字节数
+     */
+    public long getMemoryBytes() {
+        return memory.bytes();
+    }
+
+    /**
+     * 获取磁盘层当前已写入的字节数
+     */
+    public long getDiskBytes() {
+        return disk == null ? 0 : disk.bytes();
+    }
+
+    /**
+     * 获取内存层条目数
+     */
+    public int getMemoryEntryCount() {
+        return memory.size();
+    }
+
+    /**
+     * 获取磁盘层条目数
+     */
+    public int getDiskEntryCount() {
+        return disk == null ? 0 : disk.size();
+    }
+}
@@ -0,0 +1,34 @@
+package com.inccleo.tts.callback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 音频监听器
+ * 与 onAudioData 设置的单一回调不同，一个上下文可以挂载多个监听器，
+ * 供发布者、落盘、播放等组件同时消费同一路音频
+ */
+public interface AudioListener {
+    /**
+     * 接收音频数据
+     *
+     * @param audio 解码后的音频数据（只读，每个监听器拿到独立的视图）
+     * @param isFinal 是否为最后一帧
+     */
+    void onAudio(ByteBuffer audio, boolean isFinal);
+
+    /**
+     * 接收错误信息
+     *
+     * @param errorCode 错误码
+     * @param message 错误消息
+     */
+    default void onError(String errorCode, String message) {
+    }
+
+    /**
+     * 上下文被打断，之前收到的音频作废（例如丢弃尚未播放的缓冲）
+     * 之后收到的音频属于下一轮合成
+     */
+    default void onCancel() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.inccleo.tts.callback;
+
+/**
+ * 背压回调接口
+ */
+@FunctionalInterface
+public interface BackpressureCallback {
+    /**
+     * 当上下文保留的音频超过高水位时调用
+     *
+     * @param retainedBytes 当前保留的字节数
+     */
+    void onBackpressure(long retainedBytes);
+}
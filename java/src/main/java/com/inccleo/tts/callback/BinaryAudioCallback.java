@@ -0,0 +1,18 @@
+package com.inccleo.tts.callback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 二进制音频数据回调接口
+ * 音频在收到时只解码一次，直接以 ByteBuffer 形式交付，无需再做 Base64 解码
+ */
+@FunctionalInterface
+public interface BinaryAudioCallback {
+    /**
+     * 接收音频数据
+     *
+     * @param audio 解码后的音频数据（只读，回调返回后仍可继续持有）
+     * @param isFinal 是否为最后一帧
+     */
+    void onAudio(ByteBuffer audio, boolean isFinal);
+}
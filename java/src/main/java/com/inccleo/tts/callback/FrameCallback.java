@@ -0,0 +1,18 @@
+package com.inccleo.tts.callback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 定长音频帧回调
+ * 在共享的播放调度线程上按实时节奏调用，实现必须快速返回（例如只把帧写入 RTP 发送队列）
+ */
+@FunctionalInterface
+public interface FrameCallback {
+    /**
+     * 接收一帧音频
+     *
+     * @param frame 定长音频帧（只读，缓冲区会被复用，仅在回调期间有效）
+     * @param silence 是否为缓冲不足时补的静音帧
+     */
+    void onFrame(ByteBuffer frame, boolean silence);
+}
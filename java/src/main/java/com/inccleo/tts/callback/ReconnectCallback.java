@@ -0,0 +1,15 @@
+package com.inccleo.tts.callback;
+
+/**
+ * 重连回调接口
+ */
+@FunctionalInterface
+public interface ReconnectCallback {
+    /**
+     * 连接恢复且所有上下文已重放未完成的文本后调用
+     *
+     * @param attempts 本次恢复共尝试的次数
+     * @param recoveryMillis 从断开到恢复完成的耗时（毫秒）
+     */
+    void onReconnected(int attempts, long recoveryMillis);
+}
@@ -0,0 +1,17 @@
+package com.inccleo.tts.callback;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 长文本分段合成的流式音频回调接口
+ */
+@FunctionalInterface
+public interface SegmentAudioCallback {
+    /**
+     * 按原文顺序交付音频：前面各段全部交付后，本段的音频边到达边交付
+     *
+     * @param index 段序号（从 0 开始）
+     * @param audio 音频数据（只读，回调返回后仍可继续持有）
+     */
+    void onAudio(int index, ByteBuffer audio);
+}
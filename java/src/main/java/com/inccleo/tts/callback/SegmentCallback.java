@@ -0,0 +1,18 @@
+package com.inccleo.tts.callback;
+
+import com.inccleo.tts.SynthesisResult;
+
+/**
+ * 长文本分段合成回调接口
+ */
+@FunctionalInterface
+public interface SegmentCallback {
+    /**
+     * 按原文顺序交付每一段的合成结果
+     *
+     * @param index 段序号（从 0 开始）
+     * @param text 段文本
+     * @param result 合成结果
+     */
+    void onSegment(int index, String text, SynthesisResult result);
+}
@@ -0,0 +1,26 @@
+package com.inccleo.tts.dispatch;
+
+/**
+ * 回调分发器
+ * 决定 onAudio / onComplete / onError 等回调在哪个线程上执行。
+ * 每个上下文拥有一条独立的分发通道，同一通道内的回调严格按顺序执行，
+ * 不同通道之间互不阻塞。
+ *
+ * @see Dispatchers
+ */
+public interface CallbackDispatcher {
+
+    /**
+     * 为上下文创建分发通道
+     *
+     * @param contextId 上下文 ID
+     * @return 分发通道
+     */
+    DispatchLane newLane(String contextId);
+
+    /**
+     * 释放分发器持有的线程资源（由分发器自行创建的线程池）
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.inccleo.tts.dispatch;
+
+/**
+ * 单个上下文的回调分发通道
+ * 提交到同一通道的任务按提交顺序依次执行
+ */
+public interface DispatchLane {
+
+    /**
+     * 提交回调任务
+     */
+    void execute(Runnable task);
+
+    /**
+     * 获取尚未执行的回调数量，持续增长说明消费方处理过慢
+     */
+    int getQueueDepth();
+}
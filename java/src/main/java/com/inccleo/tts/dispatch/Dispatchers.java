@@ -0,0 +1,74 @@
+package com.inccleo.tts.dispatch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 常用回调分发器
+ *
+ * <pre>
+ * client.setCallbackDispatcher(Dispatchers.serial(executor));
+ * client.setCallbackDispatcher(Dispatchers.virtualThreads());
+ * </pre>
+ */
+public final class Dispatchers {
+
+    private Dispatchers() {
+    }
+
+    /**
+     * 在 WebSocket 读线程上直接执行回调（默认）
+     * 回调必须足够快，否则会阻塞同一连接上所有上下文的音频接收
+     */
+    public static CallbackDispatcher inline() {
+        return InlineDispatcher.INSTANCE;
+    }
+
+    /**
+     * 每个上下文一条串行队列，在给定线程池上执行
+     * 线程池由调用方管理，shutdown() 不会关闭它
+     *
+     * @param executor 共享线程池
+     */
+    public static CallbackDispatcher serial(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        return new SerialDispatcher(executor, false);
+    }
+
+    /**
+     * 每个上下文一条串行队列，在虚拟线程上执行（Java 21+）
+     * 运行环境不支持虚拟线程时退化为守护线程的缓存线程池
+     */
+    public static CallbackDispatcher virtualThreads() {
+        return new SerialDispatcher(newVirtualThreadExecutor(), true);
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "tts-callback-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.inccleo.tts.dispatch;
+
+/**
+ * 直接在 WebSocket 读线程上执行回调（默认）
+ */
+final class InlineDispatcher implements CallbackDispatcher {
+    static final InlineDispatcher INSTANCE = new InlineDispatcher();
+
+    private static final DispatchLane LANE = new DispatchLane() {
+        @Override
+        public void execute(Runnable task) {
+            SerialLane.runSafely(task);
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return 0;
+        }
+    };
+
+    private InlineDispatcher() {
+    }
+
+    @Override
+    public DispatchLane newLane(String contextId) {
+        return LANE;
+    }
+}
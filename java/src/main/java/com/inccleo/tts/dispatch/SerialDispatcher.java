@@ -0,0 +1,29 @@
+package com.inccleo.tts.dispatch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 每个上下文一条串行通道，所有通道共享同一个线程池
+ */
+final class SerialDispatcher implements CallbackDispatcher {
+    private final Executor executor;
+    private final boolean owned;
+
+    SerialDispatcher(Executor executor, boolean owned) {
+        this.executor = executor;
+        this.owned = owned;
+    }
+
+    @Override
+    public DispatchLane newLane(String contextId) {
+        return new SerialLane(executor);
+    }
+
+    @Override
+    public void shutdown() {
+        if (owned && executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
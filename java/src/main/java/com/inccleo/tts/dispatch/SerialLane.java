@@ -0,0 +1,75 @@
+package com.inccleo.tts.dispatch;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于共享线程池的串行通道
+ * 同一时刻最多只有一个线程在执行该通道的任务，从而保证顺序；
+ * 每次最多连续执行 BATCH 个任务后让出线程，避免单个通道独占线程池。
+ */
+final class SerialLane implements DispatchLane {
+    private static final int BATCH = 64;
+
+    private final Executor executor;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    SerialLane(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+        depth.incrementAndGet();
+        schedule();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int budget = BATCH;
+            while (budget-- > 0 && (task = queue.poll()) != null) {
+                depth.decrementAndGet();
+                runSafely(task);
+            }
+        } finally {
+            scheduled.set(false);
+        }
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * 执行回调，回调抛出的异常不会影响后续回调
+     */
+    static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            System.err.println("[ERROR] Callback failed: " + t);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.inccleo.tts.metrics;
+
+/**
+ * 直方图快照（不可变）
+ */
+public final class HistogramSnapshot {
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[0], 0, 0, 0, 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * 记录的值个数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 所有值之和
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * 获取分位数（近似值，相对误差不超过 1/16）
+     *
+     * @param percentile 百分位，取值 [0, 100]
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count);
+        if (rank == 0) {
+            return min;
+        }
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, LatencyHistogram.bucketUpperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 按纳秒值格式化为毫秒摘要
+     */
+    String formatMillis() {
+        if (count == 0) {
+            return "n=0";
+        }
+        return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                             count, getMean() / 1e6, getValueAtPercentile(50) / 1e6,
+                             getValueAtPercentile(90) / 1e6, getValueAtPercentile(99) / 1e6, max / 1e6);
+    }
+
+    /**
+     * 按原始值格式化摘要
+     */
+    String formatValues() {
+        if (count == 0) {
+            return "n=0";
+        }
+        return String.format("n=%d mean=%.1f p50=%d p90=%d p99=%d max=%d",
+                             count, getMean(), getValueAtPercentile(50),
+                             getValueAtPercentile(90), getValueAtPercentile(99), max);
+    }
+}
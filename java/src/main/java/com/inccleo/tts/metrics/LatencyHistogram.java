@@ -0,0 +1,73 @@
+package com.inccleo.tts.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁对数-线性直方图
+ * 每个 2 的幂区间再等分为 16 个桶，相对误差不超过 1/16；记录只有一次原子自增和几次累加，
+ * 适合在读线程上高频调用。负值按 0 记录。
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * 记录一个值
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * 获取当前分布的快照
+     * 记录与快照并发进行时，快照可能包含部分新记录的值
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        if (count == 0) {
+            return HistogramSnapshot.EMPTY;
+        }
+        return new HistogramSnapshot(copy, count, sum.sum(), min.get(), max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶内的最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
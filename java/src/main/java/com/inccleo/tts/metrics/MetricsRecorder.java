@@ -0,0 +1,109 @@
+package com.inccleo.tts.metrics;
+
+/**
+ * 指标采集接口
+ * SDK 在关键路径上调用这些方法上报耗时和队列深度，所有方法都有空实现，
+ * 实现方只需覆盖关心的事件。方法可能在 WebSocket 读线程上被并发调用，实现必须线程安全且不能阻塞。
+ * 默认使用 {@link #NOOP}，此时 SDK 不会读取时钟，不产生额外开销。
+ */
+public interface MetricsRecorder {
+
+    /**
+     * 不采集任何指标的默认实现
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+    };
+
+    /**
+     * WebSocket 握手完成（首次连接和重连）
+     *
+     * @param nanos 从发起连接到握手完成的耗时
+     */
+    default void onConnect(long nanos) {
+    }
+
+    /**
+     * 连接断开后自动重连成功，各上下文未完成的文本已重放
+     *
+     * @param attempts 本次恢复用了几次重连
+     * @param nanos 从发现连接断开到恢复的耗时
+     */
+    default void onReconnect(int attempts, long nanos) {
+    }
+
+    /**
+     * 一句话收到第一帧音频
+     *
+     * @param nanos 从该句第一次 sendText 到收到第一帧的耗时
+     */
+    default void onTimeToFirstAudio(String contextId, long nanos) {
+    }
+
+    /**
+     * 同一句话相邻两帧音频的间隔
+     */
+    default void onChunkGap(String contextId, long nanos) {
+    }
+
+    /**
+     * 一句话合成完成（收到 is_final）
+     *
+     * @param nanos 从该句第一次 sendText 到收到最后一帧的耗时
+     * @param bytes 该句的音频字节数
+     * @param chunks 该句的音频帧数
+     */
+    default void onSynthesisComplete(String contextId, long nanos, long bytes, int chunks) {
+    }
+
+    /**
+     * 上下文报告错误（服务端错误、连接断开、音频超时等）
+     */
+    default void onContextError(String contextId, String errorCode) {
+    }
+
+    /**
+     * 上下文被打断（{@code TTSContext.cancel()}）后，已取消的音频不再交付
+     *
+     * @param nanos 从调用 cancel 到分发通道上已取消的回调全部跳过、监听器完成清理的耗时
+     */
+    default void onCancel(String contextId, long nanos) {
+    }
+
+    /**
+     * 收到心跳 pong
+     *
+     * @param nanos ping 往返时间
+     */
+    default void onPingRtt(long nanos) {
+    }
+
+    /**
+     * 解析一条服务端消息的耗时
+     */
+    default void onParse(long nanos) {
+    }
+
+    /**
+     * 解码一帧 Base64 音频的耗时
+     */
+    default void onDecode(String contextId, long nanos) {
+    }
+
+    /**
+     * 发送一条消息时 WebSocket 发送队列中尚未写出的帧数
+     */
+    default void onSendQueueDepth(int depth) {
+    }
+
+    /**
+     * 收到一帧音频时该上下文尚未执行的回调数量
+     */
+    default void onCallbackQueueDepth(String contextId, int depth) {
+    }
+
+    /**
+     * 上下文已关闭，实现方可以释放该上下文的指标
+     */
+    default void onContextClosed(String contextId) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.inccleo.tts.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于直方图的指标采集实现
+ * 汇总整个客户端（或连接池）的分布，同时为每个活跃上下文单独统计；上下文关闭后其统计随之释放。
+ * 按上下文 ID 区分上下文，多个客户端共用一个实例时上下文 ID 需互不重复（连接池内的 ID 由连接池保证唯一）。
+ * 需要按连接区分时，为每个客户端设置独立的实例。
+ */
+public class MetricsRegistry implements MetricsRecorder {
+    private final LatencyHistogram connectTime = new LatencyHistogram();
+    private final LatencyHistogram recoveryTime = new LatencyHistogram();
+    private final LatencyHistogram pingRtt = new LatencyHistogram();
+    private final LatencyHistogram timeToFirstAudio = new LatencyHistogram();
+    private final LatencyHistogram chunkGap = new LatencyHistogram();
+    private final LatencyHistogram synthesisTime = new LatencyHistogram();
+    private final LatencyHistogram cancelLatency = new LatencyHistogram();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+    private final LatencyHistogram sendQueueDepth = new LatencyHistogram();
+    private final LatencyHistogram callbackQueueDepth = new LatencyHistogram();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder totalChunks = new LongAdder();
+    private final LongAdder totalSynthesisNanos = new LongAdder();
+    private final Map<String, ContextMetrics> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * 单个上下文的统计
+     */
+    private static final class ContextMetrics {
+        final LatencyHistogram timeToFirstAudio = new LatencyHistogram();
+        final LatencyHistogram chunkGap = new LatencyHistogram();
+        final LatencyHistogram synthesisTime = new LatencyHistogram();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder chunks = new LongAdder();
+        final LongAdder activeNanos = new LongAdder();
+    }
+
+    private ContextMetrics context(String contextId) {
+        ContextMetrics metrics = contexts.get(contextId);
+        if (metrics == null) {
+            metrics = contexts.computeIfAbsent(contextId, id -> new ContextMetrics());
+        }
+        return metrics;
+    }
+
+    @Override
+    public void onConnect(long nanos) {
+        connectTime.record(nanos);
+    }
+
+    @Override
+    public void onReconnect(int attempts, long nanos) {
+        recoveryTime.record(nanos);
+    }
+
+    @Override
+    public void onCancel(String contextId, long nanos) {
+        cancelLatency.record(nanos);
+    }
+
+    @Override
+    public void onPingRtt(long nanos) {
+        pingRtt.record(nanos);
+    }
+
+    @Override
+    public void onTimeToFirstAudio(String contextId, long nanos) {
+        timeToFirstAudio.record(nanos);
+        context(contextId).timeToFirstAudio.record(nanos);
+    }
+
+    @Override
+    public void onChunkGap(String contextId, long nanos) {
+        chunkGap.record(nanos);
+        context(contextId).chunkGap.record(nanos);
+    }
+
+    @Override
+    public void onSynthesisComplete(String contextId, long nanos, long bytes, int chunks) {
+        synthesisTime.record(nanos);
+        totalBytes.add(bytes);
+        totalChunks.add(chunks);
+        totalSynthesisNanos.add(nanos);
+
+        ContextMetrics metrics = context(contextId);
+        metrics.synthesisTime.record(nanos);
+        metrics.bytes.add(bytes);
+        metrics.chunks.add(chunks);
+        metrics.activeNanos.add(nanos);
+    }
+
+    @Override
+    public void onParse(long nanos) {
+        parseTime.record(nanos);
+    }
+
+    @Override
+    public void onDecode(String contextId, long nanos) {
+        decodeTime.record(nanos);
+    }
+
+    @Override
+    public void onSendQueueDepth(int depth) {
+        sendQueueDepth.record(depth);
+    }
+
+    @Override
+    public void onCallbackQueueDepth(String contextId, int depth) {
+        callbackQueueDepth.record(depth);
+    }
+
+    @Override
+    public void onContextClosed(String contextId) {
+        contexts.remove(contextId);
+    }
+
+    /**
+     * 获取当前所有指标的快照
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, MetricsSnapshot.ContextSnapshot> contextSnapshots = new HashMap<>();
+        for (Map.Entry<String, ContextMetrics> entry : contexts.entrySet()) {
+            ContextMetrics metrics = entry.getValue();
+            contextSnapshots.put(entry.getKey(), new MetricsSnapshot.ContextSnapshot(
+                metrics.timeToFirstAudio.snapshot(), metrics.chunkGap.snapshot(), metrics.synthesisTime.snapshot(),
+                metrics.bytes.sum(), metrics.chunks.sum(), metrics.activeNanos.sum()));
+        }
+        return new MetricsSnapshot(connectTime.snapshot(), recoveryTime.snapshot(), pingRtt.snapshot(), timeToFirstAudio.snapshot(),
+                                   chunkGap.snapshot(), synthesisTime.snapshot(), cancelLatency.snapshot(),
+                                   parseTime.snapshot(), decodeTime.snapshot(), sendQueueDepth.snapshot(),
+                                   callbackQueueDepth.snapshot(),
+                                   totalBytes.sum(), totalChunks.sum(), totalSynthesisNanos.sum(), contextSnapshots);
+    }
+}
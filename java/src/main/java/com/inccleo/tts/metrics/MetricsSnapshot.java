@@ -0,0 +1,248 @@
+package com.inccleo.tts.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 指标快照（不可变）
+ * 耗时类分布以纳秒为单位，{@link #toString()} 输出适合写入日志的多行报告
+ */
+public final class MetricsSnapshot {
+    private final HistogramSnapshot connectTime;
+    private final HistogramSnapshot recoveryTime;
+    private final HistogramSnapshot pingRtt;
+    private final HistogramSnapshot timeToFirstAudio;
+    private final HistogramSnapshot chunkGap;
+    private final HistogramSnapshot synthesisTime;
+    private final HistogramSnapshot cancelLatency;
+    private final HistogramSnapshot parseTime;
+    private final HistogramSnapshot decodeTime;
+    private final HistogramSnapshot sendQueueDepth;
+    private final HistogramSnapshot callbackQueueDepth;
+    private final long totalBytes;
+    private final long totalChunks;
+    private final long totalSynthesisNanos;
+    private final Map<String, ContextSnapshot> contexts;
+
+    MetricsSnapshot(HistogramSnapshot connectTime, HistogramSnapshot recoveryTime, HistogramSnapshot pingRtt,
+                    HistogramSnapshot timeToFirstAudio, HistogramSnapshot chunkGap,
+                    HistogramSnapshot synthesisTime, HistogramSnapshot cancelLatency,
+                    HistogramSnapshot parseTime, HistogramSnapshot decodeTime,
+                    HistogramSnapshot sendQueueDepth, HistogramSnapshot callbackQueueDepth,
+                    long totalBytes, long totalChunks, long totalSynthesisNanos,
+                    Map<String, ContextSnapshot> contexts) {
+        this.connectTime = connectTime;
+        this.recoveryTime = recoveryTime;
+        this.pingRtt = pingRtt;
+        this.timeToFirstAudio = timeToFirstAudio;
+        this.chunkGap = chunkGap;
+        this.synthesisTime = synthesisTime;
+        this.cancelLatency = cancelLatency;
+        this.parseTime = parseTime;
+        this.decodeTime = decodeTime;
+        this.sendQueueDepth = sendQueueDepth;
+        this.callbackQueueDepth = callbackQueueDepth;
+        this.totalBytes = totalBytes;
+        this.totalChunks = totalChunks;
+        this.totalSynthesisNanos = totalSynthesisNanos;
+        this.contexts = Collections.unmodifiableMap(contexts);
+    }
+
+    /**
+     * 建连耗时
+     */
+    public HistogramSnapshot getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * 断线恢复耗时（从发现连接断开到自动重连成功），样本数即恢复次数
+     */
+    public HistogramSnapshot getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    /**
+     * 心跳往返时间（启用 {@link com.inccleo.tts.LivenessPolicy} 心跳时）
+     */
+    public HistogramSnapshot getPingRtt() {
+        return pingRtt;
+    }
+
+    /**
+     * 首帧耗时（从 sendText 到第一帧音频）
+     */
+    public HistogramSnapshot getTimeToFirstAudio() {
+        return timeToFirstAudio;
+    }
+
+    /**
+     * 相邻音频帧间隔
+     */
+    public HistogramSnapshot getChunkGap() {
+        return chunkGap;
+    }
+
+    /**
+     * 整句合成耗时
+     */
+    public HistogramSnapshot getSynthesisTime() {
+        return synthesisTime;
+    }
+
+    /**
+     * 打断耗时（从 cancel 到已取消的音频不再交付）
+     */
+    public HistogramSnapshot getCancelLatency() {
+        return cancelLatency;
+    }
+
+    /**
+     * 消息解析耗时
+     */
+    public HistogramSnapshot getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * Base64 解码耗时
+     */
+    public HistogramSnapshot getDecodeTime() {
+        return decodeTime;
+    }
+
+    /**
+     * 发送队列深度（帧数）
+     */
+    public HistogramSnapshot getSendQueueDepth() {
+        return sendQueueDepth;
+    }
+
+    /**
+     * 回调队列深度
+     */
+    public HistogramSnapshot getCallbackQueueDepth() {
+        return callbackQueueDepth;
+    }
+
+    /**
+     * 已完成语句的音频总字节数
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 已完成语句的音频总帧数
+     */
+    public long getTotalChunks() {
+        return totalChunks;
+    }
+
+    /**
+     * 已完成语句的合成耗时之和（纳秒）
+     */
+    public long getTotalSynthesisNanos() {
+        return totalSynthesisNanos;
+    }
+
+    /**
+     * 合成期间的平均音频吞吐（字节/秒）：总字节数除以各句合成耗时之和，
+     * 即单个上下文的平均输出速率，不随并发上下文数增加
+     */
+    public double getBytesPerSecond() {
+        return totalSynthesisNanos == 0 ? 0 : totalBytes * 1e9 / totalSynthesisNanos;
+    }
+
+    /**
+     * 各活跃上下文的统计
+     */
+    public Map<String, ContextSnapshot> getContexts() {
+        return contexts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("connect        ").append(connectTime.formatMillis()).append('\n');
+        sb.append("recovery       ").append(recoveryTime.formatMillis()).append('\n');
+        sb.append("ping rtt       ").append(pingRtt.formatMillis()).append('\n');
+        sb.append("first audio    ").append(timeToFirstAudio.formatMillis()).append('\n');
+        sb.append("chunk gap      ").append(chunkGap.formatMillis()).append('\n');
+        sb.append("synthesis      ").append(synthesisTime.formatMillis()).append('\n');
+        sb.append("cancel         ").append(cancelLatency.formatMillis()).append('\n');
+        sb.append("parse          ").append(parseTime.formatMillis()).append('\n');
+        sb.append("decode         ").append(decodeTime.formatMillis()).append('\n');
+        sb.append("send queue     ").append(sendQueueDepth.formatValues()).append('\n');
+        sb.append("callback queue ").append(callbackQueueDepth.formatValues()).append('\n');
+        sb.append("total          ").append(totalBytes).append(" bytes, ").append(totalChunks).append(" chunks, ")
+          .append(String.format("%.0f bytes/s", getBytesPerSecond()));
+        for (Map.Entry<String, ContextSnapshot> entry : new TreeMap<>(contexts).entrySet()) {
+            sb.append('\n').append("context ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个上下文的统计快照
+     */
+    public static final class ContextSnapshot {
+        private final HistogramSnapshot timeToFirstAudio;
+        private final HistogramSnapshot chunkGap;
+        private final HistogramSnapshot synthesisTime;
+        private final long bytes;
+        private final long chunks;
+        private final long activeNanos;
+
+        ContextSnapshot(HistogramSnapshot timeToFirstAudio, HistogramSnapshot chunkGap,
+                        HistogramSnapshot synthesisTime, long bytes, long chunks, long activeNanos) {
+            this.timeToFirstAudio = timeToFirstAudio;
+            this.chunkGap = chunkGap;
+            this.synthesisTime = synthesisTime;
+            this.bytes = bytes;
+            this.chunks = chunks;
+            this.activeNanos = activeNanos;
+        }
+
+        public HistogramSnapshot getTimeToFirstAudio() {
+            return timeToFirstAudio;
+        }
+
+        public HistogramSnapshot getChunkGap() {
+            return chunkGap;
+        }
+
+        public HistogramSnapshot getSynthesisTime() {
+            return synthesisTime;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getChunks() {
+            return chunks;
+        }
+
+        /**
+         * 合成期间的平均音频吞吐（字节/秒）
+         */
+        public double getBytesPerSecond() {
+            return activeNanos == 0 ? 0 : bytes * 1e9 / activeNanos;
+        }
+
+        /**
+         * 合成期间的平均帧率（帧/秒）
+         */
+        public double getChunksPerSecond() {
+            return activeNanos == 0 ? 0 : chunks * 1e9 / activeNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("first audio [%s], %d bytes, %d chunks, %.0f bytes/s",
+                                 timeToFirstAudio.formatMillis(), bytes, chunks, getBytesPerSecond());
+        }
+    }
+}
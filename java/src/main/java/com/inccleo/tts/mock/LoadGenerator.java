@@ -0,0 +1,215 @@
+package com.inccleo.tts.mock;
+
+import com.inccleo.tts.TTSConnectionPool;
+import com.inccleo.tts.metrics.MetricsRegistry;
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.Transports;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测工具
+ * 通过连接池以固定并发数发起大量 synthesize() 请求，统计吞吐、错误数以及首帧和整句耗时分位数。
+ * 不指定服务端地址时自动启动一个内嵌的 {@link MockTTSServer}。
+ */
+public class LoadGenerator {
+    private final String baseUrl;
+    private final String apiKey;
+    private final String voiceId;
+
+    public LoadGenerator(String baseUrl, String apiKey, String voiceId) {
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.voiceId = voiceId;
+    }
+
+    /**
+     * 执行一轮压测
+     *
+     * @param options 压测参数
+     * @return 压测报告
+     * @throws Exception 建立连接失败或等待被中断时抛出异常
+     */
+    public LoadReport run(Options options) throws Exception {
+        int connections = (options.concurrency + 4) / 5;
+        TTSConnectionPool pool = new TTSConnectionPool(baseUrl, apiKey, voiceId, connections, connections);
+        MetricsRegistry metrics = new MetricsRegistry();
+        pool.setMetricsRecorder(metrics);
+        pool.setTransport(options.transport);
+
+        Map<String, String> params = new HashMap<>(options.params);
+        Semaphore permits = new Semaphore(options.concurrency);
+        CountDownLatch done = new CountDownLatch(options.requests);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong audioBytes = new AtomicLong();
+
+        try {
+            pool.connect(params);
+            long start = System.nanoTime();
+            for (int i = 0; i < options.requests; i++) {
+                permits.acquire();
+                pool.synthesize(options.text).whenComplete((result, error) -> {
+                    if (error == null) {
+                        succeeded.incrementAndGet();
+                        audioBytes.addAndGet(result.getByteCount());
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    permits.release();
+                    done.countDown();
+                });
+            }
+            if (!done.await(options.timeoutSeconds, TimeUnit.SECONDS)) {
+                failed.addAndGet(done.getCount());
+            }
+            long elapsed = System.nanoTime() - start;
+            return new LoadReport(options.requests, succeeded.get(), failed.get(), audioBytes.get(),
+                                  elapsed, connections, metrics.snapshot());
+        } finally {
+            pool.disconnect();
+        }
+    }
+
+    /**
+     * 命令行入口
+     * 参数：[--url ws://host:port] [--api-key key] [--voice id] [--requests n] [--concurrency n]
+     *       [--transport java|jdk] [--latency ms] [--interval ms] [--error-rate r]（后三项仅对内嵌服务端生效）
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> flags = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            flags.put(args[i].substring(2), args[i + 1]);
+        }
+
+        Options options = Options.defaults()
+            .withRequests(Integer.parseInt(flags.getOrDefault("requests", "2000")))
+            .withConcurrency(Integer.parseInt(flags.getOrDefault("concurrency", "200")))
+            .withTransport("jdk".equals(flags.get("transport")) ? Transports.jdkWebSocket() : Transports.javaWebSocket());
+
+        MockTTSServer server = null;
+        String url = flags.get("url");
+        if (url == null) {
+            server = new MockTTSServer(MockTTSServer.Options.defaults()
+                .withFirstChunkLatencyMillis(Long.parseLong(flags.getOrDefault("latency", "150")))
+                .withChunkIntervalMillis(Long.parseLong(flags.getOrDefault("interval", "20")))
+                .withErrorRate(Double.parseDouble(flags.getOrDefault("error-rate", "0"))));
+            url = server.startAndGetUrl();
+            System.out.println("Mock server listening on " + url);
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(url, flags.getOrDefault("api-key", "mock"),
+                                                        flags.getOrDefault("voice", "mock-voice"));
+            System.out.println(generator.run(options));
+        } finally {
+            if (server != null) {
+                server.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 压测参数（不可变，withXxx 返回新实例）
+     */
+    public static final class Options {
+        private static final Options DEFAULTS = new Options(1000, 100, "今天天气很好，我们去公园散步吧。",
+                                                            defaultParams(), 300, Transports.javaWebSocket());
+
+        private final int requests;
+        private final int concurrency;
+        private final String text;
+        private final Map<String, String> params;
+        private final long timeoutSeconds;
+        private final Transport transport;
+
+        private Options(int requests, int concurrency, String text, Map<String, String> params,
+                        long timeoutSeconds, Transport transport) {
+            this.requests = requests;
+            this.concurrency = concurrency;
+            this.text = text;
+            this.params = params;
+            this.timeoutSeconds = timeoutSeconds;
+            this.transport = transport;
+        }
+
+        private static Map<String, String> defaultParams() {
+            Map<String, String> params = new HashMap<>();
+            params.put("model_id", "mock");
+            params.put("format", "pcm_16000");
+            return params;
+        }
+
+        /**
+         * 默认参数：1000 个请求、100 并发，超时 300 秒
+         */
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * 请求总数
+         */
+        public Options withRequests(int requests) {
+            if (requests < 1) {
+                throw new IllegalArgumentException("Requests must be >= 1: " + requests);
+            }
+            return new Options(requests, concurrency, text, params, timeoutSeconds, transport);
+        }
+
+        /**
+         * 同时进行的请求数，连接数按每条连接 5 个上下文计算
+         */
+        public Options withConcurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Concurrency must be >= 1: " + concurrency);
+            }
+            return new Options(requests, concurrency, text, params, timeoutSeconds, transport);
+        }
+
+        /**
+         * 每个请求合成的文本
+         */
+        public Options withText(String text) {
+            if (text == null || text.isEmpty()) {
+                throw new IllegalArgumentException("Text must not be empty");
+            }
+            return new Options(requests, concurrency, text, params, timeoutSeconds, transport);
+        }
+
+        /**
+         * 连接参数（model_id, format, language_code 等）
+         */
+        public Options withParams(Map<String, String> params) {
+            return new Options(requests, concurrency, text, new HashMap<>(params), timeoutSeconds, transport);
+        }
+
+        /**
+         * 等待全部请求完成的最长时间（秒），超时未完成的请求计为失败
+         */
+        public Options withTimeoutSeconds(long seconds) {
+            if (seconds < 1) {
+                throw new IllegalArgumentException("Timeout must be >= 1: " + seconds);
+            }
+            return new Options(requests, concurrency, text, params, seconds, transport);
+        }
+
+        /**
+         * 连接池使用的传输层，默认 {@link Transports#javaWebSocket()}
+         */
+        public Options withTransport(Transport transport) {
+            if (transport == null) {
+                throw new IllegalArgumentException("Transport must not be null");
+            }
+            return new Options(requests, concurrency, text, params, timeoutSeconds, transport);
+        }
+    }
+}
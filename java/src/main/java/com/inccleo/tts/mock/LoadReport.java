@@ -0,0 +1,92 @@
+package com.inccleo.tts.mock;
+
+import com.inccleo.tts.metrics.HistogramSnapshot;
+import com.inccleo.tts.metrics.MetricsSnapshot;
+
+/**
+ * 一轮压测的结果
+ */
+public final class LoadReport {
+    private final int requests;
+    private final long succeeded;
+    private final long failed;
+    private final long audioBytes;
+    private final long elapsedNanos;
+    private final int connections;
+    private final MetricsSnapshot metrics;
+
+    LoadReport(int requests, long succeeded, long failed, long audioBytes, long elapsedNanos,
+               int connections, MetricsSnapshot metrics) {
+        this.requests = requests;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.audioBytes = audioBytes;
+        this.elapsedNanos = elapsedNanos;
+        this.connections = connections;
+        this.metrics = metrics;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getAudioBytes() {
+        return audioBytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * 成功请求的吞吐（请求/秒）
+     */
+    public double getRequestsPerSecond() {
+        return elapsedNanos == 0 ? 0 : succeeded * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * 音频吞吐（字节/秒）
+     */
+    public double getAudioBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : audioBytes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * 压测期间采集的客户端指标（首帧、整句耗时等分布）
+     */
+    public MetricsSnapshot getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        HistogramSnapshot ttfa = metrics.getTimeToFirstAudio();
+        HistogramSnapshot total = metrics.getSynthesisTime();
+        return String.format(
+            "requests=%d succeeded=%d failed=%d connections=%d elapsed=%dms%n" +
+            "throughput   %.1f req/s, %.0f audio bytes/s%n" +
+            "first audio  p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms%n" +
+            "synthesis    p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+            requests, succeeded, failed, connections, getElapsedMillis(),
+            getRequestsPerSecond(), getAudioBytesPerSecond(),
+            millis(ttfa, 50), millis(ttfa, 90), millis(ttfa, 99), millis(ttfa, 99.9), ttfa.getMax() / 1e6,
+            millis(total, 50), millis(total, 90), millis(total, 99), millis(total, 99.9), total.getMax() / 1e6);
+    }
+
+    private static double millis(HistogramSnapshot histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+}
@@ -0,0 +1,424 @@
+package com.inccleo.tts.mock;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.handshake.ServerHandshakeBuilder;
+import org.java_websocket.server.WebSocketServer;
+import org.json.JSONObject;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 本地模拟 TTS 服务端
+ * 实现 {@code /enterprise/v1/tts/{voiceId}/websocket/multi} 协议：接收 text / eos / close，
+ * 返回 audio / is_final / error。音频为静音 PCM，时长与文本长度成正比。
+ * 首帧延迟、帧大小、帧间隔以及错误注入均可配置，用于离线压测和集成测试。
+ */
+public class MockTTSServer extends WebSocketServer {
+    private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+    private static final Pattern PATH = Pattern.compile("^/enterprise/v1/tts/[^/?]+/websocket/multi(\\?.*)?$");
+    private static final int TAIL_BYTES = 320;
+    private static final String NOT_FINAL = "\"is_final\":false}";
+
+    private final Options options;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final String fullChunk;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong utterances = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong errorsInjected = new AtomicLong();
+    private final AtomicLong disconnectsInjected = new AtomicLong();
+
+    /**
+     * 每条连接上一个上下文的状态
+     */
+    private static final class ContextState {
+        final StringBuilder pending = new StringBuilder();
+        final ArrayDeque<String> frames = new ArrayDeque<>();
+        long nextFrameNanos;
+        int generation;
+    }
+
+    /**
+     * 在随机端口上创建服务端（仅监听本机）
+     */
+    public MockTTSServer(Options options) {
+        this(new InetSocketAddress("127.0.0.1", 0), options);
+    }
+
+    public MockTTSServer(InetSocketAddress address, Options options) {
+        super(address);
+        this.options = options;
+        this.scheduler = Executors.newScheduledThreadPool(options.schedulerThreads, r -> {
+            Thread thread = new Thread(r, "tts-mock-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fullChunk = Base64.getEncoder().encodeToString(new byte[options.chunkBytes]);
+        setReuseAddr(true);
+        setTcpNoDelay(true);
+    }
+
+    /**
+     * 启动并等待端口就绪
+     *
+     * @return 可直接传给 TTSClient 的基础 URL
+     */
+    public String startAndGetUrl() throws InterruptedException {
+        start();
+        if (!started.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Mock server did not start");
+        }
+        return "ws://" + getAddress().getHostString() + ":" + getPort();
+    }
+
+    /**
+     * 停止服务端并释放调度线程
+     */
+    public void shutdown() throws InterruptedException {
+        stop(1000);
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public ServerHandshakeBuilder onWebsocketHandshakeReceivedAsServer(WebSocket conn, Draft draft,
+                                                                       ClientHandshake request)
+            throws InvalidDataException {
+        ServerHandshakeBuilder builder = super.onWebsocketHandshakeReceivedAsServer(conn, draft, request);
+        if (!PATH.matcher(request.getResourceDescriptor()).matches()) {
+            throw new InvalidDataException(CloseFrame.POLICY_VALIDATION, "Unknown path");
+        }
+        if (options.apiKey != null && !options.apiKey.equals(request.getFieldValue("api-key"))) {
+            throw new InvalidDataException(CloseFrame.POLICY_VALIDATION, "Invalid api-key");
+        }
+        return builder;
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        conn.setAttachment(new ConcurrentHashMap<String, ContextState>());
+        connections.incrementAndGet();
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        JSONObject data;
+        try {
+            data = new JSONObject(message);
+        } catch (Exception e) {
+            conn.send(new JSONObject().put("error", "INVALID_MESSAGE").put("message", e.getMessage()).toString());
+            return;
+        }
+
+        String type = data.optString("type");
+        String contextId = data.optString("context_id", null);
+        if (contextId == null) {
+            conn.send(new JSONObject().put("error", "MISSING_CONTEXT_ID")
+                                      .put("message", "context_id is required").toString());
+            return;
+        }
+
+        Map<String, ContextState> contexts = conn.getAttachment();
+        switch (type) {
+            case "text": {
+                ContextState state = contexts.computeIfAbsent(contextId, id -> new ContextState());
+                synchronized (state) {
+                    state.pending.append(data.optString("text"));
+                    if (data.optBoolean("flush")) {
+                        synthesize(conn, contextId, state, false);
+                    }
+                }
+                break;
+            }
+            case "eos": {
+                ContextState state = contexts.computeIfAbsent(contextId, id -> new ContextState());
+                synchronized (state) {
+                    synthesize(conn, contextId, state, true);
+                }
+                break;
+            }
+            case "close": {
+                ContextState state = contexts.remove(contextId);
+                if (state != null) {
+                    synchronized (state) {
+                        // 丢弃已排程但尚未发送的帧
+                        state.generation++;
+                        state.frames.clear();
+                    }
+                }
+                break;
+            }
+            default:
+                conn.send(new JSONObject().put("context_id", contextId).put("error", "UNKNOWN_TYPE")
+                                          .put("message", "Unknown message type: " + type).toString());
+        }
+    }
+
+    /**
+     * 为缓冲中的文本排程音频帧，final 为 true 时最后一帧带 is_final
+     */
+    private void synthesize(WebSocket conn, String contextId, ContextState state, boolean isFinal) {
+        int chars = state.pending.codePointCount(0, state.pending.length());
+        state.pending.setLength(0);
+        if (chars == 0 && !isFinal) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long start = Math.max(now + TimeUnit.MILLISECONDS.toNanos(options.firstChunkLatencyMillis),
+                              state.nextFrameNanos);
+        long interval = TimeUnit.MILLISECONDS.toNanos(options.chunkIntervalMillis);
+        int generation = state.generation;
+
+        if (isFinal) {
+            utterances.incrementAndGet();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < options.errorRate) {
+                String error = new JSONObject().put("context_id", contextId).put("error", "INTERNAL_ERROR")
+                                               .put("message", "Injected error").toString();
+                errorsInjected.incrementAndGet();
+                schedule(conn, state, generation, error, start - now);
+                state.nextFrameNanos = start;
+                return;
+            }
+            if (random.nextDouble() < options.disconnectRate) {
+                disconnectsInjected.incrementAndGet();
+                scheduler.schedule(() -> conn.closeConnection(CloseFrame.ABNORMAL_CLOSE, "Injected disconnect"),
+                                   start - now, TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+
+        long remaining = (long) chars * options.audioBytesPerChar;
+        if (remaining == 0) {
+            // 没有新文本：把尚未发出的最后一帧改为 is_final，都已发出时补一段短静音作为结束帧
+            String last = state.frames.peekLast();
+            if (last != null && last.endsWith(NOT_FINAL)) {
+                state.frames.pollLast();
+                state.frames.addLast(last.substring(0, last.length() - NOT_FINAL.length()) + "\"is_final\":true}");
+                return;
+            }
+            remaining = TAIL_BYTES;
+        }
+        long at = start;
+        while (remaining > 0) {
+            int size = (int) Math.min(options.chunkBytes, remaining);
+            remaining -= size;
+            String audio = size == options.chunkBytes ? fullChunk
+                                                      : Base64.getEncoder().encodeToString(new byte[size]);
+            String frame = "{\"audio\":\"" + audio + "\",\"context_id\":" + JSONObject.quote(contextId) +
+                           ",\"is_final\":" + (isFinal && remaining == 0) + "}";
+            schedule(conn, state, generation, frame, at - now);
+            at += interval;
+        }
+        state.nextFrameNanos = at;
+    }
+
+    /**
+     * 帧先入队再排程出队任务：多个调度线程同时到期时仍按入队顺序发送
+     */
+    private void schedule(WebSocket conn, ContextState state, int generation, String frame, long delayNanos) {
+        state.frames.add(frame);
+        scheduler.schedule(() -> {
+            synchronized (state) {
+                if (state.generation != generation || !conn.isOpen()) {
+                    return;
+                }
+                String next = state.frames.poll();
+                if (next != null) {
+                    // 先计数再发送：客户端收到最后一帧时计数已经可见
+                    framesSent.incrementAndGet();
+                    conn.send(next);
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+        if (DEBUG) {
+            System.err.println("[ERROR] Mock server error: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onStart() {
+        started.countDown();
+    }
+
+    /**
+     * 已接受的连接数
+     */
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * 已处理的语句数（收到的 eos 数）
+     */
+    public long getUtteranceCount() {
+        return utterances.get();
+    }
+
+    /**
+     * 已发送的音频帧数
+     */
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * 注入的错误数
+     */
+    public long getErrorsInjected() {
+        return errorsInjected.get();
+    }
+
+    /**
+     * 注入的断连数
+     */
+    public long getDisconnectsInjected() {
+        return disconnectsInjected.get();
+    }
+
+    /**
+     * 模拟服务端参数（不可变，withXxx 返回新实例）
+     */
+    public static final class Options {
+        private static final Options DEFAULTS = new Options(150, 3200, 20, 3200, 0, 0, null, 2);
+
+        private final long firstChunkLatencyMillis;
+        private final int chunkBytes;
+        private final long chunkIntervalMillis;
+        private final int audioBytesPerChar;
+        private final double errorRate;
+        private final double disconnectRate;
+        private final String apiKey;
+        private final int schedulerThreads;
+
+        private Options(long firstChunkLatencyMillis, int chunkBytes, long chunkIntervalMillis,
+                        int audioBytesPerChar, double errorRate, double disconnectRate, String apiKey,
+                        int schedulerThreads) {
+            this.firstChunkLatencyMillis = firstChunkLatencyMillis;
+            this.chunkBytes = chunkBytes;
+            this.chunkIntervalMillis = chunkIntervalMillis;
+            this.audioBytesPerChar = audioBytesPerChar;
+            this.errorRate = errorRate;
+            this.disconnectRate = disconnectRate;
+            this.apiKey = apiKey;
+            this.schedulerThreads = schedulerThreads;
+        }
+
+        /**
+         * 默认参数：首帧 150 毫秒，每帧 3200 字节（pcm_16000 的 100 毫秒）、间隔 20 毫秒，
+         * 每个字符 3200 字节音频，不注入错误，不校验 api-key
+         */
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * 从收到 flush 文本或 eos 到发出第一帧的延迟（毫秒）
+         */
+        public Options withFirstChunkLatencyMillis(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Latency must be >= 0: " + millis);
+            }
+            return new Options(millis, chunkBytes, chunkIntervalMillis, audioBytesPerChar,
+                               errorRate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 每帧音频的字节数
+         */
+        public Options withChunkBytes(int bytes) {
+            if (bytes < 2 || bytes % 2 != 0) {
+                throw new IllegalArgumentException("Chunk bytes must be a positive even number: " + bytes);
+            }
+            return new Options(firstChunkLatencyMillis, bytes, chunkIntervalMillis, audioBytesPerChar,
+                               errorRate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 相邻两帧的发送间隔（毫秒）
+         */
+        public Options withChunkIntervalMillis(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Interval must be >= 0: " + millis);
+            }
+            return new Options(firstChunkLatencyMillis, chunkBytes, millis, audioBytesPerChar,
+                               errorRate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 每个字符生成的音频字节数
+         */
+        public Options withAudioBytesPerChar(int bytes) {
+            if (bytes < 0 || bytes % 2 != 0) {
+                throw new IllegalArgumentException("Bytes per char must be a non-negative even number: " + bytes);
+            }
+            return new Options(firstChunkLatencyMillis, chunkBytes, chunkIntervalMillis, bytes,
+                               errorRate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 每句话以错误结束的概率，取值 [0, 1]
+         */
+        public Options withErrorRate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Error rate must be in [0, 1]: " + rate);
+            }
+            return new Options(firstChunkLatencyMillis, chunkBytes, chunkIntervalMillis, audioBytesPerChar,
+                               rate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 每句话导致连接异常断开的概率，取值 [0, 1]
+         */
+        public Options withDisconnectRate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Disconnect rate must be in [0, 1]: " + rate);
+            }
+            return new Options(firstChunkLatencyMillis, chunkBytes, chunkIntervalMillis, audioBytesPerChar,
+                               errorRate, rate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 要求握手携带指定的 api-key，null 表示不校验
+         */
+        public Options withApiKey(String apiKey) {
+            return new Options(firstChunkLatencyMillis, chunkBytes, chunkIntervalMillis, audioBytesPerChar,
+                               errorRate, disconnectRate, apiKey, schedulerThreads);
+        }
+
+        /**
+         * 发送音频帧的调度线程数
+         */
+        public Options withSchedulerThreads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Scheduler threads must be >= 1: " + threads);
+            }
+            return new Options(firstChunkLatencyMillis, chunkBytes, chunkIntervalMillis, audioBytesPerChar,
+                               errorRate, disconnectRate, apiKey, threads);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.inccleo.tts.playout;
+
+import com.inccleo.tts.audio.StreamFormat;
+import com.inccleo.tts.callback.AudioListener;
+import com.inccleo.tts.callback.FrameCallback;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * 抖动缓冲 / 播放节拍器
+ * 作为 {@link AudioListener} 接收突发到达的音频，重新切分为定长帧，由 {@link PlayoutScheduler}
+ * 按实时节奏逐帧释放。先预缓冲到指定时长再开始播放；播放中数据不足记为一次欠载，
+ * 并回到预缓冲状态。开始播放后，没有音频可放的节拍默认补静音帧，保证输出节奏恒定。
+ * 一句话结束（is_final）时，不足一帧的尾部补静音后释放，不计为欠载。
+ * 上下文被打断时丢弃所有尚未释放的音频，下一个节拍起输出静音。
+ */
+public class JitterBuffer implements AudioListener, Closeable {
+
+    private enum State {
+        IDLE, BUFFERING, PLAYING
+    }
+
+    private final PlayoutScheduler scheduler;
+    private final StreamFormat format;
+    private final FrameCallback callback;
+    private final int frameBytes;
+    private final int prebufferBytes;
+    private final boolean silenceFill;
+    private final byte[] ring;
+    private final byte[] frame;
+    private final ByteBuffer frameView;
+
+    // 以下状态由 this 保护
+    private int head;
+    private int size;
+    private boolean finalPending;
+    private boolean started;
+    private State state = State.IDLE;
+    private int maxDepth;
+    private long underruns;
+    private long framesPlayed;
+    private long silenceFrames;
+    private long droppedBytes;
+    private boolean closed;
+
+    JitterBuffer(PlayoutScheduler scheduler, StreamFormat format, Options options, FrameCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("Frame callback must not be null");
+        }
+        this.scheduler = scheduler;
+        this.format = format;
+        this.callback = callback;
+        this.frameBytes = format.bytesForMillis(scheduler.getFrameMillis());
+        if (frameBytes == 0) {
+            throw new IllegalArgumentException("Frame too short for " + format);
+        }
+        this.prebufferBytes = Math.max(frameBytes, format.bytesForMillis(options.prebufferMillis));
+        this.silenceFill = options.silenceFill;
+        int capacity = Math.max(prebufferBytes + frameBytes, format.bytesForMillis(options.maxBufferMillis));
+        this.ring = new byte[capacity];
+        this.frame = new byte[frameBytes];
+        this.frameView = ByteBuffer.wrap(frame).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void onAudio(ByteBuffer audio, boolean isFinal) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            int n = audio.remaining();
+            if (n > ring.length) {
+                // 单帧超过容量：只保留最新的部分
+                int skip = n - ring.length;
+                skip += (format.getFrameSize() - skip % format.getFrameSize()) % format.getFrameSize();
+                audio.position(audio.position() + skip);
+                droppedBytes += skip;
+                n = audio.remaining();
+            }
+            int overflow = size + n - ring.length;
+            if (overflow > 0) {
+                // 缓冲已满：丢弃最旧的数据
+                discard(overflow);
+                droppedBytes += overflow;
+            }
+
+            int tail = (head + size) % ring.length;
+            int first = Math.min(n, ring.length - tail);
+            audio.get(ring, tail, first);
+            audio.get(ring, 0, n - first);
+            size += n;
+            maxDepth = Math.max(maxDepth, size);
+
+            if (isFinal) {
+                finalPending = true;
+            }
+            if (state == State.IDLE && size > 0) {
+                state = State.BUFFERING;
+            }
+        }
+    }
+
+    /**
+     * 上下文被打断：丢弃缓冲中尚未播放的音频，回到空闲状态
+     */
+    @Override
+    public synchronized void onCancel() {
+        head = 0;
+        size = 0;
+        finalPending = false;
+        state = State.IDLE;
+    }
+
+    /**
+     * 调度器节拍：释放一帧（内部使用，仅由调度线程调用）
+     */
+    void tick() {
+        boolean silence;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (state == State.BUFFERING && (size >= prebufferBytes || finalPending)) {
+                state = State.PLAYING;
+                started = true;
+            }
+
+            if (state == State.PLAYING && size >= frameBytes) {
+                read(frame, frameBytes);
+                silence = false;
+            } else if (state == State.PLAYING && finalPending) {
+                // 一句话结束：尾部补静音
+                int n = size;
+                read(frame, n);
+                java.util.Arrays.fill(frame, n, frameBytes, silenceByte());
+                finalPending = false;
+                state = State.IDLE;
+                silence = n == 0;
+                if (silence && !silenceFill) {
+                    return;
+                }
+            } else {
+                if (state == State.PLAYING) {
+                    underruns++;
+                    state = State.BUFFERING;
+                }
+                if (!started || !silenceFill) {
+                    return;
+                }
+                java.util.Arrays.fill(frame, silenceByte());
+                silence = true;
+            }
+
+            framesPlayed++;
+            if (silence) {
+                silenceFrames++;
+            }
+        }
+
+        try {
+            frameView.clear();
+            callback.onFrame(frameView, silence);
+        } catch (RuntimeException e) {
+            System.err.println("[ERROR] Frame callback failed: " + e.getMessage());
+        }
+    }
+
+    private void read(byte[] dst, int n) {
+        int first = Math.min(n, ring.length - head);
+        System.arraycopy(ring, head, dst, 0, first);
+        System.arraycopy(ring, 0, dst, first, n - first);
+        discard(n);
+    }
+
+    private void discard(int n) {
+        head = (head + n) % ring.length;
+        size -= n;
+    }
+
+    /**
+     * 编码对应的静音值（μ-law 0xFF，A-law 0xD5，PCM 0）
+     */
+    private byte silenceByte() {
+        switch (format.getEncoding()) {
+            case MULAW:
+                return (byte) 0xFF;
+            case ALAW:
+                return (byte) 0xD5;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 停止释放帧并从调度器中移除
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        if (scheduler != null) {
+            scheduler.remove(this);
+        }
+    }
+
+    /**
+     * 当前缓冲的音频时长（毫秒）
+     */
+    public synchronized long getBufferedMillis() {
+        return format.millisForBytes(size);
+    }
+
+    /**
+     * 缓冲深度的历史最大值（毫秒）
+     */
+    public synchronized long getMaxBufferedMillis() {
+        return format.millisForBytes(maxDepth);
+    }
+
+    /**
+     * 播放中数据不足的次数
+     */
+    public synchronized long getUnderrunCount() {
+        return underruns;
+    }
+
+    /**
+     * 已释放的帧数（含静音帧）
+     */
+    public synchronized long getFramesPlayed() {
+        return framesPlayed;
+    }
+
+    /**
+     * 已释放的静音帧数
+     */
+    public synchronized long getSilenceFrames() {
+        return silenceFrames;
+    }
+
+    /**
+     * 缓冲溢出时丢弃的字节数
+     */
+    public synchronized long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    /**
+     * 每帧字节数
+     */
+    public int getFrameBytes() {
+        return frameBytes;
+    }
+
+    /**
+     * 抖动缓冲参数（不可变，withXxx 返回新实例）
+     */
+    public static final class Options {
+        private static final Options DEFAULTS = new Options(60, 5000, true);
+
+        private final long prebufferMillis;
+        private final long maxBufferMillis;
+        private final boolean silenceFill;
+
+        private Options(long prebufferMillis, long maxBufferMillis, boolean silenceFill) {
+            this.prebufferMillis = prebufferMillis;
+            this.maxBufferMillis = maxBufferMillis;
+            this.silenceFill = silenceFill;
+        }
+
+        /**
+         * 默认参数：预缓冲 60 毫秒，最多缓冲 5 秒，开始播放后用静音填补空档
+         */
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * 开始播放（以及欠载后恢复播放）前需要积累的音频时长（毫秒）
+         */
+        public Options withPrebufferMillis(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("Prebuffer must be >= 0: " + millis);
+            }
+            return new Options(millis, maxBufferMillis, silenceFill);
+        }
+
+        /**
+         * 最多缓冲的音频时长（毫秒），超出时丢弃最旧的数据
+         */
+        public Options withMaxBufferMillis(long millis) {
+            if (millis < 1) {
+                throw new IllegalArgumentException("Max buffer must be >= 1: " + millis);
+            }
+            return new Options(prebufferMillis, millis, silenceFill);
+        }
+
+        /**
+         * 开始播放后没有音频可放时是否输出静音帧
+         */
+        public Options withSilenceFill(boolean silenceFill) {
+            return new Options(prebufferMillis, maxBufferMillis, silenceFill);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.inccleo.tts.playout;
+
+import com.inccleo.tts.audio.StreamFormat;
+import com.inccleo.tts.callback.FrameCallback;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 播放调度器
+ * 一个守护线程按固定帧长（例如 20 毫秒）的绝对时间表推进所有抖动缓冲，每个节拍每个缓冲释放一帧。
+ * 所有上下文共用同一个线程，而不是每路流一个定时器线程。
+ * 节拍按 System.nanoTime 的绝对截止时间计算，单次唤醒延迟不会累积成漂移；
+ * 落后超过若干帧（例如长时间 GC 停顿）时放弃追赶并重新对齐。
+ */
+public class PlayoutScheduler {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static PlayoutScheduler shared;
+
+    private final int frameMillis;
+    private final long periodNanos;
+    private final List<JitterBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param frameMillis 帧长（毫秒）
+     */
+    public PlayoutScheduler(int frameMillis) {
+        if (frameMillis < 1) {
+            throw new IllegalArgumentException("Frame millis must be >= 1: " + frameMillis);
+        }
+        this.frameMillis = frameMillis;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(frameMillis);
+    }
+
+    /**
+     * 进程内共享的 20 毫秒调度器
+     */
+    public static synchronized PlayoutScheduler shared() {
+        if (shared == null) {
+            shared = new PlayoutScheduler(20);
+        }
+        return shared;
+    }
+
+    /**
+     * 创建抖动缓冲并加入调度
+     * 返回的缓冲需要通过 {@code context.addAudioListener(buffer)} 挂到上下文上，不再使用时调用 close
+     *
+     * @param format 输入音频格式（例如 StreamFormat.parse("pcm_16000")）
+     * @param options 缓冲参数
+     * @param callback 帧回调，在调度线程上执行
+     */
+    public JitterBuffer newBuffer(StreamFormat format, JitterBuffer.Options options, FrameCallback callback) {
+        JitterBuffer buffer = new JitterBuffer(this, format, options, callback);
+        buffers.add(buffer);
+        start();
+        return buffer;
+    }
+
+    void remove(JitterBuffer buffer) {
+        buffers.remove(buffer);
+    }
+
+    private synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "tts-playout-" + frameMillis + "ms");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * 停止调度线程（已创建的缓冲不再释放帧）
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    private void run() {
+        long next = System.nanoTime() + periodNanos;
+        while (running) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            for (JitterBuffer buffer : buffers) {
+                buffer.tick();
+            }
+            ticks.incrementAndGet();
+            next += periodNanos;
+
+            long behind = System.nanoTime() - next;
+            if (behind > MAX_CATCH_UP_TICKS * periodNanos) {
+                skippedTicks.addAndGet(behind / periodNanos);
+                next = System.nanoTime() + periodNanos;
+            }
+        }
+    }
+
+    /**
+     * 帧长（毫秒）
+     */
+    public int getFrameMillis() {
+        return frameMillis;
+    }
+
+    /**
+     * 已执行的节拍数
+     */
+    public long getTickCount() {
+        return ticks.get();
+    }
+
+    /**
+     * 因调度线程落后过多而跳过的节拍数
+     */
+    public long getSkippedTicks() {
+        return skippedTicks.get();
+    }
+
+    /**
+     * 当前调度中的缓冲数
+     */
+    public int getBufferCount() {
+        return buffers.size();
+    }
+}
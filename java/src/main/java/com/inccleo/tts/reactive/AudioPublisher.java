@@ -0,0 +1,275 @@
+package com.inccleo.tts.reactive;
+
+import com.inccleo.tts.TTSContext;
+import com.inccleo.tts.TTSException;
+import com.inccleo.tts.callback.AudioListener;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上下文音频发布者
+ * 按订阅者的需求推送解码后的音频；需求不足时音频进入有界缓冲，
+ * 超过上限按 {@link OverflowStrategy} 处理，避免慢速下游导致堆内存无限增长。
+ * 单播：只允许一个订阅者。
+ */
+public final class AudioPublisher implements Publisher<ByteBuffer> {
+
+    /**
+     * 缓冲溢出策略
+     */
+    public enum OverflowStrategy {
+        /** 丢弃最旧的音频，为新音频腾出空间 */
+        DROP_OLDEST,
+        /** 丢弃新到达的音频 */
+        DROP_LATEST,
+        /** 以 AUDIO_BUFFER_OVERFLOW 错误结束订阅 */
+        ERROR
+    }
+
+    private final TTSContext context;
+    private final long maxBufferedBytes;
+    private final OverflowStrategy strategy;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong droppedBytes = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param context 上下文
+     * @param maxBufferedBytes 缓冲上限（字节）
+     * @param strategy 溢出策略
+     */
+    public AudioPublisher(TTSContext context, long maxBufferedBytes, OverflowStrategy strategy) {
+        if (context == null || strategy == null) {
+            throw new IllegalArgumentException("Context and strategy must not be null");
+        }
+        if (maxBufferedBytes <= 0) {
+            throw new IllegalArgumentException("Buffer limit must be positive: " + maxBufferedBytes);
+        }
+        this.context = context;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("AudioPublisher allows only one subscriber"));
+            return;
+        }
+
+        AudioSubscription subscription = new AudioSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        context.addAudioListener(subscription);
+    }
+
+    /**
+     * 因溢出被丢弃的字节数
+     */
+    public long getDroppedBytes() {
+        return droppedBytes.get();
+    }
+
+    /**
+     * 订阅：同时作为上下文的音频监听器接收音频
+     */
+    private final class AudioSubscription implements Subscription, AudioListener {
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private long bufferedBytes;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        private boolean terminated;
+
+        AudioSubscription(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onAudio(ByteBuffer audio, boolean isFinal) {
+            if (done || cancelled) {
+                return;
+            }
+            synchronized (queue) {
+                int size = audio.remaining();
+                if (bufferedBytes + size > maxBufferedBytes) {
+                    switch (strategy) {
+                        case DROP_OLDEST:
+                            while (!queue.isEmpty() && bufferedBytes + size > maxBufferedBytes) {
+                                ByteBuffer oldest = queue.poll();
+                                bufferedBytes -= oldest.remaining();
+                                droppedBytes.addAndGet(oldest.remaining());
+                            }
+                            break;
+                        case DROP_LATEST:
+                            droppedBytes.addAndGet(size);
+                            audio = null;
+                            break;
+                        default:
+                            queue.clear();
+                            bufferedBytes = 0;
+                            error = new TTSException("AUDIO_BUFFER_OVERFLOW",
+                                                     "Subscriber buffer exceeds " + maxBufferedBytes + " bytes");
+                            done = true;
+                            audio = null;
+                            break;
+                    }
+                }
+                if (audio != null) {
+                    queue.add(audio);
+                    bufferedBytes += size;
+                }
+            }
+            if (isFinal) {
+                done = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(String errorCode, String message) {
+            if (done || cancelled) {
+                return;
+            }
+            error = new TTSException(errorCode, message);
+            done = true;
+            drain();
+        }
+
+        /**
+         * 上下文被打断：丢弃尚未推送给订阅者的音频，只把下一轮合成的音频交给下游
+         */
+        @Override
+        public void onCancel() {
+            synchronized (queue) {
+                queue.clear();
+                bufferedBytes = 0;
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("§3.9 violated: positive request amount required");
+                done = true;
+                drain();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    break;
+                }
+                next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            context.removeAudioListener(this);
+            synchronized (queue) {
+                queue.clear();
+                bufferedBytes = 0;
+            }
+        }
+
+        /**
+         * 串行化所有对订阅者的调用
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (cancelled || terminated) {
+                    return;
+                }
+
+                Throwable failure = error;
+                if (failure != null) {
+                    terminate(failure);
+                    return;
+                }
+
+                while (requested.get() > 0) {
+                    ByteBuffer next;
+                    synchronized (queue) {
+                        next = queue.poll();
+                        if (next != null) {
+                            bufferedBytes -= next.remaining();
+                        }
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    subscriber.onNext(next);
+                    if (cancelled) {
+                        return;
+                    }
+                    if (error != null) {
+                        break;
+                    }
+                }
+
+                failure = error;
+                if (failure != null) {
+                    terminate(failure);
+                    return;
+                }
+                boolean empty;
+                synchronized (queue) {
+                    empty = queue.isEmpty();
+                }
+                if (done && empty) {
+                    terminate(null);
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(Throwable failure) {
+            terminated = true;
+            context.removeAudioListener(this);
+            if (failure != null) {
+                subscriber.onError(failure);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+}
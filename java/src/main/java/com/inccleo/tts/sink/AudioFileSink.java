@@ -0,0 +1,191 @@
+package com.inccleo.tts.sink;
+
+import com.inccleo.tts.callback.AudioListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 音频落盘基类
+ * 作为 {@link AudioListener} 挂载到上下文上，音频到达时先写入批量缓冲，缓冲写满、收到最后一帧
+ * 或关闭时再通过 FileChannel 写出，减少系统调用；音频不会在堆上整段保留。
+ *
+ * 写盘失败时抛出 {@link UncheckedIOException}（由回调分发器记录），之后的音频不再写入，
+ * 可通过 {@link #getFailure()} 查看原因。
+ */
+public abstract class AudioFileSink implements AudioListener, Closeable {
+    /** 默认批量缓冲大小 */
+    public static final int DEFAULT_BATCH_BYTES = 64 * 1024;
+
+    /**
+     * 刷盘（fsync）策略
+     */
+    public enum FsyncPolicy {
+        /** 不主动刷盘，由操作系统决定 */
+        NEVER,
+        /** 每句话结束（is_final）和关闭时刷盘 */
+        ON_FINAL,
+        /** 每次写出批量缓冲后都刷盘 */
+        EVERY_WRITE
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer batch;
+    private final FsyncPolicy fsyncPolicy;
+    private long bytesWritten;
+    private long writeCalls;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * 创建（或截断）目标文件
+     *
+     * @param path 目标文件
+     * @param headerBytes 文件头预留的字节数
+     * @param batchBytes 批量缓冲大小
+     * @param fsyncPolicy 刷盘策略
+     * @throws IOException 文件无法打开时抛出
+     */
+    protected AudioFileSink(Path path, int headerBytes, int batchBytes, FsyncPolicy fsyncPolicy) throws IOException {
+        if (batchBytes < 1) {
+            throw new IllegalArgumentException("Batch bytes must be >= 1: " + batchBytes);
+        }
+        if (fsyncPolicy == null) {
+            throw new IllegalArgumentException("Fsync policy must not be null");
+        }
+        this.path = path;
+        this.fsyncPolicy = fsyncPolicy;
+        this.batch = ByteBuffer.allocateDirect(batchBytes);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel.position(headerBytes);
+    }
+
+    @Override
+    public synchronized void onAudio(ByteBuffer audio, boolean isFinal) {
+        if (closed || failure != null) {
+            return;
+        }
+        try {
+            while (audio.hasRemaining()) {
+                if (!batch.hasRemaining()) {
+                    writeBatch();
+                }
+                int n = Math.min(audio.remaining(), batch.remaining());
+                ByteBuffer slice = audio.duplicate();
+                slice.limit(slice.position() + n);
+                batch.put(slice);
+                audio.position(audio.position() + n);
+            }
+            if (isFinal) {
+                writeBatch();
+                onFinal(channel, dataBytes());
+                if (fsyncPolicy == FsyncPolicy.ON_FINAL) {
+                    channel.force(false);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException("Failed to write " + path, e);
+        }
+    }
+
+    /**
+     * 出错时写出已缓冲的音频，保留已收到的部分
+     */
+    @Override
+    public synchronized void onError(String errorCode, String message) {
+        if (closed || failure != null) {
+            return;
+        }
+        try {
+            writeBatch();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * 写出剩余数据、更新文件头并关闭文件
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (failure == null) {
+                writeBatch();
+                onFinal(channel, dataBytes());
+                if (fsyncPolicy != FsyncPolicy.NEVER) {
+                    channel.force(true);
+                }
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 一句话结束或关闭时调用，子类可在此回填文件头
+     *
+     * @param channel 文件通道
+     * @param dataBytes 已写入的音频字节数（不含文件头）
+     */
+    protected void onFinal(FileChannel channel, long dataBytes) throws IOException {
+    }
+
+    private void writeBatch() throws IOException {
+        if (batch.position() == 0) {
+            return;
+        }
+        batch.flip();
+        while (batch.hasRemaining()) {
+            bytesWritten += channel.write(batch);
+            writeCalls++;
+        }
+        batch.clear();
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            channel.force(false);
+        }
+    }
+
+    private long dataBytes() {
+        return bytesWritten;
+    }
+
+    /**
+     * 目标文件
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 已写入文件的音频字节数（不含仍在批量缓冲中的数据和文件头）
+     */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 实际发出的写调用次数
+     */
+    public synchronized long getWriteCalls() {
+        return writeCalls;
+    }
+
+    /**
+     * 写盘失败的原因，未失败时返回 null
+     */
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,23 @@
+package com.inccleo.tts.sink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 原样写出音频数据（不加文件头），适用于任意输出格式
+ */
+public class RawFileSink extends AudioFileSink {
+
+    public RawFileSink(Path path) throws IOException {
+        this(path, DEFAULT_BATCH_BYTES, FsyncPolicy.NEVER);
+    }
+
+    /**
+     * @param path 目标文件（已存在时截断）
+     * @param batchBytes 批量缓冲大小
+     * @param fsyncPolicy 刷盘策略
+     */
+    public RawFileSink(Path path, int batchBytes, FsyncPolicy fsyncPolicy) throws IOException {
+        super(path, 0, batchBytes, fsyncPolicy);
+    }
+}
@@ -0,0 +1,105 @@
+package com.inccleo.tts.sink;
+
+import com.inccleo.tts.audio.StreamFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * 写出 WAV 文件
+ * 采样率和编码由连接参数 format 推导（pcm_16000、ulaw_8000、alaw_8000 等，单声道）。
+ * 先预留 44 字节文件头，每句话结束（is_final）和关闭时回填 RIFF 和 data 块的大小，
+ * 因此每句话结束后文件都是完整可播放的。
+ */
+public class WavFileSink extends AudioFileSink {
+    private static final int HEADER_BYTES = 44;
+    private static final short FORMAT_PCM = 1;
+    private static final short FORMAT_ALAW = 6;
+    private static final short FORMAT_MULAW = 7;
+
+    private final int sampleRate;
+    private final short formatTag;
+    private final short bitsPerSample;
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * @param path 目标文件（已存在时截断）
+     * @param format 连接参数中的 format，例如 pcm_16000
+     * @throws IllegalArgumentException format 不是 PCM / μ-law / A-law 时抛出
+     */
+    public WavFileSink(Path path, String format) throws IOException {
+        this(path, format, DEFAULT_BATCH_BYTES, FsyncPolicy.NEVER);
+    }
+
+    /**
+     * @param batchBytes 批量缓冲大小
+     * @param fsyncPolicy 刷盘策略
+     */
+    public WavFileSink(Path path, String format, int batchBytes, FsyncPolicy fsyncPolicy) throws IOException {
+        super(validate(path, format), HEADER_BYTES, batchBytes, fsyncPolicy);
+        StreamFormat streamFormat = StreamFormat.parse(format);
+        this.sampleRate = streamFormat.getSampleRate();
+        this.bitsPerSample = (short) (streamFormat.getEncoding().getBytesPerSample() * 8);
+        switch (streamFormat.getEncoding()) {
+            case MULAW:
+                formatTag = FORMAT_MULAW;
+                break;
+            case ALAW:
+                formatTag = FORMAT_ALAW;
+                break;
+            default:
+                formatTag = FORMAT_PCM;
+        }
+    }
+
+    /**
+     * 在打开文件前校验格式
+     */
+    private static Path validate(Path path, String format) {
+        StreamFormat.parse(format);
+        return path;
+    }
+
+    /**
+     * 从 format（如 pcm_16000）解析采样率
+     *
+     * @throws IllegalArgumentException 不是 WAV 可容纳的格式时抛出
+     */
+    public static int sampleRate(String format) {
+        return StreamFormat.parse(format).getSampleRate();
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    protected void onFinal(FileChannel channel, long dataBytes) throws IOException {
+        long dataSize = Math.min(dataBytes, 0xFFFFFFFFL - 36);
+        int blockAlign = bitsPerSample / 8;
+
+        header.clear();
+        header.put((byte) 'R').put((byte) 'I').put((byte) 'F').put((byte) 'F');
+        header.putInt((int) (36 + dataSize));
+        header.put((byte) 'W').put((byte) 'A').put((byte) 'V').put((byte) 'E');
+        header.put((byte) 'f').put((byte) 'm').put((byte) 't').put((byte) ' ');
+        header.putInt(16);
+        header.putShort(formatTag);
+        header.putShort((short) 1);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * blockAlign);
+        header.putShort((short) blockAlign);
+        header.putShort(bitsPerSample);
+        header.put((byte) 'd').put((byte) 'a').put((byte) 't').put((byte) 'a');
+        header.putInt((int) dataSize);
+        header.flip();
+
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.inccleo.tts.text;
+
+import com.inccleo.tts.Priority;
+import com.inccleo.tts.SynthesisResult;
+import com.inccleo.tts.Synthesizer;
+import com.inccleo.tts.callback.SegmentAudioCallback;
+import com.inccleo.tts.callback.SegmentCallback;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 长文本并行合成器
+ * 在句子边界切分文档，将各段并行分发到一个或多个 {@link Synthesizer}
+ * （TTSClient 的空闲上下文或连接池），并按原文顺序交付结果：
+ * 队首段一完成即交付，无需等待整篇文档；流式模式下队首段的音频边到达边交付。
+ * 任一段失败时取消其余进行中的段。
+ *
+ * <pre>
+ * LongTextSynthesizer synthesizer = new LongTextSynthesizer(Arrays.asList(client1, client2), 200, 10);
+ * synthesizer.synthesize(document, (index, text, result) -> out.write(result.getAudio())).join();
+ *
+ * // 流式：第 k 段的音频在第 0..k-1 段交付完后立即开始输出
+ * synthesizer.synthesize(document, (index, audio) -> player.write(audio), null).join();
+ * </pre>
+ */
+public class LongTextSynthesizer {
+    private final List<Synthesizer> synthesizers;
+    private final SentenceSegmenter segmenter;
+    private final int maxInFlight;
+
+    /**
+     * 构造函数
+     *
+     * @param synthesizers 分发目标，按进行中的段数均衡分配
+     * @param maxSegmentChars 每段最大字符数
+     * @param maxInFlight 同时进行的段数上限（通常为可用上下文总数），
+     *                    同时也限制了等待按序交付的结果数量
+     */
+    public LongTextSynthesizer(List<? extends Synthesizer> synthesizers, int maxSegmentChars, int maxInFlight) {
+        if (synthesizers == null || synthesizers.isEmpty()) {
+            throw new IllegalArgumentException("At least one synthesizer is required");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight must be >= 1: " + maxInFlight);
+        }
+        this.synthesizers = new ArrayList<>(synthesizers);
+        this.segmenter = new SentenceSegmenter(maxSegmentChars);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 使用单个合成器，并行度为单连接最大上下文数
+     */
+    public LongTextSynthesizer(Synthesizer synthesizer, int maxSegmentChars) {
+        this(Arrays.asList(synthesizer), maxSegmentChars, 5);
+    }
+
+    /**
+     * 合成整篇文档
+     *
+     * @param document 文档
+     * @param callback 按原文顺序交付每段结果
+     * @return 全部段交付完成后结束；任一段失败时以该段的异常结束，取消其余进行中的段并不再提交后续段
+     */
+    public CompletableFuture<Void> synthesize(String document, SegmentCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException("Callback must not be null");
+        }
+        Job job = new Job(segmenter.split(document), null, callback);
+        job.start();
+        return job.done;
+    }
+
+    /**
+     * 合成整篇文档，按原文顺序流式交付音频
+     * 前面各段全部交付后，当前段的音频边到达边交付，无需等待该段合成完成；
+     * 后续段提前到达的音频先缓存，轮到该段时再依次交付
+     *
+     * @param document 文档
+     * @param onAudio 按原文顺序交付音频
+     * @param callback 每段音频全部交付后回调，可以为 null
+     * @return 全部段交付完成后结束；任一段失败时以该段的异常结束，取消其余进行中的段并不再提交后续段
+     */
+    public CompletableFuture<Void> synthesize(String document, SegmentAudioCallback onAudio, SegmentCallback callback) {
+        if (onAudio == null) {
+            throw new IllegalArgumentException("Audio callback must not be null");
+        }
+        Job job = new Job(segmenter.split(document), onAudio, callback);
+        job.start();
+        return job.done;
+    }
+
+    /**
+     * 一次文档合成任务
+     */
+    private final class Job {
+        private final List<String> segments;
+        private final SegmentAudioCallback onAudio;
+        private final SegmentCallback callback;
+        private final SynthesisResult[] results;
+        private final boolean[] completed;
+        private final int[] owners;
+        private final CompletableFuture<?>[] futures;
+        private final List<ArrayDeque<ByteBuffer>> pendingAudio;
+        private final int[] outstanding = new int[synthesizers.size()];
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private int nextToSubmit;
+        private int nextToDeliver;
+        private int inFlight;
+
+        Job(List<String> segments, SegmentAudioCallback onAudio, SegmentCallback callback) {
+            this.segments = segments;
+            this.onAudio = onAudio;
+            this.callback = callback;
+            this.results = new SynthesisResult[segments.size()];
+            this.completed = new boolean[segments.size()];
+            this.owners = new int[segments.size()];
+            this.futures = new CompletableFuture<?>[segments.size()];
+            this.pendingAudio = onAudio == null ? null : new ArrayList<>(Collections.nCopies(segments.size(), null));
+        }
+
+        void start() {
+            if (segments.isEmpty()) {
+                done.complete(null);
+                return;
+            }
+            // 失败或被调用方取消时，取消其余进行中的段
+            done.whenComplete((v, error) -> {
+                if (error != null) {
+                    cancelOutstanding();
+                }
+            });
+            submitMore();
+        }
+
+        /**
+         * 在并行度允许的范围内提交后续段
+         */
+        private void submitMore() {
+            while (true) {
+                int index;
+                int owner;
+                synchronized (this) {
+                    if (done.isDone() || nextToSubmit >= segments.size() || inFlight >= maxInFlight) {
+                        return;
+                    }
+                    index = nextToSubmit++;
+                    inFlight++;
+                    owner = leastBusy();
+                    outstanding[owner]++;
+                    owners[index] = owner;
+                }
+
+                CompletableFuture<SynthesisResult> future;
+                try {
+                    Synthesizer synthesizer = synthesizers.get(owner);
+                    future = onAudio == null
+                        ? synthesizer.synthesize(segments.get(index))
+                        : synthesizer.synthesize(segments.get(index), Priority.INTERACTIVE,
+                                                 (audio, isFinal) -> onSegmentAudio(index, audio));
+                } catch (RuntimeException e) {
+                    done.completeExceptionally(e);
+                    return;
+                }
+                boolean cancelled;
+                synchronized (this) {
+                    cancelled = done.isDone();
+                    if (!cancelled) {
+                        futures[index] = future;
+                    }
+                }
+                if (cancelled) {
+                    future.cancel(false);
+                    return;
+                }
+                future.whenComplete((result, error) -> onSegmentDone(index, result, error));
+            }
+        }
+
+        private int leastBusy() {
+            int best = 0;
+            for (int i = 1; i < outstanding.length; i++) {
+                if (outstanding[i] < outstanding[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        private void cancelOutstanding() {
+            List<CompletableFuture<?>> pending = new ArrayList<>();
+            synchronized (this) {
+                for (CompletableFuture<?> future : futures) {
+                    if (future != null) {
+                        pending.add(future);
+                    }
+                }
+                Arrays.fill(futures, null);
+            }
+            for (CompletableFuture<?> future : pending) {
+                future.cancel(false);
+            }
+        }
+
+        private void onSegmentAudio(int index, ByteBuffer audio) {
+            synchronized (this) {
+                if (done.isDone()) {
+                    return;
+                }
+                ArrayDeque<ByteBuffer> queue = pendingAudio.get(index);
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                    pendingAudio.set(index, queue);
+                }
+                queue.add(audio);
+            }
+            deliver();
+        }
+
+        private void onSegmentDone(int index, SynthesisResult result, Throwable error) {
+            if (error != null) {
+                done.completeExceptionally(error);
+                return;
+            }
+            synchronized (this) {
+                results[index] = result;
+                completed[index] = true;
+                futures[index] = null;
+                outstanding[owners[index]]--;
+            }
+            deliver();
+        }
+
+        /**
+         * 按顺序交付队首段已到达的音频和已完成的队首段；同一时刻只有一个线程在交付
+         */
+        private void deliver() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!done.isDone()) {
+                    int index;
+                    ByteBuffer audio = null;
+                    SynthesisResult result = null;
+                    synchronized (this) {
+                        if (nextToDeliver >= results.length) {
+                            break;
+                        }
+                        index = nextToDeliver;
+                        ArrayDeque<ByteBuffer> queue = pendingAudio == null ? null : pendingAudio.get(index);
+                        if (queue != null && !queue.isEmpty()) {
+                            audio = queue.poll();
+                        } else if (completed[index]) {
+                            nextToDeliver++;
+                            result = results[index];
+                            results[index] = null;
+                            if (pendingAudio != null) {
+                                pendingAudio.set(index, null);
+                            }
+                            inFlight--;
+                        } else {
+                            break;
+                        }
+                    }
+                    try {
+                        if (audio != null) {
+                            onAudio.onAudio(index, audio);
+                            continue;
+                        }
+                        if (callback != null) {
+                            callback.onSegment(index, segments.get(index), result);
+                        }
+                    } catch (RuntimeException e) {
+                        done.completeExceptionally(e);
+                        return;
+                    }
+                    if (index == results.length - 1) {
+                        done.complete(null);
+                        return;
+                    }
+                    submitMore();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.inccleo.tts.text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 句子切分器
+ * 在句子边界处切分长文本，并将相邻短句合并到不超过 maxChars 的段；
+ * 单句超长时依次退化到分句标点、空白、硬切分。
+ */
+public class SentenceSegmenter {
+    private static final String SENTENCE_ENDS = "。！？!?.;；\n";
+    private static final String CLAUSE_ENDS = "，、：,:";
+    private static final String CLOSERS = "\"'”’）)」』】";
+
+    private final int maxChars;
+
+    /**
+     * 构造函数
+     *
+     * @param maxChars 每段最大字符数
+     */
+    public SentenceSegmenter(int maxChars) {
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("Max chars must be >= 1: " + maxChars);
+        }
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * 切分文本
+     *
+     * @param text 原文
+     * @return 按原文顺序排列的非空段
+     */
+    public List<String> split(String text) {
+        List<String> segments = new ArrayList<>();
+        if (text == null) {
+            return segments;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (String sentence : sentences(text)) {
+            if (sentence.length() > maxChars) {
+                flush(current, segments);
+                splitLong(sentence, segments);
+                continue;
+            }
+            if (current.length() + sentence.length() > maxChars) {
+                flush(current, segments);
+            }
+            current.append(sentence);
+        }
+        flush(current, segments);
+        return segments;
+    }
+
+    /**
+     * 按句子结束标点切分，标点及其后的右引号/右括号归入前一句
+     */
+    private static List<String> sentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        int len = text.length();
+        for (int i = 0; i < len; i++) {
+            if (SENTENCE_ENDS.indexOf(text.charAt(i)) < 0) {
+                continue;
+            }
+            // 英文句点后需跟空白、右引号/右括号或结尾，避免切开 3.14、e.g. 等
+            if (text.charAt(i) == '.' && i + 1 < len && !Character.isWhitespace(text.charAt(i + 1))
+                    && CLOSERS.indexOf(text.charAt(i + 1)) < 0) {
+                continue;
+            }
+            int end = i + 1;
+            while (end < len && (CLOSERS.indexOf(text.charAt(end)) >= 0
+                                 || SENTENCE_ENDS.indexOf(text.charAt(end)) >= 0)) {
+                end++;
+            }
+            sentences.add(text.substring(start, end));
+            start = end;
+            i = end - 1;
+        }
+        if (start < len) {
+            sentences.add(text.substring(start));
+        }
+        return sentences;
+    }
+
+    private void splitLong(String sentence, List<String> segments) {
+        int start = 0;
+        while (sentence.length() - start > maxChars) {
+            int limit = start + maxChars;
+            int cut = lastIndexOfAny(sentence, CLAUSE_ENDS, start, limit);
+            if (cut < 0) {
+                cut = lastWhitespace(sentence, start, limit);
+            }
+            int end = cut < 0 ? limit : cut + 1;
+            if (cut < 0 && Character.isHighSurrogate(sentence.charAt(end - 1))) {
+                // 硬切分不能拆开代理对；maxChars 为 1 时整个代理对作为一段
+                end = end - 1 > start ? end - 1 : end + 1;
+            }
+            addIfNotBlank(sentence.substring(start, end), segments);
+            start = end;
+        }
+        addIfNotBlank(sentence.substring(start), segments);
+    }
+
+    private static int lastIndexOfAny(String s, String chars, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            if (chars.indexOf(s.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastWhitespace(String s, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            if (Character.isWhitespace(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void flush(StringBuilder current, List<String> segments) {
+        addIfNotBlank(current.toString(), segments);
+        current.setLength(0);
+    }
+
+    private static void addIfNotBlank(String segment, List<String> segments) {
+        if (!segment.trim().isEmpty()) {
+            segments.add(segment);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.inccleo.tts.text;
+
+import com.inccleo.tts.TTSContext;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文本合并器
+ * 将 LLM 逐个输出的细碎 token 缓冲起来，在遇到句子/分句标点、达到最大字符数
+ * 或超过最大等待时间时合并为一帧发送，减少 WebSocket 消息数量并改善服务端韵律。
+ *
+ * <pre>
+ * TextCoalescer coalescer = context.coalesce(TextCoalescer.Options.defaults().withMaxDelayMillis(120));
+ * for (String token : llmStream) {
+ *     coalescer.append(token);
+ * }
+ * coalescer.endInput();
+ * </pre>
+ */
+public class TextCoalescer {
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tts-coalescer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final TTSContext context;
+    private final Options options;
+    private final StringBuilder buffer = new StringBuilder();
+    private ScheduledFuture<?> pendingFlush;
+    private long tokenCount;
+    private long frameCount;
+
+    /**
+     * 构造函数
+     *
+     * @param context 目标上下文
+     * @param options 合并参数
+     */
+    public TextCoalescer(TTSContext context, Options options) {
+        if (context == null || options == null) {
+            throw new IllegalArgumentException("Context and options must not be null");
+        }
+        this.context = context;
+        this.options = options;
+    }
+
+    /**
+     * 追加一个 token
+     */
+    public synchronized void append(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        tokenCount++;
+        buffer.append(token);
+
+        // 在最后一个句子/分句标点处切分，余下部分继续缓冲
+        int cut = -1;
+        boolean sentenceEnd = false;
+        for (int i = buffer.length() - 1; i >= 0; i--) {
+            char c = buffer.charAt(i);
+            if ((options.isSentenceEnd(c) || options.isClauseEnd(c)) && isBoundary(i)) {
+                cut = i + 1;
+                sentenceEnd = options.isSentenceEnd(c);
+                break;
+            }
+        }
+        if (cut >= options.minChars) {
+            send(cut, sentenceEnd);
+        }
+
+        while (buffer.length() >= options.maxChars) {
+            send(options.maxChars, false);
+        }
+
+        if (buffer.length() > 0 && pendingFlush == null && options.maxDelayMillis > 0) {
+            pendingFlush = TIMER.schedule(this::flushOnTimeout, options.maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即发送缓冲中的全部文本
+     */
+    public synchronized void flush() {
+        if (buffer.length() > 0) {
+            send(buffer.length(), true);
+        }
+    }
+
+    /**
+     * 发送缓冲中的全部文本并结束输入（发送 EOS）
+     */
+    public synchronized void endInput() {
+        flush();
+        context.endInput();
+    }
+
+    /**
+     * 已追加的 token 数
+     */
+    public synchronized long getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * 实际发送的文本帧数
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 相比逐 token 发送节省的帧数
+     */
+    public synchronized long getFramesSaved() {
+        return Math.max(0, tokenCount - frameCount);
+    }
+
+    /**
+     * 当前缓冲中的字符数
+     */
+    public synchronized int getBufferedChars() {
+        return buffer.length();
+    }
+
+    /**
+     * 半角标点后面紧跟空白时才算边界，避免在 "3.14"、"e.g."、URL 等中间切开；
+     * 位于缓冲末尾时等下一个 token 再判断（超时、flush 和 endInput 仍会发送）。
+     * 全角标点和换行本身即为边界。
+     */
+    private boolean isBoundary(int i) {
+        char c = buffer.charAt(i);
+        if (c >= 0x80 || Character.isWhitespace(c)) {
+            return true;
+        }
+        return i + 1 < buffer.length() && Character.isWhitespace(buffer.charAt(i + 1));
+    }
+
+    private synchronized void flushOnTimeout() {
+        pendingFlush = null;
+        if (buffer.length() == 0) {
+            return;
+        }
+        try {
+            send(buffer.length(), true);
+        } catch (RuntimeException e) {
+            System.err.println("[ERROR] Failed to flush coalesced text: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 发送缓冲区前 length 个字符
+     */
+    private void send(int length, boolean flush) {
+        String text = buffer.substring(0, length);
+        buffer.delete(0, length);
+        if (buffer.length() == 0 && pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+        frameCount++;
+        context.sendText(text, flush);
+    }
+
+    /**
+     * 合并参数
+     */
+    public static final class Options {
+        private static final String DEFAULT_SENTENCE_ENDS = "。！？!?.\n";
+        private static final String DEFAULT_CLAUSE_ENDS = "，、；：,;:";
+        private static final Options DEFAULTS = new Options(1, 200, 150, DEFAULT_SENTENCE_ENDS, DEFAULT_CLAUSE_ENDS);
+
+        private final int minChars;
+        private final int maxChars;
+        private final long maxDelayMillis;
+        private final String sentenceEnds;
+        private final String clauseEnds;
+
+        private Options(int minChars, int maxChars, long maxDelayMillis, String sentenceEnds, String clauseEnds) {
+            this.minChars = minChars;
+            this.maxChars = maxChars;
+            this.maxDelayMillis = maxDelayMillis;
+            this.sentenceEnds = sentenceEnds;
+            this.clauseEnds = clauseEnds;
+        }
+
+        /**
+         * 默认参数：遇到中英文句子/分句标点即发送（半角标点需后跟空白），最多 200 字符、最多等待 150 毫秒
+         */
+        public static Options defaults() {
+            return DEFAULTS;
+        }
+
+        /**
+         * 标点切分时一帧的最少字符数，避免过短的帧
+         */
+        public Options withMinChars(int minChars) {
+            if (minChars < 1) {
+                throw new IllegalArgumentException("Min chars must be >= 1: " + minChars);
+            }
+            return new Options(minChars, maxChars, maxDelayMillis, sentenceEnds, clauseEnds);
+        }
+
+        /**
+         * 一帧的最大字符数，缓冲达到该值时立即发送
+         */
+        public Options withMaxChars(int maxChars) {
+            if (maxChars < 1) {
+                throw new IllegalArgumentException("Max chars must be >= 1: " + maxChars);
+            }
+            return new Options(minChars, maxChars, maxDelayMillis, sentenceEnds, clauseEnds);
+        }
+
+        /**
+         * 缓冲中第一个字符的最长等待时间（毫秒），0 表示不按时间发送
+         */
+        public Options withMaxDelayMillis(long maxDelayMillis) {
+            if (maxDelayMillis < 0) {
+                throw new IllegalArgumentException("Max delay must be >= 0: " + maxDelayMillis);
+            }
+            return new Options(minChars, maxChars, maxDelayMillis, sentenceEnds, clauseEnds);
+        }
+
+        /**
+         * 自定义标点：句子结束标点发送时带 flush，分句标点不带 flush
+         */
+        public Options withPunctuation(String sentenceEnds, String clauseEnds) {
+            if (sentenceEnds == null || clauseEnds == null) {
+                throw new IllegalArgumentException("Punctuation must not be null");
+            }
+            return new Options(minChars, maxChars, maxDelayMillis, sentenceEnds, clauseEnds);
+        }
+
+        public int getMinChars() {
+            return minChars;
+        }
+
+        public int getMaxChars() {
+            return maxChars;
+        }
+
+        public long getMaxDelayMillis() {
+            return maxDelayMillis;
+        }
+
+        boolean isSentenceEnd(char c) {
+            return sentenceEnds.indexOf(c) >= 0;
+        }
+
+        boolean isClauseEnd(char c) {
+            return clauseEnds.indexOf(c) >= 0;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.inccleo.tts.transport;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.PingFrame;
+import org.java_websocket.framing.TextFrame;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * 基于 Java-WebSocket 的传输层（默认，内部使用）
+ * 每条连接独占读线程、写线程和断线检测定时器线程，连接数较多时线程开销随之线性增长。
+ */
+final class JavaWebSocketTransport implements Transport {
+    static final JavaWebSocketTransport INSTANCE = new JavaWebSocketTransport();
+
+    private JavaWebSocketTransport() {
+    }
+
+    @Override
+    public TransportConnection newConnection(URI uri, Map<String, String> headers, TransportListener listener) {
+        return new Connection(uri, headers, listener);
+    }
+
+    @Override
+    public String getName() {
+        return "java-websocket";
+    }
+
+    private static final class Connection implements TransportConnection {
+        private final Socket socket;
+
+        Connection(URI uri, Map<String, String> headers, TransportListener listener) {
+            socket = new Socket(uri, listener);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                socket.addHeader(header.getKey(), header.getValue());
+            }
+            // 文本和 EOS 是连续的小帧，关闭 Nagle 算法，避免与服务端延迟 ACK 叠加出约 40ms 的停顿
+            socket.setTcpNoDelay(true);
+        }
+
+        @Override
+        public void connect() {
+            socket.connect();
+        }
+
+        @Override
+        public void sendText(ByteBuffer utf8) {
+            TextFrame frame = new TextFrame();
+            frame.setPayload(utf8);
+            send(frame);
+        }
+
+        @Override
+        public void sendPing(ByteBuffer payload) {
+            PingFrame ping = new PingFrame();
+            ping.setPayload(payload);
+            send(ping);
+        }
+
+        private void send(Framedata frame) {
+            try {
+                socket.sendFrame(frame);
+            } catch (WebsocketNotConnectedException e) {
+                throw new IllegalStateException("Not connected");
+            }
+        }
+
+        @Override
+        public void close() {
+            socket.close();
+        }
+
+        @Override
+        public void abort(String reason) {
+            socket.closeConnection(CloseFrame.ABNORMAL_CLOSE, reason);
+        }
+
+        @Override
+        public int getSendQueueDepth() {
+            WebSocket connection = socket.getConnection();
+            if (connection instanceof WebSocketImpl) {
+                return ((WebSocketImpl) connection).outQueue.size();
+            }
+            return -1;
+        }
+    }
+
+    private static final class Socket extends WebSocketClient {
+        private final TransportListener listener;
+
+        Socket(URI uri, TransportListener listener) {
+            super(uri);
+            this.listener = listener;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake serverHandshake) {
+            listener.onOpen();
+        }
+
+        @Override
+        public void onMessage(String message) {
+            listener.onText(message);
+        }
+
+        @Override
+        public void onWebsocketPong(WebSocket conn, Framedata f) {
+            super.onWebsocketPong(conn, f);
+            listener.onPong(f.getPayloadData());
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+            listener.onClose(reason);
+        }
+
+        @Override
+        public void onError(Exception ex) {
+            listener.onError(ex);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.inccleo.tts.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 基于 JDK 11 {@code java.net.http.WebSocket} 的传输层（内部使用，仅由 {@link Transports} 反射加载）
+ * 所有连接共用一个 HttpClient：一个选择器线程负责全部连接的 I/O，
+ * 固定大小的线程池执行各连接的回调，线程数与连接数无关。
+ */
+final class JdkWebSocketTransport implements Transport {
+    private final HttpClient httpClient;
+    private final int threads;
+
+    JdkWebSocketTransport(int threads) {
+        this.threads = threads;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "tts-transport-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // 不再使用的传输层不常驻线程
+        executor.allowCoreThreadTimeOut(true);
+        this.httpClient = HttpClient.newBuilder().executor(executor).build();
+    }
+
+    @Override
+    public TransportConnection newConnection(URI uri, Map<String, String> headers, TransportListener listener) {
+        return new Connection(httpClient, uri, headers, listener);
+    }
+
+    @Override
+    public String getName() {
+        return "jdk-websocket(" + threads + " threads)";
+    }
+
+    private static final class Connection implements TransportConnection, WebSocket.Listener {
+        private final HttpClient httpClient;
+        private final URI uri;
+        private final Map<String, String> headers;
+        private final TransportListener listener;
+
+        // JDK WebSocket 同一时刻只允许一个未完成的发送，发送按顺序串成一条链
+        private final Object sendLock = new Object();
+        private CompletableFuture<?> sendTail = CompletableFuture.completedFuture(null);
+        private final AtomicInteger pendingSends = new AtomicInteger();
+
+        private volatile WebSocket webSocket;
+        private volatile boolean closed;
+        private final AtomicBoolean closeReported = new AtomicBoolean();
+        private final AtomicBoolean sendFailed = new AtomicBoolean();
+        // 仅由回调线程访问（同一连接的回调依次执行）
+        private StringBuilder partial;
+
+        Connection(HttpClient httpClient, URI uri, Map<String, String> headers, TransportListener listener) {
+            this.httpClient = httpClient;
+            this.uri = uri;
+            this.headers = headers;
+            this.listener = listener;
+        }
+
+        @Override
+        public void connect() {
+            WebSocket.Builder builder = httpClient.newWebSocketBuilder();
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+            builder.buildAsync(uri, this).whenComplete((ws, e) -> {
+                if (e != null) {
+                    listener.onError(toException(e));
+                    reportClose("Handshake failed: " + e.getMessage());
+                } else if (closed) {
+                    // 握手完成前已放弃
+                    ws.abort();
+                }
+            });
+        }
+
+        @Override
+        public void sendText(ByteBuffer utf8) {
+            // 解码即复制，调用方可以立即复用缓冲区
+            String text = StandardCharsets.UTF_8.decode(utf8).toString();
+            enqueue(ws -> ws.sendText(text, true));
+        }
+
+        @Override
+        public void sendPing(ByteBuffer payload) {
+            ByteBuffer copy = ByteBuffer.allocate(payload.remaining());
+            copy.put(payload.duplicate());
+            copy.flip();
+            enqueue(ws -> ws.sendPing(copy));
+        }
+
+        private void enqueue(Function<WebSocket, CompletableFuture<WebSocket>> send) {
+            WebSocket ws = webSocket;
+            if (ws == null || closed) {
+                throw new IllegalStateException("Not connected");
+            }
+            pendingSends.incrementAndGet();
+            synchronized (sendLock) {
+                CompletableFuture<?> next = sendTail.thenCompose(v -> send.apply(ws));
+                next.whenComplete((v, e) -> {
+                    pendingSends.decrementAndGet();
+                    if (e != null && sendFailed.compareAndSet(false, true)) {
+                        listener.onError(toException(e));
+                        abort("Send failed: " + e.getMessage());
+                    }
+                });
+                sendTail = next;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            WebSocket ws = webSocket;
+            if (ws == null || ws.isOutputClosed()) {
+                return;
+            }
+            synchronized (sendLock) {
+                sendTail = sendTail.handle((v, e) -> null)
+                                   .thenCompose(v -> ws.sendClose(WebSocket.NORMAL_CLOSURE, ""));
+            }
+        }
+
+        @Override
+        public void abort(String reason) {
+            closed = true;
+            WebSocket ws = webSocket;
+            if (ws != null) {
+                ws.abort();
+            }
+            // abort 之后 JDK 不再回调监听器，由这里通知关闭
+            reportClose(reason);
+        }
+
+        @Override
+        public int getSendQueueDepth() {
+            return pendingSends.get();
+        }
+
+        private void reportClose(String reason) {
+            if (closeReported.compareAndSet(false, true)) {
+                closed = true;
+                listener.onClose(reason);
+            }
+        }
+
+        private static Exception toException(Throwable e) {
+            if (e instanceof java.util.concurrent.CompletionException && e.getCause() != null) {
+                e = e.getCause();
+            }
+            return e instanceof Exception ? (Exception) e : new Exception(e);
+        }
+
+        // ---- WebSocket.Listener ----
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            webSocket = ws;
+            if (closed) {
+                ws.abort();
+                return;
+            }
+            ws.request(1);
+            listener.onOpen();
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            if (last && partial == null) {
+                listener.onText(data.toString());
+            } else {
+                if (partial == null) {
+                    partial = new StringBuilder();
+                }
+                partial.append(data);
+                if (last) {
+                    String message = partial.toString();
+                    partial = null;
+                    listener.onText(message);
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket ws, ByteBuffer message) {
+            listener.onPong(message);
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            reportClose(reason);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            listener.onError(toException(error));
+            reportClose(error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.inccleo.tts.transport;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * WebSocket 传输层
+ * {@link com.inccleo.tts.TTSClient} 通过该接口建立连接、收发文本帧和心跳，不依赖具体的 WebSocket 实现。
+ * 同一个 Transport 可以被任意多个客户端共用，实现方负责线程和 I/O 资源的复用。
+ *
+ * <pre>
+ * Transport transport = Transports.jdkWebSocket();
+ * client.setTransport(transport);
+ * pool.setTransport(transport);
+ * </pre>
+ *
+ * @see Transports
+ */
+public interface Transport {
+
+    /**
+     * 创建一个尚未连接的连接，调用 {@link TransportConnection#connect()} 后开始握手
+     *
+     * @param uri WebSocket 地址
+     * @param headers 握手请求头
+     * @param listener 连接事件监听器；同一连接的回调依次执行，不会并发
+     */
+    TransportConnection newConnection(URI uri, Map<String, String> headers, TransportListener listener);
+
+    /**
+     * 实现名称，用于日志和诊断
+     */
+    String getName();
+}
@@ -0,0 +1,47 @@
+package com.inccleo.tts.transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 传输层上的一条 WebSocket 连接
+ * 发送方法可以被多个线程并发调用，实现方保证帧按调用顺序写出。
+ */
+public interface TransportConnection {
+
+    /**
+     * 发起连接，不阻塞；握手完成时回调 {@link TransportListener#onOpen()}，
+     * 失败时回调 {@link TransportListener#onError(Exception)} 和/或 {@link TransportListener#onClose(String)}
+     */
+    void connect();
+
+    /**
+     * 发送一个文本帧
+     * 负载在返回前已复制，调用方可以立即复用该缓冲区
+     *
+     * @param utf8 UTF-8 编码的消息
+     * @throws IllegalStateException 连接未建立或已关闭时抛出
+     */
+    void sendText(ByteBuffer utf8);
+
+    /**
+     * 发送 ping，对端在 pong 中原样返回负载
+     *
+     * @throws IllegalStateException 连接未建立或已关闭时抛出
+     */
+    void sendPing(ByteBuffer payload);
+
+    /**
+     * 发起正常的关闭握手；握手尚未完成时放弃连接
+     */
+    void close();
+
+    /**
+     * 立即断开底层连接，不等待关闭握手（对端已无响应时使用）
+     */
+    void abort(String reason);
+
+    /**
+     * 已提交但尚未写出的帧数，实现不支持时返回 -1
+     */
+    int getSendQueueDepth();
+}
@@ -0,0 +1,36 @@
+package com.inccleo.tts.transport;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 连接事件监听器
+ * 同一连接的回调依次执行（前一个回调返回后才会执行下一个），但不保证在同一个线程上。
+ * 回调运行在传输层的 I/O 线程上，不能阻塞。
+ */
+public interface TransportListener {
+
+    /**
+     * 握手完成
+     */
+    void onOpen();
+
+    /**
+     * 收到一条完整的文本消息（分片已合并）
+     */
+    void onText(String message);
+
+    /**
+     * 收到 pong
+     */
+    void onPong(ByteBuffer payload);
+
+    /**
+     * 连接已关闭（对端关闭、本地关闭或握手失败）
+     */
+    void onClose(String reason);
+
+    /**
+     * 连接出错，之后通常还会收到 {@link #onClose(String)}
+     */
+    void onError(Exception e);
+}
@@ -0,0 +1,69 @@
+package com.inccleo.tts.transport;
+
+/**
+ * 内置传输层
+ *
+ * <pre>
+ * // 200 条连接共用一个选择器线程和 4 个回调线程
+ * Transport transport = Transports.jdkWebSocket(4);
+ * pool.setTransport(transport);
+ * </pre>
+ */
+public final class Transports {
+    private static final boolean DEBUG = Boolean.parseBoolean(System.getenv("TTS_DEBUG"));
+
+    private Transports() {
+    }
+
+    /**
+     * 基于 Java-WebSocket 的传输层（默认）
+     * 每条连接独占三个线程（读、写、断线检测），适合连接数较少的场景
+     */
+    public static Transport javaWebSocket() {
+        return JavaWebSocketTransport.INSTANCE;
+    }
+
+    /**
+     * 基于 JDK 11 {@code java.net.http.WebSocket} 的共享事件循环传输层，回调线程数取 CPU 核数（至少 2）
+     * 运行环境不支持时退化为 {@link #javaWebSocket()}
+     */
+    public static Transport jdkWebSocket() {
+        return jdkWebSocket(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * 基于 JDK 11 {@code java.net.http.WebSocket} 的共享事件循环传输层（Java 11+）
+     * 通过同一个 Transport 建立的所有连接共用一个选择器线程和 threads 个回调线程；
+     * 消息在回调线程上解析并分发，耗时的用户回调应配合 {@code Dispatchers.serial} 使用。
+     * 运行环境不支持时退化为 {@link #javaWebSocket()}
+     *
+     * @param threads 回调线程数
+     */
+    public static Transport jdkWebSocket(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be >= 1: " + threads);
+        }
+        try {
+            return (Transport) Class.forName("com.inccleo.tts.transport.JdkWebSocketTransport")
+                .getDeclaredConstructor(int.class)
+                .newInstance(threads);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            if (DEBUG) {
+                System.out.println("[DEBUG] JDK WebSocket unavailable, using Java-WebSocket: " + e);
+            }
+            return javaWebSocket();
+        }
+    }
+
+    /**
+     * 当前运行环境是否支持 JDK WebSocket（Java 11+）
+     */
+    public static boolean isJdkWebSocketSupported() {
+        try {
+            Class.forName("java.net.http.WebSocket");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AdmissionControllerTest {
+
+    private MockTTSServer server;
+    private TTSClient client;
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    private static class TestWaiter extends AdmissionController.Waiter {
+        final String name;
+        final CountDownLatch expired = new CountDownLatch(1);
+
+        volatile boolean abandoned;
+
+        TestWaiter(String name, Priority priority) {
+            super(priority);
+            this.name = name;
+        }
+
+        @Override
+        void expire(long waitedMillis) {
+            expired.countDown();
+        }
+
+        @Override
+        boolean isAbandoned() {
+            return abandoned;
+        }
+    }
+
+    private static List<String> drainOrder(AdmissionController controller) {
+        List<String> order = new ArrayList<>();
+        AdmissionController.Waiter waiter;
+        while ((waiter = controller.poll()) != null) {
+            order.add(((TestWaiter) waiter).name);
+        }
+        return order;
+    }
+
+    private TTSClient connectFull() throws Exception {
+        server = new MockTTSServer(MockTTSServer.Options.defaults());
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        client.connect(null);
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            client.createContext("ctx" + i);
+        }
+        return client;
+    }
+
+    @Test
+    public void testInteractiveFirstWithBatchShare() {
+        AdmissionController controller = new AdmissionController();
+        controller.setOptions(AdmissionController.Options.defaults().withBatchShare(2));
+        controller.offer(new TestWaiter("b1", Priority.BATCH), Long.MAX_VALUE);
+        controller.offer(new TestWaiter("b2", Priority.BATCH), Long.MAX_VALUE);
+        for (int i = 1; i <= 5; i++) {
+            controller.offer(new TestWaiter("i" + i, Priority.INTERACTIVE), Long.MAX_VALUE);
+        }
+        assertEquals(7, controller.getQueueLength());
+        assertEquals(2, controller.getQueueLength(Priority.BATCH));
+
+        // 每连续两个交互式请求后放行一个批量任务
+        assertEquals(java.util.Arrays.asList("i1", "i2", "b1", "i3", "i4", "b2", "i5"), drainOrder(controller));
+        assertEquals(7, controller.getAdmittedCount());
+        assertEquals(7, controller.getPeakQueueLength());
+        assertEquals(5, controller.getWaitTimes(Priority.INTERACTIVE).getCount());
+    }
+
+    @Test
+    public void testStrictPriority() {
+        AdmissionController controller = new AdmissionController();
+        controller.setOptions(AdmissionController.Options.defaults().withBatchShare(0));
+        controller.offer(new TestWaiter("b1", Priority.BATCH), Long.MAX_VALUE);
+        for (int i = 1; i <= 6; i++) {
+            controller.offer(new TestWaiter("i" + i, Priority.INTERACTIVE), Long.MAX_VALUE);
+        }
+        assertEquals(java.util.Arrays.asList("i1", "i2", "i3", "i4", "i5", "i6", "b1"), drainOrder(controller));
+    }
+
+    @Test
+    public void testSkipsAbandonedWaiters() {
+        AdmissionController controller = new AdmissionController();
+        controller.setOptions(AdmissionController.Options.defaults().withBatchShare(1));
+        TestWaiter cancelledBatch = new TestWaiter("b1", Priority.BATCH);
+        TestWaiter cancelledInteractive = new TestWaiter("i2", Priority.INTERACTIVE);
+        controller.offer(cancelledBatch, Long.MAX_VALUE);
+        controller.offer(new TestWaiter("b2", Priority.BATCH), Long.MAX_VALUE);
+        controller.offer(new TestWaiter("i1", Priority.INTERACTIVE), Long.MAX_VALUE);
+        controller.offer(cancelledInteractive, Long.MAX_VALUE);
+        controller.offer(new TestWaiter("i3", Priority.INTERACTIVE), Long.MAX_VALUE);
+        cancelledBatch.abandoned = true;
+        cancelledInteractive.abandoned = true;
+
+        // 已放弃的等待者被丢弃，不计入放行数、等待时间和放行比例
+        assertEquals(java.util.Arrays.asList("i1", "b2", "i3"), drainOrder(controller));
+        assertEquals(3, controller.getAdmittedCount());
+        assertEquals(2, controller.getWaitTimes(Priority.INTERACTIVE).getCount());
+        assertEquals(1, controller.getWaitTimes(Priority.BATCH).getCount());
+        assertEquals(0, controller.getQueueLength());
+    }
+
+    @Test
+    public void testQueueLimitAndTimeout() throws Exception {
+        AdmissionController controller = new AdmissionController();
+        controller.setOptions(AdmissionController.Options.defaults().withMaxQueueLength(1));
+        TestWaiter first = new TestWaiter("a", Priority.INTERACTIVE);
+        assertTrue(controller.offer(first, 20));
+        assertFalse(controller.offer(new TestWaiter("b", Priority.INTERACTIVE), Long.MAX_VALUE));
+        assertEquals(1, controller.getRejectedCount());
+
+        assertTrue(first.expired.await(2, TimeUnit.SECONDS));
+        assertEquals(0, controller.getQueueLength());
+        assertEquals(1, controller.getTimedOutCount());
+        assertNull(controller.poll());
+    }
+
+    @Test
+    public void testFreedSlotGoesToWaiter() throws Exception {
+        connectFull();
+        CompletableFuture<TTSContext> waiting = client.acquireContext("next", Priority.INTERACTIVE, 10_000);
+        assertFalse(waiting.isDone());
+        assertEquals(1, client.getAdmissionController().getQueueLength());
+
+        try {
+            client.acquireContext("next", Priority.BATCH, 0);
+            fail("queued context id must be reserved");
+        } catch (IllegalArgumentException e) {
+            // 期望
+        }
+
+        // 槽位在 close 时同步交给等待者
+        client.getContext("ctx0").close();
+        assertTrue(waiting.isDone());
+        assertEquals("next", waiting.join().getContextId());
+        assertSame(waiting.join(), client.getContext("next"));
+        assertEquals(0, client.getAdmissionController().getQueueLength());
+        assertEquals(1, client.getAdmissionController().getQueuedCount());
+    }
+
+    @Test
+    public void testInteractiveOvertakesBatch() throws Exception {
+        connectFull();
+        CompletableFuture<TTSContext> batch = client.acquireContext("batch", Priority.BATCH, 10_000);
+        CompletableFuture<TTSContext> interactive = client.acquireContext("interactive", Priority.INTERACTIVE, 10_000);
+
+        client.getContext("ctx0").close();
+        assertTrue(interactive.isDone());
+        assertFalse(batch.isDone());
+
+        client.getContext("ctx1").close();
+        assertTrue(batch.isDone());
+    }
+
+    @Test
+    public void testWaitTimesOut() throws Exception {
+        connectFull();
+        try {
+            client.createContext("late", Priority.INTERACTIVE, 50);
+            fail("expected timeout");
+        } catch (TTSException e) {
+            assertEquals("ADMISSION_TIMEOUT", e.getErrorCode());
+        }
+        assertEquals(1, client.getAdmissionController().getTimedOutCount());
+
+        // 超时后 ID 不再被占用
+        client.getContext("ctx0").close();
+        assertNotNull(client.createContext("late"));
+    }
+
+    @Test
+    public void testCancelledWaiterLeavesQueue() throws Exception {
+        connectFull();
+        CompletableFuture<TTSContext> cancelled = client.acquireContext("gone", Priority.INTERACTIVE, 10_000);
+        CompletableFuture<TTSContext> next = client.acquireContext("next", Priority.INTERACTIVE, 10_000);
+        cancelled.cancel(false);
+        assertEquals(1, client.getAdmissionController().getQueueLength());
+
+        client.getContext("ctx0").close();
+        assertTrue(next.isDone());
+        assertNull(client.getContext("gone"));
+        assertEquals(TTSClient.MAX_CONTEXTS, client.getActiveContextCount());
+    }
+
+    @Test
+    public void testDisconnectFailsWaiters() throws Exception {
+        connectFull();
+        CompletableFuture<TTSContext> waiting = client.acquireContext("next", Priority.BATCH, 10_000);
+        client.disconnect();
+        try {
+            waiting.join();
+            fail("expected failure");
+        } catch (CompletionException e) {
+            assertEquals("DISCONNECTED", ((TTSException) e.getCause()).getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.inccleo.tts;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AudioFrameParserTest {
+
+    private static String audioOf(String msg, AudioFrameParser.Frame frame) {
+        return msg.substring(frame.audioStart, frame.audioEnd);
+    }
+
+    @Test
+    public void testParseSnakeCaseFrame() {
+        String msg = "{\"context_id\": \"ctx_001\", \"audio\": \"AAEC\", \"is_final\": true}";
+        AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+
+        assertTrue(AudioFrameParser.parse(msg, frame));
+        assertEquals("ctx_001", frame.contextId);
+        assertEquals("AAEC", audioOf(msg, frame));
+        assertTrue(frame.isFinal);
+    }
+
+    @Test
+    public void testParseCamelCaseFrameWithExtraFields() {
+        String msg = "{\"audio\":\"AAEC\",\"alignment\":{\"chars\":[\"a\",\"}\"],\"times\":[1,2]},"
+                   + "\"contextId\":\"ctx_002\",\"isFinal\":null,\"seq\":3}";
+        AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+
+        assertTrue(AudioFrameParser.parse(msg, frame));
+        assertEquals("ctx_002", frame.contextId);
+        assertEquals("AAEC", audioOf(msg, frame));
+        assertFalse(frame.isFinal);
+    }
+
+    @Test
+    public void testSnakeCaseTakesPrecedence() {
+        String msg = "{\"isFinal\":true,\"contextId\":\"camel\",\"audio\":\"\",\"is_final\":false,\"context_id\":\"snake\"}";
+        AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+
+        assertTrue(AudioFrameParser.parse(msg, frame));
+        assertEquals("snake", frame.contextId);
+        assertFalse(frame.isFinal);
+    }
+
+    @Test
+    public void testDropsUnknownContextBeforeAudio() {
+        AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+        Map<String, TTSContext> targets = new HashMap<>();
+        TTSContext live = new TTSContext("live", new TTSClient("ws://localhost", "key", "voice"));
+        targets.put("live", live);
+        frame.targets = targets;
+
+        // 音频字段未闭合：只有在读到 context_id 后立即停止才能识别为丢弃
+        assertTrue(AudioFrameParser.parse("{\"context_id\":\"gone\",\"audio\":\"AAEC", frame));
+        assertTrue(frame.dropped);
+        assertFalse(frame.hasAudio());
+
+        assertTrue(AudioFrameParser.parse("{\"context_id\":\"live\",\"audio\":\"AAEC\"}", frame));
+        assertFalse(frame.dropped);
+        assertSame(live, frame.target);
+    }
+
+    @Test
+    public void testFallsBackForUnknownMessages() {
+        AudioFrameParser.Frame frame = new AudioFrameParser.Frame();
+
+        assertFalse(AudioFrameParser.parse("{\"context_id\":\"c\",\"error\":\"INVALID_CONTEXT\"}", frame));
+        assertFalse(AudioFrameParser.parse("{\"context_id\":\"c\",\"audio\":\"AA\\/EC\"}", frame));
+        assertFalse(AudioFrameParser.parse("{\"context_id\":\"c\",\"is_final\":true}", frame));
+        assertFalse(AudioFrameParser.parse("[1,2]", frame));
+        assertFalse(AudioFrameParser.parse("{\"audio\":\"AAEC\"", frame));
+    }
+
+    @Test
+    public void testBase64SliceMatchesJdkDecoder() {
+        for (int n = 0; n < 20; n++) {
+            byte[] data = new byte[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = (byte) (i * 37 + n);
+            }
+            String encoded = Base64.getEncoder().encodeToString(data);
+            String framed = "xx" + encoded + "yy";
+
+            assertArrayEquals(data, Base64Slice.decode(framed, 2, 2 + encoded.length()));
+
+            String unpadded = Base64.getEncoder().withoutPadding().encodeToString(data);
+            assertArrayEquals(data, Base64Slice.decode(unpadded, 0, unpadded.length()));
+        }
+    }
+
+    @Test
+    public void testBase64SliceMatchesJdkDecoderOnMalformedInput() {
+        String[] inputs = {"QQ=", "QUJD=", "QUJD==", "QUJ=A", "Q", "QUJDQ", "=", "==", "QQ==QQ==", "Q===",
+                           "QQ=A", "QUI=", "QQ==", "QUJD", "QQ", "QUI", ""};
+        for (String input : inputs) {
+            byte[] expected;
+            try {
+                expected = Base64.getDecoder().decode(input);
+            } catch (IllegalArgumentException e) {
+                expected = null;
+            }
+            byte[] actual;
+            try {
+                actual = Base64Slice.decode(input, 0, input.length());
+            } catch (IllegalArgumentException e) {
+                actual = null;
+            }
+            if (expected == null) {
+                assertNull(input, actual);
+            } else {
+                assertArrayEquals(input, expected, actual);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBase64SliceRejectsIllegalCharacters() {
+        byte[] bytes = "AA*C".getBytes(StandardCharsets.US_ASCII);
+        Base64Slice.decode(new String(bytes, StandardCharsets.US_ASCII), 0, bytes.length);
+    }
+}
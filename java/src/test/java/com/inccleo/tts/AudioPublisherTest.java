@@ -0,0 +1,142 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.reactive.AudioPublisher;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AudioPublisherTest {
+
+    private static final class RecordingSubscriber implements Subscriber<ByteBuffer> {
+        final List<Integer> sizes = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(ByteBuffer audio) {
+            sizes.add(audio.remaining());
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    private static void push(TTSContext context, int size, boolean isFinal) {
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[size]), isFinal);
+    }
+
+    private static TTSContext newContext() {
+        return new TTSContext("ctx", new TTSClient("ws://localhost", "key", "voice"));
+    }
+
+    @Test
+    public void testDeliversOnDemandAndCompletes() {
+        TTSContext context = newContext();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        context.asPublisher(1024, AudioPublisher.OverflowStrategy.ERROR).subscribe(subscriber);
+
+        push(context, 10, false);
+        push(context, 20, false);
+        push(context, 30, true);
+        assertTrue(subscriber.sizes.isEmpty());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(2);
+        assertEquals(2, subscriber.sizes.size());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(1);
+        assertEquals(3, subscriber.sizes.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testDropOldestKeepsBufferBounded() {
+        TTSContext context = newContext();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        AudioPublisher publisher = context.asPublisher(100, AudioPublisher.OverflowStrategy.DROP_OLDEST);
+        publisher.subscribe(subscriber);
+
+        for (int i = 0; i < 10; i++) {
+            push(context, 40, false);
+        }
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(2, subscriber.sizes.size());
+        assertEquals(320, publisher.getDroppedBytes());
+    }
+
+    @Test
+    public void testErrorStrategyFailsSubscriber() {
+        TTSContext context = newContext();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        context.asPublisher(50, AudioPublisher.OverflowStrategy.ERROR).subscribe(subscriber);
+
+        push(context, 40, false);
+        push(context, 40, false);
+
+        assertTrue(subscriber.error instanceof TTSException);
+        assertEquals("AUDIO_BUFFER_OVERFLOW", ((TTSException) subscriber.error).getErrorCode());
+    }
+
+    @Test
+    public void testCancelDropsBufferedAudio() {
+        TTSContext context = newContext();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        context.asPublisher(1024, AudioPublisher.OverflowStrategy.ERROR).subscribe(subscriber);
+
+        push(context, 10, false);
+        push(context, 20, false);
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.sizes.size());
+
+        // 订阅者尚未请求的本轮音频在打断后作废，下一轮的音频照常交付
+        context.cancel();
+        push(context, 30, true);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(2, subscriber.sizes.size());
+        assertEquals(30, (int) subscriber.sizes.get(1));
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testPublisherReplacesContextRetention() {
+        TTSContext context = newContext();
+        assertEquals(AudioRetention.Mode.FULL, context.getAudioRetention().getMode());
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        context.asPublisher(1024, AudioPublisher.OverflowStrategy.ERROR).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        push(context, 100, false);
+        push(context, 100, true);
+
+        // 音频只经过发布者的有界缓冲，不在上下文中再保留一份
+        assertEquals(AudioRetention.Mode.NONE, context.getAudioRetention().getMode());
+        assertTrue(context.getAudioChunks().isEmpty());
+        assertEquals(0, context.getRetainedAudioBytes());
+        assertEquals(2, subscriber.sizes.size());
+        assertTrue(subscriber.completed);
+    }
+}
@@ -0,0 +1,70 @@
+package com.inccleo.tts;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AudioStoreTest {
+
+    private static byte[] bytes(int from, int count) {
+        byte[] data = new byte[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = (byte) (from + i);
+        }
+        return data;
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        int total = 0;
+        for (byte[] chunk : chunks) {
+            total += chunk.length;
+        }
+        byte[] out = new byte[total];
+        int pos = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, out, pos, chunk.length);
+            pos += chunk.length;
+        }
+        return out;
+    }
+
+    @Test
+    public void testRingKeepsLastBytes() {
+        AudioStore store = AudioRetention.ring(10).newStore();
+        store.add(bytes(0, 4));
+        store.add(bytes(4, 4));
+        store.add(bytes(8, 4));
+
+        assertEquals(10, store.size());
+        assertArrayEquals(bytes(2, 10), concat(store.chunks()));
+
+        store.add(bytes(12, 16));
+        assertEquals(10, store.size());
+        assertArrayEquals(bytes(18, 10), concat(store.chunks()));
+    }
+
+    @Test
+    public void testDirectStoreRoundTrip() {
+        AudioStore store = AudioRetention.fullOffHeap().newStore();
+        byte[] large = bytes(0, 300 * 1024);
+        store.add(bytes(1, 3));
+        store.add(large);
+
+        List<byte[]> chunks = store.drain();
+        assertEquals(2, chunks.size());
+        assertArrayEquals(bytes(1, 3), chunks.get(0));
+        assertArrayEquals(large, chunks.get(1));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testNoneRetainsNothing() {
+        AudioStore store = AudioRetention.none().newStore();
+        store.add(bytes(0, 8));
+
+        assertEquals(0, store.size());
+        assertTrue(store.chunks().isEmpty());
+    }
+}
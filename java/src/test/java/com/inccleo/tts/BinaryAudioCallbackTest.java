@@ -0,0 +1,131 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BinaryAudioCallbackTest {
+
+    private MockTTSServer server;
+    private TTSClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        // 每帧 100 字节
+        server = new MockTTSServer(MockTTSServer.Options.defaults()
+            .withFirstChunkLatencyMillis(0)
+            .withChunkIntervalMillis(0)
+            .withChunkBytes(100)
+            .withAudioBytesPerChar(40));
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        client.connect(null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.shutdown();
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testDeliversDecodedAudio() throws Exception {
+        List<ByteBuffer> buffers = new CopyOnWriteArrayList<>();
+        List<Boolean> finals = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        TTSContext context = client.createContext("ctx").onAudioData((audio, isFinal) -> {
+            buffers.add(audio);
+            finals.add(isFinal);
+            if (isFinal) {
+                done.countDown();
+            }
+        });
+
+        context.speak("hello");
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertTrue(buffers.size() > 1);
+        assertEquals(finals.size() - 1, finals.indexOf(true));
+        List<byte[]> retained = context.getAudioChunks();
+        assertEquals(retained.size(), buffers.size());
+        for (int i = 0; i < buffers.size(); i++) {
+            ByteBuffer buffer = buffers.get(i);
+            assertTrue(buffer.isReadOnly());
+            assertTrue(buffer.remaining() > 0);
+            // 回调返回后缓冲区内容保持不变
+            assertArrayEquals(retained.get(i), toBytes(buffer));
+        }
+    }
+
+    @Test
+    public void testMatchesBase64Callback() throws Exception {
+        List<byte[]> binary = new ArrayList<>();
+        List<byte[]> decoded = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        TTSContext context = client.createContext("ctx")
+            .onAudioData((audio, isFinal) -> {
+                binary.add(toBytes(audio));
+                if (isFinal) {
+                    done.countDown();
+                }
+            })
+            .onAudio((audioBase64, isFinal) -> {
+                decoded.add(Base64.getDecoder().decode(audioBase64));
+                if (isFinal) {
+                    done.countDown();
+                }
+            });
+
+        context.speak("hello");
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(decoded.size(), binary.size());
+        for (int i = 0; i < binary.size(); i++) {
+            assertArrayEquals(decoded.get(i), binary.get(i));
+        }
+    }
+
+    @Test
+    public void testWritesDoNotReachOtherConsumers() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        List<ByteBuffer> buffers = new CopyOnWriteArrayList<>();
+        TTSContext context = client.createContext("ctx").onAudioData((audio, isFinal) -> {
+            buffers.add(audio);
+            // 消费方读取会移动自己的 position，但不能写入
+            audio.get();
+            try {
+                audio.put(0, (byte) 1);
+                fail("expected read-only buffer");
+            } catch (ReadOnlyBufferException expected) {
+            }
+            if (isFinal) {
+                done.countDown();
+            }
+        });
+
+        context.speak("hello");
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        List<byte[]> retained = context.getAudioChunks();
+        assertEquals(100, retained.get(0).length);
+        assertEquals(0, retained.get(0)[0]);
+        assertEquals(99, buffers.get(0).remaining());
+    }
+}
@@ -0,0 +1,24 @@
+package com.inccleo.tts;
+
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 只记录发出的消息，不建立连接
+ */
+final class CapturingClient extends TTSClient {
+    final List<JSONObject> sent = new CopyOnWriteArrayList<>();
+
+    CapturingClient() {
+        super("ws://localhost", "key", "voice");
+    }
+
+    @Override
+    void sendFrame(String contextId, ByteBuffer payload) {
+        sent.add(new JSONObject(StandardCharsets.UTF_8.decode(payload).toString()));
+    }
+}
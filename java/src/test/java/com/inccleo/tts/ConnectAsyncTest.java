@@ -0,0 +1,154 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConnectAsyncTest {
+
+    private MockTTSServer server;
+    private String url;
+    private TTSClient client;
+    private TTSConnectionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockTTSServer(MockTTSServer.Options.defaults().withApiKey("key"));
+        url = server.startAndGetUrl();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (pool != null) {
+            pool.disconnect();
+        }
+        server.shutdown();
+    }
+
+    private static void await(String what, java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("timed out waiting for " + what);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testConnectAsyncCompletesAfterHandshake() throws Exception {
+        client = new TTSClient(url, "key", "voice");
+        assertEquals(-1, client.getLastConnectMillis());
+
+        CompletableFuture<Void> future = client.connectAsync(null);
+        try {
+            client.connectAsync(null);
+            fail("second connect while connecting must be rejected");
+        } catch (IllegalStateException e) {
+            // 期望（握手可能已完成，此时为 Already connected）
+        }
+
+        future.get(5, TimeUnit.SECONDS);
+        assertTrue(client.isConnected());
+        assertTrue(client.getLastConnectMillis() >= 0);
+        assertNotNull(client.createContext("ctx"));
+    }
+
+    @Test
+    public void testConnectAsyncFailsOnRejectedHandshake() throws Exception {
+        client = new TTSClient(url, "wrong-key", "voice");
+        try {
+            client.connectAsync(null).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (ExecutionException e) {
+            assertEquals("Failed to connect", e.getCause().getMessage());
+        }
+        assertFalse(client.isConnected());
+    }
+
+    @Test
+    public void testConnectFailsWhenNothingListens() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        client = new TTSClient("ws://127.0.0.1:" + port, "key", "voice");
+        try {
+            client.connect(null);
+            fail("expected failure");
+        } catch (Exception e) {
+            assertEquals("Failed to connect", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPoolConnectsMinimumInParallel() throws Exception {
+        pool = new TTSConnectionPool(url, "key", "voice", 3, 4);
+        pool.connectAsync(null).get(5, TimeUnit.SECONDS);
+        assertEquals(3, pool.getConnectionCount());
+        assertTrue(pool.getStartupMillis() >= 0);
+        assertEquals(3, pool.getConnectLatencies().getCount());
+    }
+
+    @Test
+    public void testPoolConnectFailsAndCleansUp() throws Exception {
+        pool = new TTSConnectionPool(url, "wrong-key", "voice", 2, 2);
+        try {
+            pool.connect(null);
+            fail("expected failure");
+        } catch (Exception e) {
+            assertEquals("Failed to connect", e.getMessage());
+        }
+        assertFalse(pool.isConnected());
+        assertEquals(0, pool.getConnectionCount());
+    }
+
+    @Test
+    public void testScaleUpTakesOverStandbyConnection() throws Exception {
+        pool = new TTSConnectionPool(url, "key", "voice", 1, 3);
+        pool.setWarmStandby(1);
+        pool.connect(null);
+        await("standby", () -> pool.getStandbyCount() == 1);
+
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            pool.createContext("ctx" + i);
+        }
+        assertEquals(1, pool.getConnectionCount());
+
+        // 第一条连接已满：接管热备连接，不现场建连
+        pool.createContext("overflow");
+        assertEquals(2, pool.getConnectionCount());
+        assertEquals(1, pool.getStandbyHits());
+        assertEquals(0, pool.getStandbyMisses());
+        assertEquals(1, pool.getHandoverLatencies().getCount());
+        assertEquals(1, pool.getConnectLatencies().getCount());
+
+        // 后台补充新的热备连接
+        await("standby refill", () -> pool.getStandbyCount() == 1);
+    }
+
+    @Test
+    public void testStandbyCanBeDisabled() throws Exception {
+        pool = new TTSConnectionPool(url, "key", "voice", 1, 2);
+        pool.setWarmStandby(2);
+        pool.connect(null);
+        await("standby", () -> pool.getStandbyCount() == 2);
+
+        pool.setWarmStandby(0);
+        assertEquals(0, pool.getStandbyCount());
+
+        pool.disconnect();
+        assertEquals(0, pool.getStandbyCount());
+    }
+}
@@ -0,0 +1,136 @@
+package com.inccleo.tts;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EndpointRouterTest {
+
+    private static final List<Endpoint> NONE = Collections.emptyList();
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    private static void recordLatency(Endpoint endpoint, long ms, int samples, RoutingPolicy policy) {
+        for (int i = 0; i < samples; i++) {
+            endpoint.recordLatency(millis(ms), policy);
+        }
+    }
+
+    @Test
+    public void testPrefersLowerLatency() {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b", "ws://c"));
+        RoutingPolicy policy = RoutingPolicy.defaults().withLatencyOutlierFactor(0);
+        router.setPolicy(policy);
+        List<Endpoint> endpoints = router.getEndpoints();
+        recordLatency(endpoints.get(0), 10, 5, policy);
+        recordLatency(endpoints.get(1), 40, 5, policy);
+        recordLatency(endpoints.get(2), 40, 5, policy);
+
+        Map<Endpoint, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            picks.merge(router.choose(e -> 0, NONE), 1, Integer::sum);
+        }
+        // 最快的节点只要被抽中就会胜出：期望约 2/3
+        assertTrue(picks.get(endpoints.get(0)) > 1800);
+    }
+
+    @Test
+    public void testBalancesLoadAtEqualLatency() {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b"));
+        List<Endpoint> endpoints = router.getEndpoints();
+        recordLatency(endpoints.get(0), 20, 5, router.getPolicy());
+        recordLatency(endpoints.get(1), 20, 5, router.getPolicy());
+
+        Endpoint busy = endpoints.get(0);
+        for (int i = 0; i < 100; i++) {
+            assertSame(endpoints.get(1), router.choose(e -> e == busy ? 4 : 0, NONE));
+        }
+    }
+
+    @Test
+    public void testEjectsFailingEndpointAndRampsBack() throws Exception {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b"));
+        RoutingPolicy policy = RoutingPolicy.defaults().withEjection(100, 1000).withRampMillis(200);
+        router.setPolicy(policy);
+        Endpoint bad = router.getEndpoints().get(0);
+        Endpoint good = router.getEndpoints().get(1);
+        for (int i = 0; i < 5; i++) {
+            bad.recordOutcome(true, policy);
+            good.recordOutcome(false, policy);
+        }
+
+        assertSame(good, router.choose(e -> 0, NONE));
+        assertEquals(Endpoint.State.EJECTED, bad.getState());
+        assertEquals(1, bad.getEjectionCount());
+        for (int i = 0; i < 100; i++) {
+            assertSame(good, router.choose(e -> 0, NONE));
+        }
+
+        Thread.sleep(150);
+        router.choose(e -> 0, NONE);
+        assertEquals(Endpoint.State.RECOVERING, bad.getState());
+        assertEquals(0, bad.getErrorRate(), 0);
+        assertTrue(bad.weight(System.nanoTime(), policy) < 1);
+
+        Thread.sleep(250);
+        router.choose(e -> 0, NONE);
+        assertEquals(Endpoint.State.HEALTHY, bad.getState());
+        assertEquals(1, bad.weight(System.nanoTime(), policy), 0);
+    }
+
+    @Test
+    public void testEjectionDoublesWhileRecovering() {
+        RoutingPolicy policy = RoutingPolicy.defaults().withEjection(100, 250);
+        assertEquals(100, policy.ejectionMillis(1));
+        assertEquals(200, policy.ejectionMillis(2));
+        assertEquals(250, policy.ejectionMillis(3));
+    }
+
+    @Test
+    public void testEjectsLatencyOutlier() {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b"));
+        List<Endpoint> endpoints = router.getEndpoints();
+        recordLatency(endpoints.get(0), 10, 5, router.getPolicy());
+        recordLatency(endpoints.get(1), 100, 5, router.getPolicy());
+
+        assertSame(endpoints.get(0), router.choose(e -> 0, NONE));
+        assertEquals(Endpoint.State.EJECTED, endpoints.get(1).getState());
+    }
+
+    @Test
+    public void testKeepsLastAvailableEndpoint() {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b"));
+        RoutingPolicy policy = router.getPolicy();
+        for (Endpoint endpoint : router.getEndpoints()) {
+            for (int i = 0; i < 5; i++) {
+                endpoint.recordOutcome(true, policy);
+            }
+        }
+
+        assertNotNull(router.choose(e -> 0, NONE));
+        long ejected = router.getEndpoints().stream().filter(e -> !e.isAvailable()).count();
+        assertEquals(1, ejected);
+    }
+
+    @Test
+    public void testExcludesTriedEndpoints() {
+        EndpointRouter router = new EndpointRouter(Arrays.asList("ws://a", "ws://b"));
+        Endpoint a = router.getEndpoints().get(0);
+        Endpoint b = router.getEndpoints().get(1);
+        assertSame(b, router.choose(e -> 0, Collections.singletonList(a)));
+        assertNull(router.choose(e -> 0, Arrays.asList(a, b)));
+
+        EndpointRouter single = new EndpointRouter(Collections.singletonList("ws://only"));
+        assertSame(single.getEndpoints().get(0), single.choose(e -> 0, NONE));
+        assertNull(single.choose(e -> 0, single.getEndpoints()));
+    }
+}
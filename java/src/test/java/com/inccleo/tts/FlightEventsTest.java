@@ -0,0 +1,71 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.mock.MockTTSServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FlightEventsTest {
+
+    private static final String[] EVENTS = {
+        "com.inccleo.tts.Connect", "com.inccleo.tts.Send", "com.inccleo.tts.Receive",
+        "com.inccleo.tts.Parse", "com.inccleo.tts.Decode", "com.inccleo.tts.Callback"
+    };
+
+    @Test
+    public void testNoEventsWithoutRecording() {
+        assertTrue(FlightEvents.INSTANCE.isSupported());
+        assertNull(FlightEvents.INSTANCE.begin(FlightEvents.DECODE));
+    }
+
+    @Test
+    public void testRecordsEveryPhase() throws Exception {
+        MockTTSServer server = new MockTTSServer(MockTTSServer.Options.defaults());
+        Path file = Files.createTempFile("tts", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : EVENTS) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+
+            TTSClient client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+            client.connect(null);
+            CountDownLatch done = new CountDownLatch(1);
+            TTSContext context = client.createContext("ctx").onComplete(done::countDown);
+            context.speak("hello");
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            client.disconnect();
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            server.shutdown();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        Map<String, RecordedEvent> byName = new HashMap<>();
+        for (RecordedEvent event : events) {
+            byName.put(event.getEventType().getName(), event);
+        }
+        for (String name : EVENTS) {
+            assertTrue("missing " + name, byName.containsKey(name));
+        }
+        RecordedEvent decode = byName.get("com.inccleo.tts.Decode");
+        assertEquals("ctx", decode.getString("contextId"));
+        assertTrue(decode.getLong("bytes") > 0);
+        assertNull(byName.get("com.inccleo.tts.Connect").getString("contextId"));
+        assertEquals("ctx", byName.get("com.inccleo.tts.Send").getString("contextId"));
+    }
+}
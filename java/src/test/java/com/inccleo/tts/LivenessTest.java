@@ -0,0 +1,185 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.MetricsRegistry;
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LivenessTest {
+
+    /**
+     * 可以吞掉 ping（模拟半开连接）、可以不回应 eos（模拟服务端卡住）的服务端
+     */
+    private static final class StallingServer extends WebSocketServer {
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile boolean swallowPings;
+        volatile boolean answerEos = true;
+        volatile int connections;
+
+        StallingServer() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+        }
+
+        @Override
+        public void onWebsocketPing(WebSocket conn, Framedata f) {
+            if (!swallowPings) {
+                super.onWebsocketPing(conn, f);
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            connections++;
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            JSONObject data = new JSONObject(message);
+            if (answerEos && "eos".equals(data.getString("type"))) {
+                conn.send("{\"context_id\":\"" + data.getString("context_id") + "\",\"audio\":\"AAEC\",\"is_final\":true}");
+            }
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+
+    private StallingServer server;
+    private TTSClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StallingServer();
+        server.start();
+        assertTrue(server.started.await(5, TimeUnit.SECONDS));
+        client = new TTSClient("ws://127.0.0.1:" + server.getPort(), "key", "voice");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.stop(1000);
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testRecordsPingRtt() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        client.setMetricsRecorder(registry);
+        client.setLivenessPolicy(LivenessPolicy.ping(20, 2));
+        client.connect(null);
+
+        waitFor(() -> registry.snapshot().getPingRtt().getCount() >= 3);
+        assertTrue(client.getLastPingRttMillis() >= 0);
+        assertTrue(client.isConnected());
+        assertEquals(0, client.getDeadConnectionCount());
+    }
+
+    @Test
+    public void testDeadConnectionFailsContexts() throws Exception {
+        server.swallowPings = true;
+        server.answerEos = false;
+        List<String> errors = new CopyOnWriteArrayList<>();
+        client.setLivenessPolicy(LivenessPolicy.ping(50, 2));
+        client.connect(null);
+
+        TTSContext context = client.createContext("ctx").onError((code, message) -> errors.add(code));
+        context.sendText("hello", true);
+        context.endInput();
+
+        long start = System.nanoTime();
+        waitFor(() -> !errors.isEmpty());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("CONNECTION_DEAD", errors.get(0));
+        assertFalse(client.isConnected());
+        assertEquals(1, client.getDeadConnectionCount());
+        assertTrue("Detected after " + millis + " ms", millis < 1000);
+    }
+
+    @Test
+    public void testDeadConnectionReconnects() throws Exception {
+        server.swallowPings = true;
+        CountDownLatch reconnected = new CountDownLatch(1);
+        client.setReconnectPolicy(ReconnectPolicy.exponential(10, 50).withMaxAttempts(20));
+        client.onReconnect((attempts, millis) -> reconnected.countDown());
+        client.setLivenessPolicy(LivenessPolicy.ping(50, 2));
+        client.connect(null);
+
+        waitFor(() -> client.getDeadConnectionCount() == 1);
+        server.swallowPings = false;
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        waitFor(() -> client.getLastPingRttMillis() >= 0);
+        assertTrue(client.isConnected());
+        assertEquals(2, server.connections);
+    }
+
+    @Test
+    public void testAudioTimeoutFailsStalledContext() throws Exception {
+        server.answerEos = false;
+        List<String> errors = new CopyOnWriteArrayList<>();
+        client.setLivenessPolicy(LivenessPolicy.disabled().withAudioTimeout(100));
+        client.connect(null);
+
+        TTSContext stalled = client.createContext("stalled").onError((code, message) -> errors.add(code));
+        TTSContext idle = client.createContext("idle").onError((code, message) -> errors.add("idle:" + code));
+        idle.sendText("not flushed", false);
+        stalled.sendText("hello", true);
+        stalled.endInput();
+
+        waitFor(() -> !errors.isEmpty());
+        Thread.sleep(200);
+        assertEquals(1, errors.size());
+        assertEquals("AUDIO_TIMEOUT", errors.get(0));
+        assertTrue(client.isConnected());
+    }
+
+    @Test
+    public void testAudioTimeoutDisarmedByFinalChunk() throws Exception {
+        List<String> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        client.setLivenessPolicy(LivenessPolicy.disabled().withAudioTimeout(100));
+        client.connect(null);
+
+        TTSContext context = client.createContext("ctx")
+            .onError((code, message) -> errors.add(code))
+            .onComplete(done::countDown);
+        context.sendText("hello", true);
+        context.endInput();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertTrue(errors.isEmpty());
+    }
+}
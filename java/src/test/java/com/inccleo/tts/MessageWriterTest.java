@@ -0,0 +1,101 @@
+package com.inccleo.tts;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MessageWriterTest {
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] out = new byte[buffer.remaining()];
+        buffer.duplicate().get(out);
+        return out;
+    }
+
+    /**
+     * 原实现：构建 JSONObject 后 toString，再按 UTF-8 编码
+     */
+    private static byte[] legacyText(String contextId, String text, boolean flush) {
+        JSONObject message = new JSONObject();
+        message.put("type", "text");
+        message.put("context_id", contextId);
+        message.put("text", text);
+        message.put("flush", flush);
+        return message.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] legacy(String type, String contextId) {
+        JSONObject message = new JSONObject();
+        message.put("type", type);
+        message.put("context_id", contextId);
+        return message.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameText(String contextId, String text, boolean flush) {
+        assertArrayEquals(text, legacyText(contextId, text, flush),
+                          bytes(MessageWriter.text(contextId, text, flush)));
+    }
+
+    @Test
+    public void testMatchesJsonObjectForSpecialCharacters() {
+        String[] samples = {
+            "", "hello", "你好，世界。", "say \"hi\"\\ now", "</script>", "a/b", "<\\/",
+            "tab\tnew\nline\rform\fback\b", "\u0000\u001f\u007f", "\u0080\u009f é",
+            "   €℀", "emoji 😀 🎉", "\ud83d", "x\udc00y", "\udc00\ud83d",
+        };
+        for (String text : samples) {
+            assertSameText("ctx", text, true);
+            assertSameText("ctx", text, false);
+            assertSameText(text, "body", true);
+        }
+        assertSameText("ctx", null, true);
+    }
+
+    @Test
+    public void testMatchesJsonObjectForEveryBmpCharacter() {
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c <= 0xFFFF; c++) {
+            sb.append((char) c);
+            if (sb.length() == 512) {
+                assertSameText("ctx", sb.toString(), true);
+                sb.setLength(0);
+            }
+        }
+        assertSameText("ctx", sb.toString(), true);
+    }
+
+    @Test
+    public void testMatchesJsonObjectForRandomText() {
+        Random random = new Random(42);
+        for (int n = 0; n < 2000; n++) {
+            char[] chars = new char[random.nextInt(64)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = random.nextInt(4) == 0 ? (char) random.nextInt(0x10000) : (char) (0x20 + random.nextInt(0x60));
+            }
+            assertSameText("ctx_" + n, new String(chars), random.nextBoolean());
+        }
+    }
+
+    @Test
+    public void testEosAndCloseMatchJsonObject() {
+        for (String contextId : new String[] {"ctx", "上下文", "a\"b", "</"}) {
+            assertArrayEquals(legacy("eos", contextId), bytes(MessageWriter.eos(contextId)));
+            assertArrayEquals(legacy("close", contextId), bytes(MessageWriter.close(contextId)));
+        }
+    }
+
+    @Test
+    public void testGrowsForLongText() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            sb.append("长文本 ");
+        }
+        assertSameText("ctx", sb.toString(), true);
+        assertSameText("ctx", "short", true);
+    }
+}
@@ -0,0 +1,254 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.MetricsRecorder;
+import com.inccleo.tts.metrics.MetricsRegistry;
+import com.inccleo.tts.mock.MockTTSServer;
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.TransportConnection;
+import com.inccleo.tts.transport.TransportListener;
+import com.inccleo.tts.transport.Transports;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MultiEndpointPoolTest {
+
+    private MockTTSServer fast;
+    private MockTTSServer other;
+    private TTSConnectionPool pool;
+
+    @After
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.disconnect();
+        }
+        if (fast != null) {
+            fast.shutdown();
+        }
+        if (other != null) {
+            other.shutdown();
+        }
+    }
+
+    private static MockTTSServer.Options options(long latencyMillis) {
+        return MockTTSServer.Options.defaults()
+            .withFirstChunkLatencyMillis(latencyMillis)
+            .withChunkIntervalMillis(0);
+    }
+
+    @Test
+    public void testRoutesAwayFromSlowEndpoint() throws Exception {
+        fast = new MockTTSServer(options(5));
+        other = new MockTTSServer(options(150));
+        pool = new TTSConnectionPool(Arrays.asList(fast.startAndGetUrl(), other.startAndGetUrl()),
+                                     "key", "voice", 2, 2);
+        pool.connect(null);
+        assertEquals(2, pool.getConnectionCount());
+
+        for (int i = 0; i < 40; i++) {
+            pool.synthesize("hello").join();
+        }
+
+        Endpoint slow = pool.getEndpoints().get(1);
+        assertTrue(fast.getUtteranceCount() > 3 * other.getUtteranceCount());
+        assertTrue(slow.getLatencyMillis() > pool.getEndpoints().get(0).getLatencyMillis());
+    }
+
+    @Test
+    public void testEjectsFailingEndpoint() throws Exception {
+        fast = new MockTTSServer(options(5));
+        other = new MockTTSServer(options(5).withErrorRate(1));
+        pool = new TTSConnectionPool(Arrays.asList(fast.startAndGetUrl(), other.startAndGetUrl()),
+                                     "key", "voice", 2, 2);
+        pool.setRoutingPolicy(RoutingPolicy.defaults().withMinSamples(3));
+        pool.connect(null);
+
+        // 并发请求让负载分散到两个节点上，否则首帧稍快的节点会拿走全部流量
+        int failed = 0;
+        for (int round = 0; round < 10; round++) {
+            List<CompletableFuture<SynthesisResult>> batch = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                batch.add(pool.synthesize("hello"));
+            }
+            for (CompletableFuture<SynthesisResult> future : batch) {
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    failed++;
+                }
+            }
+        }
+
+        Endpoint bad = pool.getEndpoints().get(1);
+        assertEquals(Endpoint.State.EJECTED, bad.getState());
+        assertTrue(bad.getErrorRate() > 0.5);
+        assertTrue("failed=" + failed, failed <= 10);
+        assertEquals(failed, other.getErrorsInjected());
+    }
+
+    @Test
+    public void testConnectFailsOverToReachableEndpoint() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        fast = new MockTTSServer(options(5));
+        pool = new TTSConnectionPool(Arrays.asList("ws://127.0.0.1:" + port, fast.startAndGetUrl()),
+                                     "key", "voice", 2, 2);
+        pool.connect(null);
+
+        assertEquals(2, pool.getConnectionCount());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fast.getConnectionCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, fast.getConnectionCount());
+        pool.synthesize("hello").join();
+        assertTrue(pool.getEndpoints().get(0).getErrorRate() > 0);
+    }
+
+    @Test
+    public void testForwardsMetricsFromEveryEndpoint() throws Exception {
+        fast = new MockTTSServer(options(5).withChunkBytes(100).withAudioBytesPerChar(40));
+        other = new MockTTSServer(options(5).withChunkBytes(100).withAudioBytesPerChar(40));
+        pool = new TTSConnectionPool(Arrays.asList(fast.startAndGetUrl(), other.startAndGetUrl()),
+                                     "key", "voice", 2, 2);
+        MetricsRegistry registry = new MetricsRegistry();
+        pool.setMetricsRecorder(registry);
+        pool.connect(null);
+
+        // 每个节点上各打断一次
+        Set<TTSClient> owners = new HashSet<>();
+        for (int i = 0; owners.size() < 2 && i < 2 * TTSClient.MAX_CONTEXTS; i++) {
+            TTSContext context = pool.createContext("ctx" + i);
+            if (!owners.add(context.getClient())) {
+                continue;
+            }
+            CountDownLatch firstAudio = new CountDownLatch(1);
+            context.onAudioData((audio, isFinal) -> firstAudio.countDown());
+            context.speak("a sentence long enough to stream for a while");
+            assertTrue(firstAudio.await(5, TimeUnit.SECONDS));
+            context.cancel();
+        }
+        assertEquals(2, owners.size());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.snapshot().getCancelLatency().getCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, registry.snapshot().getCancelLatency().getCount());
+    }
+
+    @Test
+    public void testEndpointRecorderForwardsEveryEvent() throws Exception {
+        // 新增的 MetricsRecorder 事件必须在 EndpointRecorder 中转发，否则多节点时会被默认实现吞掉
+        for (Method method : MetricsRecorder.class.getMethods()) {
+            if (method.isDefault()) {
+                Method declared = EndpointRecorder.class.getMethod(method.getName(), method.getParameterTypes());
+                assertEquals(method.getName(), EndpointRecorder.class, declared.getDeclaringClass());
+            }
+        }
+    }
+
+    @Test
+    public void testConnectsAndFailsOverOutsidePoolLock() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        fast = new MockTTSServer(options(5));
+        pool = new TTSConnectionPool(Arrays.asList("ws://127.0.0.1:" + port, fast.startAndGetUrl()),
+                                     "key", "voice", 2, 3);
+        LockCheckingTransport transport = new LockCheckingTransport(pool);
+        pool.setTransport(transport);
+        pool.connect(null);
+
+        // 初始连接和改连都不在持有连接池锁时发起
+        assertEquals(2, pool.getConnectionCount());
+        assertTrue(transport.connects.get() > 2);
+        assertEquals(0, transport.underLock.get());
+
+        // 扩容：在持有连接池锁的 createContext 中新建连接
+        for (int i = 0; i < 2 * TTSClient.MAX_CONTEXTS + 1; i++) {
+            pool.createContext("ctx" + i);
+        }
+        assertEquals(3, pool.getConnectionCount());
+        assertEquals(0, transport.underLock.get());
+    }
+
+    /**
+     * 记录发起连接时是否持有连接池锁
+     */
+    private static final class LockCheckingTransport implements Transport {
+        private final Transport delegate = Transports.javaWebSocket();
+        private final Object lock;
+        final AtomicInteger connects = new AtomicInteger();
+        final AtomicInteger underLock = new AtomicInteger();
+
+        LockCheckingTransport(Object lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public TransportConnection newConnection(URI uri, Map<String, String> headers, TransportListener listener) {
+            TransportConnection connection = delegate.newConnection(uri, headers, listener);
+            return new TransportConnection() {
+                @Override
+                public void connect() {
+                    connects.incrementAndGet();
+                    if (Thread.holdsLock(lock)) {
+                        underLock.incrementAndGet();
+                    }
+                    connection.connect();
+                }
+
+                @Override
+                public void sendText(ByteBuffer utf8) {
+                    connection.sendText(utf8);
+                }
+
+                @Override
+                public void sendPing(ByteBuffer payload) {
+                    connection.sendPing(payload);
+                }
+
+                @Override
+                public void close() {
+                    connection.close();
+                }
+
+                @Override
+                public void abort(String reason) {
+                    connection.abort(reason);
+                }
+
+                @Override
+                public int getSendQueueDepth() {
+                    return connection.getSendQueueDepth();
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "lock-checking";
+        }
+    }
+}
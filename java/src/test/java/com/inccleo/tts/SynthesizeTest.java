@@ -0,0 +1,156 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SynthesizeTest {
+
+    private MockTTSServer server;
+    private TTSClient client;
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.disconnect();
+        }
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    private void connect(MockTTSServer.Options options) throws Exception {
+        server = new MockTTSServer(options.withFirstChunkLatencyMillis(0).withChunkIntervalMillis(0));
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        client.connect(null);
+    }
+
+    private static TTSException failure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+            return null;
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TTSException);
+            return (TTSException) e.getCause();
+        }
+    }
+
+    @Test
+    public void testCompletesWithAudioAndReleasesSlot() throws Exception {
+        connect(MockTTSServer.Options.defaults());
+
+        SynthesisResult result = client.synthesize("hello").get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.getAudio().length > 0);
+        assertEquals(result.getByteCount(), result.getAudio().length);
+        assertEquals(0, client.getActiveContextCount());
+        assertEquals(TTSClient.MAX_CONTEXTS, client.getAvailableContextSlots());
+    }
+
+    @Test
+    public void testStreamsAudioBeforeCompleting() throws Exception {
+        connect(MockTTSServer.Options.defaults().withChunkBytes(100).withAudioBytesPerChar(40));
+        List<byte[]> streamed = new CopyOnWriteArrayList<>();
+        CompletableFuture<SynthesisResult> future = new CompletableFuture<>();
+
+        client.synthesize("hello", Priority.INTERACTIVE, (audio, isFinal) -> {
+            assertFalse(future.isDone());
+            byte[] bytes = new byte[audio.remaining()];
+            audio.get(bytes);
+            streamed.add(bytes);
+        }).whenComplete((result, error) -> future.complete(result));
+        SynthesisResult result = future.get(5, TimeUnit.SECONDS);
+
+        assertTrue(streamed.size() > 1);
+        assertEquals(result.getAudioChunks().size(), streamed.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            assertArrayEquals(result.getAudioChunks().get(i), streamed.get(i));
+        }
+    }
+
+    @Test
+    public void testFailsOnServerErrorAndReleasesSlot() throws Exception {
+        connect(MockTTSServer.Options.defaults().withErrorRate(1));
+
+        TTSException error = failure(client.synthesize("hello"));
+
+        assertEquals("INTERNAL_ERROR", error.getErrorCode());
+        assertEquals(0, client.getActiveContextCount());
+    }
+
+    @Test
+    public void testTimesOutWhileWaitingForSlot() throws Exception {
+        connect(MockTTSServer.Options.defaults());
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            client.createContext("held" + i);
+        }
+
+        TTSException error = failure(client.synthesize("hello", Priority.INTERACTIVE, 50));
+
+        assertEquals("ADMISSION_TIMEOUT", error.getErrorCode());
+        assertEquals(0, client.getQueuedSynthesisCount());
+        assertEquals(TTSClient.MAX_CONTEXTS, client.getActiveContextCount());
+    }
+
+    @Test
+    public void testQueuedRequestsReuseReleasedSlots() throws Exception {
+        connect(MockTTSServer.Options.defaults());
+
+        // 请求数远超槽位数：每个请求完成后立即释放槽位给下一个排队请求
+        List<CompletableFuture<SynthesisResult>> results = new ArrayList<>();
+        for (int i = 0; i < 4 * TTSClient.MAX_CONTEXTS; i++) {
+            results.add(client.synthesize("hello " + i));
+        }
+        for (CompletableFuture<SynthesisResult> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).getAudio().length > 0);
+        }
+        assertEquals(0, client.getActiveContextCount());
+        assertEquals(0, client.getQueuedSynthesisCount());
+        assertEquals(4 * TTSClient.MAX_CONTEXTS, server.getUtteranceCount());
+    }
+
+    @Test
+    public void testClosingHeldContextAdmitsQueuedRequest() throws Exception {
+        connect(MockTTSServer.Options.defaults());
+        List<TTSContext> held = new ArrayList<>();
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            held.add(client.createContext("held" + i));
+        }
+
+        CompletableFuture<SynthesisResult> queued = client.synthesize("hello");
+        Thread.sleep(50);
+        assertFalse(queued.isDone());
+        assertEquals(1, client.getQueuedSynthesisCount());
+
+        held.get(0).close();
+        assertTrue(queued.get(5, TimeUnit.SECONDS).getAudio().length > 0);
+        assertEquals(TTSClient.MAX_CONTEXTS - 1, client.getActiveContextCount());
+    }
+
+    @Test
+    public void testExceptionIsSerializable() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new TTSException("QUEUE_FULL", "Admission queue is full"));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            TTSException copy = (TTSException) in.readObject();
+            assertEquals("QUEUE_FULL", copy.getErrorCode());
+            assertEquals("QUEUE_FULL: Admission queue is full", copy.getMessage());
+        }
+    }
+}
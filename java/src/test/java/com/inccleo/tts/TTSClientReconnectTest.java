@@ -0,0 +1,171 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.HistogramSnapshot;
+import com.inccleo.tts.metrics.MetricsRegistry;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TTSClientReconnectTest {
+
+    /**
+     * 记录收到的消息；收到 eos 时按需回一帧 is_final 音频
+     */
+    private static final class RecordingServer extends WebSocketServer {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile boolean answerEos;
+        volatile int connections;
+
+        RecordingServer() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            connections++;
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            JSONObject data = new JSONObject(message);
+            received.add(data.getString("type") + ":" + data.optString("text"));
+            if (answerEos && "eos".equals(data.getString("type"))) {
+                conn.send("{\"context_id\":\"" + data.getString("context_id") + "\",\"audio\":\"AAEC\",\"is_final\":true}");
+            }
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+
+    private RecordingServer server;
+    private TTSClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new RecordingServer();
+        server.start();
+        assertTrue(server.started.await(5, TimeUnit.SECONDS));
+        client = new TTSClient("ws://127.0.0.1:" + server.getPort(), "key", "voice");
+        client.setReconnectPolicy(ReconnectPolicy.exponential(10, 50).withMaxAttempts(20));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.stop(1000);
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testReplaysUnfinalizedTextAfterReconnect() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        client.setMetricsRecorder(registry);
+        CountDownLatch reconnected = new CountDownLatch(1);
+        client.onReconnect((attempts, millis) -> reconnected.countDown());
+        client.connect(null);
+
+        TTSContext context = client.createContext("ctx");
+        context.sendText("hello", false);
+        context.endInput();
+        waitFor(() -> server.received.size() == 2);
+
+        for (WebSocket conn : server.getConnections()) {
+            conn.close();
+        }
+
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        context.sendText("world", true);
+        waitFor(() -> server.received.size() == 5);
+
+        assertEquals("text:hello", server.received.get(2));
+        assertEquals("eos:", server.received.get(3));
+        assertEquals("text:world", server.received.get(4));
+        assertEquals(1, context.getReplayCount());
+        assertEquals(1, client.getReconnectCount());
+        assertTrue(client.getLastRecoveryMillis() >= 0);
+        HistogramSnapshot recovery = registry.snapshot().getRecoveryTime();
+        assertEquals(1, recovery.getCount());
+        assertEquals(client.getLastRecoveryMillis(), TimeUnit.NANOSECONDS.toMillis(recovery.getMax()), 1);
+    }
+
+    @Test
+    public void testFinalizedTextIsNotReplayed() throws Exception {
+        server.answerEos = true;
+        CountDownLatch done = new CountDownLatch(1);
+        CountDownLatch reconnected = new CountDownLatch(1);
+        client.onReconnect((attempts, millis) -> reconnected.countDown());
+        client.connect(null);
+
+        TTSContext context = client.createContext("ctx").onComplete(done::countDown);
+        context.sendText("hello", true);
+        context.endInput();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        for (WebSocket conn : server.getConnections()) {
+            conn.close();
+        }
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        waitFor(() -> server.connections == 2);
+
+        assertEquals(2, server.received.size());
+        assertEquals(1, context.getAudioChunks().size());
+    }
+
+    @Test
+    public void testReplayBufferIsBounded() throws Exception {
+        client.setReconnectPolicy(ReconnectPolicy.exponential(10, 50).withMaxAttempts(20).withMaxReplayChars(8));
+        CountDownLatch reconnected = new CountDownLatch(1);
+        client.onReconnect((attempts, millis) -> reconnected.countDown());
+        client.connect(null);
+
+        // 只 flush 不结束输入：没有 is_final，超出上限的最旧文本被丢弃
+        TTSContext context = client.createContext("ctx");
+        context.sendText("aaaa", true);
+        context.sendText("bbbb", true);
+        context.sendText("cccc", true);
+        assertEquals(8, context.getReplayBufferChars());
+        waitFor(() -> server.received.size() == 3);
+
+        for (WebSocket conn : server.getConnections()) {
+            conn.close();
+        }
+        assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+        waitFor(() -> server.received.size() == 5);
+
+        assertEquals("text:bbbb", server.received.get(3));
+        assertEquals("text:cccc", server.received.get(4));
+        assertEquals(1, context.getReplayCount());
+    }
+}
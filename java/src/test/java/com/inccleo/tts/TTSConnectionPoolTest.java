@@ -0,0 +1,266 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.MetricsRegistry;
+import com.inccleo.tts.mock.MockTTSServer;
+import com.inccleo.tts.transport.Transport;
+import com.inccleo.tts.transport.TransportConnection;
+import com.inccleo.tts.transport.TransportListener;
+import com.inccleo.tts.transport.Transports;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class TTSConnectionPoolTest {
+
+    private MockTTSServer server;
+    private TTSConnectionPool pool;
+
+    @After
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.disconnect();
+        }
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    private TTSConnectionPool newPool(int minConnections, int maxConnections) throws Exception {
+        server = new MockTTSServer(MockTTSServer.Options.defaults().withChunkIntervalMillis(0));
+        return new TTSConnectionPool(server.startAndGetUrl(), "key", "voice", minConnections, maxConnections);
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("timed out waiting for " + what);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPlacesOnLeastLoadedConnection() throws Exception {
+        pool = newPool(2, 3);
+        pool.connect(null);
+
+        Map<TTSClient, Integer> perConnection = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            perConnection.merge(pool.createContext("ctx" + i).getClient(), 1, Integer::sum);
+        }
+
+        // 已有连接还有空闲槽位时不扩容，上下文均匀分布
+        assertEquals(2, pool.getConnectionCount());
+        assertEquals(2, perConnection.size());
+        for (int count : perConnection.values()) {
+            assertEquals(3, count);
+        }
+        assertEquals(6, pool.getActiveContextCount());
+    }
+
+    @Test
+    public void testScalesUpWhenAllConnectionsAreFull() throws Exception {
+        pool = newPool(1, 2);
+        pool.connect(null);
+
+        TTSClient first = null;
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            first = pool.createContext("ctx" + i).getClient();
+        }
+        assertEquals(1, pool.getConnectionCount());
+
+        TTSContext overflow = pool.createContext("overflow");
+        assertNotSame(first, overflow.getClient());
+        assertEquals(2, pool.getConnectionCount());
+        assertEquals(2, pool.getConnectLatencies().getCount());
+
+        for (int i = 1; i < TTSClient.MAX_CONTEXTS; i++) {
+            pool.createContext("more" + i);
+        }
+        try {
+            pool.createContext("rejected");
+            fail("expected pool to be full");
+        } catch (IllegalStateException e) {
+            assertEquals("Maximum contexts (" + pool.getCapacity() + ") reached", e.getMessage());
+        }
+        assertEquals(2, pool.getConnectionCount());
+        assertNull(pool.getContext("rejected"));
+    }
+
+    @Test
+    public void testSynthesizeScalesUpWhenAllConnectionsAreFull() throws Exception {
+        pool = newPool(1, 2);
+        pool.connect(null);
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            pool.createContext("ctx" + i);
+        }
+
+        SynthesisResult result = pool.synthesize("hello").get(5, TimeUnit.SECONDS);
+        assertTrue(result.getAudio().length > 0);
+        assertEquals(2, pool.getConnectionCount());
+        assertEquals(0, pool.getQueuedRequestCount());
+    }
+
+    @Test
+    public void testSynthesizeIdsAreUniqueAcrossConnections() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        pool = newPool(2, 2);
+        pool.setMetricsRecorder(registry);
+        pool.connect(null);
+        TTSClient first = pool.createContext("a").getClient();
+        TTSClient second = pool.createContext("b").getClient();
+        assertNotSame(first, second);
+        TTSContext reserved = pool.createContext("synthesis_2");
+
+        // 各连接直接发起的合成请求与连接池分配的上下文共用一个 ID 序列，共享的指标不会相互覆盖
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ids.add(first.synthesize("hello").get(5, TimeUnit.SECONDS).getContextId()));
+            assertTrue(ids.add(second.synthesize("hello").get(5, TimeUnit.SECONDS).getContextId()));
+        }
+        assertFalse(ids.contains("synthesis_2"));
+        assertEquals(6, ids.size());
+        assertEquals(6, registry.snapshot().getSynthesisTime().getCount());
+        assertSame(reserved, pool.getContext("synthesis_2"));
+    }
+
+    @Test
+    public void testScalesDownIdleConnections() throws Exception {
+        pool = newPool(1, 3);
+        pool.connect(null);
+
+        List<TTSContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 3 * TTSClient.MAX_CONTEXTS; i++) {
+            contexts.add(pool.createContext("ctx" + i));
+        }
+        assertEquals(3, pool.getConnectionCount());
+
+        // 一条连接变空闲：保留一条空闲连接作为余量，不缩容
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            contexts.get(i).close();
+        }
+        Thread.sleep(100);
+        assertEquals(3, pool.getConnectionCount());
+
+        // 全部关闭后缩到 minConnections
+        for (TTSContext context : contexts) {
+            context.close();
+        }
+        await("scale down", () -> pool.getConnectionCount() == 1);
+        assertEquals(0, pool.getActiveContextCount());
+        assertNotNull(pool.createContext("again"));
+    }
+
+    @Test
+    public void testPendingHandshakeDoesNotBlockPool() throws Exception {
+        StallingTransport transport = new StallingTransport();
+        pool = newPool(1, 2);
+        pool.setTransport(transport);
+        pool.connect(null);
+
+        List<TTSContext> contexts = new ArrayList<>();
+        for (int i = 0; i < TTSClient.MAX_CONTEXTS; i++) {
+            contexts.add(pool.createContext("ctx" + i));
+        }
+
+        // 唯一的连接已满：新建连接，握手挂起期间调用方和连接池都不被阻塞
+        transport.stalling = true;
+        long start = System.nanoTime();
+        CompletableFuture<TTSContext> overflow = pool.acquireContext("overflow", Priority.INTERACTIVE, 30000);
+        contexts.get(0).close();
+        TTSContext reused = pool.createContext("reused");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("blocked for " + elapsedMillis + " ms", elapsedMillis < 2000);
+        assertSame(reused, pool.getContext("reused"));
+        assertFalse(overflow.isDone());
+        assertEquals(1, pool.getConnectionCount());
+        try {
+            pool.createContext("overflow");
+            fail("expected duplicate id");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Context already exists: overflow", e.getMessage());
+        }
+
+        transport.release();
+        TTSContext placed = overflow.get(5, TimeUnit.SECONDS);
+        assertSame(placed, pool.getContext("overflow"));
+        assertEquals(2, pool.getConnectionCount());
+    }
+
+    /**
+     * 打开 stalling 后新连接的握手一直挂起，直到 release 时才真正发起
+     */
+    private static final class StallingTransport implements Transport {
+        private final Transport delegate = Transports.javaWebSocket();
+        private final List<TransportConnection> stalled = new CopyOnWriteArrayList<>();
+        volatile boolean stalling;
+
+        @Override
+        public TransportConnection newConnection(URI uri, Map<String, String> headers, TransportListener listener) {
+            TransportConnection connection = delegate.newConnection(uri, headers, listener);
+            if (!stalling) {
+                return connection;
+            }
+            return new TransportConnection() {
+                @Override
+                public void connect() {
+                    stalled.add(connection);
+                }
+
+                @Override
+                public void sendText(ByteBuffer utf8) {
+                    connection.sendText(utf8);
+                }
+
+                @Override
+                public void sendPing(ByteBuffer payload) {
+                    connection.sendPing(payload);
+                }
+
+                @Override
+                public void close() {
+                    connection.close();
+                }
+
+                @Override
+                public void abort(String reason) {
+                    connection.abort(reason);
+                }
+
+                @Override
+                public int getSendQueueDepth() {
+                    return connection.getSendQueueDepth();
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "stalling";
+        }
+
+        void release() {
+            stalling = false;
+            for (TransportConnection connection : stalled) {
+                connection.connect();
+            }
+            stalled.clear();
+        }
+    }
+}
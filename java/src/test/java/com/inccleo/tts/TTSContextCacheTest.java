@@ -0,0 +1,87 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.cache.SynthesisCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TTSContextCacheTest {
+
+    @Test
+    public void testMissStoresAndHitReplaysThroughCallbacks() {
+        SynthesisCache cache = SynthesisCache.inMemory(1024);
+        CapturingClient client = new CapturingClient();
+        client.setCache(cache);
+
+        TTSContext first = new TTSContext("a", client);
+        first.speak("你好");
+        assertEquals(2, client.sent.size());
+        first.handleAudio(Base64.getEncoder().encodeToString(new byte[] {1, 2}), false);
+        first.handleAudio(Base64.getEncoder().encodeToString(new byte[] {3}), true);
+        assertEquals(1, cache.getMisses());
+
+        List<String> audio = new ArrayList<>();
+        boolean[] completed = new boolean[1];
+        TTSContext second = new TTSContext("b", client)
+            .onAudio((audioBase64, isFinal) -> audio.add(audioBase64 + (isFinal ? "!" : "")))
+            .onComplete(() -> completed[0] = true);
+        second.speak(" 你好 ");
+
+        assertEquals(2, client.sent.size());
+        assertEquals(1, cache.getHits());
+        assertTrue(completed[0]);
+        assertEquals(2, audio.size());
+        assertEquals(Base64.getEncoder().encodeToString(new byte[] {3}) + "!", audio.get(1));
+        assertEquals(3, second.getRetainedAudioBytes());
+    }
+
+    @Test
+    public void testHitIsNotReplayedWhileUtteranceIsPending() {
+        SynthesisCache cache = SynthesisCache.inMemory(1024);
+        CapturingClient client = new CapturingClient();
+        client.setCache(cache);
+        TTSContext warm = new TTSContext("a", client);
+        warm.speak("你好");
+        warm.handleAudio(Base64.getEncoder().encodeToString(new byte[] {9}), true);
+        client.sent.clear();
+
+        List<String> audio = new ArrayList<>();
+        int[] completions = new int[1];
+        TTSContext context = new TTSContext("b", client)
+            .onAudio((audioBase64, isFinal) -> audio.add(audioBase64 + (isFinal ? "!" : "")))
+            .onComplete(() -> completions[0]++);
+        context.sendText("第一句", true);
+        context.speak("你好");
+
+        // 上一句还在合成：不回放缓存，文本照常发给服务端
+        assertEquals(0, cache.getHits());
+        assertTrue(audio.isEmpty());
+        assertEquals(0, completions[0]);
+        assertEquals(3, client.sent.size());
+        assertEquals("你好", client.sent.get(1).getString("text"));
+
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[] {1}), false);
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[] {2}), true);
+        assertEquals(1, completions[0]);
+        assertEquals(2, audio.size());
+    }
+
+    @Test
+    public void testErrorDiscardsCapturedAudio() {
+        SynthesisCache cache = SynthesisCache.inMemory(1024);
+        CapturingClient client = new CapturingClient();
+        client.setCache(cache);
+
+        TTSContext context = new TTSContext("a", client);
+        context.speak("hello");
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[] {1}), false);
+        context.handleError("SERVER_ERROR", "boom");
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[] {2}), true);
+
+        assertNull(cache.get(client.cacheKey("hello")));
+    }
+}
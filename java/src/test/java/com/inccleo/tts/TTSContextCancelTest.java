@@ -0,0 +1,146 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.callback.AudioListener;
+import com.inccleo.tts.dispatch.Dispatchers;
+import com.inccleo.tts.metrics.MetricsRegistry;
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TTSContextCancelTest {
+
+    private MockTTSServer server;
+    private TTSClient client;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        // 每帧 20ms 的静音，逐帧下发，一句话持续数秒
+        server = new MockTTSServer(MockTTSServer.Options.defaults()
+            .withFirstChunkLatencyMillis(5)
+            .withChunkIntervalMillis(10)
+            .withChunkBytes(640)
+            .withAudioBytesPerChar(640));
+        client = new TTSClient(server.startAndGetUrl(), "key", "voice");
+        executor = Executors.newSingleThreadExecutor();
+        client.setCallbackDispatcher(Dispatchers.serial(executor));
+        client.connect(null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.disconnect();
+        server.shutdown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 记录打断前后收到的音频
+     */
+    private static final class RecordingListener implements AudioListener {
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger lateChunks = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final CountDownLatch firstAudio = new CountDownLatch(1);
+        final CountDownLatch cancelSeen = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        @Override
+        public void onAudio(ByteBuffer audio, boolean isFinal) {
+            chunks.incrementAndGet();
+            if (cancelled.get()) {
+                lateChunks.incrementAndGet();
+            }
+            firstAudio.countDown();
+            if (isFinal) {
+                finished.countDown();
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            cancelled.set(true);
+            cancelSeen.countDown();
+        }
+    }
+
+    @Test
+    public void testCancelSilencesInFlightAudio() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        client.setMetricsRecorder(registry);
+        RecordingListener listener = new RecordingListener();
+        TTSContext context = client.createContext("ctx").addAudioListener(listener);
+
+        context.speak("a sentence long enough to stream for a while");
+        assertTrue(listener.firstAudio.await(5, TimeUnit.SECONDS));
+        context.cancel();
+
+        assertTrue(listener.cancelSeen.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(0, listener.lateChunks.get());
+        assertEquals(1, listener.finished.getCount());
+        assertTrue(context.getAudioChunks().isEmpty());
+        assertEquals(1, context.getCancelCount());
+        assertTrue(context.getLastCancelMillis() >= 0);
+        assertEquals(1, registry.snapshot().getCancelLatency().getCount());
+    }
+
+    @Test
+    public void testDropsFramesForCancelledGeneration() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        TTSContext context = client.createContext("ctx").addAudioListener(listener);
+        context.cancel();
+        assertTrue(listener.cancelSeen.await(5, TimeUnit.SECONDS));
+
+        long dropped = client.getDroppedFrameCount();
+        client.handleMessage("{\"context_id\":\"ctx\",\"audio\":\"AAEC\",\"is_final\":true}");
+        client.handleMessage("{\"context_id\":\"ctx\",\"error\":\"INTERNAL_ERROR\",\"message\":\"late\"}");
+
+        assertEquals(dropped + 2, client.getDroppedFrameCount());
+        Thread.sleep(50);
+        assertEquals(0, listener.chunks.get());
+    }
+
+    @Test
+    public void testContextIsReusableRightAfterCancel() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        CountDownLatch completed = new CountDownLatch(1);
+        TTSContext context = client.createContext("ctx")
+            .addAudioListener(listener)
+            .onComplete(completed::countDown);
+
+        context.speak("the first turn that the user interrupts");
+        assertTrue(listener.firstAudio.await(5, TimeUnit.SECONDS));
+        context.cancel();
+        assertTrue(listener.cancelSeen.await(5, TimeUnit.SECONDS));
+
+        context.speak("ok");
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, listener.finished.getCount());
+        assertEquals("ctx", context.getContextId());
+        assertNotEquals("ctx", context.getWireId());
+        assertSame(context, client.getContext("ctx"));
+    }
+
+    @Test
+    public void testClosedIdGetsFreshWireId() throws Exception {
+        TTSContext first = client.createContext("ctx");
+        first.close();
+        TTSContext second = client.createContext("ctx");
+
+        assertNotEquals(first.getWireId(), second.getWireId());
+        client.handleMessage("{\"context_id\":\"ctx\",\"audio\":\"AAEC\",\"is_final\":true}");
+        assertTrue(second.getAudioChunks().isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.metrics.MetricsRegistry;
+import com.inccleo.tts.metrics.MetricsSnapshot;
+import org.junit.Test;
+
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class TTSContextMetricsTest {
+
+    @Test
+    public void testRecordsPerContextLatencies() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        CapturingClient client = new CapturingClient();
+        client.setMetricsRecorder(registry);
+
+        TTSContext context = new TTSContext("a", client);
+        context.sendText("hello", true);
+        context.endInput();
+        Thread.sleep(5);
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[100]), false);
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[50]), true);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(1, snapshot.getTimeToFirstAudio().getCount());
+        assertTrue(snapshot.getTimeToFirstAudio().getMin() >= 5_000_000);
+        assertEquals(1, snapshot.getChunkGap().getCount());
+        assertEquals(2, snapshot.getDecodeTime().getCount());
+        assertEquals(150, snapshot.getTotalBytes());
+        assertEquals(2, snapshot.getTotalChunks());
+
+        MetricsSnapshot.ContextSnapshot perContext = snapshot.getContexts().get("a");
+        assertEquals(150, perContext.getBytes());
+        assertEquals(1, perContext.getSynthesisTime().getCount());
+        assertTrue(perContext.getBytesPerSecond() > 0);
+        // 只有一个上下文时，整体吞吐与该上下文的吞吐一致
+        assertEquals(snapshot.getSynthesisTime().getSum(), snapshot.getTotalSynthesisNanos());
+        assertEquals(perContext.getBytesPerSecond(), snapshot.getBytesPerSecond(), 1e-6);
+
+        registry.onContextClosed("a");
+        assertTrue(registry.snapshot().getContexts().isEmpty());
+    }
+
+    @Test
+    public void testNoopRecorderSkipsTiming() {
+        CapturingClient client = new CapturingClient();
+        TTSContext context = new TTSContext("a", client);
+        context.sendText("hello", true);
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[10]), true);
+
+        MetricsRegistry registry = new MetricsRegistry();
+        client.setMetricsRecorder(registry);
+        context.sendText("again", true);
+        context.handleAudio(Base64.getEncoder().encodeToString(new byte[10]), true);
+        assertEquals(1, registry.snapshot().getTimeToFirstAudio().getCount());
+    }
+}
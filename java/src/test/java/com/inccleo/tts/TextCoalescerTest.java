@@ -0,0 +1,84 @@
+package com.inccleo.tts;
+
+import com.inccleo.tts.text.TextCoalescer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextCoalescerTest {
+
+    @Test
+    public void testFlushesOnPunctuation() {
+        CapturingClient client = new CapturingClient();
+        TextCoalescer coalescer = new TTSContext("ctx", client)
+            .coalesce(TextCoalescer.Options.defaults().withMaxDelayMillis(0));
+
+        for (String token : new String[] {"你", "好", "，", "世", "界", "。今", "天"}) {
+            coalescer.append(token);
+        }
+
+        assertEquals(2, client.sent.size());
+        assertEquals("你好，", client.sent.get(0).getString("text"));
+        assertFalse(client.sent.get(0).getBoolean("flush"));
+        assertEquals("世界。", client.sent.get(1).getString("text"));
+        assertTrue(client.sent.get(1).getBoolean("flush"));
+        assertEquals(2, coalescer.getBufferedChars());
+
+        coalescer.endInput();
+        assertEquals("今天", client.sent.get(2).getString("text"));
+        assertEquals("eos", client.sent.get(3).getString("type"));
+        assertEquals(7, coalescer.getTokenCount());
+        assertEquals(4, coalescer.getFramesSaved());
+    }
+
+    @Test
+    public void testDoesNotSplitInsideNumbersOrUrls() {
+        CapturingClient client = new CapturingClient();
+        TextCoalescer coalescer = new TTSContext("ctx", client)
+            .coalesce(TextCoalescer.Options.defaults().withMaxDelayMillis(0));
+
+        // 半角标点后面不是空白：不切分
+        for (String token : new String[] {"Pi is 3.", "14 at https:", "//example.com", "."}) {
+            coalescer.append(token);
+        }
+        assertTrue(client.sent.isEmpty());
+
+        // 后跟空白时在标点处切分
+        coalescer.append(" Next");
+        assertEquals(1, client.sent.size());
+        assertEquals("Pi is 3.14 at https://example.com.", client.sent.get(0).getString("text"));
+        assertTrue(client.sent.get(0).getBoolean("flush"));
+        assertEquals(" Next".length(), coalescer.getBufferedChars());
+    }
+
+    @Test
+    public void testFlushesOnMaxChars() {
+        CapturingClient client = new CapturingClient();
+        TextCoalescer coalescer = new TTSContext("ctx", client)
+            .coalesce(TextCoalescer.Options.defaults().withMaxChars(4).withMaxDelayMillis(0));
+
+        coalescer.append("ab");
+        coalescer.append("cdef");
+
+        assertEquals(1, client.sent.size());
+        assertEquals("abcd", client.sent.get(0).getString("text"));
+        assertEquals(2, coalescer.getBufferedChars());
+    }
+
+    @Test
+    public void testFlushesOnMaxDelay() throws Exception {
+        CapturingClient client = new CapturingClient();
+        TextCoalescer coalescer = new TTSContext("ctx", client)
+            .coalesce(TextCoalescer.Options.defaults().withMaxDelayMillis(20));
+
+        coalescer.append("hello");
+        assertTrue(client.sent.isEmpty());
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (client.sent.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, client.sent.size());
+        assertEquals("hello", client.sent.get(0).getString("text"));
+    }
+}
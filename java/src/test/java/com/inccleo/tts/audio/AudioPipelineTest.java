@@ -0,0 +1,234 @@
+package com.inccleo.tts.audio;
+
+import com.inccleo.tts.callback.AudioListener;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class AudioPipelineTest {
+
+    /**
+     * 收集下游收到的音频
+     */
+    private static class Collector implements AudioListener {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int finals;
+
+        @Override
+        public void onAudio(ByteBuffer audio, boolean isFinal) {
+            byte[] copy = new byte[audio.remaining()];
+            audio.get(copy);
+            bytes.write(copy, 0, copy.length);
+            if (isFinal) {
+                finals++;
+            }
+        }
+    }
+
+    private static short[] sine(int rate, double freq, int frames, int amplitude) {
+        short[] s = new short[frames];
+        for (int i = 0; i < frames; i++) {
+            s[i] = (short) Math.round(amplitude * Math.sin(2 * Math.PI * freq * i / rate));
+        }
+        return s;
+    }
+
+    private static byte[] pcm(short[] samples) {
+        byte[] b = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            b[2 * i] = (byte) samples[i];
+            b[2 * i + 1] = (byte) (samples[i] >> 8);
+        }
+        return b;
+    }
+
+    private static short[] samples(byte[] pcm) {
+        short[] s = new short[pcm.length / 2];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = (short) ((pcm[2 * i] & 0xFF) | pcm[2 * i + 1] << 8);
+        }
+        return s;
+    }
+
+    /**
+     * 指定频率分量的幅度（Goertzel），跳过首尾的过渡段
+     */
+    private static double amplitude(short[] s, int rate, double freq) {
+        int from = s.length / 10;
+        int to = s.length - from;
+        double re = 0;
+        double im = 0;
+        for (int i = from; i < to; i++) {
+            double a = 2 * Math.PI * freq * i / rate;
+            re += s[i] * Math.cos(a);
+            im += s[i] * Math.sin(a);
+        }
+        return 2 * Math.sqrt(re * re + im * im) / (to - from);
+    }
+
+    private static byte[] feed(AudioPipeline pipeline, Collector out, byte[] data, int... chunkSizes) {
+        int pos = 0;
+        int i = 0;
+        while (pos < data.length) {
+            int size = Math.min(chunkSizes[i++ % chunkSizes.length], data.length - pos);
+            pipeline.onAudio(ByteBuffer.wrap(data, pos, size).slice().asReadOnlyBuffer(), pos + size == data.length);
+            pos += size;
+        }
+        return out.bytes.toByteArray();
+    }
+
+    @Test
+    public void testG711MatchesReferenceValues() {
+        assertEquals((byte) 0xFF, G711.ulaw((short) 0));
+        assertEquals((byte) 0xD5, G711.alaw((short) 0));
+        assertEquals((byte) 0x80, G711.ulaw(Short.MAX_VALUE));
+        assertEquals((byte) 0x00, G711.ulaw(Short.MIN_VALUE));
+        assertEquals((byte) 0xAA, G711.alaw(Short.MAX_VALUE));
+        assertEquals((byte) 0x2A, G711.alaw(Short.MIN_VALUE));
+        assertEquals(0, G711.ulawToPcm((byte) 0xFF));
+        assertEquals(8, G711.alawToPcm((byte) 0xD5));
+
+        // 编解码往返误差在对数量化步长以内
+        for (int v = Short.MIN_VALUE; v <= Short.MAX_VALUE; v += 7) {
+            short s = (short) v;
+            int tolerance = Math.max(16, Math.abs(v) / 16);
+            assertEquals(v, G711.ulawToPcm(G711.ulaw(s)), tolerance);
+            assertEquals(v, G711.alawToPcm(G711.alaw(s)), tolerance);
+        }
+        for (int b = 0; b < 256; b++) {
+            assertEquals((byte) b, G711.alaw(G711.alawToPcm((byte) b)));
+        }
+    }
+
+    @Test
+    public void testPcm16kToUlaw8k() {
+        Collector out = new Collector();
+        AudioPipeline pipeline = AudioPipeline.convert(StreamFormat.parse("pcm_16000"),
+            StreamFormat.parse("ulaw_8000"), out);
+        byte[] result = feed(pipeline, out, pcm(sine(16000, 1000, 16000, 10000)), 640);
+
+        assertEquals(8000, result.length);
+        assertEquals(1, out.finals);
+        assertEquals(32000, pipeline.getInputBytes());
+        assertEquals(8000, pipeline.getOutputBytes());
+
+        short[] decoded = new short[result.length];
+        for (int i = 0; i < result.length; i++) {
+            decoded[i] = G711.ulawToPcm(result[i]);
+        }
+        assertEquals(10000, amplitude(decoded, 8000, 1000), 500);
+    }
+
+    @Test
+    public void testDownsamplingRejectsAliases() {
+        Collector out = new Collector();
+        AudioPipeline pipeline = AudioPipeline.convert(StreamFormat.parse("pcm_16000"),
+            StreamFormat.parse("pcm_8000"), out);
+        // 6kHz 高于 8kHz 的奈奎斯特频率，不滤波会混叠到 2kHz
+        short[] result = samples(feed(pipeline, out, pcm(sine(16000, 6000, 16000, 10000)), 3200));
+
+        assertEquals(8000, result.length);
+        assertTrue(amplitude(result, 8000, 2000) < 100);
+    }
+
+    @Test
+    public void testUpsamplingPreservesTone() {
+        Collector out = new Collector();
+        AudioPipeline pipeline = AudioPipeline.convert(StreamFormat.parse("pcm_16000"),
+            StreamFormat.parse("pcm_24000"), out);
+        short[] result = samples(feed(pipeline, out, pcm(sine(16000, 440, 8000, 8000)), 1000));
+
+        assertEquals(12000, result.length);
+        assertEquals(8000, amplitude(result, 24000, 440), 300);
+    }
+
+    @Test
+    public void testOutputIndependentOfChunking() {
+        byte[] data = pcm(sine(22050, 300, 4410, 12000));
+        StreamFormat in = StreamFormat.parse("pcm_22050");
+        StreamFormat target = StreamFormat.parse("alaw_8000");
+
+        Collector whole = new Collector();
+        byte[] expected = feed(AudioPipeline.convert(in, target, whole), whole, data, data.length);
+
+        // 奇数长度的分块会把采样切成两半
+        Collector chunked = new Collector();
+        byte[] actual = feed(AudioPipeline.convert(in, target, chunked), chunked, data, 1, 33, 77, 1001);
+
+        assertEquals((4410 * 8000 + 22049) / 22050, expected.length);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testStateResetsBetweenUtterances() {
+        StreamFormat in = StreamFormat.parse("pcm_16000");
+        StreamFormat target = StreamFormat.parse("pcm_8000");
+        byte[] data = pcm(sine(16000, 500, 1600, 5000));
+
+        Collector out = new Collector();
+        AudioPipeline pipeline = AudioPipeline.convert(in, target, out);
+        byte[] first = feed(pipeline, out, data, 320);
+        out.bytes.reset();
+        byte[] second = feed(pipeline, out, data, 320);
+        assertArrayEquals(first, second);
+        assertEquals(2, out.finals);
+    }
+
+    @Test
+    public void testChannelConversion() {
+        SampleBuffer buffer = new SampleBuffer(8000, 1, 4);
+        short[] s = buffer.getSamples();
+        s[0] = 100;
+        s[1] = -200;
+        buffer.setLength(2);
+
+        new ChannelStage(2).process(buffer, false);
+        assertEquals(2, buffer.getChannels());
+        assertEquals(4, buffer.getLength());
+        s = buffer.getSamples();
+        assertEquals(100, s[0]);
+        assertEquals(100, s[1]);
+        assertEquals(-200, s[2]);
+        assertEquals(-200, s[3]);
+
+        s[1] = 300;
+        new ChannelStage(1).process(buffer, false);
+        assertEquals(1, buffer.getChannels());
+        assertEquals(2, buffer.getLength());
+        assertEquals(200, buffer.getSamples()[0]);
+        assertEquals(-200, buffer.getSamples()[1]);
+    }
+
+    @Test
+    public void testGainSaturates() {
+        SampleBuffer buffer = new SampleBuffer(8000, 1, 4);
+        short[] s = buffer.getSamples();
+        s[0] = 1000;
+        s[1] = 20000;
+        s[2] = -20000;
+        buffer.setLength(3);
+
+        new GainStage(6.0206).process(buffer, false);
+        assertEquals(2000, s[0], 1);
+        assertEquals(Short.MAX_VALUE, s[1]);
+        assertEquals(Short.MIN_VALUE, s[2]);
+
+        new GainStage(-6.0206).process(buffer, false);
+        assertEquals(1000, s[0], 1);
+    }
+
+    @Test
+    public void testMulawInputToPcm() {
+        Collector out = new Collector();
+        AudioPipeline pipeline = new AudioPipeline(StreamFormat.parse("ulaw_8000"),
+            StreamFormat.Encoding.PCM_16, out);
+        byte[] ulaw = {(byte) 0xFF, (byte) 0x80, (byte) 0x00};
+        pipeline.onAudio(ByteBuffer.wrap(ulaw).asReadOnlyBuffer(), true);
+
+        short[] result = samples(out.bytes.toByteArray());
+        assertArrayEquals(new short[]{0, 32124, -32124}, result);
+    }
+}
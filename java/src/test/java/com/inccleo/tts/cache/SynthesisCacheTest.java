@@ -0,0 +1,129 @@
+package com.inccleo.tts.cache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SynthesisCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<byte[]> chunks(int... sizes) {
+        byte[][] result = new byte[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            result[i] = new byte[sizes[i]];
+            Arrays.fill(result[i], (byte) (i + 1));
+        }
+        return Arrays.asList(result);
+    }
+
+    @Test
+    public void testKeyNormalizesTextAndIgnoresOtherParams() {
+        Map<String, String> params = new HashMap<>();
+        params.put("model_id", "m1");
+        params.put("format", "pcm");
+        String key = SynthesisCache.key("voice", params, "  你好，\n  世界 ");
+
+        params.put("volume", "2");
+        assertEquals(key, SynthesisCache.key("voice", params, "你好， 世界"));
+
+        params.put("format", "mp3");
+        assertNotEquals(key, SynthesisCache.key("voice", params, "你好， 世界"));
+        assertNotEquals(key, SynthesisCache.key("other", Collections.<String, String>emptyMap(), "你好， 世界"));
+    }
+
+    @Test
+    public void testMemoryTierEvictsLeastRecentlyUsed() {
+        SynthesisCache cache = SynthesisCache.inMemory(100);
+        cache.put("a", chunks(40));
+        cache.put("b", chunks(40));
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", chunks(40));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(80, cache.getMemoryBytes());
+    }
+
+    @Test
+    public void testDiskTierSurvivesReopen() throws Exception {
+        Path dir = folder.newFolder("cache").toPath();
+        SynthesisCache cache = SynthesisCache.tiered(1024, dir, 4096, 1024);
+        cache.put("a", chunks(10, 20, 30));
+        cache.flush();
+
+        SynthesisCache reopened = SynthesisCache.tiered(1024, dir, 4096, 1024);
+        CachedAudio audio = reopened.get("a");
+        assertNotNull(audio);
+        assertEquals(3, audio.getChunks().size());
+        assertEquals(60, audio.getByteCount());
+        assertEquals(3, audio.getChunks().get(2)[29]);
+        assertEquals(1, reopened.getDiskHits());
+
+        // 磁盘命中后提升到内存层
+        assertNotNull(reopened.get("a"));
+        assertEquals(1, reopened.getMemoryHits());
+    }
+
+    @Test
+    public void testDiskTierEvictsOldestSegment() throws Exception {
+        Path dir = folder.newFolder("cache").toPath();
+        SynthesisCache cache = SynthesisCache.tiered(1, dir, 2048, 1024);
+        for (int i = 0; i < 6; i++) {
+            cache.put("k" + i, chunks(400));
+        }
+
+        assertNull(cache.get("k0"));
+        assertNotNull(cache.get("k5"));
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getDiskBytes() <= 2048);
+    }
+
+    @Test
+    public void testDiskTierStopsAtCorruptLengths() throws Exception {
+        Path dir = folder.newFolder("cache").toPath();
+        SynthesisCache cache = SynthesisCache.tiered(1, dir, 4096, 1024);
+        cache.put("a", chunks(10, 20, 30));
+        cache.put("b", chunks(10));
+        cache.flush();
+        Path segment = Files.list(dir).findFirst().get();
+
+        // 记录 a 占 4 + 4 + 1 + 4 + 3 * 4 + 60 = 85 字节，之后是记录 b 的 keyLen
+        writeInt(segment, 85 + 4, Integer.MAX_VALUE);
+        SynthesisCache reopened = SynthesisCache.tiered(1, dir, 4096, 1024);
+        assertNotNull(reopened.get("a"));
+        assertNull(reopened.get("b"));
+
+        // 记录 a 的第一个块长度为负
+        writeInt(segment, 4 + 4 + 1 + 4, -1);
+        reopened = SynthesisCache.tiered(1, dir, 4096, 1024);
+        assertNull(reopened.get("a"));
+        assertNull(reopened.get("b"));
+    }
+
+    private static void writeInt(Path path, long position, int value) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(0, value);
+            channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.inccleo.tts.dispatch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DispatchersTest {
+
+    @Test
+    public void testSerialLanePreservesOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CallbackDispatcher dispatcher = Dispatchers.serial(executor);
+            DispatchLane lane = dispatcher.newLane("ctx");
+            List<Integer> seen = new ArrayList<>();
+            CountDownLatch done = new CountDownLatch(1);
+
+            for (int i = 0; i < 1000; i++) {
+                final int n = i;
+                lane.execute(() -> seen.add(n));
+            }
+            lane.execute(done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(1000, seen.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(Integer.valueOf(i), seen.get(i));
+            }
+            assertEquals(0, lane.getQueueDepth());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSlowLaneDoesNotBlockOthers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CallbackDispatcher dispatcher = Dispatchers.serial(executor);
+            DispatchLane slow = dispatcher.newLane("slow");
+            DispatchLane fast = dispatcher.newLane("fast");
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fastDone = new CountDownLatch(1);
+
+            slow.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            slow.execute(() -> { });
+            fast.execute(fastDone::countDown);
+
+            assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+            // 第一个任务已开始执行后，排队的只剩第二个
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(1, slow.getQueueDepth());
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.inccleo.tts.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverRangeContiguously() {
+        long previous = -1;
+        for (int i = 0; i < 400; i++) {
+            long upper = LatencyHistogram.bucketUpperBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(upper));
+            assertEquals(i, LatencyHistogram.bucketIndex(previous + 1));
+            previous = upper;
+        }
+        assertTrue(LatencyHistogram.bucketIndex(Long.MAX_VALUE) < (64 - 4) * 16);
+    }
+
+    @Test
+    public void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v * 1000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMin());
+        assertEquals(10_000_000, snapshot.getMax());
+        assertEquals(5_000_500.0, snapshot.getMean(), 0.001);
+        assertEquals(5_000_000, snapshot.getValueAtPercentile(50), 5_000_000 / 16.0);
+        assertEquals(9_900_000, snapshot.getValueAtPercentile(99), 9_900_000 / 16.0);
+        assertEquals(10_000_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.snapshot().getCount());
+        assertEquals(4L * 9_999 * 10_000 / 2, histogram.snapshot().getSum());
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,90 @@
+package com.inccleo.tts.mock;
+
+import com.inccleo.tts.SynthesisResult;
+import com.inccleo.tts.TTSClient;
+import com.inccleo.tts.TTSException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class MockTTSServerTest {
+
+    private MockTTSServer server;
+    private TTSClient client;
+
+    private String start(MockTTSServer.Options options) throws Exception {
+        server = new MockTTSServer(options);
+        return server.startAndGetUrl();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.disconnect();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    public void testSynthesizesAudioProportionalToText() throws Exception {
+        String url = start(MockTTSServer.Options.defaults()
+            .withFirstChunkLatencyMillis(100)
+            .withChunkIntervalMillis(0)
+            .withChunkBytes(100)
+            .withAudioBytesPerChar(40));
+        client = new TTSClient(url, "key", "voice");
+        client.connect(null);
+
+        SynthesisResult result = client.synthesize("hello").join();
+        assertEquals(200, result.getByteCount());
+        assertEquals(2, result.getAudioChunks().size());
+        assertEquals(1, server.getUtteranceCount());
+        assertEquals(2, server.getFramesSent());
+    }
+
+    @Test
+    public void testInjectsErrors() throws Exception {
+        String url = start(MockTTSServer.Options.defaults().withFirstChunkLatencyMillis(0).withErrorRate(1));
+        client = new TTSClient(url, "key", "voice");
+        client.connect(null);
+
+        try {
+            client.synthesize("hello").join();
+            fail("Expected injected error");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof TTSException);
+            assertEquals("INTERNAL_ERROR", ((TTSException) e.getCause()).getErrorCode());
+        }
+        assertEquals(1, server.getErrorsInjected());
+    }
+
+    @Test
+    public void testRejectsWrongApiKey() throws Exception {
+        String url = start(MockTTSServer.Options.defaults().withApiKey("secret"));
+        client = new TTSClient(url, "wrong", "voice");
+        try {
+            client.connect(null);
+            fail("Expected handshake rejection");
+        } catch (Exception e) {
+            assertFalse(client.isConnected());
+        }
+    }
+
+    @Test
+    public void testLoadGeneratorReportsPercentiles() throws Exception {
+        String url = start(MockTTSServer.Options.defaults()
+            .withFirstChunkLatencyMillis(1)
+            .withChunkIntervalMillis(0));
+        LoadReport report = new LoadGenerator(url, "key", "voice")
+            .run(LoadGenerator.Options.defaults().withRequests(50).withConcurrency(10));
+
+        assertEquals(50, report.getSucceeded());
+        assertEquals(0, report.getFailed());
+        assertEquals(2, report.getConnections());
+        assertEquals(50, report.getMetrics().getTimeToFirstAudio().getCount());
+        assertTrue(report.getRequestsPerSecond() > 0);
+    }
+}
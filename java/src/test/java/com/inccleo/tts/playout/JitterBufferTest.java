@@ -0,0 +1,210 @@
+package com.inccleo.tts.playout;
+
+import com.inccleo.tts.audio.StreamFormat;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class JitterBufferTest {
+    private static final StreamFormat PCM_16K = StreamFormat.parse("pcm_16000");
+    private static final int FRAME = 640; // 20ms @ 16kHz 16bit mono
+
+    private final List<byte[]> frames = new ArrayList<>();
+    private final List<Boolean> silences = new ArrayList<>();
+
+    private JitterBuffer newBuffer(JitterBuffer.Options options) {
+        // 不经过 newBuffer，避免启动调度线程，由测试手动推进节拍
+        return new JitterBuffer(new PlayoutScheduler(20), PCM_16K, options, (frame, silence) -> {
+            byte[] copy = new byte[frame.remaining()];
+            frame.get(copy);
+            frames.add(copy);
+            silences.add(silence);
+        });
+    }
+
+    private static ByteBuffer chunk(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (seed + i);
+        }
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Test
+    public void testWaitsForPrebufferBeforePlaying() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withPrebufferMillis(60));
+        assertEquals(FRAME, buffer.getFrameBytes());
+
+        buffer.onAudio(chunk(FRAME * 2, 0), false);
+        buffer.tick();
+        assertTrue("should not play before prebuffer is reached", frames.isEmpty());
+
+        buffer.onAudio(chunk(FRAME, 0), false);
+        buffer.tick();
+        assertEquals(1, frames.size());
+        assertEquals(FRAME, frames.get(0).length);
+        assertFalse(silences.get(0));
+        assertEquals(40, buffer.getBufferedMillis());
+        assertEquals(60, buffer.getMaxBufferedMillis());
+    }
+
+    @Test
+    public void testReframesBurstyChunksInOrder() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withPrebufferMillis(0));
+        byte[] expected = new byte[FRAME * 3];
+        int offset = 0;
+        for (int size : new int[]{100, 1000, 820}) {
+            ByteBuffer c = chunk(size, offset);
+            c.duplicate().get(expected, offset, size);
+            buffer.onAudio(c, false);
+            offset += size;
+        }
+
+        for (int i = 0; i < 3; i++) {
+            buffer.tick();
+        }
+        assertEquals(3, frames.size());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < FRAME; j++) {
+                assertEquals(expected[i * FRAME + j], frames.get(i)[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testUnderrunFillsSilenceAndRebuffers() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withPrebufferMillis(40));
+        buffer.onAudio(chunk(FRAME * 2, 1), false);
+        buffer.tick();
+        buffer.tick();
+        buffer.tick(); // 数据耗尽
+        buffer.tick();
+
+        assertEquals(1, buffer.getUnderrunCount());
+        assertEquals(4, frames.size());
+        assertEquals(2, buffer.getSilenceFrames());
+        assertTrue(silences.get(2));
+        for (byte b : frames.get(2)) {
+            assertEquals(0, b);
+        }
+
+        // 欠载后重新预缓冲：一帧不够，继续补静音
+        buffer.onAudio(chunk(FRAME, 1), false);
+        buffer.tick();
+        assertTrue(silences.get(4));
+        buffer.onAudio(chunk(FRAME, 1), false);
+        buffer.tick();
+        assertFalse(silences.get(5));
+        assertEquals(1, buffer.getUnderrunCount());
+    }
+
+    @Test
+    public void testFinalPadsTailWithoutUnderrun() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withSilenceFill(false));
+        buffer.onAudio(chunk(FRAME + 100, 7), true);
+
+        buffer.tick();
+        buffer.tick();
+        buffer.tick();
+        assertEquals(2, frames.size());
+        assertEquals(0, buffer.getUnderrunCount());
+        byte[] tail = frames.get(1);
+        assertEquals((byte) (7 + FRAME), tail[0]);
+        assertEquals(0, tail[100]);
+        assertEquals(0, tail[FRAME - 1]);
+    }
+
+    @Test
+    public void testNoSilenceBeforeFirstAudio() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults());
+        for (int i = 0; i < 10; i++) {
+            buffer.tick();
+        }
+        assertTrue(frames.isEmpty());
+        assertEquals(0, buffer.getUnderrunCount());
+    }
+
+    @Test
+    public void testOverflowDropsOldestAudio() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults()
+            .withPrebufferMillis(20).withMaxBufferMillis(100));
+        for (int i = 0; i < 10; i++) {
+            buffer.onAudio(chunk(FRAME, i), false);
+        }
+        assertEquals(100, buffer.getBufferedMillis());
+        assertEquals(FRAME * 5, buffer.getDroppedBytes());
+
+        buffer.tick();
+        assertEquals((byte) 5, frames.get(0)[0]);
+    }
+
+    @Test
+    public void testCancelDropsBufferedAudio() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withPrebufferMillis(0));
+        for (int i = 0; i < 5; i++) {
+            buffer.onAudio(chunk(FRAME, i + 1), false);
+        }
+        buffer.tick();
+        buffer.onCancel();
+        buffer.tick();
+
+        assertEquals(0, buffer.getBufferedMillis());
+        assertEquals(2, frames.size());
+        assertTrue(silences.get(1));
+        assertEquals(0, frames.get(1)[0]);
+        assertEquals(0, buffer.getUnderrunCount());
+    }
+
+    @Test
+    public void testMulawSilenceValue() {
+        List<byte[]> out = new ArrayList<>();
+        JitterBuffer buffer = new JitterBuffer(new PlayoutScheduler(20), StreamFormat.parse("ulaw_8000"),
+            JitterBuffer.Options.defaults().withPrebufferMillis(0), (frame, silence) -> {
+                byte[] copy = new byte[frame.remaining()];
+                frame.get(copy);
+                out.add(copy);
+            });
+        buffer.onAudio(chunk(160, 0), false);
+        buffer.tick();
+        buffer.tick();
+        assertEquals(2, out.size());
+        assertEquals((byte) 0xFF, out.get(1)[0]);
+    }
+
+    @Test
+    public void testClosedBufferStopsPlaying() {
+        JitterBuffer buffer = newBuffer(JitterBuffer.Options.defaults().withPrebufferMillis(0));
+        buffer.onAudio(chunk(FRAME, 0), false);
+        buffer.close();
+        buffer.tick();
+        assertTrue(frames.isEmpty());
+    }
+
+    @Test
+    public void testSchedulerPacesInRealTime() throws Exception {
+        PlayoutScheduler scheduler = new PlayoutScheduler(10);
+        CountDownLatch done = new CountDownLatch(20);
+        JitterBuffer buffer = scheduler.newBuffer(PCM_16K,
+            JitterBuffer.Options.defaults().withPrebufferMillis(0).withSilenceFill(false),
+            (frame, silence) -> done.countDown());
+        try {
+            assertEquals(1, scheduler.getBufferCount());
+            long start = System.nanoTime();
+            buffer.onAudio(chunk(320 * 20, 0), true);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // 20 帧 × 10ms，允许宽松的调度误差
+            assertTrue("played too fast: " + elapsedMillis, elapsedMillis >= 150);
+        } finally {
+            buffer.close();
+            scheduler.shutdown();
+        }
+        assertEquals(0, scheduler.getBufferCount());
+    }
+}
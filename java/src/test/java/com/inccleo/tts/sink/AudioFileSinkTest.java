@@ -0,0 +1,93 @@
+package com.inccleo.tts.sink;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class AudioFileSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ByteBuffer chunk(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (seed + i);
+        }
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    @Test
+    public void testRawSinkBatchesWrites() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("out.pcm");
+        RawFileSink sink = new RawFileSink(path, 4096, AudioFileSink.FsyncPolicy.NEVER);
+        for (int i = 0; i < 100; i++) {
+            sink.onAudio(chunk(100, i), i == 99);
+        }
+        sink.close();
+
+        byte[] written = Files.readAllBytes(path);
+        assertEquals(10_000, written.length);
+        assertEquals((byte) 7, written[7 * 100]);
+        assertTrue("expected batched writes, got " + sink.getWriteCalls(), sink.getWriteCalls() <= 4);
+    }
+
+    @Test
+    public void testWavHeaderPatchedOnFinal() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("out.wav");
+        WavFileSink sink = new WavFileSink(path, "pcm_16000", 1024, AudioFileSink.FsyncPolicy.ON_FINAL);
+        sink.onAudio(chunk(3200, 0), false);
+        sink.onAudio(chunk(3200, 1), true);
+
+        // 未关闭时文件头已回填，可以直接读取
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(36 + 6400, header.getInt(4));
+        assertEquals(16000, header.getInt(24));
+        assertEquals(6400, header.getInt(40));
+
+        sink.onAudio(chunk(320, 2), true);
+        sink.close();
+
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(path.toFile())) {
+            AudioFormat format = in.getFormat();
+            assertEquals(16000, format.getSampleRate(), 0);
+            assertEquals(16, format.getSampleSizeInBits());
+            assertEquals(1, format.getChannels());
+            assertEquals(6720 / 2, in.getFrameLength());
+        }
+    }
+
+    @Test
+    public void testWavSampleRateFromFormat() {
+        assertEquals(24000, WavFileSink.sampleRate("pcm_24000"));
+        assertEquals(8000, WavFileSink.sampleRate("ulaw_8000"));
+        try {
+            WavFileSink.sampleRate("mp3_44100_128");
+            fail("Expected unsupported format");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("mp3"));
+        }
+    }
+
+    @Test
+    public void testErrorFlushesBufferedAudio() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("partial.pcm");
+        RawFileSink sink = new RawFileSink(path);
+        sink.onAudio(chunk(500, 0), false);
+        assertEquals(0, Files.size(path));
+
+        sink.onError("SERVER_ERROR", "boom");
+        assertEquals(500, Files.size(path));
+        sink.close();
+    }
+}
@@ -0,0 +1,179 @@
+package com.inccleo.tts.text;
+
+import com.inccleo.tts.Priority;
+import com.inccleo.tts.SynthesisResult;
+import com.inccleo.tts.Synthesizer;
+import com.inccleo.tts.TTSException;
+import com.inccleo.tts.callback.BinaryAudioCallback;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+public class LongTextSynthesizerTest {
+
+    /**
+     * 记录请求，由测试决定完成顺序
+     */
+    private static final class ManualSynthesizer implements Synthesizer {
+        final Map<String, CompletableFuture<SynthesisResult>> pending = new ConcurrentHashMap<>();
+        final Map<String, BinaryAudioCallback> listeners = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<SynthesisResult> synthesize(String text) {
+            CompletableFuture<SynthesisResult> future = new CompletableFuture<>();
+            pending.put(text, future);
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<SynthesisResult> synthesize(String text, Priority priority, BinaryAudioCallback onAudio) {
+            listeners.put(text, onAudio);
+            return synthesize(text);
+        }
+
+        void audio(String text, String audio) {
+            listeners.get(text).onAudio(ByteBuffer.wrap(audio.getBytes(StandardCharsets.UTF_8)), false);
+        }
+
+        void complete(String text) {
+            pending.remove(text).complete(null);
+        }
+    }
+
+    @Test
+    public void testDeliversInOrderAcrossSynthesizers() throws Exception {
+        ManualSynthesizer a = new ManualSynthesizer();
+        ManualSynthesizer b = new ManualSynthesizer();
+        LongTextSynthesizer synthesizer = new LongTextSynthesizer(Arrays.asList(a, b), 2, 4);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> done = synthesizer.synthesize("一。二。三。四。五。",
+            (index, text, result) -> delivered.add(text));
+
+        assertEquals(2, a.pending.size());
+        assertEquals(2, b.pending.size());
+
+        for (String text : new ArrayList<>(b.pending.keySet())) {
+            (a.pending.containsKey(text) ? a : b).complete(text);
+        }
+        assertTrue(delivered.isEmpty());
+
+        a.complete("一。");
+        assertEquals(Arrays.asList("一。", "二。"), delivered);
+
+        List<String> rest = new ArrayList<>(a.pending.keySet());
+        rest.addAll(b.pending.keySet());
+        Collections.sort(rest);
+        for (String text : rest) {
+            (a.pending.containsKey(text) ? a : b).complete(text);
+        }
+        for (String text : new ArrayList<>(a.pending.keySet())) {
+            a.complete(text);
+        }
+        for (String text : new ArrayList<>(b.pending.keySet())) {
+            b.complete(text);
+        }
+
+        done.get();
+        assertEquals(Arrays.asList("一。", "二。", "三。", "四。", "五。"), delivered);
+    }
+
+    @Test
+    public void testFailsWhenSegmentFails() {
+        Synthesizer failing = text -> {
+            CompletableFuture<SynthesisResult> future = new CompletableFuture<>();
+            future.completeExceptionally(new TTSException("INSUFFICIENT_QUOTA", "quota"));
+            return future;
+        };
+
+        CompletableFuture<Void> done = new LongTextSynthesizer(failing, 10)
+            .synthesize("一。二。", (index, text, result) -> { });
+        try {
+            done.get();
+            fail("Expected failure");
+        } catch (InterruptedException e) {
+            fail("Interrupted");
+        } catch (ExecutionException e) {
+            assertEquals("INSUFFICIENT_QUOTA", ((TTSException) e.getCause()).getErrorCode());
+        }
+    }
+
+    @Test
+    public void testCancelsOutstandingSegmentsOnFailure() {
+        ManualSynthesizer manual = new ManualSynthesizer();
+        CompletableFuture<Void> done = new LongTextSynthesizer(Collections.singletonList(manual), 2, 3)
+            .synthesize("一。二。三。四。", (index, text, result) -> { });
+        CompletableFuture<SynthesisResult> first = manual.pending.get("一。");
+        CompletableFuture<SynthesisResult> third = manual.pending.get("三。");
+        assertEquals(3, manual.pending.size());
+
+        manual.pending.remove("二。").completeExceptionally(new TTSException("INTERNAL_ERROR", "boom"));
+
+        assertTrue(done.isCompletedExceptionally());
+        assertTrue(first.isCancelled());
+        assertTrue(third.isCancelled());
+        // 失败后不再提交后续段
+        assertFalse(manual.pending.containsKey("四。"));
+    }
+
+    @Test
+    public void testCancellingJobCancelsOutstandingSegments() {
+        ManualSynthesizer manual = new ManualSynthesizer();
+        CompletableFuture<Void> done = new LongTextSynthesizer(Collections.singletonList(manual), 2, 2)
+            .synthesize("一。二。三。", (index, text, result) -> { });
+
+        done.cancel(false);
+
+        for (CompletableFuture<SynthesisResult> future : manual.pending.values()) {
+            assertTrue(future.isCancelled());
+        }
+        assertFalse(manual.pending.containsKey("三。"));
+    }
+
+    @Test
+    public void testStreamsHeadSegmentAudioInOrder() throws Exception {
+        ManualSynthesizer manual = new ManualSynthesizer();
+        List<String> audio = new CopyOnWriteArrayList<>();
+        List<Integer> finished = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new LongTextSynthesizer(Collections.singletonList(manual), 2, 3)
+            .synthesize("一。二。三。",
+                (index, buffer) -> audio.add(index + ":" + StandardCharsets.UTF_8.decode(buffer)),
+                (index, text, result) -> finished.add(index));
+
+        // 后续段先到达的音频被缓存
+        manual.audio("二。", "b1");
+        assertTrue(audio.isEmpty());
+
+        // 队首段的音频在该段完成前就交付
+        manual.audio("一。", "a1");
+        manual.audio("一。", "a2");
+        assertEquals(Arrays.asList("0:a1", "0:a2"), audio);
+        assertTrue(finished.isEmpty());
+
+        // 队首段完成后，下一段缓存的音频立即交付，之后的音频直接交付
+        manual.complete("一。");
+        assertEquals(Arrays.asList("0:a1", "0:a2", "1:b1"), audio);
+        manual.audio("二。", "b2");
+        assertEquals(Arrays.asList("0:a1", "0:a2", "1:b1", "1:b2"), audio);
+
+        manual.audio("三。", "c1");
+        manual.complete("三。");
+        manual.complete("二。");
+
+        done.get();
+        assertEquals(Arrays.asList("0:a1", "0:a2", "1:b1", "1:b2", "2:c1"), audio);
+        assertEquals(Arrays.asList(0, 1, 2), finished);
+    }
+}
@@ -0,0 +1,47 @@
+package com.inccleo.tts.text;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SentenceSegmenterTest {
+
+    @Test
+    public void testMergesShortSentences() {
+        List<String> segments = new SentenceSegmenter(10).split("你好。今天天气不错！我们出去吧？");
+        assertEquals(Arrays.asList("你好。今天天气不错！", "我们出去吧？"), segments);
+    }
+
+    @Test
+    public void testKeepsDecimalPointsAndClosingQuotes() {
+        List<String> segments = new SentenceSegmenter(14).split("Pi is 3.14. He said \"ok.\" Done");
+        assertEquals(Arrays.asList("Pi is 3.14.", " He said \"ok.\"", " Done"), segments);
+    }
+
+    @Test
+    public void testSplitsLongSentenceAtClauses() {
+        List<String> segments = new SentenceSegmenter(6).split("一二三，四五六七，八九十");
+        assertEquals(Arrays.asList("一二三，", "四五六七，", "八九十"), segments);
+        assertEquals("一二三四五六七八九十", String.join("", segments).replace("，", ""));
+    }
+
+    @Test
+    public void testHardSplitsWithoutPunctuation() {
+        List<String> segments = new SentenceSegmenter(4).split("abcdefghij");
+        assertEquals(Arrays.asList("abcd", "efgh", "ij"), segments);
+    }
+
+    @Test
+    public void testHardSplitDoesNotBreakSurrogatePairs() {
+        String emoji = new String(Character.toChars(0x1F600));
+        String text = "abc" + emoji + "defg";
+        List<String> segments = new SentenceSegmenter(4).split(text);
+        assertEquals(Arrays.asList("abc", emoji + "de", "fg"), segments);
+        assertEquals(text, String.join("", segments));
+
+        assertEquals(Arrays.asList(emoji, emoji), new SentenceSegmenter(1).split(emoji + emoji));
+    }
+}
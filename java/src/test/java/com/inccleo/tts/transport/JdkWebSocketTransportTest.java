@@ -0,0 +1,144 @@
+package com.inccleo.tts.transport;
+
+import com.inccleo.tts.LivenessPolicy;
+import com.inccleo.tts.SynthesisResult;
+import com.inccleo.tts.TTSClient;
+import com.inccleo.tts.TTSConnectionPool;
+import com.inccleo.tts.TTSContext;
+import com.inccleo.tts.mock.MockTTSServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class JdkWebSocketTransportTest {
+
+    private MockTTSServer server;
+    private String url;
+    private Transport transport;
+    private final List<TTSClient> clients = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        assertTrue(Transports.isJdkWebSocketSupported());
+        server = new MockTTSServer(MockTTSServer.Options.defaults().withApiKey("key"));
+        url = server.startAndGetUrl();
+        transport = Transports.jdkWebSocket(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (TTSClient client : clients) {
+            client.disconnect();
+        }
+        server.shutdown();
+    }
+
+    private TTSClient newClient(String apiKey) {
+        TTSClient client = new TTSClient(url, apiKey, "voice");
+        client.setTransport(transport);
+        clients.add(client);
+        return client;
+    }
+
+    private static int countThreads(String prefix) {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testSynthesizesOverSharedTransport() throws Exception {
+        List<CompletableFuture<SynthesisResult>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TTSClient client = newClient("key");
+            client.connect(null);
+            results.add(client.synthesize("hello"));
+        }
+        for (CompletableFuture<SynthesisResult> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).getAudio().length > 0);
+        }
+        assertEquals(3, server.getConnectionCount());
+        assertTrue(transport.getName().startsWith("jdk-websocket"));
+    }
+
+    @Test
+    public void testThreadsDoNotGrowWithConnections() throws Exception {
+        newClient("key").connect(null);
+        int before = Thread.activeCount();
+        int transportBefore = countThreads("tts-transport-");
+
+        List<CompletableFuture<Void>> connects = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            connects.add(newClient("key").connectAsync(null));
+        }
+        CompletableFuture.allOf(connects.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        // 之前的用例创建的传输层线程可能尚未退出，只比较增量
+        assertTrue(countThreads("tts-transport-") - transportBefore <= 2);
+        // 服务端每条连接不新增线程，客户端只可能多出少量共享线程
+        assertTrue("thread growth: " + (Thread.activeCount() - before), Thread.activeCount() - before < 10);
+    }
+
+    @Test
+    public void testPoolUsesTransportForAllConnections() throws Exception {
+        TTSConnectionPool pool = new TTSConnectionPool(url, "key", "voice", 3, 3);
+        pool.setTransport(transport);
+        try {
+            pool.connect(null);
+            assertSame(transport, pool.getTransport());
+            assertTrue(pool.synthesize("pooled").get(5, TimeUnit.SECONDS).getAudio().length > 0);
+            assertEquals(3, server.getConnectionCount());
+        } finally {
+            pool.disconnect();
+        }
+    }
+
+    @Test
+    public void testSendsApiKeyHeader() throws Exception {
+        try {
+            newClient("wrong").connect(null);
+            fail("handshake with a wrong api-key must fail");
+        } catch (Exception e) {
+            // 期望
+        }
+    }
+
+    @Test
+    public void testPingAndServerClose() throws Exception {
+        TTSClient client = newClient("key");
+        client.setLivenessPolicy(LivenessPolicy.ping(50, 5));
+        client.connect(null);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.getLastPingRttMillis() < 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(client.getLastPingRttMillis() >= 0);
+
+        AtomicReference<String> error = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        TTSContext context = client.createContext("ctx");
+        context.onError((code, message) -> {
+            error.set(code);
+            failed.countDown();
+        });
+        server.shutdown();
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertTrue(error.get(), error.get().startsWith("CONNECTION_"));
+        assertFalse(client.isConnected());
+    }
+}